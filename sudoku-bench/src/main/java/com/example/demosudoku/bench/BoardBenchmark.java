@@ -0,0 +1,107 @@
+package com.example.demosudoku.bench;
+
+import com.example.demosudoku.model.board.Board;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link Board} operations the game calls on every keystroke and every new game:
+ * construction, {@link Board#fillBlocks}, {@link Board#isValid} and {@link Board#isComplete}.
+ * <p>
+ * Run with {@code java -jar sudoku-bench/target/benchmarks.jar BoardBenchmark -prof gc} to see the allocation rate
+ * next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param({"6", "9"})
+    public int size;
+
+    @Param({"33", "50"})
+    public int cluePercent;
+
+    private BoardGeometry geometry;
+    private SplittableRandom random;
+    private Board[] boards;
+    private Board filled;
+    private int[] filledCells;
+    private int next;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        geometry = BoardGeometry.of(size);
+        random = new SplittableRandom(42);
+        Puzzle[] puzzles = Puzzles.generate(size, cluePercent);
+        boards = new Board[puzzles.length];
+        for (int i = 0; i < puzzles.length; i++) {
+            boards[i] = new Board(puzzles[i]);
+        }
+
+        // fillBlocks places one number per block; remember where, so each call can start from an empty board.
+        filled = new Board(geometry, random);
+        filledCells = new int[geometry.getBlockCount()];
+        int count = 0;
+        for (int index = 0; index < geometry.getCellCount(); index++) {
+            if (filled.getCellValue(geometry.rowOf(index), geometry.colOf(index)) != 0) {
+                filledCells[count++] = index;
+            }
+        }
+    }
+
+    /** A new game's board: allocation of the grid, the constraint engine and the first {@code fillBlocks}. */
+    @Benchmark
+    public Board newBoard() {
+        return new Board(geometry, random);
+    }
+
+    /** Clears the numbers placed by the previous call and fills the blocks again. */
+    @Benchmark
+    public boolean fillBlocks() {
+        for (int i = 0; i < filledCells.length; i++) {
+            int index = filledCells[i];
+            filled.setCellValue(geometry.rowOf(index), geometry.colOf(index), 0);
+        }
+        boolean result = filled.fillBlocks(0);
+        int count = 0;
+        for (int index = 0; index < geometry.getCellCount() && count < filledCells.length; index++) {
+            if (filled.getCellValue(geometry.rowOf(index), geometry.colOf(index)) != 0) {
+                filledCells[count++] = index;
+            }
+        }
+        return result;
+    }
+
+    /** The rule check behind every typed number, cycling over cells, numbers and puzzles. */
+    @Benchmark
+    public boolean isValid() {
+        Board board = boards[next++ & (Puzzles.COUNT - 1)];
+        int cell = probe++ % geometry.getCellCount();
+        int number = probe % size + 1;
+        return board.isValid(geometry.rowOf(cell), geometry.colOf(cell), number);
+    }
+
+    /** The victory check run after every accepted number. */
+    @Benchmark
+    public boolean isComplete() {
+        return boards[next++ & (Puzzles.COUNT - 1)].isComplete();
+    }
+}
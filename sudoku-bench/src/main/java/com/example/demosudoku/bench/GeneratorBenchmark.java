@@ -0,0 +1,52 @@
+package com.example.demosudoku.bench;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generation of one unique-solution puzzle, from the complete grid to the last removed clue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+    @Param({"6", "9"})
+    public int size;
+
+    @Param({"33", "50"})
+    public int cluePercent;
+
+    private PuzzleGenerator generator;
+    private int clues;
+
+    @Setup
+    public void setUp() {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        generator = new PuzzleGenerator(geometry, new SplittableRandom(7));
+        clues = Puzzles.targetClues(geometry, cluePercent);
+    }
+
+    @Benchmark
+    public Puzzle generate() {
+        return generator.generate(clues, Difficulty.MEDIUM);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demosudoku.bench;
+
+import com.example.demosudoku.model.board.Board;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.solver.HintService;
+import com.example.demosudoku.model.solver.SolveStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the work done by the help button in {@code SudokuGameController.handleHelp}: asking the
+ * board's {@link HintService} for the next deduction. The controller itself needs a JavaFX toolkit, so
+ * the model call it makes is measured directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HintBenchmark {
+    @Param({"6", "9"})
+    public int size;
+
+    @Param({"33", "50"})
+    public int cluePercent;
+
+    private HintService[] services;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Puzzle[] puzzles = Puzzles.generate(size, cluePercent);
+        services = new HintService[puzzles.length];
+        for (int i = 0; i < puzzles.length; i++) {
+            services[i] = new HintService(new Board(puzzles[i]), puzzles[i]);
+        }
+    }
+
+    @Benchmark
+    public SolveStep hint() {
+        return services[next++ & (Puzzles.COUNT - 1)].nextHint();
+    }
+}
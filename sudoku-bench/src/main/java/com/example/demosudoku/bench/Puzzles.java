@@ -0,0 +1,49 @@
+package com.example.demosudoku.bench;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds the fixed puzzle sets the benchmarks iterate over.
+ * <p>
+ * Puzzles are generated from a constant seed, so every run and every fork measures the same inputs.
+ * The clue count is given as a percentage of the cells, so the same parameter is meaningful on every grid size.
+ */
+final class Puzzles {
+    /** How many puzzles each benchmark cycles through, so a single lucky grid does not dominate. */
+    static final int COUNT = 64;
+
+    private static final long SEED = 0x5EED_50D0_C0DEL;
+
+    private Puzzles() {
+    }
+
+    /**
+     * @param size        the board side (4, 6, 9, 12, 16 or 25)
+     * @param cluePercent the share of cells given as clues, from 0 to 100
+     * @return {@link #COUNT} unique-solution puzzles, always the same for the same arguments
+     */
+    static Puzzle[] generate(int size, int cluePercent) {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom(SEED));
+        int clues = targetClues(geometry, cluePercent);
+        Puzzle[] puzzles = new Puzzle[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            puzzles[i] = generator.generate(clues, Difficulty.MEDIUM);
+        }
+        return puzzles;
+    }
+
+    /**
+     * @param geometry    the board shape
+     * @param cluePercent the share of cells given as clues, from 0 to 100
+     * @return the clue count that share represents on the board
+     */
+    static int targetClues(BoardGeometry geometry, int cluePercent) {
+        return geometry.getCellCount() * cluePercent / 100;
+    }
+}
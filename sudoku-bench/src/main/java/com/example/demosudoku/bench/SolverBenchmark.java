@@ -0,0 +1,72 @@
+package com.example.demosudoku.bench;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.solver.DlxSolver;
+import com.example.demosudoku.model.solver.Grade;
+import com.example.demosudoku.model.solver.LogicSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the exact-cover solver and the technique solver on fixed puzzle sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+    @Param({"6", "9"})
+    public int size;
+
+    @Param({"33", "50"})
+    public int cluePercent;
+
+    private byte[][] grids;
+    private byte[] solution;
+    private DlxSolver dlx;
+    private LogicSolver logic;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Puzzle[] puzzles = Puzzles.generate(size, cluePercent);
+        grids = new byte[puzzles.length][];
+        for (int i = 0; i < puzzles.length; i++) {
+            grids[i] = puzzles[i].getGivens();
+        }
+        BoardGeometry geometry = BoardGeometry.of(size);
+        solution = new byte[geometry.getCellCount()];
+        dlx = new DlxSolver(geometry);
+        logic = new LogicSolver(geometry);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return dlx.solve(grids[next++ & (Puzzles.COUNT - 1)], solution);
+    }
+
+    /** The uniqueness check: counting stops at the second solution. */
+    @Benchmark
+    public int countSolutions() {
+        return dlx.countSolutions(grids[next++ & (Puzzles.COUNT - 1)], 2);
+    }
+
+    @Benchmark
+    public Grade grade() {
+        return logic.grade(grids[next++ & (Puzzles.COUNT - 1)]);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.demosudoku.cli;
+
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.bank.Canonicalizer;
+import com.example.demosudoku.model.bank.OffHeapLongSet;
+import com.example.demosudoku.model.bank.PuzzleBank;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.BatchGenerator;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.io.PuzzleWriter;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+
+/**
+ * Headless entry point that generates a bank of unique puzzles without starting JavaFX.
+ * <p>
+ * Usage: {@code GeneratorMain [--size N] [--count N] [--seed N] [--difficulty LEVEL] [--threads N] [--out FILE] [--bank FILE] [--dedupe SOURCE]}.
+ * Each puzzle is written on its own line, one symbol per cell in row order and {@code .} for
+ * empty cells, in the format read by {@link com.example.demosudoku.model.io.PuzzleReader}; an
+ * {@code --out} file whose name ends in {@code .gz} is gzip-compressed. Without {@code --out} the
+ * puzzles go to standard output; the summary always
+ * goes to standard error. With {@code --bank} the puzzles are appended to a {@link PuzzleBank}
+ * instead, which is created if it does not exist.
+ * <p>
+ * With {@code --dedupe SOURCE --bank FILE} nothing is generated: the puzzles of the bank SOURCE are
+ * copied to FILE in one pass, skipping every puzzle whose {@link Canonicalizer canonical form}
+ * was already seen, so relabelings, rotations and band or stack swaps of a kept puzzle are dropped.
+ */
+public class GeneratorMain {
+
+    /**
+     * Parses the arguments and runs the batch.
+     *
+     * @param args command line arguments.
+     * @throws IOException if the output file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int size = 9;
+        long count = 1000;
+        long seed = System.nanoTime();
+        Difficulty difficulty = Difficulty.MEDIUM;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        Path bank = null;
+        Path dedupe = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--count":
+                    count = Long.parseLong(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--difficulty":
+                    difficulty = Difficulty.valueOf(value.toUpperCase());
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    out = Path.of(value);
+                    break;
+                case "--bank":
+                    bank = Path.of(value);
+                    break;
+                case "--dedupe":
+                    dedupe = Path.of(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+                    return;
+            }
+        }
+
+        if (dedupe != null) {
+            if (bank == null) {
+                usage("--dedupe needs --bank for the deduplicated copy");
+                return;
+            }
+            copyDistinct(dedupe, bank);
+            return;
+        }
+
+        BoardGeometry geometry = BoardGeometry.of(size);
+        BatchGenerator generator = new BatchGenerator(geometry, threads);
+        long start = System.nanoTime();
+        try {
+            if (bank != null) {
+                appendToBank(generator, bank, geometry, seed, count, difficulty);
+            } else {
+                writeLines(generator, out, geometry, seed, count, difficulty);
+            }
+        } finally {
+            generator.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Generated %d %s puzzles (%s) with seed %d on %d threads in %.2f s (%.0f puzzles/s)%n",
+                count, difficulty, geometry, seed, threads, seconds, count / seconds);
+        if (MetricsRegistry.ENABLED) {
+            System.err.print(MetricsRegistry.getInstance().report());
+        }
+    }
+
+    /**
+     * Generates the batch as text lines, to a file (gzip-compressed if its name ends in {@code .gz})
+     * or to standard output.
+     */
+    private static void writeLines(BatchGenerator generator, Path out, BoardGeometry geometry,
+                                   long seed, long count, Difficulty difficulty) throws IOException {
+        try (PuzzleWriter writer = out != null
+                ? PuzzleWriter.create(out, geometry)
+                : new PuzzleWriter(Channels.newChannel(System.out), geometry)) {
+            IOException[] failure = new IOException[1];
+            generator.generate(seed, count, difficulty, puzzle -> {
+                if (failure[0] == null) {
+                    try {
+                        writer.write(puzzle);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+    }
+
+    /**
+     * Generates the batch into a puzzle bank.
+     */
+    private static void appendToBank(BatchGenerator generator, Path path, BoardGeometry geometry,
+                                     long seed, long count, Difficulty difficulty) throws IOException {
+        try (PuzzleBank bank = PuzzleBank.open(path, geometry)) {
+            IOException[] failure = new IOException[1];
+            generator.generate(seed, count, difficulty, puzzle -> {
+                if (failure[0] == null) {
+                    try {
+                        bank.append(puzzle);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+    }
+
+    /**
+     * Copies the puzzles of a bank that are not symmetric variants of an earlier one. Only the
+     * 64-bit canonical hashes are kept, in an off-heap set sized for the source bank.
+     */
+    private static void copyDistinct(Path sourcePath, Path targetPath) throws IOException {
+        long start = System.nanoTime();
+        try (PuzzleBank source = PuzzleBank.open(sourcePath);
+             PuzzleBank target = PuzzleBank.open(targetPath, source.getGeometry())) {
+            Canonicalizer canonicalizer = new Canonicalizer(source.getGeometry());
+            OffHeapLongSet seen = new OffHeapLongSet(source.size());
+            byte[] grid = new byte[source.getGeometry().getCellCount()];
+            for (int index = 0; index < source.size(); index++) {
+                source.readGivens(index, grid);
+                if (seen.add(canonicalizer.hash(grid))) {
+                    target.appendCopy(source, index);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("Kept %d of %d puzzles (%d duplicates) in %.2f s (%.0f puzzles/s, %d MB of hashes)%n",
+                    seen.size(), source.size(), source.size() - seen.size(), seconds, source.size() / seconds,
+                    seen.memoryBytes() >> 20);
+        }
+    }
+
+    /**
+     * Prints an error and the accepted options.
+     */
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: GeneratorMain [--size 4|6|9|12|16|25] [--count N] [--seed N]"
+                + " [--difficulty EASY|MEDIUM|HARD|EXPERT] [--threads N] [--out FILE] [--bank FILE] [--dedupe SOURCE]");
+        System.exit(2);
+    }
+}
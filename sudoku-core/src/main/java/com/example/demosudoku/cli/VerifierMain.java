@@ -0,0 +1,238 @@
+package com.example.demosudoku.cli;
+
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.io.PuzzleReader;
+import com.example.demosudoku.model.io.PuzzleWriter;
+import com.example.demosudoku.model.solver.DlxSolver;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Headless tool that counts the solutions of every puzzle in one or more puzzle files, to check
+ * that a bank only holds proper puzzles.
+ * <p>
+ * Usage: {@code VerifierMain [--size N] [--threads N] [--out FILE] FILE...}, where {@code -} reads
+ * standard input. Files are read with {@link PuzzleReader}, so they may be gzip-compressed. Every
+ * puzzle is written back on its own line followed by a space and its number of solutions, counted
+ * up to 2: {@code 0} for no solution, {@code 1} for a unique one and {@code 2} for several. The
+ * output goes to standard output or {@code --out}; the summary, with the throughput and the solve
+ * time percentiles, goes to standard error. The exit status is 1 if any puzzle is not unique or
+ * any line is malformed, since a bank with a line the game cannot read is not a proper bank either.
+ * <p>
+ * Puzzles are read in chunks of {@value #CHUNK_SIZE} while the previous chunk is solved, split into
+ * ranges on a {@link ForkJoinPool} so idle workers steal from busy ones, and solved by a
+ * {@link DlxSolver} kept by each worker thread.
+ */
+public class VerifierMain {
+    // Puzzles read into memory and solved together.
+    private static final int CHUNK_SIZE = 4096;
+    // Puzzles handed to one task before it stops splitting its range.
+    private static final int SPLIT_THRESHOLD = 16;
+    // Solutions counted at most; 2 is enough to tell a unique puzzle from an ambiguous one.
+    private static final int LIMIT = 2;
+    private static final String[] COUNT_LABELS = {"0", "1", "2"};
+
+    private final BoardGeometry geometry;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<DlxSolver> solvers;
+    private final ThreadLocal<byte[]> scratch;
+    private final Histogram latency = new MetricsRegistry().histogram("verify.nanos");
+    private final long[] totals = new long[LIMIT + 1];
+    private long malformed;
+
+    private VerifierMain(BoardGeometry geometry, int threads) {
+        this.geometry = geometry;
+        this.pool = new ForkJoinPool(threads);
+        this.solvers = ThreadLocal.withInitial(() -> new DlxSolver(geometry));
+        this.scratch = ThreadLocal.withInitial(() -> new byte[geometry.getCellCount()]);
+    }
+
+    /**
+     * Parses the arguments and verifies the files.
+     *
+     * @param args command line arguments.
+     * @throws IOException if a file cannot be read or the output cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int status = run(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Verifies the files named by the arguments without exiting the JVM.
+     *
+     * @param args command line arguments
+     * @return the exit status: 0 if every puzzle is unique and every line well formed, 1 otherwise,
+     * 2 for bad arguments
+     * @throws IOException if a file cannot be read or the output cannot be written
+     */
+    static int run(String[] args) throws IOException {
+        int size = 9;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        List<String> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (!option.startsWith("--")) {
+                inputs.add(option);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                return usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    out = Path.of(value);
+                    break;
+                default:
+                    return usage("Unknown option " + option);
+            }
+        }
+        if (inputs.isEmpty()) {
+            return usage("No puzzle file given");
+        }
+
+        BoardGeometry geometry = BoardGeometry.of(size);
+        VerifierMain verifier = new VerifierMain(geometry, threads);
+        long start = System.nanoTime();
+        try (PuzzleWriter writer = out != null
+                ? PuzzleWriter.create(out, geometry)
+                : new PuzzleWriter(Channels.newChannel(System.out), geometry)) {
+            for (String input : inputs) {
+                try (PuzzleReader reader = input.equals("-")
+                        ? new PuzzleReader(Channels.newChannel(System.in), geometry)
+                        : PuzzleReader.open(Path.of(input), geometry)) {
+                    verifier.verify(reader, writer);
+                    if (reader.getMalformedCount() > 0) {
+                        System.err.printf("%s: %d malformed lines, the first at line %d%n",
+                                input, reader.getMalformedCount(), reader.getFirstMalformedLine());
+                    }
+                }
+            }
+        } finally {
+            verifier.pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] totals = verifier.totals;
+        long puzzles = totals[0] + totals[1] + totals[2];
+        System.err.printf("Verified %d puzzles (%s) on %d threads in %.2f s (%.0f puzzles/s): "
+                        + "%d unique, %d without solution, %d with several, %d malformed lines%n",
+                puzzles, geometry, threads, seconds, puzzles / seconds, totals[1], totals[0], totals[2],
+                verifier.malformed);
+        System.err.println("Solve time (us): " + verifier.latency.summary(1000));
+        return totals[0] + totals[2] + verifier.malformed > 0 ? 1 : 0;
+    }
+
+    /**
+     * Solves the puzzles of one reader chunk by chunk, reading the next chunk while the current
+     * one is solved, and writes them with their counts in input order.
+     */
+    private void verify(PuzzleReader reader, PuzzleWriter writer) throws IOException {
+        Chunk current = new Chunk(geometry.getCellCount());
+        Chunk next = new Chunk(geometry.getCellCount());
+        current.fill(reader);
+        while (current.length > 0) {
+            ForkJoinTask<Void> solving = pool.submit(new CountTask(current, 0, current.length));
+            next.fill(reader);
+            solving.join();
+            current.writeTo(writer, totals);
+            Chunk solved = current;
+            current = next;
+            next = solved;
+        }
+        malformed += reader.getMalformedCount();
+    }
+
+    /**
+     * Puzzles read together, stored back to back in one array, and their solution counts.
+     */
+    private static final class Chunk {
+        private final int cellCount;
+        private final byte[] grids;
+        private final byte[] counts = new byte[CHUNK_SIZE];
+        private int length;
+
+        Chunk(int cellCount) {
+            this.cellCount = cellCount;
+            this.grids = new byte[CHUNK_SIZE * cellCount];
+        }
+
+        void fill(PuzzleReader reader) throws IOException {
+            length = 0;
+            while (length < CHUNK_SIZE && reader.next(grids, length * cellCount)) {
+                length++;
+            }
+        }
+
+        void writeTo(PuzzleWriter writer, long[] totals) throws IOException {
+            for (int i = 0; i < length; i++) {
+                writer.write(grids, i * cellCount, COUNT_LABELS[counts[i]]);
+                totals[counts[i]]++;
+            }
+        }
+    }
+
+    /**
+     * Counts the solutions of a range of a chunk, splitting it in halves until it is small enough.
+     */
+    private class CountTask extends RecursiveAction {
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        CountTask(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                DlxSolver solver = solvers.get();
+                // The solver needs the grid at index 0; it does not modify it, so one copy per thread is reused.
+                byte[] grid = scratch.get();
+                int cellCount = chunk.cellCount;
+                for (int i = from; i < to; i++) {
+                    System.arraycopy(chunk.grids, i * cellCount, grid, 0, cellCount);
+                    long started = System.nanoTime();
+                    chunk.counts[i] = (byte) solver.countSolutions(grid, LIMIT);
+                    latency.recordSince(started);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CountTask(chunk, from, middle), new CountTask(chunk, middle, to));
+        }
+    }
+
+    /**
+     * Prints an error and the accepted options.
+     *
+     * @return the exit status for bad arguments
+     */
+    private static int usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: VerifierMain [--size 4|6|9|12|16|25] [--threads N] [--out FILE] FILE|- ...");
+        return 2;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demosudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the backtracking fill of a new board, one number per block.
+ */
+@Name("com.example.demosudoku.BoardFill")
+@Label("Board Fill")
+@Category("Sudoku")
+@Description("Backtracking fill of the blocks of a new board")
+@StackTrace(false)
+public class BoardFillEvent extends Event {
+    @Label("Board Size")
+    public int size;
+
+    @Label("Calls")
+    public long calls;
+
+    @Label("Backtracks")
+    public long backtracks;
+
+    @Label("Max Depth")
+    @Description("Deepest block reached by the search")
+    public int maxDepth;
+
+    @Label("Success")
+    public boolean success;
+}
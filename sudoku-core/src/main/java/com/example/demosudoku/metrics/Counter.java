@@ -0,0 +1,56 @@
+package com.example.demosudoku.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named counter that many threads can increment without contention.
+ * <p>
+ * Call sites guard their updates with {@link MetricsRegistry#ENABLED}, so a disabled counter
+ * is never touched on a hot path.
+ */
+public final class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /** @return the name the counter is registered under */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds an amount to the counter.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /** @return the current total */
+    public long sum() {
+        return value.sum();
+    }
+
+    /**
+     * Sets the counter back to zero. Increments made at the same time may be lost.
+     */
+    public void reset() {
+        value.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + sum();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demosudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the generation of one unique-solution puzzle. Many rejected removals mean the
+ * generator had to try many cells before reaching the target number of clues.
+ */
+@Name("com.example.demosudoku.Generation")
+@Label("Puzzle Generation")
+@Category("Sudoku")
+@Description("Generation of a puzzle with a unique solution")
+@StackTrace(false)
+public class GenerationEvent extends Event {
+    @Label("Board Size")
+    public int size;
+
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Clues")
+    public int clues;
+
+    @Label("Target Clues")
+    public int targetClues;
+
+    @Label("Rejected Removals")
+    @Description("Clues that could not be removed without losing uniqueness")
+    public int rejectedRemovals;
+}
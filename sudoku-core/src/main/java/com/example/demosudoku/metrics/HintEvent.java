@@ -0,0 +1,31 @@
+package com.example.demosudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one hint search, which applies deductions until one of them places a number.
+ */
+@Name("com.example.demosudoku.Hint")
+@Label("Hint")
+@Category("Sudoku")
+@Description("Search for the next number that can be deduced")
+@StackTrace(false)
+public class HintEvent extends Event {
+    @Label("Board Size")
+    public int size;
+
+    @Label("Steps")
+    @Description("Deductions applied, including the one that placed the number")
+    public int steps;
+
+    @Label("Technique")
+    public String technique;
+
+    @Label("Found")
+    public boolean found;
+}
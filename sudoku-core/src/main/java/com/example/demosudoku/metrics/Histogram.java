@@ -0,0 +1,155 @@
+package com.example.demosudoku.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values, such as latencies in nanoseconds or search depths.
+ * <p>
+ * Buckets are laid out like an HDR histogram: values below {@value #SUB_BUCKETS} have a bucket
+ * each, and every higher power-of-two range is split into {@value #SUB_BUCKETS} equal buckets.
+ * Any value from 0 to {@link Long#MAX_VALUE} is therefore counted with a relative error of at
+ * most 1/{@value #SUB_BUCKETS} (about 3%) in a fixed array, and recording is one atomic add
+ * with no allocation. The exact count, total and maximum are kept besides the buckets.
+ */
+public final class Histogram {
+    /** Buckets per power of two, which sets the precision. */
+    public static final int SUB_BUCKETS = 32;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    /** @return the name the histogram is registered under */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one value. Negative values are counted as zero.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(v));
+        count.increment();
+        total.add(v);
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     *
+     * @param startNanos the reading taken when the measured work started
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        int mantissa = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Returns the largest value counted in a bucket.
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long mantissa = SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /** @return how many values were recorded */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /** @return the largest value recorded, or 0 */
+    public long getMax() {
+        return max.get();
+    }
+
+    /** @return the average of the recorded values, or 0 */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Returns a percentile of the recorded values, read from the buckets while other threads
+     * may still be recording.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the highest value of the bucket holding that percentile, capped by the maximum, or 0 if empty
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long n = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears the histogram. Values recorded at the same time may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * Summarizes the histogram, scaling values by a divisor, for example 1000 to show nanoseconds as microseconds.
+     *
+     * @param divisor the number every value is divided by
+     * @return count, mean, p50, p90, p99 and max
+     */
+    public String summary(double divisor) {
+        return String.format("count=%d mean=%.1f p50=%.1f p90=%.1f p99=%.1f max=%.1f",
+                getCount(), getMean() / divisor, getPercentile(50) / divisor, getPercentile(90) / divisor,
+                getPercentile(99) / divisor, getMax() / divisor);
+    }
+
+    @Override
+    public String toString() {
+        return name + "[" + summary(1) + "]";
+    }
+}
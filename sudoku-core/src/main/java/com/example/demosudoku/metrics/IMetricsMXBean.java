@@ -0,0 +1,30 @@
+package com.example.demosudoku.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the {@link MetricsRegistry}, registered as
+ * {@value MetricsRegistry#OBJECT_NAME} when metrics are enabled.
+ */
+public interface IMetricsMXBean {
+    /** @return whether the instrumented code records metrics */
+    boolean isEnabled();
+
+    /** @return the total of every counter, by name */
+    Map<String, Long> getCounters();
+
+    /** @return a summary of every histogram (count, mean, p50, p90, p99, max), by name */
+    Map<String, String> getHistograms();
+
+    /**
+     * @param name       the histogram name
+     * @param percentile the percentile, from 0 to 100
+     * @return the value at that percentile, or -1 if there is no such histogram
+     */
+    long getPercentile(String name, double percentile);
+
+    /**
+     * Sets every counter and histogram back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,142 @@
+package com.example.demosudoku.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named counters and histograms for the engine's hot paths.
+ * <p>
+ * Metrics are off unless the JVM is started with {@code -D}{@value #ENABLED_PROPERTY}{@code =true}.
+ * Instrumented code checks {@link #ENABLED}, a constant the JIT folds away, and holds its
+ * counters and histograms in static fields, so a disabled metric costs nothing and an enabled
+ * one costs a lock-free add. When enabled, the shared registry is published over JMX as
+ * {@value #OBJECT_NAME}.
+ * <p>
+ * Slow or unusual operations are also reported as JFR events ({@link GenerationEvent},
+ * {@link BoardFillEvent}, {@link HintEvent}), which JFR records only while a recording enables them.
+ */
+public class MetricsRegistry implements IMetricsMXBean {
+    /** System property that turns metrics on. */
+    public static final String ENABLED_PROPERTY = "sudoku.metrics";
+    /** Whether metrics are recorded, fixed when the class is loaded. */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    /** JMX name of the shared registry. */
+    public static final String OBJECT_NAME = "com.example.demosudoku:type=Metrics";
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty registry, independent of the shared one.
+     */
+    public MetricsRegistry() {
+    }
+
+    /**
+     * Inner static class to hold the shared instance (lazy initialization).
+     */
+    private static class Holder {
+        private static final MetricsRegistry INSTANCE = create();
+
+        private static MetricsRegistry create() {
+            MetricsRegistry registry = new MetricsRegistry();
+            if (ENABLED) {
+                registry.registerMBean();
+            }
+            return registry;
+        }
+    }
+
+    /**
+     * @return the registry shared by the whole application
+     */
+    public static MetricsRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the counter with a name, creating it on first use.
+     *
+     * @param name the counter name, such as {@code board.isValid}
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Returns the histogram with a name, creating it on first use.
+     *
+     * @param name the histogram name; latencies end in {@code .nanos} by convention
+     * @return the histogram
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * Publishes this registry on the platform MBean server. A registry already published under
+     * the name is left in place.
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Published by an earlier call.
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> totals = new TreeMap<>();
+        counters.forEach((name, counter) -> totals.put(name, counter.sum()));
+        return totals;
+    }
+
+    @Override
+    public Map<String, String> getHistograms() {
+        Map<String, String> summaries = new TreeMap<>();
+        histograms.forEach((name, histogram) -> summaries.put(name, histogram.summary(1)));
+        return summaries;
+    }
+
+    @Override
+    public long getPercentile(String name, double percentile) {
+        Histogram histogram = histograms.get(name);
+        return histogram == null ? -1 : histogram.getPercentile(percentile);
+    }
+
+    @Override
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Lists every metric, one per line, with latencies in microseconds.
+     *
+     * @return the report
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        getCounters().forEach((name, total) -> report.append(name).append(' ').append(total).append('\n'));
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            boolean nanos = name.endsWith(".nanos");
+            String label = nanos ? name.substring(0, name.length() - ".nanos".length()) + ".micros" : name;
+            report.append(label).append(' ').append(histogram.summary(nanos ? 1000 : 1)).append('\n');
+        });
+        return report.toString();
+    }
+}
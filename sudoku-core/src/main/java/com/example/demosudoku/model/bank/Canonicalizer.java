@@ -0,0 +1,381 @@
+package com.example.demosudoku.model.bank;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps a grid to a canonical representative of its symmetry class, and hashes that form, so that
+ * puzzles which are only relabelings or rearrangements of each other can be recognized.
+ * <p>
+ * The symmetries that keep a grid valid for a block shape are: relabeling the numbers, permuting
+ * the bands (rows of blocks), the rows inside each band, the stacks (columns of blocks) and the
+ * columns inside each stack, and, only when blocks are square, transposing the grid. Rotations
+ * and reflections are combinations of these.
+ * <p>
+ * Trying every symmetry is out of reach (already 3,359,232 arrangements on a 9x9 board), so the
+ * search is narrowed by invariants first. Rows, columns, numbers, bands and stacks get colors from
+ * a few rounds of refinement, each color summarizing the colors of what an item shares clues with.
+ * Colors do not depend on how the grid is arranged, so every grid of a class agrees on them. Only
+ * arrangements that list bands, rows, stacks and columns in color order are considered, items of
+ * equal color in every order, and numbers are relabeled in order of first appearance. The canonical
+ * form is the smallest of those grids in row order, with empty cells lowest.
+ * <p>
+ * Most puzzles leave few ties, and the search tries one or a handful of arrangements. Grids with
+ * many symmetries, such as nearly empty ones, can tie almost everything; the search then stops
+ * after {@value #MAX_ARRANGEMENTS} arrangements per orientation, which keeps the result
+ * deterministic but may split such a class in several forms.
+ * <p>
+ * An instance keeps scratch state between calls and must not be shared between threads.
+ */
+public class Canonicalizer {
+    /** The most arrangements compared for one orientation of a grid. */
+    public static final int MAX_ARRANGEMENTS = 1 << 16;
+
+    private static final int REFINEMENT_ROUNDS = 3;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int blockRows;
+    private final int blockCols;
+    private final boolean transposable;
+
+    // The grid in the orientation being searched.
+    private final byte[] oriented;
+    // Colors of rows, columns, numbers (indexed 1..size), bands and stacks.
+    private final long[] rowColors;
+    private final long[] colColors;
+    private final long[] digitColors;
+    private final long[] bandColors;
+    private final long[] stackColors;
+    private final long[] nextRowColors;
+    private final long[] nextColColors;
+    private final long[] nextDigitColors;
+    private final long[] scratch;
+
+    // The best grid found so far and the grid being built.
+    private final byte[] best;
+    private final byte[] candidate;
+    private boolean hasBest;
+    private final int[] labels;
+
+    /**
+     * Creates a canonicalizer for grids of the given shape.
+     *
+     * @param geometry the size and block shape of the grids
+     */
+    public Canonicalizer(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.blockRows = geometry.getBlockRows();
+        this.blockCols = geometry.getBlockCols();
+        this.transposable = blockRows == blockCols;
+        this.oriented = new byte[cellCount];
+        this.rowColors = new long[size];
+        this.colColors = new long[size];
+        this.digitColors = new long[size + 1];
+        this.bandColors = new long[size / blockRows];
+        this.stackColors = new long[size / blockCols];
+        this.nextRowColors = new long[size];
+        this.nextColColors = new long[size];
+        this.nextDigitColors = new long[size + 1];
+        this.scratch = new long[cellCount];
+        this.best = new byte[cellCount];
+        this.candidate = new byte[cellCount];
+        this.labels = new int[size + 1];
+    }
+
+    /** @return the shape of the grids this canonicalizer handles */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Computes the canonical form of a grid.
+     *
+     * @param grid the grid in row order, {@code 0} for empty cells; it is not modified
+     * @param out  receives the canonical form; may not be {@code grid}
+     */
+    public void canonicalize(byte[] grid, byte[] out) {
+        hasBest = false;
+        System.arraycopy(grid, 0, oriented, 0, cellCount);
+        search();
+        if (transposable) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    oriented[col * size + row] = grid[row * size + col];
+                }
+            }
+            search();
+        }
+        System.arraycopy(best, 0, out, 0, cellCount);
+    }
+
+    /**
+     * Computes the 64-bit hash of a grid's canonical form. Grids of the same symmetry class get
+     * the same hash.
+     *
+     * @param grid the grid in row order, {@code 0} for empty cells; it is not modified
+     * @return the canonical hash
+     */
+    public long hash(byte[] grid) {
+        canonicalize(grid, candidate);
+        return hashCanonical(candidate, cellCount);
+    }
+
+    /**
+     * Hashes a grid that is already in canonical form.
+     *
+     * @param canonical the canonical form
+     * @param cellCount the number of cells to hash
+     * @return the hash
+     */
+    public static long hashCanonical(byte[] canonical, int cellCount) {
+        long hash = FNV_OFFSET ^ cellCount;
+        for (int i = 0; i < cellCount; i++) {
+            hash = (hash ^ canonical[i]) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Refines the colors of the current orientation and compares every arrangement in color order.
+     */
+    private void search() {
+        refine();
+        List<int[]> rowOrders = orders(rowColors, bandColors, blockRows);
+        List<int[]> colOrders = orders(colColors, stackColors, blockCols);
+        int budget = MAX_ARRANGEMENTS;
+        for (int[] rowOrder : rowOrders) {
+            for (int[] colOrder : colOrders) {
+                if (budget-- == 0) {
+                    return;
+                }
+                compare(rowOrder, colOrder);
+            }
+        }
+    }
+
+    /**
+     * Builds the grid of one arrangement, relabeling numbers by first appearance, and keeps it if it
+     * is smaller than the best so far. The comparison stops at the first larger cell.
+     */
+    private void compare(int[] rowOrder, int[] colOrder) {
+        Arrays.fill(labels, 0);
+        int nextLabel = 1;
+        boolean smaller = !hasBest;
+        int k = 0;
+        for (int row = 0; row < size; row++) {
+            int base = rowOrder[row] * size;
+            for (int col = 0; col < size; col++, k++) {
+                int value = oriented[base + colOrder[col]];
+                if (value != 0) {
+                    if (labels[value] == 0) {
+                        labels[value] = nextLabel++;
+                    }
+                    value = labels[value];
+                }
+                if (!smaller) {
+                    if (value > best[k]) {
+                        return;
+                    }
+                    smaller = value < best[k];
+                }
+                candidate[k] = (byte) value;
+            }
+        }
+        if (smaller) {
+            System.arraycopy(candidate, 0, best, 0, cellCount);
+            hasBest = true;
+        }
+    }
+
+    /**
+     * Colors rows, columns, numbers, bands and stacks. Each round recolors an item with its own color
+     * and the sorted colors of the items it meets in a clue.
+     */
+    private void refine() {
+        Arrays.fill(rowColors, 0);
+        Arrays.fill(colColors, 0);
+        Arrays.fill(digitColors, 0);
+        Arrays.fill(bandColors, 0);
+        Arrays.fill(stackColors, 0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = oriented[cell];
+            if (value != 0) {
+                rowColors[cell / size]++;
+                colColors[cell % size]++;
+                digitColors[value]++;
+            }
+        }
+        groupColors(rowColors, bandColors, blockRows);
+        groupColors(colColors, stackColors, blockCols);
+
+        for (int round = 0; round < REFINEMENT_ROUNDS; round++) {
+            for (int row = 0; row < size; row++) {
+                int n = 0;
+                for (int col = 0; col < size; col++) {
+                    int value = oriented[row * size + col];
+                    if (value != 0) {
+                        scratch[n++] = mix(colColors[col] * 31 + digitColors[value] * 17 + stackColors[col / blockCols]);
+                    }
+                }
+                nextRowColors[row] = combine(rowColors[row] * 31 + bandColors[row / blockRows], n);
+            }
+            for (int col = 0; col < size; col++) {
+                int n = 0;
+                for (int row = 0; row < size; row++) {
+                    int value = oriented[row * size + col];
+                    if (value != 0) {
+                        scratch[n++] = mix(rowColors[row] * 31 + digitColors[value] * 17 + bandColors[row / blockRows]);
+                    }
+                }
+                nextColColors[col] = combine(colColors[col] * 31 + stackColors[col / blockCols], n);
+            }
+            for (int digit = 1; digit <= size; digit++) {
+                int n = 0;
+                for (int cell = 0; cell < cellCount; cell++) {
+                    if (oriented[cell] == digit) {
+                        scratch[n++] = mix(rowColors[cell / size] * 31 + colColors[cell % size]);
+                    }
+                }
+                nextDigitColors[digit] = combine(digitColors[digit], n);
+            }
+            System.arraycopy(nextRowColors, 0, rowColors, 0, size);
+            System.arraycopy(nextColColors, 0, colColors, 0, size);
+            System.arraycopy(nextDigitColors, 0, digitColors, 0, size + 1);
+            groupColors(rowColors, bandColors, blockRows);
+            groupColors(colColors, stackColors, blockCols);
+        }
+    }
+
+    /**
+     * Colors each band (or stack) with the sorted colors of its rows (or columns).
+     */
+    private void groupColors(long[] lineColors, long[] groupColors, int linesPerGroup) {
+        for (int group = 0; group < groupColors.length; group++) {
+            System.arraycopy(lineColors, group * linesPerGroup, scratch, 0, linesPerGroup);
+            groupColors[group] = combine(groupColors[group], linesPerGroup);
+        }
+    }
+
+    /**
+     * Folds a seed and the first {@code n} values of the scratch array, sorted, into one color.
+     */
+    private long combine(long seed, int n) {
+        Arrays.sort(scratch, 0, n);
+        long hash = mix(seed ^ n);
+        for (int i = 0; i < n; i++) {
+            hash = mix(hash * 31 + scratch[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Lists the line orders to try: groups in color order, lines of each group in color order,
+     * and every permutation of equal colors, up to {@value #MAX_ARRANGEMENTS} orders.
+     */
+    private static List<int[]> orders(long[] lineColors, long[] groupColors, int linesPerGroup) {
+        int groupCount = groupColors.length;
+        List<int[]> groupOrders = permutations(sortedIndexes(groupColors, 0, groupCount), groupColors, 0);
+        List<List<int[]>> lineOrders = new ArrayList<>(groupCount);
+        for (int group = 0; group < groupCount; group++) {
+            lineOrders.add(permutations(sortedIndexes(lineColors, group * linesPerGroup, linesPerGroup),
+                    lineColors, 0));
+        }
+
+        List<int[]> orders = new ArrayList<>();
+        int[] order = new int[groupCount * linesPerGroup];
+        for (int[] groupOrder : groupOrders) {
+            if (!expand(groupOrder, lineOrders, 0, order, linesPerGroup, orders)) {
+                break;
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Fills the lines of the groups from position {@code slot} on with every combination of line orders.
+     *
+     * @return false once the limit of orders is reached
+     */
+    private static boolean expand(int[] groupOrder, List<List<int[]>> lineOrders, int slot, int[] order,
+                                  int linesPerGroup, List<int[]> orders) {
+        if (slot == groupOrder.length) {
+            orders.add(order.clone());
+            return orders.size() < MAX_ARRANGEMENTS;
+        }
+        for (int[] lines : lineOrders.get(groupOrder[slot])) {
+            System.arraycopy(lines, 0, order, slot * linesPerGroup, linesPerGroup);
+            if (!expand(groupOrder, lineOrders, slot + 1, order, linesPerGroup, orders)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the indexes {@code from..from+count-1} sorted by color.
+     */
+    private static int[] sortedIndexes(long[] colors, int from, int count) {
+        Integer[] boxed = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            boxed[i] = from + i;
+        }
+        Arrays.sort(boxed, (a, b) -> Long.compare(colors[a], colors[b]));
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = boxed[i];
+        }
+        return indexes;
+    }
+
+    /**
+     * Lists every order of sorted indexes obtained by permuting runs of equal color, starting at {@code start}.
+     */
+    private static List<int[]> permutations(int[] sorted, long[] colors, int start) {
+        List<int[]> result = new ArrayList<>();
+        permute(sorted.clone(), colors, start, result);
+        return result;
+    }
+
+    private static void permute(int[] items, long[] colors, int position, List<int[]> result) {
+        if (result.size() >= MAX_ARRANGEMENTS) {
+            return;
+        }
+        if (position == items.length) {
+            result.add(items.clone());
+            return;
+        }
+        int runEnd = position;
+        while (runEnd + 1 < items.length && colors[items[runEnd + 1]] == colors[items[position]]) {
+            runEnd++;
+        }
+        for (int i = position; i <= runEnd; i++) {
+            swap(items, position, i);
+            permute(items, colors, position + 1, result);
+            swap(items, position, i);
+        }
+    }
+
+    private static void swap(int[] items, int i, int j) {
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+
+    /**
+     * Scrambles the bits of a value (the SplitMix64 finalizer).
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demosudoku.model.bank;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A set of {@code long} keys stored outside the Java heap, sized once for an expected number of
+ * keys, for example the canonical hashes of every puzzle in a large bank.
+ * <p>
+ * Keys live in an open-addressing table with linear probing, held in direct buffers of at most
+ * {@value #SEGMENT_SLOTS} slots each, so tables larger than 2 GB are possible and the garbage
+ * collector never scans them. The capacity is fixed: memory stays at {@link #memoryBytes()}
+ * whatever is added, and adding past {@link #maxSize()} keys fails. Slot value {@code 0} marks an
+ * empty slot; the key {@code 0} itself is tracked apart.
+ * <p>
+ * The set is not thread-safe.
+ */
+public class OffHeapLongSet {
+    /** Slots per direct buffer: 1 GB of keys. */
+    public static final int SEGMENT_SLOTS = 1 << 27;
+    /** Highest fraction of slots that may be used, which keeps probe sequences short. */
+    public static final double MAX_LOAD = 0.75;
+
+    private final ByteBuffer[] segments;
+    private final long capacity;
+    private final long mask;
+    private final long maxSize;
+    private long size;
+    private boolean containsZero;
+
+    /**
+     * Creates an empty set with room for at least the expected number of keys.
+     *
+     * @param expectedKeys the most keys the set must hold
+     */
+    public OffHeapLongSet(long expectedKeys) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Negative key count: " + expectedKeys);
+        }
+        long slots = Math.max(16, (long) Math.ceil(expectedKeys / MAX_LOAD));
+        long capacity = Long.highestOneBit(slots - 1) << 1;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxSize = (long) (capacity * MAX_LOAD);
+        int segmentCount = (int) ((capacity + SEGMENT_SLOTS - 1) / SEGMENT_SLOTS);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int slotsInSegment = (int) Math.min(SEGMENT_SLOTS, capacity - (long) i * SEGMENT_SLOTS);
+            segments[i] = ByteBuffer.allocateDirect(slotsInSegment * Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key
+     * @return {@code true} if the key was not in the set
+     * @throws IllegalStateException if the set is full
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) {
+                return false;
+            }
+            checkRoom();
+            containsZero = true;
+            size++;
+            return true;
+        }
+        long slot = Canonicalizer.mix(key) & mask;
+        while (true) {
+            long stored = get(slot);
+            if (stored == key) {
+                return false;
+            }
+            if (stored == 0) {
+                checkRoom();
+                put(slot, key);
+                size++;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return {@code true} if the key is in the set
+     */
+    public boolean contains(long key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        long slot = Canonicalizer.mix(key) & mask;
+        while (true) {
+            long stored = get(slot);
+            if (stored == key) {
+                return true;
+            }
+            if (stored == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void checkRoom() {
+        if (size >= maxSize) {
+            throw new IllegalStateException("Set is full: " + size + " keys");
+        }
+    }
+
+    private long get(long slot) {
+        return segments[(int) (slot / SEGMENT_SLOTS)].getLong((int) (slot % SEGMENT_SLOTS) * Long.BYTES);
+    }
+
+    private void put(long slot, long key) {
+        segments[(int) (slot / SEGMENT_SLOTS)].putLong((int) (slot % SEGMENT_SLOTS) * Long.BYTES, key);
+    }
+
+    /** @return the number of keys in the set */
+    public long size() {
+        return size;
+    }
+
+    /** @return the most keys the set can hold */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    /** @return the bytes of native memory held by the table */
+    public long memoryBytes() {
+        return capacity * Long.BYTES;
+    }
+}
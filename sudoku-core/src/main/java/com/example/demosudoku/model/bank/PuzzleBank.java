@@ -0,0 +1,478 @@
+package com.example.demosudoku.model.bank;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.PackedGrid;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleId;
+import com.example.demosudoku.model.solver.DlxSolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Append-only file of puzzles for one board shape, read and written through memory-mapped buffers.
+ * <p>
+ * The file starts with a {@value #FILE_HEADER_BYTES}-byte header (magic, version, board shape,
+ * cell width, record size and record count) followed by fixed-size records. Each record holds
+ * a {@value #RECORD_HEADER_BYTES}-byte header (seed, difficulty, clue count, flags and the
+ * checksum of the solution) and the clues {@link PackedGrid packed} at 4 bits per cell, or 8 bits per cell on
+ * boards of 16 and more, where the numbers no longer fit in a nibble. A 9x9 record takes 57 bytes.
+ * <p>
+ * Only the clues are stored. {@link #get} rebuilds the solution with the exact-cover solver and
+ * checks it against the stored checksum. The fields of a record and its clues can be read by index
+ * without allocating ({@link #readGivens}, {@link #getSeed}, ...). An index of the records of
+ * every difficulty is built when the bank is opened, so {@link #draw} picks a puzzle in constant time.
+ * <p>
+ * The record count in the file header is written after the record itself, so a crash during an
+ * append loses at most that record. Reads by index are safe from any thread; appends and draws are
+ * serialized on the bank.
+ */
+public class PuzzleBank implements Closeable {
+    /** Bytes of the file header, before the first record. */
+    public static final int FILE_HEADER_BYTES = 64;
+    /** Bytes of the header of every record, before its packed clues. */
+    public static final int RECORD_HEADER_BYTES = 16;
+
+    private static final int MAGIC = 0x53444B42; // "SDKB"
+    private static final short VERSION = 1;
+    // Upper bound on the bytes of one mapped segment; records never straddle two segments.
+    private static final int SEGMENT_BYTES = 64 << 20;
+
+    // File header offsets.
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SIZE_OFFSET = 6;
+    private static final int BLOCK_ROWS_OFFSET = 7;
+    private static final int BLOCK_COLS_OFFSET = 8;
+    private static final int BITS_OFFSET = 9;
+    private static final int RECORD_SIZE_OFFSET = 10;
+    private static final int COUNT_OFFSET = 16;
+
+    // Record header offsets.
+    private static final int SEED_OFFSET = 0;
+    private static final int CHECKSUM_OFFSET = 8;
+    private static final int CLUES_OFFSET = 12;
+    private static final int DIFFICULTY_OFFSET = 14;
+    private static final int FLAGS_OFFSET = 15;
+    private static final int FLAG_HAS_ID = 1;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final BoardGeometry geometry;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final boolean standardGeometry;
+
+    private volatile MappedByteBuffer[] segments;
+    private volatile int count;
+
+    // Record indexes of every difficulty, guarded by this.
+    private final int[][] byDifficulty;
+    private final int[] difficultyCounts;
+
+    // Scratch state of get(), guarded by the solver.
+    private final DlxSolver solver;
+    private final byte[] scratchGivens;
+    private final byte[] scratchSolution;
+
+    private PuzzleBank(BoardGeometry geometry, FileChannel channel, MappedByteBuffer header, int count) {
+        this.geometry = geometry;
+        this.channel = channel;
+        this.header = header;
+        this.recordSize = recordSize(geometry);
+        this.recordsPerSegment = Math.max(1, SEGMENT_BYTES / recordSize);
+        this.standardGeometry = geometry.isStandard();
+        this.segments = new MappedByteBuffer[0];
+        this.byDifficulty = new int[DIFFICULTIES.length][16];
+        this.difficultyCounts = new int[DIFFICULTIES.length];
+        this.solver = new DlxSolver(geometry);
+        this.scratchGivens = new byte[geometry.getCellCount()];
+        this.scratchSolution = new byte[geometry.getCellCount()];
+        this.count = count;
+    }
+
+    /**
+     * Opens a bank, creating an empty one for the given shape if the file does not exist.
+     *
+     * @param path     the bank file
+     * @param geometry the size and block shape of the puzzles it holds
+     * @return the open bank
+     * @throws IOException if the file cannot be opened, or it holds puzzles of another shape
+     */
+    public static PuzzleBank open(Path path, BoardGeometry geometry) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return create(path, geometry);
+        }
+        PuzzleBank bank = open(path);
+        if (bank.geometry.getSize() != geometry.getSize()
+                || bank.geometry.getBlockRows() != geometry.getBlockRows()
+                || bank.geometry.getBlockCols() != geometry.getBlockCols()) {
+            bank.close();
+            throw new IOException("Bank " + path + " holds " + bank.geometry + " puzzles, not " + geometry);
+        }
+        return bank;
+    }
+
+    /**
+     * Opens an existing bank. The board shape is read from its header.
+     *
+     * @param path the bank file
+     * @return the open bank
+     * @throws IOException if the file cannot be opened or is not a puzzle bank
+     */
+    public static PuzzleBank open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < FILE_HEADER_BYTES) {
+                throw new IOException("Not a puzzle bank: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_BYTES);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a puzzle bank: " + path);
+            }
+            if (header.getShort(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported puzzle bank version " + header.getShort(VERSION_OFFSET) + ": " + path);
+            }
+            BoardGeometry geometry;
+            try {
+                geometry = BoardGeometry.of(header.get(SIZE_OFFSET), header.get(BLOCK_ROWS_OFFSET), header.get(BLOCK_COLS_OFFSET));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt puzzle bank header: " + path, e);
+            }
+            if (header.get(BITS_OFFSET) != PackedGrid.bitsPerCell(geometry) || header.getShort(RECORD_SIZE_OFFSET) != recordSize(geometry)) {
+                throw new IOException("Corrupt puzzle bank header: " + path);
+            }
+            long stored = header.getLong(COUNT_OFFSET);
+            long available = (channel.size() - FILE_HEADER_BYTES) / recordSize(geometry);
+            if (stored < 0 || stored > available || stored > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt puzzle bank record count " + stored + ": " + path);
+            }
+            PuzzleBank bank = new PuzzleBank(geometry, channel, header, (int) stored);
+            bank.indexRecords();
+            return bank;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an empty bank, replacing any file at the path.
+     */
+    private static PuzzleBank create(Path path, BoardGeometry geometry) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_BYTES);
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putShort(VERSION_OFFSET, VERSION);
+            header.put(SIZE_OFFSET, (byte) geometry.getSize());
+            header.put(BLOCK_ROWS_OFFSET, (byte) geometry.getBlockRows());
+            header.put(BLOCK_COLS_OFFSET, (byte) geometry.getBlockCols());
+            header.put(BITS_OFFSET, (byte) PackedGrid.bitsPerCell(geometry));
+            header.putShort(RECORD_SIZE_OFFSET, (short) recordSize(geometry));
+            header.putLong(COUNT_OFFSET, 0);
+            header.force();
+            return new PuzzleBank(geometry, channel, header, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the bytes of one record of the given shape
+     */
+    private static int recordSize(BoardGeometry geometry) {
+        return RECORD_HEADER_BYTES + PackedGrid.byteCount(geometry);
+    }
+
+    /**
+     * Computes the checksum stored with every record: 32-bit FNV-1a over the solution grid.
+     *
+     * @param solution a complete grid
+     * @return its checksum
+     */
+    public static int checksum(byte[] solution) {
+        int hash = 0x811C9DC5;
+        for (byte value : solution) {
+            hash = (hash ^ value) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * Builds the per-difficulty index with one pass over the record headers.
+     */
+    private synchronized void indexRecords() throws IOException {
+        ensureMapped(count);
+        for (int index = 0; index < count; index++) {
+            int difficulty = segment(index).get(offset(index) + DIFFICULTY_OFFSET);
+            if (difficulty < 0 || difficulty >= DIFFICULTIES.length) {
+                throw new IOException("Corrupt puzzle bank record " + index);
+            }
+            addToIndex(difficulty, index);
+        }
+    }
+
+    /**
+     * Appends a puzzle to the bank. Its seed is stored when the puzzle has an identifier.
+     *
+     * @param puzzle a puzzle of this bank's shape
+     * @return the index of the new record
+     * @throws IOException if the file cannot grow
+     */
+    public synchronized int append(Puzzle puzzle) throws IOException {
+        if (puzzle.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Puzzle is " + puzzle.getGeometry() + ", bank holds " + geometry);
+        }
+        if (count == Integer.MAX_VALUE) {
+            throw new IOException("Puzzle bank is full");
+        }
+        int index = count;
+        ensureMapped(index + 1);
+        ByteBuffer buffer = segment(index);
+        int base = offset(index);
+
+        PuzzleId id = puzzle.getId();
+        buffer.putLong(base + SEED_OFFSET, id != null ? id.getSeed() : 0);
+        buffer.putInt(base + CHECKSUM_OFFSET, checksum(puzzle.getSolutionGrid()));
+        buffer.putShort(base + CLUES_OFFSET, (short) puzzle.getClueCount());
+        buffer.put(base + DIFFICULTY_OFFSET, (byte) puzzle.getDifficulty().ordinal());
+        buffer.put(base + FLAGS_OFFSET, (byte) (id != null ? FLAG_HAS_ID : 0));
+
+        PackedGrid.pack(geometry, puzzle.getGivens(), buffer, base + RECORD_HEADER_BYTES);
+
+        // The count is published last, so readers and a reopened file never see a partial record.
+        count = index + 1;
+        header.putLong(COUNT_OFFSET, count);
+        addToIndex(puzzle.getDifficulty().ordinal(), index);
+        return index;
+    }
+
+    /**
+     * Appends a copy of a record of another bank of the same shape, byte for byte, without
+     * rebuilding its solution.
+     *
+     * @param source the bank to copy from
+     * @param index  the record index in {@code source}
+     * @return the index of the new record
+     * @throws IOException if the file cannot grow
+     */
+    public synchronized int appendCopy(PuzzleBank source, int index) throws IOException {
+        if (source.geometry != geometry) {
+            throw new IllegalArgumentException("Bank holds " + source.geometry + ", not " + geometry);
+        }
+        source.checkIndex(index);
+        if (count == Integer.MAX_VALUE) {
+            throw new IOException("Puzzle bank is full");
+        }
+        int target = count;
+        ensureMapped(target + 1);
+        ByteBuffer from = source.segment(index);
+        ByteBuffer to = segment(target);
+        int fromBase = source.offset(index);
+        int toBase = offset(target);
+        for (int i = 0; i < recordSize; i++) {
+            to.put(toBase + i, from.get(fromBase + i));
+        }
+
+        count = target + 1;
+        header.putLong(COUNT_OFFSET, count);
+        addToIndex(to.get(toBase + DIFFICULTY_OFFSET), target);
+        return target;
+    }
+
+    /**
+     * Maps segments until the given number of records is covered. Mapping past the end of the
+     * file in read-write mode grows it.
+     */
+    private void ensureMapped(int records) throws IOException {
+        int needed = (records + recordsPerSegment - 1) / recordsPerSegment;
+        MappedByteBuffer[] current = segments;
+        if (needed <= current.length) {
+            return;
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(current, needed);
+        long segmentBytes = (long) recordsPerSegment * recordSize;
+        for (int i = current.length; i < needed; i++) {
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, FILE_HEADER_BYTES + i * segmentBytes, segmentBytes);
+        }
+        segments = grown;
+    }
+
+    private void addToIndex(int difficulty, int index) {
+        int[] indexes = byDifficulty[difficulty];
+        int size = difficultyCounts[difficulty];
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, size * 2);
+            byDifficulty[difficulty] = indexes;
+        }
+        indexes[size] = index;
+        difficultyCounts[difficulty] = size + 1;
+    }
+
+    private ByteBuffer segment(int index) {
+        return segments[index / recordsPerSegment];
+    }
+
+    private int offset(int index) {
+        return (index % recordsPerSegment) * recordSize;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+    }
+
+    /** @return the size and block shape of the puzzles in the bank */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /** @return the number of puzzles in the bank */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param difficulty a difficulty level
+     * @return the number of puzzles of that difficulty
+     */
+    public synchronized int count(Difficulty difficulty) {
+        return difficultyCounts[difficulty.ordinal()];
+    }
+
+    /**
+     * Unpacks the clues of a record without allocating.
+     *
+     * @param index the record index
+     * @param grid  receives the clues, with {@code 0} for empty cells; at least {@code size * size} long
+     */
+    public void readGivens(int index, byte[] grid) {
+        checkIndex(index);
+        PackedGrid.unpack(geometry, segment(index), offset(index) + RECORD_HEADER_BYTES, grid);
+    }
+
+    /**
+     * @param index the record index
+     * @return the seed the puzzle was generated from, or {@code 0} if it has none
+     */
+    public long getSeed(int index) {
+        checkIndex(index);
+        return segment(index).getLong(offset(index) + SEED_OFFSET);
+    }
+
+    /**
+     * @param index the record index
+     * @return the difficulty the puzzle was generated for
+     */
+    public Difficulty getDifficulty(int index) {
+        checkIndex(index);
+        return DIFFICULTIES[segment(index).get(offset(index) + DIFFICULTY_OFFSET)];
+    }
+
+    /**
+     * @param index the record index
+     * @return the number of clues of the puzzle
+     */
+    public int getClueCount(int index) {
+        checkIndex(index);
+        return segment(index).getShort(offset(index) + CLUES_OFFSET);
+    }
+
+    /**
+     * @param index the record index
+     * @return the checksum of the puzzle's solution, see {@link #checksum(byte[])}
+     */
+    public int getChecksum(int index) {
+        checkIndex(index);
+        return segment(index).getInt(offset(index) + CHECKSUM_OFFSET);
+    }
+
+    /**
+     * Loads a puzzle and rebuilds its solution.
+     *
+     * @param index the record index
+     * @return the puzzle, with its identifier when it was generated from a seed
+     * @throws IllegalStateException if the record has no solution or the solution does not match its checksum
+     */
+    public Puzzle get(int index) {
+        Difficulty difficulty = getDifficulty(index);
+        boolean hasId = (segment(index).get(offset(index) + FLAGS_OFFSET) & FLAG_HAS_ID) != 0;
+        PuzzleId id = hasId && standardGeometry ? new PuzzleId(geometry, difficulty, getSeed(index)) : null;
+        synchronized (solver) {
+            readGivens(index, scratchGivens);
+            if (!solver.solve(scratchGivens, scratchSolution) || checksum(scratchSolution) != getChecksum(index)) {
+                throw new IllegalStateException("Corrupt puzzle bank record " + index);
+            }
+            return new Puzzle(geometry, scratchGivens, scratchSolution, difficulty, id);
+        }
+    }
+
+    /**
+     * Picks the index of a random puzzle of a difficulty.
+     *
+     * @param difficulty the wanted difficulty
+     * @param random     the source of randomness
+     * @return the record index, or {@code -1} if the bank has no puzzle of that difficulty
+     */
+    public synchronized int drawIndex(Difficulty difficulty, RandomGenerator random) {
+        int size = difficultyCounts[difficulty.ordinal()];
+        return size == 0 ? -1 : byDifficulty[difficulty.ordinal()][random.nextInt(size)];
+    }
+
+    /**
+     * Loads a random puzzle of a difficulty.
+     *
+     * @param difficulty the wanted difficulty
+     * @param random     the source of randomness
+     * @return the puzzle, or {@code null} if the bank has no puzzle of that difficulty
+     */
+    public Puzzle draw(Difficulty difficulty, RandomGenerator random) {
+        int index = drawIndex(difficulty, random);
+        return index < 0 ? null : get(index);
+    }
+
+    /**
+     * Writes the mapped records and the header to the storage device.
+     */
+    public synchronized void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    /**
+     * Flushes the bank and trims the file to its records. The bank must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be trimmed or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        flush();
+        segments = new MappedByteBuffer[0];
+        try {
+            channel.truncate(FILE_HEADER_BYTES + (long) count * recordSize);
+        } catch (IOException ignored) {
+            // Some platforms refuse to shrink a file that is still mapped; the unused tail is harmless.
+        }
+        channel.close();
+    }
+}
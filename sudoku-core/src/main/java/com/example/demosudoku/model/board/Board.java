@@ -0,0 +1,542 @@
+package com.example.demosudoku.model.board;
+
+import com.example.demosudoku.metrics.BoardFillEvent;
+import com.example.demosudoku.metrics.Counter;
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+import com.example.demosudoku.model.generator.PuzzleId;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class generates an N×N board divided into blocks, as described by a {@link BoardGeometry}
+ * (by default the 6x6 board with 2x3 blocks).
+ * In each block exactly one cell is assigned a random number (from 1 to N),
+ * and all the other cells are left as 0. Additionally, the placed number is not repeated
+ * in any row or column across the entire board.
+ * <p>
+ * The cells are stored in a flat {@code byte[]} (index {@code row * size + col}) and every
+ * row, column and block keeps a bitmask of the numbers it already contains (bit {@code n}
+ * set means number {@code n} is present). The masks are updated in {@link #setCellValue},
+ * so {@link #isValid} answers in constant time without scanning or allocating, whatever the
+ * board size. Per-unit occurrence counters back the masks so that boards holding repeated
+ * numbers (for example after an unchecked {@code setCellValue}) are still reported correctly.
+ * <p>
+ * A {@link ConstraintEngine} is notified of every change, so the candidates of each cell, the
+ * number of empty cells, the number of repeated numbers and the cells that are forced are all
+ * available in constant time, and {@link #isComplete()} no longer scans the board.
+ * <p>
+ * The board is generated using a backtracking algorithm that works block by block.
+ * <p>
+ * When {@link MetricsRegistry#ENABLED metrics} are on, generation time, backtracking depth and
+ * the calls to {@link #isValid} and {@link #isComplete()} are recorded, and every fill is
+ * reported as a {@link BoardFillEvent}.
+ * <p>
+ * Java JDK 17.
+ */
+public class Board implements IBoard {
+    private static final Counter IS_VALID_CALLS = MetricsRegistry.getInstance().counter("board.isValid");
+    private static final Counter IS_COMPLETE_CALLS = MetricsRegistry.getInstance().counter("board.isComplete");
+    private static final Counter FILL_CALLS = MetricsRegistry.getInstance().counter("board.fillBlocks.calls");
+    private static final Counter FILL_BACKTRACKS = MetricsRegistry.getInstance().counter("board.fillBlocks.backtracks");
+    private static final Counter FILL_FAILURES = MetricsRegistry.getInstance().counter("board.fillBlocks.failures");
+    private static final Histogram FILL_DEPTH = MetricsRegistry.getInstance().histogram("board.fillBlocks.depth");
+    private static final Histogram GENERATION_NANOS = MetricsRegistry.getInstance().histogram("board.generation.nanos");
+
+    // Shape of the board and the values derived from it.
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int totalBlocks;
+
+    // The cells of the board, row by row (0 means empty).
+    private final byte[] cells;
+
+    // Bitmask of the numbers present in each row, column and block.
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] blockMasks;
+
+    // How many times each number appears in each unit, indexed by unit * (size + 1) + number.
+    private final byte[] rowCounts;
+    private final byte[] colCounts;
+    private final byte[] blockCounts;
+
+    // Number of repetitions across all units: a number present k times in a unit adds k - 1.
+    private int conflictCount;
+    // Incremental candidates, empty-cell count and forced cells.
+    private final ConstraintEngine engine;
+
+    // Read-only list view returned by getBoard(), built on first use.
+    private List<List<Integer>> boardView;
+    // Source of every random choice made by fillBlocks.
+    private final RandomGenerator random;
+    // Identifier of the generated puzzle this board was built from, if any.
+    private PuzzleId puzzleId;
+    // Work done by fillBlocks on this board, reported once the fill ends.
+    private long fillCalls;
+    private long fillBacktracks;
+    private int fillMaxDepth;
+
+    /**
+     * Constructor initializes a 6x6 board with zeros and then fills each block with one number.
+     */
+    public Board() {
+        this(BoardGeometry.SIZE_6);
+    }
+
+    /**
+     * Constructor initializes a 6x6 board whose numbers are fully determined by a seed.
+     *
+     * @param seed the seed of the random choices made while filling the blocks
+     */
+    public Board(long seed) {
+        this(BoardGeometry.SIZE_6, seed);
+    }
+
+    /**
+     * Constructor initializes a 6x6 board drawing its random choices from the given source.
+     *
+     * @param random the source of randomness used while filling the blocks
+     */
+    public Board(RandomGenerator random) {
+        this(BoardGeometry.SIZE_6, random);
+    }
+
+    /**
+     * Constructor initializes a board of the given shape with zeros and then fills each block with one number.
+     *
+     * @param geometry the size and block shape of the board
+     */
+    public Board(BoardGeometry geometry) {
+        this(geometry, new SplittableRandom());
+    }
+
+    /**
+     * Constructor initializes a board of the given shape whose numbers are fully determined by a seed.
+     *
+     * @param geometry the size and block shape of the board
+     * @param seed the seed of the random choices made while filling the blocks
+     */
+    public Board(BoardGeometry geometry, long seed) {
+        this(geometry, new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructor initializes a board of the given shape drawing its random choices from the given source.
+     *
+     * @param geometry the size and block shape of the board
+     * @param random the source of randomness used while filling the blocks
+     * @throws IllegalStateException if no block filling satisfies the rules
+     */
+    public Board(BoardGeometry geometry, RandomGenerator random) {
+        this(geometry, null, random);
+        BoardFillEvent event = new BoardFillEvent();
+        event.begin();
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        // Attempt to fill each block with a valid number.
+        boolean filled = fillBlocks(0);
+        event.end();
+        if (MetricsRegistry.ENABLED) {
+            GENERATION_NANOS.recordSince(start);
+            FILL_CALLS.add(fillCalls);
+            FILL_BACKTRACKS.add(fillBacktracks);
+            FILL_DEPTH.record(fillMaxDepth);
+            if (!filled) {
+                FILL_FAILURES.increment();
+            }
+        }
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.calls = fillCalls;
+            event.backtracks = fillBacktracks;
+            event.maxDepth = fillMaxDepth;
+            event.success = filled;
+            event.commit();
+        }
+        if (!filled) {
+            throw new IllegalStateException("Failed to fill a " + geometry + " board");
+        }
+    }
+
+    /**
+     * Constructor initializes the board with the clues of a generated puzzle.
+     *
+     * @param puzzle the puzzle whose clues are placed on the board
+     */
+    public Board(Puzzle puzzle) {
+        this(puzzle.getGeometry(), puzzle.getGivens(), new SplittableRandom());
+        this.puzzleId = puzzle.getId();
+    }
+
+    /**
+     * Creates a board holding the unique-solution puzzle an identifier stands for.
+     * The same identifier always yields the same clues.
+     *
+     * @param id the puzzle identifier
+     * @return the board with the puzzle's clues
+     */
+    public static Board fromPuzzleId(PuzzleId id) {
+        return new Board(new PuzzleGenerator(id.getGeometry()).generate(id));
+    }
+
+    /**
+     * Creates a board from the text form of a puzzle identifier, such as {@code 6M-0F3KZ9Q2X8A1C}.
+     *
+     * @param id the puzzle identifier
+     * @return the board with the puzzle's clues
+     * @throws IllegalArgumentException if the identifier is malformed
+     */
+    public static Board fromPuzzleId(String id) {
+        return fromPuzzleId(PuzzleId.parse(id));
+    }
+
+    /**
+     * Allocates the cells, masks and counters for a geometry and optionally places a grid of numbers.
+     *
+     * @param geometry the size and block shape of the board
+     * @param grid the numbers to place in row order (0 for empty cells), or null for an empty board
+     * @param random the source of randomness used by fillBlocks
+     */
+    private Board(BoardGeometry geometry, byte[] grid, RandomGenerator random) {
+        this.geometry = geometry;
+        this.random = random;
+        this.size = geometry.getSize();
+        this.totalBlocks = geometry.getBlockCount();
+        this.cells = new byte[geometry.getCellCount()];
+        this.rowMasks = new int[size];
+        this.colMasks = new int[size];
+        this.blockMasks = new int[totalBlocks];
+        this.rowCounts = new byte[size * (size + 1)];
+        this.colCounts = new byte[size * (size + 1)];
+        this.blockCounts = new byte[totalBlocks * (size + 1)];
+        this.engine = new ConstraintEngine(geometry, cells, rowMasks, colMasks, blockMasks);
+        if (grid != null) {
+            for (int index = 0; index < grid.length; index++) {
+                setCellValue(geometry.rowOf(index), geometry.colOf(index), grid[index]);
+            }
+        }
+    }
+
+    /**
+     * Recursively fills each block with one number.
+     *
+     * @param blockIndex the index of the current block (ranging from 0 to the number of blocks - 1).
+     * @return true if all blocks have been successfully filled; false otherwise.
+     */
+    @Override
+    public boolean fillBlocks(int blockIndex) {
+        fillCalls++;
+        if (blockIndex > fillMaxDepth) {
+            fillMaxDepth = blockIndex;
+        }
+        // If all blocks have been processed, the board is complete.
+        if (blockIndex == totalBlocks) {
+            return true;
+        }
+
+        // Determine the block's position.
+        int origin = geometry.blockOrigin(blockIndex);
+        int startRow = geometry.rowOf(origin);
+        int startCol = geometry.colOf(origin);
+
+        // Prepare the candidate numbers [1, 2, ..., size] in random order.
+        int[] numbers = new int[size];
+        for (int i = 0; i < size; i++) {
+            numbers[i] = i + 1;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = numbers[i];
+            numbers[i] = numbers[j];
+            numbers[j] = swap;
+        }
+
+        // Iterate over every cell in the current block.
+        for (int i = startRow; i < startRow + geometry.getBlockRows(); i++) {
+            for (int j = startCol; j < startCol + geometry.getBlockCols(); j++) {
+                // Try each candidate number in the randomized order.
+                for (int number : numbers) {
+                    // Check if placing 'number' in cell (i, j) does not violate the row and column constraints.
+                    if (isValid(i, j, number)) {
+                        setCellValue(i, j, number);
+                        // Recursively fill the next block.
+                        if (fillBlocks(blockIndex + 1)) {
+                            return true;
+                        }
+                        // Backtracking: reset the cell if subsequent placement fails.
+                        setCellValue(i, j, 0);
+                        fillBacktracks++;
+                    }
+                }
+            }
+        }
+        // If no valid placement was found for this block, return false.
+        return false;
+    }
+
+    /**
+     * Checks whether placing a candidate number at cell (row, col) violates the row, column or block uniqueness.
+     * The cell itself is ignored, so a number already placed there is reported as valid
+     * as long as it is not repeated elsewhere in its row, column or block.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @param candidate the number to place (from 1 to the board size)
+     * @return true if the candidate can be placed without conflict; false otherwise
+     */
+    @Override
+    public boolean isValid(int row, int col, int candidate) {
+        if (MetricsRegistry.ENABLED) {
+            IS_VALID_CALLS.increment();
+        }
+        if (candidate < 1 || candidate > size) {
+            return false;
+        }
+        if (cells[row * size + col] == candidate) {
+            // The candidate is counted once for this very cell, so any higher count is a repetition.
+            return rowCounts[row * (size + 1) + candidate] == 1
+                    && colCounts[col * (size + 1) + candidate] == 1
+                    && isBlockValid(row, col, candidate);
+        }
+        int bit = 1 << candidate;
+        return (rowMasks[row] & bit) == 0
+                && (colMasks[col] & bit) == 0
+                && isBlockValid(row, col, candidate);
+    }
+
+    /**
+     * Checks if a number is valid in the block that contains the specified cell.
+     *
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @param candidate the number to validate
+     * @return true if the number is not already in the block, false otherwise
+     */
+    private boolean isBlockValid(int row, int col, int candidate) {
+        int block = geometry.blockOf(row, col);
+        if (cells[row * size + col] == candidate) {
+            return blockCounts[block * (size + 1) + candidate] == 1;
+        }
+        return (blockMasks[block] & (1 << candidate)) == 0;
+    }
+
+    /**
+     * Checks whether every cell in the board is filled with a number.
+     * The empty-cell count is kept up to date by {@link #setCellValue}, so this takes constant time.
+     * @return false if at least one cell is empty, true if every cell is filled.
+     */
+
+    public boolean isComplete(){
+        if (MetricsRegistry.ENABLED) {
+            IS_COMPLETE_CALLS.increment();
+        }
+        return engine.getEmptyCount() == 0;
+    }
+
+    /**
+     * Returns how many repeated numbers the board holds across its rows, columns and blocks.
+     * A board filled only through valid moves always reports 0.
+     *
+     * @return the number of repetitions
+     */
+    public int getConflictCount() {
+        return conflictCount;
+    }
+
+    /**
+     * Returns the numbers that can still be placed in a cell without breaking any rule.
+     *
+     * @param row the row index (0 to size - 1)
+     * @param col the column index (0 to size - 1)
+     * @return a bitmask with bit n set when number n fits, or 0 if the cell is filled
+     */
+    public int getCandidates(int row, int col) {
+        return engine.getCandidates(row * size + col);
+    }
+
+    /**
+     * Returns the incremental constraint engine of this board, which also publishes the
+     * naked and hidden singles used for hints.
+     *
+     * @return the constraint engine
+     */
+    public ConstraintEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Sets the value of a specific cell in the board and updates the row, column and block masks.
+     *
+     * @param row the row index (0 to size - 1)
+     * @param col the column index (0 to size - 1)
+     * @param value the value to set (0 to size, where 0 means empty)
+     */
+    @Override
+    public void setCellValue(int row, int col, int value) {
+        if (row >= 0 && row < size && col >= 0 && col < size && value >= 0 && value <= size) {
+            int index = row * size + col;
+            int block = geometry.blockOf(row, col);
+            int previous = cells[index];
+            if (previous == value) {
+                return;
+            }
+            if (previous != 0) {
+                removeFromUnits(row, col, block, previous);
+            }
+            cells[index] = (byte) value;
+            if (value != 0) {
+                addToUnits(row, col, block, value);
+            }
+            engine.cellChanged(index, previous, value);
+        }
+    }
+
+    /**
+     * Registers a number in the counters and masks of its row, column and block.
+     */
+    private void addToUnits(int row, int col, int block, int value) {
+        int bit = 1 << value;
+        if (rowCounts[row * (size + 1) + value]++ > 0) {
+            conflictCount++;
+        }
+        if (colCounts[col * (size + 1) + value]++ > 0) {
+            conflictCount++;
+        }
+        if (blockCounts[block * (size + 1) + value]++ > 0) {
+            conflictCount++;
+        }
+        rowMasks[row] |= bit;
+        colMasks[col] |= bit;
+        blockMasks[block] |= bit;
+    }
+
+    /**
+     * Removes a number from the counters of its row, column and block, clearing
+     * the mask bit once the last occurrence in a unit is gone.
+     */
+    private void removeFromUnits(int row, int col, int block, int value) {
+        int bit = 1 << value;
+        if (--rowCounts[row * (size + 1) + value] == 0) {
+            rowMasks[row] &= ~bit;
+        } else {
+            conflictCount--;
+        }
+        if (--colCounts[col * (size + 1) + value] == 0) {
+            colMasks[col] &= ~bit;
+        } else {
+            conflictCount--;
+        }
+        if (--blockCounts[block * (size + 1) + value] == 0) {
+            blockMasks[block] &= ~bit;
+        } else {
+            conflictCount--;
+        }
+    }
+
+    /**
+     * Gets the value of a specific cell in the board.
+     *
+     * @param row the row index (0 to size - 1)
+     * @param col the column index (0 to size - 1)
+     * @return the value at the specified position
+     */
+    @Override
+    public int getCellValue(int row, int col) {
+        if (row >= 0 && row < size && col >= 0 && col < size) {
+            return cells[row * size + col];
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a cell is editable (initially empty).
+     *
+     * @param row the row index (0 to size - 1)
+     * @param col the column index (0 to size - 1)
+     * @return true if the cell is editable, false otherwise
+     */
+    public boolean isCellEditable(int row, int col) {
+        if (row >= 0 && row < size && col >= 0 && col < size) {
+            return cells[row * size + col] == 0;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the generated board as a read-only list of rows.
+     * The view is built on first use and reads straight from the underlying cells,
+     * so it always reflects the current state of the board.
+     *
+     * @return a list of lists representing the board.
+     */
+    public List<List<Integer>> getBoard() {
+        if (boardView == null) {
+            boardView = List.copyOf(buildRowViews());
+        }
+        return boardView;
+    }
+
+    /**
+     * Builds one read-only list per row that reads its values from the flat cell array.
+     *
+     * @return the row views, in row order
+     */
+    private List<List<Integer>> buildRowViews() {
+        List<List<Integer>> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int offset = i * size;
+            rows.add(new AbstractList<>() {
+                @Override
+                public Integer get(int col) {
+                    if (col < 0 || col >= size) {
+                        throw new IndexOutOfBoundsException("Column " + col + " out of range");
+                    }
+                    return (int) cells[offset + col];
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            });
+        }
+        return rows;
+    }
+
+    /**
+     * Returns a copy of the cells in row order, the grid format used by the solvers.
+     *
+     * @return the cells, with 0 for empty ones
+     */
+    public byte[] toArray() {
+        return cells.clone();
+    }
+
+    /**
+     * Returns the identifier of the generated puzzle on this board, which is enough to rebuild it.
+     *
+     * @return the puzzle identifier, or null if the board was not built from a seeded puzzle
+     */
+    public PuzzleId getPuzzleId() {
+        return puzzleId;
+    }
+
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Returns the size and block shape of this board.
+     *
+     * @return the board geometry
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.demosudoku.model.board;
+
+/**
+ * Describes the shape of a Sudoku board: an N×N grid split into blocks of
+ * {@code blockRows} × {@code blockCols} cells, where {@code blockRows * blockCols == N}.
+ * <p>
+ * Cells are addressed either by (row, col) or by a flat index {@code row * size + col}.
+ * The row, column and block of every flat index are precomputed so that hot paths
+ * such as {@link Board#isValid(int, int, int)} only perform array lookups.
+ * <p>
+ * Numbers are written with the symbols {@code 1-9} followed by {@code A-Z}
+ * (so 10 is {@code A}, 16 is {@code G} and 25 is {@code P}).
+ */
+public final class BoardGeometry {
+    /** Largest supported board side; every number must fit in an {@code int} bitmask. */
+    public static final int MAX_SIZE = 30;
+
+    /** 4x4 board with 2x2 blocks. */
+    public static final BoardGeometry SIZE_4 = new BoardGeometry(4, 2, 2);
+    /** 6x6 board with 2x3 blocks (the classic board of this game). */
+    public static final BoardGeometry SIZE_6 = new BoardGeometry(6, 2, 3);
+    /** 9x9 board with 3x3 blocks. */
+    public static final BoardGeometry SIZE_9 = new BoardGeometry(9, 3, 3);
+    /** 12x12 board with 3x4 blocks. */
+    public static final BoardGeometry SIZE_12 = new BoardGeometry(12, 3, 4);
+    /** 16x16 board with 4x4 blocks. */
+    public static final BoardGeometry SIZE_16 = new BoardGeometry(16, 4, 4);
+    /** 25x25 board with 5x5 blocks. */
+    public static final BoardGeometry SIZE_25 = new BoardGeometry(25, 5, 5);
+
+    private static final String SYMBOLS = "123456789ABCDEFGHIJKLMNOPQRSTU";
+
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+    private final int blocksPerRow;
+    private final int cellCount;
+    private final int allValuesMask;
+
+    // Row, column and block of every flat cell index.
+    private final byte[] rowOf;
+    private final byte[] colOf;
+    private final byte[] blockOf;
+
+    private BoardGeometry(int size, int blockRows, int blockCols) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        if (blockRows < 1 || blockCols < 1 || blockRows * blockCols != size) {
+            throw new IllegalArgumentException(
+                    "Block " + blockRows + "x" + blockCols + " does not tile a " + size + "x" + size + " board");
+        }
+        this.size = size;
+        this.blockRows = blockRows;
+        this.blockCols = blockCols;
+        this.blocksPerRow = size / blockCols;
+        this.cellCount = size * size;
+        this.allValuesMask = ((1 << size) - 1) << 1;
+
+        rowOf = new byte[cellCount];
+        colOf = new byte[cellCount];
+        blockOf = new byte[cellCount];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int index = row * size + col;
+                rowOf[index] = (byte) row;
+                colOf[index] = (byte) col;
+                blockOf[index] = (byte) ((row / blockRows) * blocksPerRow + col / blockCols);
+            }
+        }
+    }
+
+    /**
+     * Returns the standard geometry for a board side: 4, 6, 9, 12, 16 or 25.
+     *
+     * @param size the number of rows (and columns) of the board
+     * @return the shared geometry instance for that size
+     * @throws IllegalArgumentException if there is no standard block shape for the size
+     */
+    public static BoardGeometry of(int size) {
+        switch (size) {
+            case 4:
+                return SIZE_4;
+            case 6:
+                return SIZE_6;
+            case 9:
+                return SIZE_9;
+            case 12:
+                return SIZE_12;
+            case 16:
+                return SIZE_16;
+            case 25:
+                return SIZE_25;
+            default:
+                throw new IllegalArgumentException("No standard block shape for a " + size + "x" + size + " board");
+        }
+    }
+
+    /**
+     * Returns a geometry with a custom block shape.
+     *
+     * @param size      the number of rows (and columns) of the board
+     * @param blockRows the number of rows of each block
+     * @param blockCols the number of columns of each block
+     * @return the geometry, shared with the standard one when the shape matches
+     * @throws IllegalArgumentException if the blocks do not tile the board
+     */
+    public static BoardGeometry of(int size, int blockRows, int blockCols) {
+        BoardGeometry standard = null;
+        try {
+            standard = of(size);
+        } catch (IllegalArgumentException ignored) {
+            // Not a standard size, a custom geometry is built below.
+        }
+        if (standard != null && standard.blockRows == blockRows && standard.blockCols == blockCols) {
+            return standard;
+        }
+        return new BoardGeometry(size, blockRows, blockCols);
+    }
+
+    /**
+     * @return whether this is the shared standard shape for its size, the only shapes a
+     * {@code PuzzleId} can describe
+     */
+    public boolean isStandard() {
+        switch (size) {
+            case 4:
+            case 6:
+            case 9:
+            case 12:
+            case 16:
+            case 25:
+                return of(size) == this;
+            default:
+                return false;
+        }
+    }
+
+    /** @return the number of rows (and columns) of the board */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return the number of rows of each block */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /** @return the number of columns of each block */
+    public int getBlockCols() {
+        return blockCols;
+    }
+
+    /** @return how many blocks sit side by side in one band of block rows */
+    public int getBlocksPerRow() {
+        return blocksPerRow;
+    }
+
+    /** @return how many blocks the board has (always equal to the size) */
+    public int getBlockCount() {
+        return size;
+    }
+
+    /** @return the number of cells of the board */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /** @return a bitmask with bits {@code 1..size} set, one per number */
+    public int getAllValuesMask() {
+        return allValuesMask;
+    }
+
+    /**
+     * @param index the flat cell index
+     * @return the row of the cell
+     */
+    public int rowOf(int index) {
+        return rowOf[index];
+    }
+
+    /**
+     * @param index the flat cell index
+     * @return the column of the cell
+     */
+    public int colOf(int index) {
+        return colOf[index];
+    }
+
+    /**
+     * @param index the flat cell index
+     * @return the block of the cell, numbered row by row
+     */
+    public int blockOf(int index) {
+        return blockOf[index];
+    }
+
+    /**
+     * @param row the row index
+     * @param col the column index
+     * @return the block that contains the cell, numbered row by row
+     */
+    public int blockOf(int row, int col) {
+        return blockOf[row * size + col];
+    }
+
+    /**
+     * @param block the block index
+     * @return the flat index of the top-left cell of the block
+     */
+    public int blockOrigin(int block) {
+        return (block / blocksPerRow) * blockRows * size + (block % blocksPerRow) * blockCols;
+    }
+
+    /**
+     * Returns the symbol used to display a number on this board.
+     *
+     * @param value a number from 1 to the board size
+     * @return its symbol ({@code 1-9}, then {@code A-Z})
+     */
+    public char toSymbol(int value) {
+        if (value < 1 || value > size) {
+            throw new IllegalArgumentException("Value out of range for a " + size + "x" + size + " board: " + value);
+        }
+        return SYMBOLS.charAt(value - 1);
+    }
+
+    /**
+     * Parses a symbol typed by the player. Letters are accepted in either case.
+     *
+     * @param symbol the typed character
+     * @return the number it represents, or {@code -1} if it is not a valid symbol for this board
+     */
+    public int fromSymbol(char symbol) {
+        int index = SYMBOLS.indexOf(Character.toUpperCase(symbol));
+        return index >= 0 && index < size ? index + 1 : -1;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + " (" + blockRows + "x" + blockCols + " blocks)";
+    }
+}
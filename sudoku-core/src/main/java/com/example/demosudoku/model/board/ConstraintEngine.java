@@ -0,0 +1,228 @@
+package com.example.demosudoku.model.board;
+
+import java.util.Arrays;
+
+/**
+ * Incremental constraint propagation for a {@link Board}.
+ * <p>
+ * The engine keeps, for every cell, the bitmask of numbers it can still take, the number of
+ * empty cells, and for every unit (row, column or block) and number how many empty cells of
+ * the unit can still take that number. The board notifies the engine from
+ * {@link Board#setCellValue}, and only the changed cell and its peers are refreshed, so every
+ * query below is answered in constant time.
+ * <p>
+ * Three sets are maintained for the hint system:
+ * <ul>
+ *     <li>empty cells, so hints never have to search the board for one;</li>
+ *     <li>naked singles: empty cells with exactly one candidate left;</li>
+ *     <li>hidden singles: (unit, number) pairs where the number fits in exactly one empty cell of the unit.</li>
+ * </ul>
+ * Units are numbered rows first ({@code 0..size-1}), then columns ({@code size..2*size-1}),
+ * then blocks ({@code 2*size..3*size-1}).
+ */
+public class ConstraintEngine {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final byte[] cells;
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] blockMasks;
+
+    // Numbers each cell can still take (0 for filled cells).
+    private final int[] candidates;
+    // Empty cells of each unit that can take each number, indexed by unit * size + number - 1.
+    private final byte[] placeCounts;
+    private final IndexedIntSet emptyCells;
+    private final IndexedIntSet nakedSingles;
+    private final IndexedIntSet hiddenSingles;
+    private int emptyCount;
+
+    /**
+     * Creates the engine for an empty board. It reads the board's cells and unit masks directly.
+     */
+    ConstraintEngine(BoardGeometry geometry, byte[] cells, int[] rowMasks, int[] colMasks, int[] blockMasks) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = cells;
+        this.rowMasks = rowMasks;
+        this.colMasks = colMasks;
+        this.blockMasks = blockMasks;
+        this.candidates = new int[geometry.getCellCount()];
+        this.placeCounts = new byte[3 * size * size];
+        this.emptyCells = new IndexedIntSet(geometry.getCellCount());
+        this.nakedSingles = new IndexedIntSet(geometry.getCellCount());
+        this.hiddenSingles = new IndexedIntSet(3 * size * size);
+        this.emptyCount = geometry.getCellCount();
+
+        Arrays.fill(candidates, geometry.getAllValuesMask());
+        Arrays.fill(placeCounts, (byte) size);
+        for (int index = 0; index < geometry.getCellCount(); index++) {
+            emptyCells.add(index);
+        }
+        if (size == 1) {
+            nakedSingles.add(0);
+            for (int unit = 0; unit < 3; unit++) {
+                hiddenSingles.add(unit);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the state after a cell changed. The board has already updated its cells and masks.
+     *
+     * @param index    the flat index of the changed cell
+     * @param previous the number the cell held before (0 if it was empty)
+     * @param value    the number it holds now (0 if it was emptied)
+     */
+    void cellChanged(int index, int previous, int value) {
+        if (previous == 0 && value != 0) {
+            emptyCount--;
+            emptyCells.remove(index);
+        } else if (previous != 0 && value == 0) {
+            emptyCount++;
+            emptyCells.add(index);
+        }
+        int row = geometry.rowOf(index);
+        int col = geometry.colOf(index);
+        int origin = geometry.blockOrigin(geometry.blockOf(index));
+        for (int k = 0; k < size; k++) {
+            refresh(row * size + k);
+            refresh(k * size + col);
+            refresh(origin + (k / geometry.getBlockCols()) * size + k % geometry.getBlockCols());
+        }
+    }
+
+    /**
+     * Recomputes the candidates of one cell and propagates the difference to the unit counters.
+     */
+    private void refresh(int index) {
+        int updated = cells[index] != 0 ? 0 : geometry.getAllValuesMask()
+                & ~(rowMasks[geometry.rowOf(index)] | colMasks[geometry.colOf(index)] | blockMasks[geometry.blockOf(index)]);
+        int current = candidates[index];
+        if (updated == current) {
+            return;
+        }
+        candidates[index] = updated;
+        if (updated != 0 && (updated & (updated - 1)) == 0) {
+            nakedSingles.add(index);
+        } else {
+            nakedSingles.remove(index);
+        }
+
+        int changed = current ^ updated;
+        int rowUnit = geometry.rowOf(index);
+        int colUnit = size + geometry.colOf(index);
+        int blockUnit = 2 * size + geometry.blockOf(index);
+        while (changed != 0) {
+            int bit = changed & -changed;
+            changed &= changed - 1;
+            int delta = (updated & bit) != 0 ? 1 : -1;
+            int number = Integer.numberOfTrailingZeros(bit) - 1;
+            adjustPlaces(rowUnit * size + number, delta);
+            adjustPlaces(colUnit * size + number, delta);
+            adjustPlaces(blockUnit * size + number, delta);
+        }
+    }
+
+    /**
+     * Updates how many places a number has in a unit and the hidden-single set with it.
+     */
+    private void adjustPlaces(int key, int delta) {
+        int count = placeCounts[key] + delta;
+        placeCounts[key] = (byte) count;
+        if (count == 1) {
+            hiddenSingles.add(key);
+        } else {
+            hiddenSingles.remove(key);
+        }
+    }
+
+    /**
+     * @param index the flat cell index
+     * @return the bitmask of numbers the cell can take (bit {@code n} for number {@code n}), 0 if it is filled
+     */
+    public int getCandidates(int index) {
+        return candidates[index];
+    }
+
+    /** @return the number of empty cells */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * @return the empty cells; the set is live and must not be modified
+     */
+    public IndexedIntSet getEmptyCells() {
+        return emptyCells;
+    }
+
+    /**
+     * @return the empty cells with exactly one candidate; the set is live and must not be modified
+     */
+    public IndexedIntSet getNakedSingles() {
+        return nakedSingles;
+    }
+
+    /**
+     * @return the (unit, number) keys that have exactly one possible cell, encoded as
+     * {@code unit * size + number - 1}; the set is live and must not be modified
+     */
+    public IndexedIntSet getHiddenSingles() {
+        return hiddenSingles;
+    }
+
+    /**
+     * Decodes the number of a hidden-single key.
+     *
+     * @param key a key from {@link #getHiddenSingles()}
+     * @return the number, from 1 to the board size
+     */
+    public int hiddenSingleNumber(int key) {
+        return key % size + 1;
+    }
+
+    /**
+     * Decodes the unit of a hidden-single key.
+     *
+     * @param key a key from {@link #getHiddenSingles()}
+     * @return the unit: rows first, then columns, then blocks
+     */
+    public int hiddenSingleUnit(int key) {
+        return key / size;
+    }
+
+    /**
+     * Finds the only cell of a unit that can take the number of a hidden-single key.
+     * This scans the unit, so it costs one pass over {@code size} cells.
+     *
+     * @param key a key from {@link #getHiddenSingles()}
+     * @return the flat index of the cell, or -1 if the key is no longer a hidden single
+     */
+    public int hiddenSingleCell(int key) {
+        int unit = key / size;
+        int bit = 2 << (key % size);
+        for (int k = 0; k < size; k++) {
+            int index = unitCell(unit, k);
+            if ((candidates[index] & bit) != 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param unit a unit number (rows, then columns, then blocks)
+     * @param k    a position from 0 to size - 1 within the unit
+     * @return the flat index of the k-th cell of the unit
+     */
+    public int unitCell(int unit, int k) {
+        if (unit < size) {
+            return unit * size + k;
+        }
+        if (unit < 2 * size) {
+            return k * size + unit - size;
+        }
+        return geometry.blockOrigin(unit - 2 * size) + (k / geometry.getBlockCols()) * size + k % geometry.getBlockCols();
+    }
+}
@@ -21,4 +21,21 @@ public interface IBoard {
      * @return {@code true} if the move is valid, {@code false} otherwise.
      */
     boolean isValid(int row, int col, int candidate);
+
+    /**
+     * Returns the number stored in a cell.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     * @return The number in the cell, {@code 0} if it is empty or {@code -1} if the position is outside the board.
+     */
+    int getCellValue(int row, int col);
+    /**
+     * Stores a number in a cell, keeping any validation state of the board in sync.
+     *
+     * @param row   The row index of the cell.
+     * @param col   The column index of the cell.
+     * @param value The number to store, {@code 0} to empty the cell.
+     */
+    void setCellValue(int row, int col, int value);
 }
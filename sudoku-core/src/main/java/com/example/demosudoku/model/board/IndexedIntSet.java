@@ -0,0 +1,84 @@
+package com.example.demosudoku.model.board;
+
+import java.util.Arrays;
+
+/**
+ * A set of small non-negative integers with constant-time add, remove, membership test and
+ * access by position. Elements are kept densely packed in an array, and a second array
+ * remembers where each element sits, so removal swaps the last element into the gap.
+ * The iteration order is therefore arbitrary.
+ */
+public final class IndexedIntSet {
+    private final int[] elements;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty set for the values {@code 0..capacity - 1}.
+     *
+     * @param capacity the number of distinct values the set can hold
+     */
+    public IndexedIntSet(int capacity) {
+        elements = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @param value the value to add
+     * @return {@code true} if it was not already present
+     */
+    public boolean add(int value) {
+        if (positions[value] >= 0) {
+            return false;
+        }
+        positions[value] = size;
+        elements[size++] = value;
+        return true;
+    }
+
+    /**
+     * @param value the value to remove
+     * @return {@code true} if it was present
+     */
+    public boolean remove(int value) {
+        int position = positions[value];
+        if (position < 0) {
+            return false;
+        }
+        int last = elements[--size];
+        elements[position] = last;
+        positions[last] = position;
+        positions[value] = -1;
+        return true;
+    }
+
+    /**
+     * @param value the value to look for
+     * @return {@code true} if it is present
+     */
+    public boolean contains(int value) {
+        return positions[value] >= 0;
+    }
+
+    /**
+     * @param index a position from {@code 0} to {@code size() - 1}
+     * @return the element stored at that position
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range for size " + size);
+        }
+        return elements[index];
+    }
+
+    /** @return the number of elements */
+    public int size() {
+        return size;
+    }
+
+    /** @return {@code true} if the set has no elements */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demosudoku.model.board;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs grids at 4 bits per cell, or 8 bits per cell on boards of 16 and more where the
+ * numbers no longer fit in a nibble. Cell {@code 2i} is kept in the low nibble of byte
+ * {@code i} and cell {@code 2i + 1} in its high nibble.
+ * <p>
+ * This is the one packing of every stored grid: the clues of a puzzle bank record, the
+ * snapshots of a game state and the clues and solutions of journals, replay logs and packed games.
+ */
+public final class PackedGrid {
+
+    private PackedGrid() {
+    }
+
+    /**
+     * @param geometry the board shape
+     * @return 4 when every number fits in a nibble, 8 otherwise
+     */
+    public static int bitsPerCell(BoardGeometry geometry) {
+        return geometry.getSize() < 16 ? 4 : 8;
+    }
+
+    /**
+     * @param geometry the board shape
+     * @return the bytes a packed grid of that shape takes
+     */
+    public static int byteCount(BoardGeometry geometry) {
+        return geometry.getSize() < 16 ? (geometry.getCellCount() + 1) / 2 : geometry.getCellCount();
+    }
+
+    /**
+     * @param geometry the board shape
+     * @param grid     the grid to pack, with {@code 0} for empty cells
+     * @return a new packed copy
+     */
+    public static byte[] pack(BoardGeometry geometry, byte[] grid) {
+        byte[] packed = new byte[byteCount(geometry)];
+        pack(geometry, grid, ByteBuffer.wrap(packed), 0);
+        return packed;
+    }
+
+    /**
+     * Packs a grid into a buffer at an absolute offset, leaving the buffer's position unchanged.
+     *
+     * @param geometry the board shape
+     * @param grid     the grid to pack, with {@code 0} for empty cells
+     * @param buffer   receives the packed grid
+     * @param offset   where the packed grid starts in the buffer
+     */
+    public static void pack(BoardGeometry geometry, byte[] grid, ByteBuffer buffer, int offset) {
+        int cellCount = geometry.getCellCount();
+        if (geometry.getSize() >= 16) {
+            buffer.put(offset, grid, 0, cellCount);
+            return;
+        }
+        for (int cell = 0; cell < cellCount; cell += 2) {
+            int high = cell + 1 < cellCount ? grid[cell + 1] : 0;
+            buffer.put(offset + (cell >> 1), (byte) (grid[cell] | high << 4));
+        }
+    }
+
+    /**
+     * @param geometry the board shape
+     * @param packed   a grid packed by {@link #pack}
+     * @param grid     receives the unpacked cells
+     */
+    public static void unpack(BoardGeometry geometry, byte[] packed, byte[] grid) {
+        unpack(geometry, ByteBuffer.wrap(packed), 0, grid);
+    }
+
+    /**
+     * Unpacks a grid from a buffer at an absolute offset, leaving the buffer's position unchanged.
+     *
+     * @param geometry the board shape
+     * @param buffer   holds the packed grid
+     * @param offset   where the packed grid starts in the buffer
+     * @param grid     receives the unpacked cells
+     */
+    public static void unpack(BoardGeometry geometry, ByteBuffer buffer, int offset, byte[] grid) {
+        int cellCount = geometry.getCellCount();
+        if (geometry.getSize() >= 16) {
+            buffer.get(offset, grid, 0, cellCount);
+            return;
+        }
+        for (int cell = 0; cell < cellCount; cell += 2) {
+            int value = buffer.get(offset + (cell >> 1));
+            grid[cell] = (byte) (value & 0x0F);
+            if (cell + 1 < cellCount) {
+                grid[cell + 1] = (byte) ((value >> 4) & 0x0F);
+            }
+        }
+    }
+
+    /**
+     * Reads one cell without unpacking the grid.
+     *
+     * @param geometry the board shape
+     * @param packed   a grid packed by {@link #pack}
+     * @param cell     the flat cell index
+     * @return the number in the cell, {@code 0} if it is empty
+     */
+    public static int get(BoardGeometry geometry, byte[] packed, int cell) {
+        if (geometry.getSize() >= 16) {
+            return packed[cell];
+        }
+        return (packed[cell >> 1] >> ((cell & 1) << 2)) & 0x0F;
+    }
+}
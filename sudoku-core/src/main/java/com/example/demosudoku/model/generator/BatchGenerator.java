@@ -0,0 +1,154 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Generates large batches of unique puzzles on every core of the machine.
+ * <p>
+ * Work is split into index ranges on a {@link ForkJoinPool}; each worker thread keeps its own
+ * {@link PuzzleGenerator} (and therefore its own solver scratch state), and every puzzle draws
+ * from its own {@link SplittableRandom} seeded from the batch seed and the puzzle's index.
+ * Puzzle {@code i} of a batch is therefore the same whatever the number of threads or the order
+ * in which workers pick up the ranges, and on standard geometries it carries the {@link PuzzleId}
+ * that regenerates it.
+ */
+public class BatchGenerator {
+    // Puzzles handed to one task before it stops splitting its range.
+    private static final int SPLIT_THRESHOLD = 16;
+    // Puzzles generated in memory before they are handed to a streaming consumer.
+    private static final int CHUNK_SIZE = 4096;
+
+    private final BoardGeometry geometry;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<PuzzleGenerator> generators;
+    // Only standard geometries can be described by a PuzzleId.
+    private final boolean standardGeometry;
+
+    /**
+     * Creates a batch generator that uses every available core.
+     *
+     * @param geometry the size and block shape of the boards to generate
+     */
+    public BatchGenerator(BoardGeometry geometry) {
+        this(geometry, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch generator with a fixed number of worker threads.
+     *
+     * @param geometry    the size and block shape of the boards to generate
+     * @param parallelism the number of worker threads
+     */
+    public BatchGenerator(BoardGeometry geometry, int parallelism) {
+        this.geometry = geometry;
+        this.pool = new ForkJoinPool(parallelism);
+        this.generators = ThreadLocal.withInitial(() -> new PuzzleGenerator(geometry));
+        this.standardGeometry = geometry.isStandard();
+    }
+
+    /**
+     * Returns the seed of puzzle {@code index} in a batch. The SplitMix64 finalizer spreads
+     * neighbouring indexes over unrelated seeds.
+     *
+     * @param batchSeed the seed of the whole batch
+     * @param index     the position of the puzzle in the batch
+     * @return the seed that fully determines that puzzle
+     */
+    public static long puzzleSeed(long batchSeed, long index) {
+        long z = batchSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generates a batch of puzzles in memory.
+     *
+     * @param seed       the seed of the batch
+     * @param count      the number of puzzles
+     * @param difficulty the difficulty of every puzzle
+     * @return the puzzles, in index order
+     */
+    public Puzzle[] generate(long seed, int count, Difficulty difficulty) {
+        Puzzle[] puzzles = new Puzzle[count];
+        pool.invoke(new GenerateTask(seed, 0, puzzles, 0, count, difficulty));
+        return puzzles;
+    }
+
+    /**
+     * Generates a batch of puzzles and hands them to a consumer in index order, one chunk at a time,
+     * so batches larger than memory can be streamed to disk.
+     *
+     * @param seed       the seed of the batch
+     * @param count      the number of puzzles
+     * @param difficulty the difficulty of every puzzle
+     * @param consumer   receives every puzzle, on the calling thread
+     */
+    public void generate(long seed, long count, Difficulty difficulty, Consumer<Puzzle> consumer) {
+        Puzzle[] chunk = new Puzzle[(int) Math.min(CHUNK_SIZE, Math.max(count, 1))];
+        for (long first = 0; first < count; first += chunk.length) {
+            int length = (int) Math.min(chunk.length, count - first);
+            pool.invoke(new GenerateTask(seed, first, chunk, 0, length, difficulty));
+            for (int i = 0; i < length; i++) {
+                consumer.accept(chunk[i]);
+                chunk[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads. The generator cannot be used afterwards.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /** @return the size and block shape of the boards this generator produces */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Fills a range of the output array, splitting it in halves until it is small enough.
+     */
+    private class GenerateTask extends RecursiveAction {
+        private final long seed;
+        private final long firstIndex;
+        private final Puzzle[] output;
+        private final int from;
+        private final int to;
+        private final Difficulty difficulty;
+
+        GenerateTask(long seed, long firstIndex, Puzzle[] output, int from, int to, Difficulty difficulty) {
+            this.seed = seed;
+            this.firstIndex = firstIndex;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+            this.difficulty = difficulty;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                PuzzleGenerator generator = generators.get();
+                for (int i = from; i < to; i++) {
+                    long puzzleSeed = puzzleSeed(seed, firstIndex + i);
+                    output[i] = standardGeometry
+                            ? generator.generate(new PuzzleId(geometry, difficulty, puzzleSeed))
+                            : generator.generate(difficulty.targetClues(geometry), difficulty,
+                                    new SplittableRandom(puzzleSeed));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GenerateTask(seed, firstIndex, output, from, middle, difficulty),
+                    new GenerateTask(seed, firstIndex, output, middle, to, difficulty));
+        }
+    }
+}
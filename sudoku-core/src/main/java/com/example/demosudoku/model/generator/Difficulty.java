@@ -0,0 +1,34 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+/**
+ * Difficulty levels for generated puzzles. Each level sets the share of cells that
+ * stay as clues; fewer clues leave more cells to deduce.
+ */
+public enum Difficulty {
+    /** About half of the cells are given. */
+    EASY(0.50),
+    /** About two fifths of the cells are given. */
+    MEDIUM(0.40),
+    /** About a third of the cells are given. */
+    HARD(0.33),
+    /** Clues are removed for as long as the puzzle keeps a unique solution. */
+    EXPERT(0.0);
+
+    private final double clueRatio;
+
+    Difficulty(double clueRatio) {
+        this.clueRatio = clueRatio;
+    }
+
+    /**
+     * Returns the number of clues a puzzle of this difficulty aims for.
+     *
+     * @param geometry the size and block shape of the board
+     * @return the target clue count; {@code 0} means "as few as possible"
+     */
+    public int targetClues(BoardGeometry geometry) {
+        return (int) Math.round(geometry.getCellCount() * clueRatio);
+    }
+}
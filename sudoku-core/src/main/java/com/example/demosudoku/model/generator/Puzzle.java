@@ -0,0 +1,101 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+/**
+ * An immutable Sudoku puzzle: its clues, its unique solution and the difficulty it was built for.
+ * Grids are flat arrays of {@code size * size} cells in row order, where {@code 0} marks an empty cell.
+ */
+public final class Puzzle {
+    private final BoardGeometry geometry;
+    private final byte[] givens;
+    private final byte[] solution;
+    private final int clueCount;
+    private final Difficulty difficulty;
+    private final PuzzleId id;
+
+    /**
+     * Creates a puzzle. The arrays are copied.
+     *
+     * @param geometry   the size and block shape of the board
+     * @param givens     the clues, with {@code 0} for empty cells
+     * @param solution   the complete solution of the clues
+     * @param difficulty the difficulty the puzzle was generated for
+     */
+    public Puzzle(BoardGeometry geometry, byte[] givens, byte[] solution, Difficulty difficulty) {
+        this(geometry, givens, solution, difficulty, null);
+    }
+
+    /**
+     * Creates a puzzle that was generated from a seed. The arrays are copied.
+     *
+     * @param geometry   the size and block shape of the board
+     * @param givens     the clues, with {@code 0} for empty cells
+     * @param solution   the complete solution of the clues
+     * @param difficulty the difficulty the puzzle was generated for
+     * @param id         the identifier that regenerates this puzzle, or {@code null} if there is none
+     */
+    public Puzzle(BoardGeometry geometry, byte[] givens, byte[] solution, Difficulty difficulty, PuzzleId id) {
+        if (givens.length != geometry.getCellCount() || solution.length != geometry.getCellCount()) {
+            throw new IllegalArgumentException("Grids must have " + geometry.getCellCount() + " cells");
+        }
+        this.geometry = geometry;
+        this.givens = givens.clone();
+        this.solution = solution.clone();
+        this.difficulty = difficulty;
+        this.id = id;
+        int clues = 0;
+        for (byte given : givens) {
+            if (given != 0) {
+                clues++;
+            }
+        }
+        this.clueCount = clues;
+    }
+
+    /** @return the size and block shape of the board */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @param cell the flat cell index
+     * @return the clue in the cell, or {@code 0} if the player has to fill it
+     */
+    public int getGiven(int cell) {
+        return givens[cell];
+    }
+
+    /**
+     * @param cell the flat cell index
+     * @return the number the solution holds in the cell
+     */
+    public int getSolution(int cell) {
+        return solution[cell];
+    }
+
+    /** @return a copy of the clues */
+    public byte[] getGivens() {
+        return givens.clone();
+    }
+
+    /** @return a copy of the solution */
+    public byte[] getSolutionGrid() {
+        return solution.clone();
+    }
+
+    /** @return the number of clues */
+    public int getClueCount() {
+        return clueCount;
+    }
+
+    /** @return the difficulty the puzzle was generated for */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /** @return the identifier that regenerates this puzzle, or {@code null} if it was not generated from a seed */
+    public PuzzleId getId() {
+        return id;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.metrics.Counter;
+import com.example.demosudoku.metrics.GenerationEvent;
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.solver.DlxSolver;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates puzzles that have exactly one solution.
+ * <p>
+ * A complete grid is drawn first by solving an empty board in random order. Clues are then
+ * removed one at a time in random order. Because the grid before each removal is known to have
+ * a single solution, a removal keeps the puzzle unique exactly when no solution puts a different
+ * number in the emptied cell, which is checked with one early-exit search
+ * ({@link DlxSolver#hasSolutionWithout}) instead of counting solutions from scratch.
+ * <p>
+ * Each check may visit at most {@value #NODE_BUDGET} search nodes. On large boards with few clues
+ * left a check can run far longer than that; the generator then keeps the clue, so the puzzle
+ * stays unique and may end with more clues than its difficulty targets.
+ * <p>
+ * Every puzzle is timed and reported as a {@link GenerationEvent}, with the number of removals
+ * that had to be rejected to keep it unique.
+ * <p>
+ * A generator keeps its solver and scratch arrays between calls and must not be shared between threads.
+ */
+public class PuzzleGenerator {
+    private static final Counter PUZZLES = MetricsRegistry.getInstance().counter("generator.puzzles");
+    private static final Counter REJECTED_REMOVALS = MetricsRegistry.getInstance().counter("generator.rejectedRemovals");
+    private static final Counter ABANDONED_REMOVALS = MetricsRegistry.getInstance().counter("generator.abandonedRemovals");
+    private static final Histogram REJECTED_PER_PUZZLE = MetricsRegistry.getInstance().histogram("generator.rejectedRemovals.perPuzzle");
+    private static final Histogram GENERATION_NANOS = MetricsRegistry.getInstance().histogram("generator.generation.nanos");
+
+    // Search nodes one uniqueness check may visit before the removal is abandoned.
+    static final long NODE_BUDGET = 5_000;
+
+    private final BoardGeometry geometry;
+    private final RandomGenerator random;
+    private final DlxSolver solver;
+
+    // Scratch state reused by every generated puzzle.
+    private final byte[] empty;
+    private final byte[] solution;
+    private final byte[] grid;
+    private final int[] order;
+
+    /**
+     * Creates a generator with an unseeded source of randomness.
+     *
+     * @param geometry the size and block shape of the boards to generate
+     */
+    public PuzzleGenerator(BoardGeometry geometry) {
+        this(geometry, new SplittableRandom());
+    }
+
+    /**
+     * Creates a generator that draws every random choice from the given source.
+     *
+     * @param geometry the size and block shape of the boards to generate
+     * @param random   the source of randomness
+     */
+    public PuzzleGenerator(BoardGeometry geometry, RandomGenerator random) {
+        this.geometry = geometry;
+        this.random = random;
+        this.solver = new DlxSolver(geometry);
+        this.empty = new byte[geometry.getCellCount()];
+        this.solution = new byte[geometry.getCellCount()];
+        this.grid = new byte[geometry.getCellCount()];
+        this.order = new int[geometry.getCellCount()];
+    }
+
+    /**
+     * Generates a unique puzzle for a difficulty level.
+     *
+     * @param difficulty the difficulty, which sets the target number of clues
+     * @return the generated puzzle
+     */
+    public Puzzle generate(Difficulty difficulty) {
+        return generate(difficulty.targetClues(geometry), difficulty);
+    }
+
+    /**
+     * Regenerates the puzzle an identifier stands for. The result depends only on the identifier,
+     * never on the generator's own source of randomness.
+     *
+     * @param id the identifier, whose geometry must match this generator's
+     * @return the puzzle, carrying the identifier
+     */
+    public Puzzle generate(PuzzleId id) {
+        if (id.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Puzzle " + id + " is not a " + geometry + " board");
+        }
+        Difficulty difficulty = id.getDifficulty();
+        return generate(difficulty.targetClues(geometry), difficulty, new SplittableRandom(id.getSeed()), id);
+    }
+
+    /**
+     * Generates a unique puzzle with as close to {@code targetClues} clues as possible.
+     * If no further clue can be removed without losing uniqueness, the puzzle keeps more clues than asked.
+     *
+     * @param targetClues the number of clues to stop at
+     * @param difficulty  the difficulty recorded in the puzzle
+     * @return the generated puzzle
+     */
+    public Puzzle generate(int targetClues, Difficulty difficulty) {
+        return generate(targetClues, difficulty, random);
+    }
+
+    /**
+     * Generates a unique puzzle drawing every random choice from the given source instead of the
+     * generator's own, so one generator (and its scratch state) can serve many independent streams.
+     *
+     * @param targetClues the number of clues to stop at
+     * @param difficulty  the difficulty recorded in the puzzle
+     * @param random      the source of randomness for this puzzle
+     * @return the generated puzzle
+     */
+    public Puzzle generate(int targetClues, Difficulty difficulty, RandomGenerator random) {
+        return generate(targetClues, difficulty, random, null);
+    }
+
+    /**
+     * Runs the generation and tags the result with its identifier, if it has one.
+     */
+    private Puzzle generate(int targetClues, Difficulty difficulty, RandomGenerator random, PuzzleId id) {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        int cells = geometry.getCellCount();
+        if (!solver.solveRandom(empty, solution, random)) {
+            throw new IllegalStateException("No complete grid exists for " + geometry);
+        }
+        System.arraycopy(solution, 0, grid, 0, cells);
+
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        int clues = cells;
+        int rejected = 0;
+        int abandoned = 0;
+        for (int i = 0; i < cells && clues > targetClues; i++) {
+            int cell = order[i];
+            int value = grid[cell];
+            grid[cell] = 0;
+            if (solver.hasSolutionWithout(grid, cell, value, NODE_BUDGET)) {
+                grid[cell] = (byte) value;
+                rejected++;
+                if (solver.isExhausted()) {
+                    abandoned++;
+                }
+            } else {
+                clues--;
+            }
+        }
+        event.end();
+        if (MetricsRegistry.ENABLED) {
+            GENERATION_NANOS.recordSince(start);
+            PUZZLES.increment();
+            REJECTED_REMOVALS.add(rejected);
+            ABANDONED_REMOVALS.add(abandoned);
+            REJECTED_PER_PUZZLE.record(rejected);
+        }
+        if (event.shouldCommit()) {
+            event.size = geometry.getSize();
+            event.difficulty = difficulty.name();
+            event.clues = clues;
+            event.targetClues = targetClues;
+            event.rejectedRemovals = rejected;
+            event.commit();
+        }
+        return new Puzzle(geometry, grid, solution, difficulty, id);
+    }
+
+    /** @return the size and block shape of the boards this generator produces */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+}
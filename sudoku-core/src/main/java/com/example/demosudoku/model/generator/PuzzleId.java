@@ -0,0 +1,113 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.util.Objects;
+
+/**
+ * Compact identifier of a generated puzzle: board size, difficulty and the 64-bit seed that
+ * drives the generator. Given the same generator, an identifier always produces the same
+ * puzzle, so the UI and storage layers can pass identifiers around instead of whole grids.
+ * <p>
+ * The text form is {@code <size><difficulty>-<seed>}, where the difficulty is one letter
+ * ({@code E}asy, {@code M}edium, {@code H}ard or e{@code X}pert, since EASY and EXPERT share
+ * their first letter) and the seed is written in 13 Crockford base-32 characters, for example
+ * {@code 9M-0F3KZ9Q2X8A1C}.
+ */
+public final class PuzzleId {
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int SEED_LENGTH = 13;
+    // Letter of every difficulty, in declaration order.
+    private static final String DIFFICULTY_LETTERS = "EMHX";
+
+    private final BoardGeometry geometry;
+    private final Difficulty difficulty;
+    private final long seed;
+
+    /**
+     * Creates an identifier.
+     *
+     * @param geometry   a standard board geometry (see {@link BoardGeometry#of(int)})
+     * @param difficulty the difficulty of the puzzle
+     * @param seed       the seed of the generator
+     */
+    public PuzzleId(BoardGeometry geometry, Difficulty difficulty, long seed) {
+        if (BoardGeometry.of(geometry.getSize()) != geometry) {
+            throw new IllegalArgumentException("Only standard geometries have puzzle identifiers: " + geometry);
+        }
+        this.geometry = geometry;
+        this.difficulty = Objects.requireNonNull(difficulty);
+        this.seed = seed;
+    }
+
+    /**
+     * Parses the text form of an identifier. Letters are accepted in either case.
+     *
+     * @param text the identifier, as produced by {@link #toString()}
+     * @return the parsed identifier
+     * @throws IllegalArgumentException if the text is not a valid identifier
+     */
+    public static PuzzleId parse(String text) {
+        String id = text.trim().toUpperCase();
+        int dash = id.indexOf('-');
+        if (dash < 2 || id.length() - dash - 1 != SEED_LENGTH) {
+            throw new IllegalArgumentException("Malformed puzzle id: " + text);
+        }
+        BoardGeometry geometry = BoardGeometry.of(Integer.parseInt(id.substring(0, dash - 1)));
+        int level = DIFFICULTY_LETTERS.indexOf(id.charAt(dash - 1));
+        if (level < 0) {
+            throw new IllegalArgumentException("Unknown difficulty in puzzle id: " + text);
+        }
+        Difficulty difficulty = Difficulty.values()[level];
+        long seed = 0;
+        for (int i = dash + 1; i < id.length(); i++) {
+            int digit = ALPHABET.indexOf(id.charAt(i));
+            if (digit < 0 || (i == dash + 1 && digit > 15)) {
+                throw new IllegalArgumentException("Invalid character in puzzle id: " + text);
+            }
+            seed = (seed << 5) | digit;
+        }
+        return new PuzzleId(geometry, difficulty, seed);
+    }
+
+    /** @return the size and block shape of the board */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /** @return the difficulty of the puzzle */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /** @return the seed of the generator */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        char[] digits = new char[SEED_LENGTH];
+        long value = seed;
+        for (int i = SEED_LENGTH - 1; i >= 0; i--) {
+            digits[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        return geometry.getSize() + String.valueOf(DIFFICULTY_LETTERS.charAt(difficulty.ordinal())) + "-"
+                + new String(digits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PuzzleId)) {
+            return false;
+        }
+        PuzzleId id = (PuzzleId) other;
+        return geometry == id.geometry && difficulty == id.difficulty && seed == id.seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(geometry.getSize(), difficulty, seed);
+    }
+}
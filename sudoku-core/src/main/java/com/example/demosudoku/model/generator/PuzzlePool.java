@@ -0,0 +1,297 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps generated puzzles ready for every board shape and difficulty, so starting a game does not
+ * have to wait for generation.
+ * <p>
+ * Each (shape, difficulty) slot is a bounded lock-free queue: a counter reserves room with a
+ * compare-and-set before a puzzle is queued. When a slot drops below its low-water mark, one
+ * background task refills it to capacity. Taking from an empty slot is a miss: {@link #take}
+ * generates the puzzle on the caller's thread, while {@link #takeAsync} generates it on the
+ * common fork-join pool, so a UI thread never waits for generation.
+ * <p>
+ * Refills run on a small pool of low-priority daemon threads, and each thread keeps its own
+ * {@link PuzzleGenerator} per shape. Every puzzle is drawn from a fresh seed and carries its
+ * {@link PuzzleId} when the shape is standard.
+ */
+public class PuzzlePool {
+    /** Puzzles kept ready per slot by the shared pool. */
+    public static final int DEFAULT_CAPACITY = 8;
+    /** Size under which a slot of the shared pool is refilled. */
+    public static final int DEFAULT_LOW_WATER = 3;
+
+    private final int capacity;
+    private final int lowWater;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<BoardGeometry, Slot[]> slots = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<BoardGeometry, PuzzleGenerator>> generators = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<SplittableRandom> seeds = ThreadLocal.withInitial(SplittableRandom::new);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refills = new LongAdder();
+    private final LongAdder refillNanos = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder generationNanos = new LongAdder();
+    private final AtomicLong maxGenerationNanos = new AtomicLong();
+
+    /**
+     * One bounded queue of ready puzzles.
+     */
+    private static final class Slot {
+        final ConcurrentLinkedQueue<Puzzle> puzzles = new ConcurrentLinkedQueue<>();
+        // Queued puzzles plus reservations for puzzles about to be queued.
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean refilling = new AtomicBoolean();
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param capacity the most puzzles kept per shape and difficulty
+     * @param lowWater the size under which a slot is refilled, from 0 to {@code capacity}
+     * @param threads  the number of background generation threads
+     */
+    public PuzzlePool(int capacity, int lowWater, int threads) {
+        if (capacity < 1 || lowWater < 0 || lowWater > capacity || threads < 1) {
+            throw new IllegalArgumentException("Invalid pool: capacity " + capacity + ", low water " + lowWater
+                    + ", threads " + threads);
+        }
+        this.capacity = capacity;
+        this.lowWater = lowWater;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "puzzle-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Inner static class to hold the shared instance (lazy initialization).
+     */
+    private static class Holder {
+        private static final PuzzlePool INSTANCE = new PuzzlePool(DEFAULT_CAPACITY, DEFAULT_LOW_WATER,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @return the pool shared by the whole application
+     */
+    public static PuzzlePool getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts filling a slot in the background, so that the first game of that kind is a hit.
+     *
+     * @param geometry   the board shape
+     * @param difficulty the difficulty
+     */
+    public void warmUp(BoardGeometry geometry, Difficulty difficulty) {
+        scheduleRefill(geometry, difficulty, slot(geometry, difficulty));
+    }
+
+    /**
+     * Takes a ready puzzle, or generates one on the calling thread if the slot is empty.
+     * Either way the slot is refilled in the background once it is below its low-water mark.
+     *
+     * @param geometry   the board shape
+     * @param difficulty the difficulty
+     * @return a puzzle with a unique solution that no other caller receives
+     */
+    public Puzzle take(BoardGeometry geometry, Difficulty difficulty) {
+        Puzzle puzzle = poll(geometry, difficulty);
+        return puzzle != null ? puzzle : generate(geometry, difficulty);
+    }
+
+    /**
+     * Takes a ready puzzle, or starts generating one on the common fork-join pool if the slot is
+     * empty, without ever generating on the calling thread. The future of a hit is already complete.
+     * Either way the slot is refilled in the background once it is below its low-water mark.
+     *
+     * @param geometry   the board shape
+     * @param difficulty the difficulty
+     * @return the future puzzle, with a unique solution, that no other caller receives
+     */
+    public CompletableFuture<Puzzle> takeAsync(BoardGeometry geometry, Difficulty difficulty) {
+        Puzzle puzzle = poll(geometry, difficulty);
+        return puzzle != null
+                ? CompletableFuture.completedFuture(puzzle)
+                : CompletableFuture.supplyAsync(() -> generate(geometry, difficulty));
+    }
+
+    /**
+     * Removes a ready puzzle from its slot, counts the hit or miss and schedules a refill if needed.
+     *
+     * @return the puzzle, or {@code null} on a miss
+     */
+    private Puzzle poll(BoardGeometry geometry, Difficulty difficulty) {
+        Slot slot = slot(geometry, difficulty);
+        Puzzle puzzle = slot.puzzles.poll();
+        if (puzzle != null) {
+            slot.size.decrementAndGet();
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        if (slot.size.get() < lowWater) {
+            scheduleRefill(geometry, difficulty, slot);
+        }
+        return puzzle;
+    }
+
+    /**
+     * @param geometry   the board shape
+     * @param difficulty the difficulty
+     * @return how many puzzles of that kind are ready
+     */
+    public int available(BoardGeometry geometry, Difficulty difficulty) {
+        return slot(geometry, difficulty).puzzles.size();
+    }
+
+    private Slot slot(BoardGeometry geometry, Difficulty difficulty) {
+        Slot[] byDifficulty = slots.computeIfAbsent(geometry, key -> {
+            Slot[] created = new Slot[Difficulty.values().length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new Slot();
+            }
+            return created;
+        });
+        return byDifficulty[difficulty.ordinal()];
+    }
+
+    /**
+     * Submits a refill unless one is already running for the slot.
+     */
+    private void scheduleRefill(BoardGeometry geometry, Difficulty difficulty, Slot slot) {
+        if (slot.size.get() >= capacity || !slot.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> refill(geometry, difficulty, slot));
+        } catch (RejectedExecutionException e) {
+            // The pool was shut down; takes keep generating on their own thread.
+            slot.refilling.set(false);
+        }
+    }
+
+    /**
+     * Generates puzzles until the slot is full.
+     */
+    private void refill(BoardGeometry geometry, Difficulty difficulty, Slot slot) {
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                int size = slot.size.get();
+                if (size >= capacity) {
+                    break;
+                }
+                if (slot.size.compareAndSet(size, size + 1)) {
+                    try {
+                        slot.puzzles.offer(generate(geometry, difficulty));
+                    } catch (RuntimeException e) {
+                        slot.size.decrementAndGet();
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            refills.increment();
+            refillNanos.add(System.nanoTime() - start);
+            slot.refilling.set(false);
+        }
+        // A take may have drained the slot after the last check but before the flag was cleared.
+        if (slot.size.get() < lowWater) {
+            scheduleRefill(geometry, difficulty, slot);
+        }
+    }
+
+    /**
+     * Generates one puzzle with the calling thread's generator and records its latency.
+     */
+    private Puzzle generate(BoardGeometry geometry, Difficulty difficulty) {
+        long start = System.nanoTime();
+        PuzzleGenerator generator = generators.get().computeIfAbsent(geometry, PuzzleGenerator::new);
+        long seed = seeds.get().nextLong();
+        Puzzle puzzle;
+        if (geometry.isStandard()) {
+            puzzle = generator.generate(new PuzzleId(geometry, difficulty, seed));
+        } else {
+            puzzle = generator.generate(difficulty.targetClues(geometry), difficulty, new SplittableRandom(seed));
+        }
+        long elapsed = System.nanoTime() - start;
+        generated.increment();
+        generationNanos.add(elapsed);
+        maxGenerationNanos.accumulateAndGet(elapsed, Math::max);
+        return puzzle;
+    }
+
+    /** @return the number of takes served from a ready puzzle */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** @return the number of takes that found their slot empty and had to generate a puzzle */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** @return the number of completed background refills */
+    public long getRefills() {
+        return refills.sum();
+    }
+
+    /** @return the average time a background refill took to bring its slot to capacity, in nanoseconds */
+    public long getAverageRefillNanos() {
+        long count = refills.sum();
+        return count == 0 ? 0 : refillNanos.sum() / count;
+    }
+
+    /** @return the number of puzzles generated, in the background or on a miss */
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    /** @return the average time to generate one puzzle, in nanoseconds */
+    public long getAverageGenerationNanos() {
+        long count = generated.sum();
+        return count == 0 ? 0 : generationNanos.sum() / count;
+    }
+
+    /** @return the longest time spent generating one puzzle, in nanoseconds */
+    public long getMaxGenerationNanos() {
+        return maxGenerationNanos.get();
+    }
+
+    /**
+     * Stops the background threads. Puzzles already queued can still be taken; a miss still generates.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PuzzlePool[hits=%d, misses=%d, refills=%d (avg %.2f ms), generated=%d (avg %.2f ms, max %.2f ms)]",
+                getHits(), getMisses(), getRefills(), getAverageRefillNanos() / 1e6,
+                getGenerated(), getAverageGenerationNanos() / 1e6, getMaxGenerationNanos() / 1e6);
+    }
+}
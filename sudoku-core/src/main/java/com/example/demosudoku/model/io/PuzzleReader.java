@@ -0,0 +1,221 @@
+package com.example.demosudoku.model.io;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams puzzles from the one-line-per-puzzle text format, plain or gzip-compressed.
+ * <p>
+ * Each line holds one symbol per cell in row order ({@code 1-9}, then {@code A-Z} on large boards,
+ * letters in either case), with {@code .} or {@code 0} for empty cells. Leading spaces are skipped,
+ * and anything after the cells (a space, comma, semicolon or tab followed by a solution, a rating
+ * or a comment) is ignored. Blank lines and lines starting with {@code #} are skipped. Lines with
+ * the wrong number of cells or an unknown symbol are counted as malformed and skipped, so one bad
+ * line does not stop a long run.
+ * <p>
+ * The reader parses bytes straight from one reusable {@value #BUFFER_BYTES}-byte buffer into the
+ * caller's grid: no line, String or array is created per puzzle, and memory stays the same
+ * whatever the size of the file.
+ * <p>
+ * A reader is not thread-safe.
+ */
+public class PuzzleReader implements Closeable {
+    /** Bytes read from the channel at a time. */
+    public static final int BUFFER_BYTES = 1 << 16;
+
+    private static final int GZIP_MAGIC = 0x8B1F;
+
+    private final ReadableByteChannel channel;
+    private final BoardGeometry geometry;
+    private final int cellCount;
+    // Number of every byte value, -1 for symbols of other boards, 0 for blanks.
+    private final byte[] values = new byte[256];
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final byte[] bytes = buffer.array();
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private long lineNumber;
+    private long puzzleCount;
+    private long malformedCount;
+    private long firstMalformedLine;
+
+    /**
+     * Creates a reader over a channel of uncompressed text.
+     *
+     * @param channel  the source, closed with the reader
+     * @param geometry the shape of the puzzles
+     */
+    public PuzzleReader(ReadableByteChannel channel, BoardGeometry geometry) {
+        this.channel = channel;
+        this.geometry = geometry;
+        this.cellCount = geometry.getCellCount();
+        Arrays.fill(values, (byte) -1);
+        values['.'] = 0;
+        values['0'] = 0;
+        for (int value = 1; value <= geometry.getSize(); value++) {
+            char symbol = geometry.toSymbol(value);
+            values[symbol] = (byte) value;
+            values[Character.toLowerCase(symbol)] = (byte) value;
+        }
+    }
+
+    /**
+     * Opens a puzzle file, decompressing it if it starts with the gzip signature.
+     *
+     * @param path     the file
+     * @param geometry the shape of the puzzles
+     * @return the reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static PuzzleReader open(Path path, BoardGeometry geometry) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer magic = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && file.read(magic, magic.position()) > 0) {
+                // Positional reads leave the channel at the start of the file.
+            }
+            if (magic.position() == 2 && (magic.getShort(0) & 0xFFFF) == GZIP_MAGIC) {
+                GZIPInputStream gzip = new GZIPInputStream(Channels.newInputStream(file), BUFFER_BYTES);
+                return new PuzzleReader(Channels.newChannel(gzip), geometry);
+            }
+            return new PuzzleReader(file, geometry);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next well-formed puzzle.
+     *
+     * @param grid receives the puzzle in row order, {@code 0} for empty cells; at least {@code size * size} long
+     * @return {@code true} if a puzzle was read, {@code false} at the end of the input
+     * @throws IOException if the source cannot be read
+     */
+    public boolean next(byte[] grid) throws IOException {
+        return next(grid, 0);
+    }
+
+    /**
+     * Reads the next well-formed puzzle into part of a larger array, for example a chunk of puzzles.
+     *
+     * @param grids  receives the puzzle in row order from {@code offset}, {@code 0} for empty cells
+     * @param offset the index of the puzzle's first cell in the array
+     * @return {@code true} if a puzzle was read, {@code false} at the end of the input
+     * @throws IOException if the source cannot be read
+     */
+    public boolean next(byte[] grids, int offset) throws IOException {
+        while (true) {
+            int cells = 0;
+            boolean content = false;
+            boolean ended = false;
+            boolean malformed = false;
+            boolean comment = false;
+            int b;
+            while ((b = read()) != '\n') {
+                if (b < 0) {
+                    if (!content && !comment) {
+                        return false;
+                    }
+                    break;
+                }
+                if (ended || malformed || comment || b == '\r') {
+                    continue;
+                }
+                if (b == ' ' || b == '\t' || b == ',' || b == ';' || b == '|') {
+                    ended = content;
+                    continue;
+                }
+                if (!content && b == '#') {
+                    comment = true;
+                    continue;
+                }
+                content = true;
+                int value = values[b];
+                if (value < 0 || cells == cellCount) {
+                    malformed = true;
+                } else {
+                    grids[offset + cells++] = (byte) value;
+                }
+            }
+            lineNumber++;
+            if (!content) {
+                continue;
+            }
+            if (malformed || cells != cellCount) {
+                if (malformedCount++ == 0) {
+                    firstMalformedLine = lineNumber;
+                }
+                continue;
+            }
+            puzzleCount++;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the next byte, refilling the buffer from the channel when it is used up.
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            if (endOfInput) {
+                return -1;
+            }
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            if (read < 0) {
+                endOfInput = true;
+                return -1;
+            }
+            position = 0;
+            limit = buffer.position();
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    /** @return the shape of the puzzles read */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /** @return the number of lines read so far */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /** @return the number of puzzles returned so far */
+    public long getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    /** @return the number of malformed lines skipped so far */
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+
+    /** @return the line number of the first malformed line, or 0 if there was none */
+    public long getFirstMalformedLine() {
+        return firstMalformedLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demosudoku.model.io;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams puzzles to the one-line-per-puzzle text format read by {@link PuzzleReader}, plain or
+ * gzip-compressed.
+ * <p>
+ * Each puzzle is encoded straight into one reusable {@value PuzzleReader#BUFFER_BYTES}-byte buffer,
+ * which is handed to the channel whenever the next line would not fit. No String or array is
+ * created per puzzle.
+ * <p>
+ * A writer is not thread-safe.
+ */
+public class PuzzleWriter implements Closeable, Flushable {
+    private final WritableByteChannel channel;
+    private final int cellCount;
+    // Symbol written for every cell value, the blank symbol at index 0.
+    private final byte[] symbols;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private long puzzleCount;
+
+    /**
+     * Creates a writer over a channel, with {@code .} for empty cells.
+     *
+     * @param channel  the destination, closed with the writer
+     * @param geometry the shape of the puzzles
+     */
+    public PuzzleWriter(WritableByteChannel channel, BoardGeometry geometry) {
+        this(channel, geometry, '.');
+    }
+
+    /**
+     * Creates a writer over a channel.
+     *
+     * @param channel  the destination, closed with the writer
+     * @param geometry the shape of the puzzles
+     * @param blank    the symbol for empty cells, {@code .} or {@code 0}
+     */
+    public PuzzleWriter(WritableByteChannel channel, BoardGeometry geometry, char blank) {
+        if (blank != '.' && blank != '0') {
+            throw new IllegalArgumentException("Blank must be '.' or '0': " + blank);
+        }
+        this.channel = channel;
+        this.cellCount = geometry.getCellCount();
+        this.symbols = new byte[geometry.getSize() + 1];
+        symbols[0] = (byte) blank;
+        for (int value = 1; value <= geometry.getSize(); value++) {
+            symbols[value] = (byte) geometry.toSymbol(value);
+        }
+        this.buffer = ByteBuffer.allocate(Math.max(PuzzleReader.BUFFER_BYTES, cellCount + 1));
+        this.bytes = buffer.array();
+    }
+
+    /**
+     * Creates or truncates a puzzle file, gzip-compressed if its name ends in {@code .gz}.
+     *
+     * @param path     the file
+     * @param geometry the shape of the puzzles
+     * @return the writer
+     * @throws IOException if the file cannot be created
+     */
+    public static PuzzleWriter create(Path path, BoardGeometry geometry) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (!path.getFileName().toString().endsWith(".gz")) {
+            return new PuzzleWriter(file, geometry);
+        }
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(file), PuzzleReader.BUFFER_BYTES);
+            return new PuzzleWriter(Channels.newChannel(gzip), geometry);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes one puzzle as a line.
+     *
+     * @param grid the cells in row order, {@code 0} for empty cells
+     * @throws IOException if the destination cannot be written
+     */
+    public void write(byte[] grid) throws IOException {
+        write(grid, 0, null);
+    }
+
+    /**
+     * Writes one puzzle held in part of a larger array as a line, optionally followed by a space
+     * and an annotation such as a solution count. {@link PuzzleReader} skips the annotation.
+     *
+     * @param grids      the cells in row order from {@code offset}, {@code 0} for empty cells
+     * @param offset     the index of the puzzle's first cell in the array
+     * @param annotation ASCII text written after the puzzle, or {@code null}
+     * @throws IOException if the destination cannot be written
+     */
+    public void write(byte[] grids, int offset, String annotation) throws IOException {
+        int extra = annotation == null ? 0 : annotation.length() + 1;
+        int position = reserveLine(extra);
+        for (int cell = 0; cell < cellCount; cell++) {
+            bytes[position + cell] = symbols[grids[offset + cell]];
+        }
+        if (annotation != null) {
+            bytes[position + cellCount] = ' ';
+            for (int i = 0; i < annotation.length(); i++) {
+                bytes[position + cellCount + 1 + i] = (byte) annotation.charAt(i);
+            }
+        }
+        endLine(position, extra);
+    }
+
+    /**
+     * Writes the givens of a puzzle as a line.
+     *
+     * @param puzzle the puzzle
+     * @throws IOException if the destination cannot be written
+     */
+    public void write(Puzzle puzzle) throws IOException {
+        int position = reserveLine(0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            bytes[position + cell] = symbols[puzzle.getGiven(cell)];
+        }
+        endLine(position, 0);
+    }
+
+    private int reserveLine(int extra) throws IOException {
+        if (buffer.remaining() < cellCount + extra + 1) {
+            drain();
+            if (buffer.remaining() < cellCount + extra + 1) {
+                throw new IllegalArgumentException("Annotation too long: " + extra + " bytes");
+            }
+        }
+        return buffer.position();
+    }
+
+    private void endLine(int position, int extra) {
+        bytes[position + cellCount + extra] = '\n';
+        buffer.position(position + cellCount + extra + 1);
+        puzzleCount++;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** @return the number of puzzles written so far */
+    public long getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    /**
+     * Hands the buffered lines to the channel. A gzip stream keeps compressing them until it is closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
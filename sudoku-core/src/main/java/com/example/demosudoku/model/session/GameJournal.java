@@ -0,0 +1,284 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.PackedGrid;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleId;
+import com.example.demosudoku.model.solver.DlxSolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Autosave file of one game, written as a journal of the player's actions.
+ * <p>
+ * The file starts with a header that describes the puzzle (board shape, difficulty, seed and the
+ * packed clues) and continues with one {@value #RECORD_BYTES}-byte record per action: a move, an
+ * undo or a redo. Only these deltas are written while playing, never the board. {@link #open}
+ * replays them into a {@link GameState}, ignoring a record cut short by a crash, and keeps
+ * appending after them.
+ * <p>
+ * The header also keeps the progress of the player: the time played, the hints shown and the
+ * numbers rejected. {@link #recordProgress} overwrites it in place, so it costs no record.
+ */
+public class GameJournal implements Closeable {
+    /** Bytes of every action record. */
+    public static final int RECORD_BYTES = 4;
+
+    private static final int MAGIC = 0x53444B4A; // "SDKJ"
+    private static final short VERSION = 2;
+    // Magic, version, size, block rows, block columns, difficulty, flags, padding, seed, padding,
+    // then the progress: time played, hints and errors.
+    private static final int HEADER_BYTES = 40;
+    private static final int PROGRESS_OFFSET = 24;
+    private static final int PROGRESS_BYTES = 8 + 4 + 4;
+    private static final int FLAG_HAS_ID = 1;
+
+    private static final byte MOVE = 1;
+    private static final byte UNDO = 2;
+    private static final byte REDO = 3;
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final ByteBuffer progress = ByteBuffer.allocate(PROGRESS_BYTES);
+    private final GameState restored;
+    private final long restoredElapsedMillis;
+    private final int restoredHints;
+    private final int restoredErrors;
+
+    private GameJournal(FileChannel channel, GameState restored, long elapsedMillis, int hints, int errors) {
+        this.channel = channel;
+        this.restored = restored;
+        this.restoredElapsedMillis = elapsedMillis;
+        this.restoredHints = hints;
+        this.restoredErrors = errors;
+    }
+
+    /**
+     * Starts a journal for a new game, replacing any file at the path.
+     *
+     * @param path   the journal file
+     * @param puzzle the puzzle being played
+     * @return the journal, ready to record actions
+     * @throws IOException if the file cannot be written
+     */
+    public static GameJournal create(Path path, Puzzle puzzle) throws IOException {
+        BoardGeometry geometry = puzzle.getGeometry();
+        byte[] clues = PackedGrid.pack(geometry, puzzle.getGivens());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + clues.length);
+        PuzzleId id = puzzle.getId();
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) geometry.getSize())
+                .put((byte) geometry.getBlockRows())
+                .put((byte) geometry.getBlockCols())
+                .put((byte) puzzle.getDifficulty().ordinal())
+                .put((byte) (id != null ? FLAG_HAS_ID : 0))
+                .put((byte) 0)
+                .putLong(id != null ? id.getSeed() : 0)
+                .position(HEADER_BYTES);
+        header.put(clues).flip();
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new GameJournal(channel, GameState.start(puzzle), 0, 0, 0);
+    }
+
+    /**
+     * Opens the journal of a game and replays it.
+     *
+     * @param path the journal file
+     * @return the journal, positioned to record further actions; see {@link #getRestoredState()}
+     * @throws IOException if the file cannot be read or is not a valid journal
+     */
+    public static GameJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, path);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+                throw new IOException("Not a game journal: " + path);
+            }
+            BoardGeometry geometry;
+            Difficulty difficulty;
+            try {
+                geometry = BoardGeometry.of(header.get(), header.get(), header.get());
+                difficulty = Difficulty.values()[header.get()];
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Corrupt game journal header: " + path, e);
+            }
+            boolean hasId = (header.get() & FLAG_HAS_ID) != 0;
+            header.get();
+            long seed = header.getLong();
+            header.position(PROGRESS_OFFSET);
+            long elapsedMillis = header.getLong();
+            int hints = header.getInt();
+            int errors = header.getInt();
+
+            ByteBuffer clues = ByteBuffer.allocate(PackedGrid.byteCount(geometry));
+            readFully(channel, clues, path);
+            byte[] givens = new byte[geometry.getCellCount()];
+            PackedGrid.unpack(geometry, clues.array(), givens);
+            byte[] solution = new byte[geometry.getCellCount()];
+            if (!new DlxSolver(geometry).solve(givens, solution)) {
+                throw new IOException("Game journal holds an unsolvable puzzle: " + path);
+            }
+            PuzzleId id = hasId && geometry.isStandard() ? new PuzzleId(geometry, difficulty, seed) : null;
+            GameState state = replay(channel, GameState.start(new Puzzle(geometry, givens, solution, difficulty, id)));
+            return new GameJournal(channel, state, elapsedMillis, hints, errors);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Applies every complete record after the header, then drops a trailing partial record so
+     * new records stay aligned.
+     */
+    private static GameState replay(FileChannel channel, GameState state) throws IOException {
+        long start = channel.position();
+        ByteBuffer records = ByteBuffer.allocate(RECORD_BYTES * 1024);
+        long applied = 0;
+        while (channel.read(records) > 0 || records.position() >= RECORD_BYTES) {
+            records.flip();
+            while (records.remaining() >= RECORD_BYTES) {
+                byte op = records.get();
+                int cell = records.getShort() & 0xFFFF;
+                int value = records.get();
+                try {
+                    if (op == MOVE) {
+                        state = state.play(cell, value);
+                    } else if (op == UNDO) {
+                        state = state.undo();
+                    } else if (op == REDO) {
+                        state = state.redo();
+                    } else {
+                        throw new IOException("Corrupt game journal record " + applied);
+                    }
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    throw new IOException("Corrupt game journal record " + applied, e);
+                }
+                applied++;
+            }
+            records.compact();
+        }
+        long end = start + applied * RECORD_BYTES;
+        channel.truncate(end);
+        channel.position(end);
+        return state;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated game journal: " + path);
+            }
+        }
+    }
+
+    /**
+     * @return the state rebuilt by {@link #open}, or the starting state of a journal from {@link #create}
+     */
+    public GameState getRestoredState() {
+        return restored;
+    }
+
+    /** @return the time played when the journal was opened, in milliseconds; 0 for a new journal */
+    public long getRestoredElapsedMillis() {
+        return restoredElapsedMillis;
+    }
+
+    /** @return the hints shown when the journal was opened */
+    public int getRestoredHints() {
+        return restoredHints;
+    }
+
+    /** @return the numbers rejected when the journal was opened */
+    public int getRestoredErrors() {
+        return restoredErrors;
+    }
+
+    /**
+     * Saves the progress of the player in the header, replacing the previous one.
+     *
+     * @param elapsedMillis the time played so far, in milliseconds
+     * @param hints         the hints shown so far
+     * @param errors        the numbers rejected so far
+     * @throws IOException if the header cannot be written
+     */
+    public void recordProgress(long elapsedMillis, int hints, int errors) throws IOException {
+        progress.clear();
+        progress.putLong(elapsedMillis).putInt(hints).putInt(errors).flip();
+        long position = PROGRESS_OFFSET;
+        while (progress.hasRemaining()) {
+            position += channel.write(progress, position);
+        }
+    }
+
+    /**
+     * Records a move.
+     *
+     * @param cell  the flat cell index
+     * @param value the number written, {@code 0} if the cell was cleared
+     * @throws IOException if the record cannot be written
+     */
+    public void recordMove(int cell, int value) throws IOException {
+        write(MOVE, cell, value);
+    }
+
+    /**
+     * Records an undo of the last move.
+     *
+     * @throws IOException if the record cannot be written
+     */
+    public void recordUndo() throws IOException {
+        write(UNDO, 0, 0);
+    }
+
+    /**
+     * Records a redo of the last undone move.
+     *
+     * @throws IOException if the record cannot be written
+     */
+    public void recordRedo() throws IOException {
+        write(REDO, 0, 0);
+    }
+
+    private void write(byte op, int cell, int value) throws IOException {
+        record.clear();
+        record.put(op).putShort((short) cell).put((byte) value).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Forces the records written so far to the storage device.
+     *
+     * @throws IOException if the file cannot be synced
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.PackedGrid;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Rebuilds a game from its {@link ReplayLog}: the puzzle from the header, then every action
+ * played again on a {@link GameState}, up to the end of the log or to a chosen moment.
+ * <p>
+ * Events are decoded in place from one reusable {@value #BUFFER_BYTES}-byte buffer and applied
+ * without the board or its rules: accepted numbers, cleared cells, undo and redo change the
+ * state, rejected numbers are only counted. Only the moves kept in the history allocate, so
+ * millions of events are replayed per second. The result can be checked against the recorded
+ * outcome, for example with {@link GameState#isSolved()}.
+ */
+public final class GameReplay {
+    /** Bytes read from the log at a time. */
+    public static final int BUFFER_BYTES = ReplayLog.EVENT_BYTES * 8192;
+
+    private final GameState state;
+    private final long startMillis;
+    private final long eventCount;
+    private final long rejectedCount;
+    private final long lastMillis;
+
+    private GameReplay(GameState state, long startMillis, long eventCount, long rejectedCount, long lastMillis) {
+        this.state = state;
+        this.startMillis = startMillis;
+        this.eventCount = eventCount;
+        this.rejectedCount = rejectedCount;
+        this.lastMillis = lastMillis;
+    }
+
+    /**
+     * Replays a whole log.
+     *
+     * @param path the log file
+     * @return the game as it was after the last recorded action
+     * @throws IOException if the file cannot be read or is not a valid log
+     */
+    public static GameReplay replay(Path path) throws IOException {
+        return replay(path, Long.MAX_VALUE);
+    }
+
+    /**
+     * Replays a log up to a moment of the game.
+     *
+     * @param path        the log file
+     * @param untilMillis the milliseconds since the start of the game; later actions are ignored
+     * @return the game as it was at that moment
+     * @throws IOException if the file cannot be read or is not a valid log
+     */
+    public static GameReplay replay(Path path, long untilMillis) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            buffer.limit(ReplayLog.HEADER_BYTES);
+            readFully(channel, buffer, path);
+            buffer.flip();
+            if (buffer.getInt() != ReplayLog.MAGIC || buffer.getShort() != ReplayLog.VERSION) {
+                throw new IOException("Not a replay log: " + path);
+            }
+            BoardGeometry geometry;
+            Difficulty difficulty;
+            try {
+                geometry = BoardGeometry.of(buffer.get(), buffer.get(), buffer.get());
+                difficulty = Difficulty.values()[buffer.get()];
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Corrupt replay log header: " + path, e);
+            }
+            boolean hasId = (buffer.get() & ReplayLog.FLAG_HAS_ID) != 0;
+            buffer.get();
+            long seed = buffer.getLong();
+            long startMillis = buffer.getLong();
+
+            int gridBytes = PackedGrid.byteCount(geometry);
+            buffer.clear().limit(2 * gridBytes);
+            readFully(channel, buffer, path);
+            byte[] packed = new byte[gridBytes];
+            byte[] givens = new byte[geometry.getCellCount()];
+            byte[] solution = new byte[geometry.getCellCount()];
+            buffer.flip().get(packed);
+            PackedGrid.unpack(geometry, packed, givens);
+            buffer.get(packed);
+            PackedGrid.unpack(geometry, packed, solution);
+            PuzzleId id = hasId && geometry.isStandard() ? new PuzzleId(geometry, difficulty, seed) : null;
+            GameState state = GameState.start(new Puzzle(geometry, givens, solution, difficulty, id));
+
+            long events = 0;
+            long rejected = 0;
+            long lastMillis = 0;
+            buffer.clear();
+            while (channel.read(buffer) > 0 || buffer.position() >= ReplayLog.EVENT_BYTES) {
+                buffer.flip();
+                while (buffer.remaining() >= ReplayLog.EVENT_BYTES) {
+                    int millis = buffer.getInt();
+                    int cell = buffer.getShort() & 0xFFFF;
+                    int value = buffer.get();
+                    ReplayLog.Action action = ReplayLog.Action.of(buffer.get());
+                    if (millis > untilMillis) {
+                        return new GameReplay(state, startMillis, events, rejected, lastMillis);
+                    }
+                    if (action == null) {
+                        throw new IOException("Corrupt replay log event " + events + ": " + path);
+                    }
+                    try {
+                        switch (action) {
+                            case ACCEPTED:
+                            case CLEARED:
+                                state = state.play(cell, value);
+                                break;
+                            case UNDO:
+                                state = state.undo();
+                                break;
+                            case REDO:
+                                state = state.redo();
+                                break;
+                            default:
+                                rejected++;
+                                break;
+                        }
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        throw new IOException("Replay log event " + events + " cannot be played: " + path, e);
+                    }
+                    events++;
+                    lastMillis = millis;
+                }
+                buffer.compact();
+            }
+            return new GameReplay(state, startMillis, events, rejected, lastMillis);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated replay log: " + path);
+            }
+        }
+    }
+
+    /** @return the game after the replayed actions */
+    public GameState getState() {
+        return state;
+    }
+
+    /** @return when the game started, in milliseconds since the epoch */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /** @return the number of actions replayed */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /** @return the number of replayed numbers that had been rejected */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /** @return the milliseconds between the start of the game and the last replayed action */
+    public long getElapsedMillis() {
+        return lastMillis;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.model.board.Board;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+
+/**
+ * The rules of one game being played: a {@link Board} that checks every number against its row,
+ * column and block, and the {@link GameState} that records the accepted moves.
+ * <p>
+ * A number that breaks a rule is rejected and leaves both untouched; an accepted number or a
+ * cleared cell is written to the board and played on the state. Undo and redo replay the history
+ * on the board. The JavaFX game and the headless server share this class, so a move is judged the
+ * same way whatever the player typed it into.
+ * <p>
+ * A session is not thread-safe.
+ */
+public class GameSession {
+    /** What became of a number entered by the player. */
+    public enum Outcome {
+        /** The number breaks no rule and was written. */
+        ACCEPTED,
+        /** The number repeats one in its row, column or block and was not written. */
+        REJECTED,
+        /** The number was written and completed the board. */
+        SOLVED
+    }
+
+    private final Board board;
+    private GameState state;
+
+    /**
+     * Starts a new game.
+     *
+     * @param puzzle the puzzle to play
+     */
+    public GameSession(Puzzle puzzle) {
+        this.board = new Board(puzzle);
+        this.state = GameState.start(puzzle);
+    }
+
+    /**
+     * Resumes a game: the board holds the puzzle's clues and every number the player had written.
+     *
+     * @param state the saved state
+     */
+    public GameSession(GameState state) {
+        this.board = new Board(state.getPuzzle());
+        this.state = state;
+        byte[] grid = state.toGrid();
+        BoardGeometry geometry = board.getGeometry();
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (state.getPuzzle().getGiven(cell) == 0 && grid[cell] != 0) {
+                board.setCellValue(geometry.rowOf(cell), geometry.colOf(cell), grid[cell]);
+            }
+        }
+    }
+
+    /**
+     * Enters a number in a cell if it breaks no rule.
+     *
+     * @param cell   the flat cell index
+     * @param number the number, from 1 to the board size
+     * @return whether the number was accepted and whether it solved the board
+     * @throws IllegalArgumentException if the cell is a clue or out of the board
+     */
+    public Outcome enter(int cell, int number) {
+        checkEditable(cell);
+        BoardGeometry geometry = board.getGeometry();
+        int row = geometry.rowOf(cell);
+        int col = geometry.colOf(cell);
+        if (!board.isValid(row, col, number)) {
+            return Outcome.REJECTED;
+        }
+        board.setCellValue(row, col, number);
+        state = state.play(cell, number);
+        return board.isComplete() ? Outcome.SOLVED : Outcome.ACCEPTED;
+    }
+
+    /**
+     * Empties a cell.
+     *
+     * @param cell the flat cell index
+     * @throws IllegalArgumentException if the cell is a clue or out of the board
+     */
+    public void clear(int cell) {
+        checkEditable(cell);
+        BoardGeometry geometry = board.getGeometry();
+        board.setCellValue(geometry.rowOf(cell), geometry.colOf(cell), 0);
+        state = state.play(cell, 0);
+    }
+
+    /**
+     * Takes back the last move.
+     *
+     * @return the move taken back, or {@code null} if there was none
+     */
+    public Move undo() {
+        if (!state.canUndo()) {
+            return null;
+        }
+        Move move = state.peekUndo();
+        state = state.undo();
+        setCell(move.getCell(), move.getPrevious());
+        return move;
+    }
+
+    /**
+     * Plays the last undone move again.
+     *
+     * @return the move played again, or {@code null} if there was none
+     */
+    public Move redo() {
+        if (!state.canRedo()) {
+            return null;
+        }
+        Move move = state.peekRedo();
+        state = state.redo();
+        setCell(move.getCell(), move.getValue());
+        return move;
+    }
+
+    private void setCell(int cell, int number) {
+        BoardGeometry geometry = board.getGeometry();
+        board.setCellValue(geometry.rowOf(cell), geometry.colOf(cell), number);
+    }
+
+    private void checkEditable(int cell) {
+        if (cell < 0 || cell >= board.getGeometry().getCellCount()) {
+            throw new IllegalArgumentException("Cell " + cell + " is out of the board");
+        }
+        if (state.getPuzzle().getGiven(cell) != 0) {
+            throw new IllegalArgumentException("Cell " + cell + " is a clue");
+        }
+    }
+
+    /** @return whether every cell is filled; accepted numbers never break a rule, so the board is solved */
+    public boolean isSolved() {
+        return board.isComplete();
+    }
+
+    /** @return the board being played */
+    public Board getBoard() {
+        return board;
+    }
+
+    /** @return the puzzle and the history of moves */
+    public GameState getState() {
+        return state;
+    }
+
+    /** @return the puzzle being played */
+    public Puzzle getPuzzle() {
+        return state.getPuzzle();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.PackedGrid;
+import com.example.demosudoku.model.generator.Puzzle;
+
+/**
+ * Immutable state of a game: the puzzle, the moves played on it and the moves that can be redone.
+ * <p>
+ * Every operation returns a new state and leaves this one untouched. Played moves form a linked
+ * history shared between states ({@link Move}), and the redo list is a linked list of the undone
+ * moves, so {@link #play}, {@link #undo} and {@link #redo} each allocate at most one node and
+ * run in constant time. Every {@value #SNAPSHOT_INTERVAL} moves the history keeps a packed copy
+ * of the grid, so a long session holds one small snapshot per interval rather than a board per move,
+ * and reading a cell replays at most {@value #SNAPSHOT_INTERVAL} moves.
+ */
+public final class GameState {
+    /** Number of moves between two snapshots of the grid. */
+    public static final int SNAPSHOT_INTERVAL = 64;
+
+    private final Puzzle puzzle;
+    private final Move head;
+    private final RedoLink redo;
+
+    /**
+     * One entry of the redo list.
+     */
+    private static final class RedoLink {
+        final Move move;
+        final RedoLink next;
+
+        RedoLink(Move move, RedoLink next) {
+            this.move = move;
+            this.next = next;
+        }
+    }
+
+    private GameState(Puzzle puzzle, Move head, RedoLink redo) {
+        this.puzzle = puzzle;
+        this.head = head;
+        this.redo = redo;
+    }
+
+    /**
+     * @param puzzle the puzzle to play
+     * @return the state before the first move
+     */
+    public static GameState start(Puzzle puzzle) {
+        return new GameState(puzzle, null, null);
+    }
+
+    /** @return the puzzle being played */
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    /** @return the number of moves played and not undone */
+    public int getMoveCount() {
+        return head == null ? 0 : head.getDepth();
+    }
+
+    /**
+     * Plays a number in a cell. The redo list is discarded, as in any editor.
+     *
+     * @param cell  the flat cell index
+     * @param value the number to write, or {@code 0} to clear the cell
+     * @return the new state, or this state if the cell already holds the value
+     * @throws IllegalArgumentException if the cell is a clue or the value is out of range
+     */
+    public GameState play(int cell, int value) {
+        BoardGeometry geometry = puzzle.getGeometry();
+        if (cell < 0 || cell >= geometry.getCellCount() || value < 0 || value > geometry.getSize()) {
+            throw new IllegalArgumentException("Invalid move " + value + " at cell " + cell);
+        }
+        if (puzzle.getGiven(cell) != 0) {
+            throw new IllegalArgumentException("Cell " + cell + " is a clue");
+        }
+        int previous = getCellValue(cell);
+        if (previous == value) {
+            return this;
+        }
+        byte[] snapshot = null;
+        if ((getMoveCount() + 1) % SNAPSHOT_INTERVAL == 0) {
+            byte[] grid = toGrid();
+            grid[cell] = (byte) value;
+            snapshot = PackedGrid.pack(geometry, grid);
+        }
+        return new GameState(puzzle, new Move(cell, previous, value, head, snapshot), null);
+    }
+
+    /** @return whether there is a move to undo */
+    public boolean canUndo() {
+        return head != null;
+    }
+
+    /** @return whether there is an undone move to redo */
+    public boolean canRedo() {
+        return redo != null;
+    }
+
+    /**
+     * @return the move {@link #undo()} would take back, or {@code null} if there is none
+     */
+    public Move peekUndo() {
+        return head;
+    }
+
+    /**
+     * @return the move {@link #redo()} would play again, or {@code null} if there is none
+     */
+    public Move peekRedo() {
+        return redo == null ? null : redo.move;
+    }
+
+    /**
+     * @return the state before the last move
+     * @throws IllegalStateException if no move was played
+     */
+    public GameState undo() {
+        if (head == null) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        return new GameState(puzzle, head.getParent(), new RedoLink(head, redo));
+    }
+
+    /**
+     * @return the state after playing the last undone move again
+     * @throws IllegalStateException if there is nothing to redo
+     */
+    public GameState redo() {
+        if (redo == null) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        return new GameState(puzzle, redo.move, redo.next);
+    }
+
+    /**
+     * @param cell the flat cell index
+     * @return the number in the cell, {@code 0} if it is empty
+     */
+    public int getCellValue(int cell) {
+        for (Move move = head; move != null; move = move.getParent()) {
+            if (move.getCell() == cell) {
+                return move.getValue();
+            }
+            if (move.getSnapshot() != null) {
+                return PackedGrid.get(puzzle.getGeometry(), move.getSnapshot(), cell);
+            }
+        }
+        return puzzle.getGiven(cell);
+    }
+
+    /**
+     * Rebuilds the grid from the latest snapshot and the moves played after it.
+     *
+     * @return a new array with the clues and the player's numbers, {@code 0} for empty cells
+     */
+    public byte[] toGrid() {
+        BoardGeometry geometry = puzzle.getGeometry();
+        Move[] pending = new Move[SNAPSHOT_INTERVAL];
+        int count = 0;
+        Move move = head;
+        while (move != null && move.getSnapshot() == null) {
+            pending[count++] = move;
+            move = move.getParent();
+        }
+        byte[] grid;
+        if (move == null) {
+            grid = puzzle.getGivens();
+        } else {
+            grid = new byte[geometry.getCellCount()];
+            PackedGrid.unpack(geometry, move.getSnapshot(), grid);
+        }
+        while (count > 0) {
+            Move next = pending[--count];
+            grid[next.getCell()] = (byte) next.getValue();
+        }
+        return grid;
+    }
+
+    /** @return whether every cell holds the number of the solution */
+    public boolean isSolved() {
+        byte[] grid = toGrid();
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] != puzzle.getSolution(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
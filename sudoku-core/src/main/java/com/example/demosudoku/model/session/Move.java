@@ -0,0 +1,58 @@
+package com.example.demosudoku.model.session;
+
+/**
+ * One change made by the player: a cell going from one number to another, where {@code 0} is empty.
+ * <p>
+ * Moves are immutable and form the history of a {@link GameState}: every move points to the one
+ * played before it, so states share their common history instead of copying the board. Every
+ * {@value GameState#SNAPSHOT_INTERVAL}th move also keeps a packed copy of the grid, so a cell or
+ * the whole grid is rebuilt by replaying at most that many moves.
+ */
+public final class Move {
+    private final int cell;
+    private final byte previous;
+    private final byte value;
+    private final Move parent;
+    private final int depth;
+    // Packed grid after this move, or null between snapshots.
+    private final byte[] snapshot;
+
+    Move(int cell, int previous, int value, Move parent, byte[] snapshot) {
+        this.cell = cell;
+        this.previous = (byte) previous;
+        this.value = (byte) value;
+        this.parent = parent;
+        this.depth = parent == null ? 1 : parent.depth + 1;
+        this.snapshot = snapshot;
+    }
+
+    /** @return the flat index of the changed cell */
+    public int getCell() {
+        return cell;
+    }
+
+    /** @return the number the cell held before the move, {@code 0} if it was empty */
+    public int getPrevious() {
+        return previous;
+    }
+
+    /** @return the number the cell holds after the move, {@code 0} if it was cleared */
+    public int getValue() {
+        return value;
+    }
+
+    /** @return the move played before this one, or {@code null} for the first move */
+    Move getParent() {
+        return parent;
+    }
+
+    /** @return how many moves lead to and include this one */
+    int getDepth() {
+        return depth;
+    }
+
+    /** @return the packed grid after this move, or {@code null} if this move keeps no snapshot */
+    byte[] getSnapshot() {
+        return snapshot;
+    }
+}
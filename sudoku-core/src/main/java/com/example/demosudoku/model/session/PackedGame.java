@@ -0,0 +1,109 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.PackedGrid;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleId;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs a whole {@link GameState} into one small byte array and back, for games kept in memory
+ * while nobody plays them.
+ * <p>
+ * The array holds a {@value #HEADER_BYTES}-byte header (version, board shape, difficulty, puzzle
+ * seed, move counts), the {@link PackedGrid packed} clues and solution, then
+ * {@value #MOVE_BYTES} bytes per move: the played moves from the first to the last, followed by
+ * the undone moves in the order {@link GameState#redo()} would replay them. Unpacking plays them
+ * again and undoes the redo list, so the history, undo and redo work as before packing. A 9x9 game
+ * takes about a hundred bytes plus its moves, instead of a board with its constraint tables.
+ */
+public final class PackedGame {
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int MOVE_BYTES = 3;
+    private static final int FLAG_HAS_ID = 1;
+
+    private PackedGame() {
+    }
+
+    /**
+     * @param state the game to pack
+     * @return a new array holding the puzzle and the whole history
+     */
+    public static byte[] pack(GameState state) {
+        Puzzle puzzle = state.getPuzzle();
+        BoardGeometry geometry = puzzle.getGeometry();
+        int moveCount = state.getMoveCount();
+        int redoCount = 0;
+        for (GameState redo = state; redo.canRedo(); redo = redo.redo()) {
+            redoCount++;
+        }
+        int gridBytes = PackedGrid.byteCount(geometry);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 2 * gridBytes + (moveCount + redoCount) * MOVE_BYTES);
+        PuzzleId id = puzzle.getId();
+        buffer.put(VERSION)
+                .put((byte) geometry.getSize())
+                .put((byte) geometry.getBlockRows())
+                .put((byte) geometry.getBlockCols())
+                .put((byte) puzzle.getDifficulty().ordinal())
+                .put((byte) (id != null ? FLAG_HAS_ID : 0))
+                .putShort((short) 0)
+                .putLong(id != null ? id.getSeed() : 0)
+                .putInt(moveCount)
+                .putInt(redoCount);
+        buffer.put(PackedGrid.pack(geometry, puzzle.getGivens()));
+        buffer.put(PackedGrid.pack(geometry, puzzle.getSolutionGrid()));
+
+        // The history is linked from the last move back, so the played moves are written backwards.
+        int position = buffer.position() + moveCount * MOVE_BYTES;
+        for (Move move = state.peekUndo(); move != null; move = move.getParent()) {
+            position -= MOVE_BYTES;
+            buffer.putShort(position, (short) move.getCell()).put(position + 2, (byte) move.getValue());
+        }
+        buffer.position(buffer.position() + moveCount * MOVE_BYTES);
+        for (GameState redo = state; redo.canRedo(); redo = redo.redo()) {
+            Move move = redo.peekRedo();
+            buffer.putShort((short) move.getCell()).put((byte) move.getValue());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param packed an array made by {@link #pack}
+     * @return the game, with the same puzzle, moves, undo and redo
+     * @throws IllegalArgumentException if the array was not made by {@link #pack}
+     */
+    public static GameState unpack(byte[] packed) {
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        if (buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Not a packed game");
+        }
+        BoardGeometry geometry = BoardGeometry.of(buffer.get(), buffer.get(), buffer.get());
+        Difficulty difficulty = Difficulty.values()[buffer.get()];
+        boolean hasId = (buffer.get() & FLAG_HAS_ID) != 0;
+        buffer.getShort();
+        long seed = buffer.getLong();
+        int moveCount = buffer.getInt();
+        int redoCount = buffer.getInt();
+
+        byte[] packedGrid = new byte[PackedGrid.byteCount(geometry)];
+        byte[] givens = new byte[geometry.getCellCount()];
+        byte[] solution = new byte[geometry.getCellCount()];
+        buffer.get(packedGrid);
+        PackedGrid.unpack(geometry, packedGrid, givens);
+        buffer.get(packedGrid);
+        PackedGrid.unpack(geometry, packedGrid, solution);
+        PuzzleId id = hasId && geometry.isStandard() ? new PuzzleId(geometry, difficulty, seed) : null;
+
+        GameState state = GameState.start(new Puzzle(geometry, givens, solution, difficulty, id));
+        for (int i = 0; i < moveCount + redoCount; i++) {
+            state = state.play(buffer.getShort() & 0xFFFF, buffer.get());
+        }
+        for (int i = 0; i < redoCount; i++) {
+            state = state.undo();
+        }
+        return state;
+    }
+}
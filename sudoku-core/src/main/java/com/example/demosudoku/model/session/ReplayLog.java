@@ -0,0 +1,208 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.PackedGrid;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleId;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary log of everything the player did in one game, for analytics and for checking results
+ * with {@link GameReplay}.
+ * <p>
+ * Unlike the {@link GameJournal}, which keeps only what is needed to resume, the log also keeps
+ * rejected numbers and the time of every action. The file starts with a header (board shape,
+ * difficulty, puzzle seed, start time, packed clues and solution) followed by one
+ * {@value #EVENT_BYTES}-byte event per action: the milliseconds since the start, the cell, the
+ * number and the {@link Action}. Events are encoded into a buffer allocated once for
+ * {@value #BUFFER_EVENTS} events and written when it fills up, on {@link #flush()} and on
+ * {@link #close()}, so recording an action creates no object and rarely touches the file.
+ * A game that also keeps a {@link GameJournal} flushes the log after every move it journals, so a
+ * log reopened with {@link #append} after a crash still replays to the state the journal restores.
+ * <p>
+ * A log is not thread-safe.
+ */
+public class ReplayLog implements Closeable, Flushable {
+    /** Bytes of every event. */
+    public static final int EVENT_BYTES = 8;
+    /** Events buffered before they are written. */
+    public static final int BUFFER_EVENTS = 512;
+
+    static final int MAGIC = 0x53444B52; // "SDKR"
+    static final short VERSION = 1;
+    // Magic, version, size, block rows, block columns, difficulty, flags, padding, seed and start time.
+    static final int HEADER_BYTES = 32;
+    static final int FLAG_HAS_ID = 1;
+
+    /** What the player did. */
+    public enum Action {
+        /** A number that breaks no rule was written. */
+        ACCEPTED,
+        /** A number that breaks a rule was typed and not written. */
+        REJECTED,
+        /** A cell was emptied. */
+        CLEARED,
+        /** The last move was taken back; the event holds no cell. */
+        UNDO,
+        /** The last undone move was played again; the event holds no cell. */
+        REDO;
+
+        private static final Action[] VALUES = values();
+
+        /**
+         * @param code the code stored in an event
+         * @return the action, or {@code null} if the code is unknown
+         */
+        static Action of(int code) {
+            return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_EVENTS * EVENT_BYTES);
+    private final long startMillis;
+
+    private ReplayLog(FileChannel channel, long startMillis) {
+        this.channel = channel;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Starts the log of a new game, replacing any file at the path.
+     *
+     * @param path   the log file
+     * @param puzzle the puzzle being played
+     * @return the log, ready to record actions
+     * @throws IOException if the file cannot be written
+     */
+    public static ReplayLog create(Path path, Puzzle puzzle) throws IOException {
+        BoardGeometry geometry = puzzle.getGeometry();
+        byte[] clues = PackedGrid.pack(geometry, puzzle.getGivens());
+        byte[] solution = PackedGrid.pack(geometry, puzzle.getSolutionGrid());
+        long startMillis = System.currentTimeMillis();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + clues.length + solution.length);
+        PuzzleId id = puzzle.getId();
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) geometry.getSize())
+                .put((byte) geometry.getBlockRows())
+                .put((byte) geometry.getBlockCols())
+                .put((byte) puzzle.getDifficulty().ordinal())
+                .put((byte) (id != null ? FLAG_HAS_ID : 0))
+                .put((byte) 0)
+                .putLong(id != null ? id.getSeed() : 0)
+                .putLong(startMillis)
+                .position(HEADER_BYTES);
+        header.put(clues).put(solution).flip();
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new ReplayLog(channel, startMillis);
+    }
+
+    /**
+     * Reopens the log of a resumed game to record further actions after the existing ones.
+     * A trailing event cut short by a crash is dropped.
+     *
+     * @param path the log file
+     * @return the log, ready to record actions
+     * @throws IOException if the file cannot be read or is not a replay log
+     */
+    public static ReplayLog append(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Truncated replay log: " + path);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+                throw new IOException("Not a replay log: " + path);
+            }
+            BoardGeometry geometry;
+            try {
+                geometry = BoardGeometry.of(header.get(), header.get(), header.get());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt replay log header: " + path, e);
+            }
+            long startMillis = header.getLong(24);
+            long eventsStart = HEADER_BYTES + 2L * PackedGrid.byteCount(geometry);
+            long events = Math.max(0, channel.size() - eventsStart) / EVENT_BYTES;
+            long end = eventsStart + events * EVENT_BYTES;
+            channel.truncate(end);
+            channel.position(end);
+            return new ReplayLog(channel, startMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records an action, timed now.
+     *
+     * @param action what the player did
+     * @param cell   the flat cell index, {@code 0} for undo and redo
+     * @param value  the number typed, {@code 0} for a cleared cell, undo and redo
+     * @throws IOException if the buffer was full and could not be written
+     */
+    public void record(Action action, int cell, int value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        long elapsed = System.currentTimeMillis() - startMillis;
+        buffer.putInt((int) Math.min(Integer.MAX_VALUE, Math.max(0, elapsed)))
+                .putShort((short) cell)
+                .put((byte) value)
+                .put((byte) action.ordinal());
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered events to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Writes the buffered events and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
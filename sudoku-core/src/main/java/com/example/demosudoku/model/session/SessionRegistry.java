@@ -0,0 +1,223 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.metrics.Counter;
+import com.example.demosudoku.metrics.MetricsRegistry;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The games of many players, keyed by a user or session id, with idle games packed away.
+ * <p>
+ * Every game is reached through {@link #withSession}, which runs an action under a lock that
+ * belongs to that game alone, so moves on two games never wait for each other; the map itself
+ * is a {@link ConcurrentHashMap}, whose reads take no lock. A game keeps its {@link GameSession},
+ * board included, while it is played. A sweeper {@link PackedGame packs} every game idle for
+ * longer than the time to live, and when more than {@code maxLive} games are still unpacked it
+ * also packs the least recently used ones, so the heap holds at most about {@code maxLive} boards
+ * plus a few hundred bytes per idle game. The next action on a packed game unpacks it first.
+ */
+public class SessionRegistry implements Closeable {
+    private static final Counter EVICTIONS = MetricsRegistry.getInstance().counter("session.evictions");
+    private static final Counter REHYDRATIONS = MetricsRegistry.getInstance().counter("session.rehydrations");
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private final long idleNanos;
+    private final int maxLive;
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * One game: either live, with its session, or packed. The entry is also the game's lock.
+     */
+    private static final class Entry {
+        GameSession session;
+        byte[] packed;
+        boolean removed;
+        volatile long lastAccess;
+
+        Entry(GameSession session) {
+            this.session = session;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    /**
+     * Creates a registry that packs games in the background.
+     *
+     * @param idleMillis     how long a game stays unpacked after its last action
+     * @param maxLive        the most games kept unpacked after a sweep
+     * @param sweepMillis    the time between two sweeps, or 0 to sweep only on {@link #sweep()}
+     */
+    public SessionRegistry(long idleMillis, int maxLive, long sweepMillis) {
+        if (idleMillis < 0 || maxLive < 0 || sweepMillis < 0) {
+            throw new IllegalArgumentException("Negative limit");
+        }
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.maxLive = maxLive;
+        if (sweepMillis > 0) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Adds a game.
+     *
+     * @param id      the user or session id
+     * @param session the game
+     * @return {@code true} if the game was added, {@code false} if the id is already taken
+     */
+    public boolean add(String id, GameSession session) {
+        if (entries.putIfAbsent(id, new Entry(session)) != null) {
+            return false;
+        }
+        liveCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Runs an action on a game while holding its lock, unpacking the game first if it was packed.
+     *
+     * @param id     the user or session id
+     * @param action what to do with the game; it must not keep the session after returning
+     * @param <T>    the type of the result
+     * @return the result of the action
+     * @throws NoSuchElementException if there is no game with that id
+     */
+    public <T> T withSession(String id, Function<GameSession, T> action) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            throw new NoSuchElementException("Unknown game " + id);
+        }
+        synchronized (entry) {
+            if (entry.removed) {
+                throw new NoSuchElementException("Unknown game " + id);
+            }
+            if (entry.session == null) {
+                entry.session = new GameSession(PackedGame.unpack(entry.packed));
+                entry.packed = null;
+                liveCount.incrementAndGet();
+                if (MetricsRegistry.ENABLED) {
+                    REHYDRATIONS.increment();
+                }
+            }
+            entry.lastAccess = System.nanoTime();
+            return action.apply(entry.session);
+        }
+    }
+
+    /**
+     * Removes a game.
+     *
+     * @param id the user or session id
+     * @return {@code true} if there was a game with that id
+     */
+    public boolean remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            entry.removed = true;
+            if (entry.session != null) {
+                entry.session = null;
+                liveCount.decrementAndGet();
+            }
+            entry.packed = null;
+        }
+        return true;
+    }
+
+    /**
+     * Packs the games idle for longer than the time to live, then the least recently used games
+     * while more than {@code maxLive} are unpacked. A game in use is packed, if still due, once its action ends.
+     *
+     * @return the number of games packed
+     */
+    public int sweep() {
+        long now = System.nanoTime();
+        int packed = 0;
+        for (Entry entry : entries.values()) {
+            if (now - entry.lastAccess > idleNanos && pack(entry, now - idleNanos)) {
+                packed++;
+            }
+        }
+        int excess = liveCount.get() - maxLive;
+        if (excess > 0) {
+            // Pack every live game last used at or before the excess-th oldest access.
+            long[] accesses = new long[liveCount.get()];
+            int count = 0;
+            for (Entry entry : entries.values()) {
+                if (entry.session != null && count < accesses.length) {
+                    accesses[count++] = entry.lastAccess;
+                }
+            }
+            if (count > maxLive) {
+                Arrays.sort(accesses, 0, count);
+                long cutoff = accesses[count - maxLive - 1];
+                for (Entry entry : entries.values()) {
+                    if (entry.lastAccess <= cutoff && pack(entry, cutoff)) {
+                        packed++;
+                    }
+                }
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Packs a live game unless it was used after the cutoff. The unlocked check only skips packed games cheaply;
+     * the decision is taken again under the game's lock.
+     */
+    private boolean pack(Entry entry, long cutoff) {
+        if (entry.session == null) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.session == null || entry.removed || entry.lastAccess > cutoff) {
+                return false;
+            }
+            entry.packed = PackedGame.pack(entry.session.getState());
+            entry.session = null;
+        }
+        liveCount.decrementAndGet();
+        if (MetricsRegistry.ENABLED) {
+            EVICTIONS.increment();
+        }
+        return true;
+    }
+
+    /** @return the number of games, packed or not */
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return the number of games held unpacked */
+    public int liveCount() {
+        return liveCount.get();
+    }
+
+    /**
+     * Stops the background sweeper. The games stay in the registry.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+}
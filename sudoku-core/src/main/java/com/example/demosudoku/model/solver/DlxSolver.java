@@ -0,0 +1,564 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Exact-cover Sudoku solver based on Knuth's dancing links (Algorithm X).
+ * <p>
+ * The constraint matrix encodes the same rules as {@link com.example.demosudoku.model.board.Board#isValid}:
+ * every cell holds one number, and every number appears once per row, once per column and
+ * once per block. A candidate "number {@code v} in cell {@code c}" is a matrix row with four
+ * nodes, one in each of those constraint columns.
+ * <p>
+ * The nodes live in a pool of parallel {@code int} arrays sized for the worst case (an empty
+ * board) when the solver is created. Each solve relinks the pool with only the columns the
+ * givens leave open and only the candidates the givens still allow, which is far cheaper than
+ * covering the given cells of a complete matrix. Repeated solves therefore allocate nothing.
+ * An instance keeps this state between calls and must not be shared between threads.
+ */
+public class DlxSolver implements ISolver {
+    // Header node of the list of open columns.
+    private static final int ROOT = 0;
+    // Nodes per candidate row: cell, row-number, column-number and block-number constraints.
+    private static final int NODES_PER_ROW = 4;
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+
+    // Node pool: links, owning column header, and the size of every column (indexed by header node).
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] columnSize;
+    // Index of the first row node; matrix row r starts at firstRowNode + r * NODES_PER_ROW.
+    private final int firstRowNode;
+    // Candidate (cell * size + number - 1) of every matrix row linked for the current solve.
+    private final int[] rowCandidate;
+
+    // Numbers already present in each row, column and block of the current puzzle.
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] blockMasks;
+    // Row nodes chosen at each depth of the search.
+    private final int[] chosen;
+    // Grid rebuilt from the givens and chosen rows whenever a solution is reached.
+    private final byte[] scratch;
+
+    // Parameters and results of the current search.
+    private int limit;
+    private int found;
+    // Search nodes the current search may still visit, and whether it ran out of them.
+    private long nodesLeft;
+    private boolean exhausted;
+    private byte[] target;
+    private SolutionVisitor visitor;
+    private RandomGenerator random;
+
+    /**
+     * Builds a solver and its node pool for boards of the given shape.
+     *
+     * @param geometry the size and block shape of the boards to solve
+     */
+    public DlxSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+
+        int columns = 4 * cellCount;
+        int candidates = cellCount * size;
+        int nodes = 1 + columns + candidates * NODES_PER_ROW;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        columnSize = new int[1 + columns];
+        rowCandidate = new int[candidates];
+        firstRowNode = 1 + columns;
+        rowMasks = new int[size];
+        colMasks = new int[size];
+        blockMasks = new int[size];
+        chosen = new int[cellCount];
+        scratch = new byte[cellCount];
+    }
+
+    /**
+     * @return the size and block shape of the boards this solver accepts
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean solve(byte[] grid, byte[] solution) {
+        return run(grid, 1, solution, null, null) == 1;
+    }
+
+    /**
+     * Finds one solution, starting each branch of the search at a random candidate.
+     * Solving an empty grid this way produces a random complete board, though not one drawn
+     * uniformly: only the order in which the candidates of the chosen column are tried is random.
+     *
+     * @param grid     The puzzle to solve; it is not modified.
+     * @param solution The array that receives the solved grid when one exists.
+     * @param random   The source of randomness for the search order.
+     * @return {@code true} if a solution was found, {@code false} if the puzzle has none.
+     */
+    public boolean solveRandom(byte[] grid, byte[] solution, RandomGenerator random) {
+        return run(grid, 1, solution, null, random) == 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countSolutions(byte[] grid, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        return (int) run(grid, limit, null, null, null);
+    }
+
+    /**
+     * Checks whether the grid has exactly one solution.
+     *
+     * @param grid The puzzle to inspect; it is not modified.
+     * @return {@code true} if the puzzle has a unique solution.
+     */
+    public boolean hasUniqueSolution(byte[] grid) {
+        return countSolutions(grid, 2) == 1;
+    }
+
+    /**
+     * Checks whether the grid has a solution in which a given cell does not hold a given number.
+     * <p>
+     * When a unique puzzle loses the clue {@code value} at {@code cell}, its known solution is the
+     * only one that keeps {@code value} there, so the reduced puzzle stays unique exactly when this
+     * method returns {@code false}. That is a single search that stops at the first solution
+     * instead of a full count.
+     *
+     * @param grid  The puzzle to inspect; it is not modified.
+     * @param cell  The flat index of the cell.
+     * @param value The number the cell must not hold.
+     * @return {@code true} if such a solution exists.
+     */
+    public boolean hasSolutionWithout(byte[] grid, int cell, int value) {
+        return hasSolutionWithout(grid, cell, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks whether the grid has a solution in which a given cell does not hold a given number,
+     * giving up after a number of search nodes. Large boards with few clues can otherwise take
+     * longer than anyone is willing to wait.
+     * <p>
+     * A search that gives up proves nothing, so it answers {@code true}: a caller that removes
+     * a clue only when this method returns {@code false} keeps the clue and stays unique.
+     * {@link #isExhausted()} tells the two {@code true} answers apart.
+     *
+     * @param grid     The puzzle to inspect; it is not modified.
+     * @param cell     The flat index of the cell.
+     * @param value    The number the cell must not hold.
+     * @param maxNodes The most search nodes to visit.
+     * @return {@code true} if such a solution exists or the search gave up before ruling it out.
+     */
+    public boolean hasSolutionWithout(byte[] grid, int cell, int value, long maxNodes) {
+        return run(grid, cell * size + value - 1, 1, null, null, null, maxNodes) == 1 || exhausted;
+    }
+
+    /**
+     * @return {@code true} if the last search gave up after visiting its node budget
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long enumerate(byte[] grid, SolutionVisitor visitor) {
+        return run(grid, Integer.MAX_VALUE, null, visitor, null);
+    }
+
+    /**
+     * Links the matrix for the grid and searches it.
+     */
+    private long run(byte[] grid, int limit, byte[] target, SolutionVisitor visitor, RandomGenerator random) {
+        return run(grid, -1, limit, target, visitor, random, Long.MAX_VALUE);
+    }
+
+    /**
+     * Links the matrix for the grid, leaving out one excluded candidate, and searches it for at
+     * most {@code maxNodes} nodes.
+     */
+    private long run(byte[] grid, int excluded, int limit, byte[] target, SolutionVisitor visitor,
+                     RandomGenerator random, long maxNodes) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("Expected " + cellCount + " cells, got " + grid.length);
+        }
+        this.exhausted = false;
+        if (!load(grid) || !propagate(excluded)) {
+            return 0;
+        }
+        this.limit = limit;
+        this.found = 0;
+        this.nodesLeft = maxNodes;
+        this.target = target;
+        this.visitor = visitor;
+        this.random = random;
+        try {
+            link(excluded);
+            search(0);
+            return found;
+        } finally {
+            this.target = null;
+            this.visitor = null;
+            this.random = null;
+        }
+    }
+
+    /**
+     * Copies the puzzle into the scratch grid and records the numbers present in every unit.
+     *
+     * @return {@code false} if two givens contradict each other
+     */
+    private boolean load(byte[] grid) {
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(blockMasks, 0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = grid[cell];
+            scratch[cell] = (byte) value;
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > size) {
+                return false;
+            }
+            int bit = 1 << value;
+            int row = geometry.rowOf(cell);
+            int col = geometry.colOf(cell);
+            int block = geometry.blockOf(cell);
+            if (((rowMasks[row] | colMasks[col] | blockMasks[block]) & bit) != 0) {
+                return false;
+            }
+            place(cell, bit);
+        }
+        return true;
+    }
+
+    /**
+     * Fills every naked single (a cell with one candidate left) and every hidden single (a number
+     * with one possible cell left in a row, column or block) until none remains. Cells forced this
+     * way are part of every solution, so the matrix built afterwards is much smaller and easy
+     * puzzles are solved without searching at all.
+     *
+     * @param excluded a candidate that must not be used, or {@code -1}
+     * @return {@code false} if some cell or some number of a unit is left without options
+     */
+    private boolean propagate(int excluded) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (scratch[cell] != 0) {
+                    continue;
+                }
+                int free = freeMask(cell, excluded);
+                if (free == 0) {
+                    return false;
+                }
+                if ((free & (free - 1)) == 0) {
+                    scratch[cell] = (byte) Integer.numberOfTrailingZeros(free);
+                    place(cell, free);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                continue;
+            }
+            for (int kind = 0; kind < 3; kind++) {
+                int[] unitMasks = kind == 0 ? rowMasks : kind == 1 ? colMasks : blockMasks;
+                for (int unit = 0; unit < size; unit++) {
+                    int missing = geometry.getAllValuesMask() & ~unitMasks[unit];
+                    if (missing == 0) {
+                        continue;
+                    }
+                    int once = 0;
+                    int twice = 0;
+                    for (int k = 0; k < size; k++) {
+                        int cell = unitCell(kind, unit, k);
+                        if (scratch[cell] == 0) {
+                            int free = freeMask(cell, excluded);
+                            twice |= once & free;
+                            once |= free;
+                        }
+                    }
+                    if ((once & missing) != missing) {
+                        return false;
+                    }
+                    int hidden = once & ~twice & missing;
+                    if (hidden == 0) {
+                        continue;
+                    }
+                    int bit = hidden & -hidden;
+                    for (int k = 0; k < size; k++) {
+                        int cell = unitCell(kind, unit, k);
+                        if (scratch[cell] == 0 && (freeMask(cell, excluded) & bit) != 0) {
+                            scratch[cell] = (byte) Integer.numberOfTrailingZeros(bit);
+                            place(cell, bit);
+                            break;
+                        }
+                    }
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the numbers an empty cell can still take.
+     */
+    private int freeMask(int cell, int excluded) {
+        int free = geometry.getAllValuesMask() & ~(rowMasks[geometry.rowOf(cell)]
+                | colMasks[geometry.colOf(cell)] | blockMasks[geometry.blockOf(cell)]);
+        if (excluded >= 0 && excluded / size == cell) {
+            free &= ~(2 << (excluded % size));
+        }
+        return free;
+    }
+
+    /**
+     * Returns the k-th cell of a row ({@code kind} 0), column (1) or block (2).
+     */
+    private int unitCell(int kind, int unit, int k) {
+        if (kind == 0) {
+            return unit * size + k;
+        }
+        if (kind == 1) {
+            return k * size + unit;
+        }
+        return geometry.blockOrigin(unit) + (k / geometry.getBlockCols()) * size + k % geometry.getBlockCols();
+    }
+
+    /**
+     * Marks a number as present in the row, column and block of a cell.
+     */
+    private void place(int cell, int bit) {
+        rowMasks[geometry.rowOf(cell)] |= bit;
+        colMasks[geometry.colOf(cell)] |= bit;
+        blockMasks[geometry.blockOf(cell)] |= bit;
+    }
+
+    /**
+     * Rebuilds the matrix for the scratch grid: one column per constraint still open and
+     * one row per candidate still allowed.
+     *
+     * @param excluded a candidate ({@code cell * size + number - 1}) to leave out, or {@code -1}
+     */
+    private void link(int excluded) {
+        byte[] grid = scratch;
+        // Open columns, in a circular list starting at the root.
+        int last = ROOT;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (grid[cell] == 0) {
+                last = openColumn(last, 1 + cell);
+            }
+        }
+        last = openUnitColumns(last, 1 + cellCount, rowMasks);
+        last = openUnitColumns(last, 1 + 2 * cellCount, colMasks);
+        last = openUnitColumns(last, 1 + 3 * cellCount, blockMasks);
+        right[last] = ROOT;
+        left[ROOT] = last;
+
+        // One matrix row per remaining candidate.
+        int rows = 0;
+        int allValues = geometry.getAllValuesMask();
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (grid[cell] != 0) {
+                continue;
+            }
+            int row = geometry.rowOf(cell);
+            int col = geometry.colOf(cell);
+            int block = geometry.blockOf(cell);
+            int free = allValues & ~(rowMasks[row] | colMasks[col] | blockMasks[block]);
+            while (free != 0) {
+                int number = Integer.numberOfTrailingZeros(free) - 1;
+                free &= free - 1;
+                int candidate = cell * size + number;
+                if (candidate == excluded) {
+                    continue;
+                }
+                int first = firstRowNode + rows * NODES_PER_ROW;
+                rowCandidate[rows++] = candidate;
+                appendNode(first, 1 + cell);
+                appendNode(first + 1, 1 + cellCount + row * size + number);
+                appendNode(first + 2, 1 + 2 * cellCount + col * size + number);
+                appendNode(first + 3, 1 + 3 * cellCount + block * size + number);
+                for (int k = 0; k < NODES_PER_ROW; k++) {
+                    left[first + k] = first + (k + NODES_PER_ROW - 1) % NODES_PER_ROW;
+                    right[first + k] = first + (k + 1) % NODES_PER_ROW;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends an empty column header after {@code last} in the list of open columns.
+     *
+     * @return the appended header
+     */
+    private int openColumn(int last, int header) {
+        right[last] = header;
+        left[header] = last;
+        up[header] = header;
+        down[header] = header;
+        column[header] = header;
+        columnSize[header] = 0;
+        return header;
+    }
+
+    /**
+     * Opens the unit-number columns of every number still missing from each unit.
+     *
+     * @return the last appended header
+     */
+    private int openUnitColumns(int last, int base, int[] unitMasks) {
+        for (int unit = 0; unit < size; unit++) {
+            for (int number = 0; number < size; number++) {
+                if ((unitMasks[unit] & (2 << number)) == 0) {
+                    last = openColumn(last, base + unit * size + number);
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Links a row node at the bottom of its column.
+     */
+    private void appendNode(int node, int header) {
+        column[node] = header;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        columnSize[header]++;
+    }
+
+    /**
+     * Algorithm X: picks the column with the fewest candidates and tries each of them.
+     *
+     * @param depth the number of rows chosen so far
+     * @return {@code true} if the search must stop, because enough solutions were found or the
+     *         node budget ran out
+     */
+    private boolean search(int depth) {
+        if (right[ROOT] == ROOT) {
+            return recordSolution(depth);
+        }
+        if (--nodesLeft < 0) {
+            exhausted = true;
+            return true;
+        }
+
+        int best = right[ROOT];
+        for (int header = right[best]; header != ROOT && columnSize[best] > 1; header = right[header]) {
+            if (columnSize[header] < columnSize[best]) {
+                best = header;
+            }
+        }
+        int count = columnSize[best];
+        if (count == 0) {
+            return false;
+        }
+
+        cover(best);
+        int node = down[best];
+        if (random != null && count > 1) {
+            for (int skip = random.nextInt(count); skip > 0; skip--) {
+                node = down[node];
+            }
+        }
+        for (int tried = 0; tried < count; tried++) {
+            chosen[depth] = node;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            boolean stop = search(depth + 1);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            if (stop) {
+                uncover(best);
+                return true;
+            }
+            node = down[node];
+            if (node == best) {
+                node = down[node];
+            }
+        }
+        uncover(best);
+        return false;
+    }
+
+    /**
+     * Writes the chosen rows into the scratch grid and hands the solution out.
+     *
+     * @return {@code true} if the search must stop
+     */
+    private boolean recordSolution(int depth) {
+        for (int i = 0; i < depth; i++) {
+            int candidate = rowCandidate[(chosen[i] - firstRowNode) / NODES_PER_ROW];
+            scratch[candidate / size] = (byte) (candidate % size + 1);
+        }
+        found++;
+        if (target != null && found == 1) {
+            System.arraycopy(scratch, 0, target, 0, cellCount);
+        }
+        if (visitor != null && !visitor.visit(scratch)) {
+            return true;
+        }
+        return found >= limit;
+    }
+
+    /**
+     * Removes a column from the header list and every row that intersects it from the other columns.
+     */
+    private void cover(int header) {
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for (int i = down[header]; i != header; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Reverts {@link #cover(int)}, relinking in the exact reverse order.
+     */
+    private void uncover(int header) {
+        for (int i = up[header]; i != header; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+}
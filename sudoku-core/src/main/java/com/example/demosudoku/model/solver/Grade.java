@@ -0,0 +1,58 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.model.generator.Difficulty;
+
+/**
+ * Result of grading a puzzle with {@link LogicSolver}: whether the known techniques solve it,
+ * and the hardest technique they needed.
+ */
+public final class Grade {
+    private final boolean solved;
+    private final Technique hardest;
+    private final int steps;
+
+    /**
+     * Creates a grade.
+     *
+     * @param solved  whether the techniques filled every cell
+     * @param hardest the hardest technique used, or {@code null} if no step was needed
+     * @param steps   the number of steps taken
+     */
+    public Grade(boolean solved, Technique hardest, int steps) {
+        this.solved = solved;
+        this.hardest = hardest;
+        this.steps = steps;
+    }
+
+    /** @return {@code true} if the known techniques solve the puzzle */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /** @return the hardest technique used, or {@code null} if no step was needed */
+    public Technique getHardest() {
+        return hardest;
+    }
+
+    /** @return the number of steps taken */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Maps the grade to a difficulty level. Puzzles the techniques cannot finish are rated expert.
+     *
+     * @return the difficulty of the puzzle
+     */
+    public Difficulty getDifficulty() {
+        if (!solved) {
+            return Difficulty.EXPERT;
+        }
+        return hardest == null ? Difficulty.EASY : hardest.getDifficulty();
+    }
+
+    @Override
+    public String toString() {
+        return (solved ? "solved" : "stuck") + " after " + steps + " steps, hardest " + hardest;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.metrics.Counter;
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.board.Board;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.board.ConstraintEngine;
+import com.example.demosudoku.model.board.IndexedIntSet;
+import com.example.demosudoku.model.generator.Puzzle;
+
+/**
+ * Finds hints for the board being played, in bounded time.
+ * <p>
+ * The board's {@link ConstraintEngine} already keeps the empty cells, the candidates of every
+ * cell and the forced cells up to date after each move, so the service never searches the
+ * board. A hint is chosen in this order:
+ * <ol>
+ *     <li>a forced cell, a naked or hidden single, ranked by how informative it is: how many
+ *     candidates placing its number removes from empty peers. At most {@value #MAX_RANKED}
+ *     singles of each kind are ranked, so the cost does not grow with the number of singles;</li>
+ *     <li>otherwise the next placement found by the {@link LogicSolver}, whose passes are bounded
+ *     by the size of the board.</li>
+ * </ol>
+ * If neither applies, or the board is full, there is no hint.
+ * <p>
+ * Deductions are made from the numbers on the board, and a number the player entered may follow
+ * the rules and still differ from the solution. When the puzzle is known, a single or a solver
+ * placement whose number differs from the solution is never given as a hint. The service is tied
+ * to one board and, like the solver it uses, must not be shared between threads.
+ */
+public class HintService {
+    /** The most naked singles, and the most hidden singles, ranked for one hint. */
+    public static final int MAX_RANKED = 32;
+
+    private static final Counter FORCED_HINTS = MetricsRegistry.getInstance().counter("hint.service.forced");
+    private static final Counter SOLVER_HINTS = MetricsRegistry.getInstance().counter("hint.service.solver");
+    private static final Counter WRONG_HINTS = MetricsRegistry.getInstance().counter("hint.service.wrong");
+    private static final Histogram SERVICE_NANOS = MetricsRegistry.getInstance().histogram("hint.service.nanos");
+
+    private final Board board;
+    // The puzzle on the board, to check hints against its solution; null if unknown.
+    private final Puzzle puzzle;
+    private final BoardGeometry geometry;
+    private final ConstraintEngine engine;
+    private final LogicSolver solver;
+    private final int size;
+
+    /**
+     * Creates the hint service of a board whose solution is unknown. Hints are deduced from the
+     * board as it is, so they can be wrong if the player entered a wrong number.
+     *
+     * @param board the board being played
+     */
+    public HintService(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates the hint service of a board built from a puzzle. Hints always agree with the puzzle's solution.
+     *
+     * @param board  the board being played
+     * @param puzzle the puzzle on the board, or {@code null} if its solution is unknown
+     */
+    public HintService(Board board, Puzzle puzzle) {
+        this.board = board;
+        this.puzzle = puzzle;
+        this.geometry = board.getGeometry();
+        this.engine = board.getEngine();
+        this.solver = new LogicSolver(geometry);
+        this.size = geometry.getSize();
+    }
+
+    /** @return the board this service gives hints for */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Finds the most useful number the player can deduce next.
+     *
+     * @return the placement, or {@code null} if the board is full or no known technique applies;
+     * also {@code null} if the only deduction left disagrees with the solution
+     */
+    public SolveStep nextHint() {
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        SolveStep hint = null;
+        if (engine.getEmptyCount() > 0) {
+            hint = bestForcedCell();
+            if (hint != null) {
+                if (MetricsRegistry.ENABLED) {
+                    FORCED_HINTS.increment();
+                }
+            } else {
+                hint = solver.nextHint(board.toArray());
+                if (hint != null && !matchesSolution(hint.getCell(), hint.getValue())) {
+                    hint = null;
+                    if (MetricsRegistry.ENABLED) {
+                        WRONG_HINTS.increment();
+                    }
+                }
+                if (hint != null && MetricsRegistry.ENABLED) {
+                    SOLVER_HINTS.increment();
+                }
+            }
+        }
+        if (MetricsRegistry.ENABLED) {
+            SERVICE_NANOS.recordSince(start);
+        }
+        return hint;
+    }
+
+    /**
+     * Ranks the naked and hidden singles and returns the most informative one. On a tie, a naked
+     * single is preferred, since it is read from a single cell. Singles that disagree with the
+     * solution are skipped.
+     */
+    private SolveStep bestForcedCell() {
+        Technique bestTechnique = null;
+        int bestCell = -1;
+        int bestValue = 0;
+        int bestUnit = -1;
+        int bestScore = -1;
+
+        IndexedIntSet naked = engine.getNakedSingles();
+        for (int i = 0; i < naked.size() && i < MAX_RANKED; i++) {
+            int cell = naked.get(i);
+            int value = Integer.numberOfTrailingZeros(engine.getCandidates(cell));
+            if (!matchesSolution(cell, value)) {
+                continue;
+            }
+            int score = score(cell, value);
+            if (score > bestScore) {
+                bestTechnique = Technique.NAKED_SINGLE;
+                bestCell = cell;
+                bestValue = value;
+                bestScore = score;
+            }
+        }
+
+        IndexedIntSet hidden = engine.getHiddenSingles();
+        for (int i = 0; i < hidden.size() && i < MAX_RANKED; i++) {
+            int key = hidden.get(i);
+            int cell = engine.hiddenSingleCell(key);
+            if (cell < 0) {
+                continue;
+            }
+            int value = engine.hiddenSingleNumber(key);
+            if (!matchesSolution(cell, value)) {
+                continue;
+            }
+            int score = score(cell, value);
+            if (score > bestScore) {
+                bestTechnique = Technique.HIDDEN_SINGLE;
+                bestCell = cell;
+                bestValue = value;
+                bestUnit = engine.hiddenSingleUnit(key);
+                bestScore = score;
+            }
+        }
+
+        if (bestCell < 0) {
+            return null;
+        }
+        return new SolveStep(bestTechnique, bestCell, bestValue, new int[0], new int[0],
+                solver.explainSingle(bestTechnique, bestCell, bestValue, bestUnit));
+    }
+
+    /**
+     * @return {@code true} if the solution is unknown or puts the number in the cell
+     */
+    private boolean matchesSolution(int cell, int value) {
+        return puzzle == null || puzzle.getSolution(cell) == value;
+    }
+
+    /**
+     * Counts the empty peers of a cell that still have a number as a candidate, which is how
+     * many candidates placing it removes. Each peer is counted once.
+     */
+    private int score(int cell, int value) {
+        int bit = 1 << value;
+        int row = geometry.rowOf(cell);
+        int col = geometry.colOf(cell);
+        int score = 0;
+        for (int k = 0; k < size; k++) {
+            int rowPeer = row * size + k;
+            int colPeer = k * size + col;
+            if (rowPeer != cell && (engine.getCandidates(rowPeer) & bit) != 0) {
+                score++;
+            }
+            if (colPeer != cell && (engine.getCandidates(colPeer) & bit) != 0) {
+                score++;
+            }
+        }
+        int blockUnit = 2 * size + geometry.blockOf(cell);
+        for (int k = 0; k < size; k++) {
+            int peer = engine.unitCell(blockUnit, k);
+            if (geometry.rowOf(peer) != row && geometry.colOf(peer) != col && (engine.getCandidates(peer) & bit) != 0) {
+                score++;
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demosudoku.model.solver;
+
+/**
+ * Defines the contract for a Sudoku solver. Grids are passed as flat arrays of
+ * {@code size * size} cells in row order, where {@code 0} marks an empty cell.
+ * Implementations may keep scratch state between calls, so a single instance must
+ * not be shared between threads.
+ */
+public interface ISolver {
+    /**
+     * Finds one solution of the grid.
+     *
+     * @param grid     The puzzle to solve; it is not modified.
+     * @param solution The array that receives the solved grid when one exists.
+     * @return {@code true} if a solution was found, {@code false} if the puzzle has none.
+     */
+    boolean solve(byte[] grid, byte[] solution);
+    /**
+     * Counts the solutions of the grid, stopping as soon as {@code limit} are found.
+     *
+     * @param grid  The puzzle to inspect; it is not modified.
+     * @param limit The maximum number of solutions to look for.
+     * @return The number of solutions found, never more than {@code limit}.
+     */
+    int countSolutions(byte[] grid, int limit);
+    /**
+     * Visits every solution of the grid until the visitor asks to stop.
+     *
+     * @param grid    The puzzle to solve; it is not modified.
+     * @param visitor The callback that receives each solution.
+     * @return The number of solutions visited.
+     */
+    long enumerate(byte[] grid, SolutionVisitor visitor);
+}
@@ -0,0 +1,633 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.metrics.Counter;
+import com.example.demosudoku.metrics.HintEvent;
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.board.BoardGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Solves puzzles the way a person would, one justified deduction at a time, using the
+ * techniques listed in {@link Technique}.
+ * <p>
+ * The solver works on bitmask candidate state: one {@code int} per cell with bit {@code n}
+ * set while number {@code n} is still possible. Every technique is a pass over precomputed
+ * unit tables using bit operations, and steps found during grading are applied straight from
+ * scratch arrays without creating objects, so whole puzzle banks can be graded quickly.
+ * <p>
+ * Units are numbered rows first ({@code 0..size-1}), then columns, then blocks, matching
+ * {@link com.example.demosudoku.model.board.ConstraintEngine}. An instance keeps scratch state
+ * between calls and must not be shared between threads.
+ */
+public class LogicSolver {
+    private static final Counter HINTS_NOT_FOUND = MetricsRegistry.getInstance().counter("hint.notFound");
+    private static final Histogram HINT_NANOS = MetricsRegistry.getInstance().histogram("hint.nanos");
+    private static final Histogram HINT_STEPS = MetricsRegistry.getInstance().histogram("hint.steps");
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int allValues;
+
+    // Cells of every unit, and the distinct peers of every cell.
+    private final int[][] unitCells;
+    private final int[][] peers;
+
+    // Current grid and candidates.
+    private final byte[] grid;
+    private final int[] candidates;
+    private int emptyCount;
+
+    // Positions (bit k for the k-th cell of a unit) of every number, reused by the unit passes.
+    private final int[] positions;
+    // Column (or row) positions of one number on every row (or column), reused by the X-wing pass.
+    private final int[] linePositions;
+
+    // The step found by the last successful pass.
+    private Technique pendingTechnique;
+    private int pendingCell;
+    private int pendingValue;
+    private int eliminationCount;
+    private final int[] eliminationCells;
+    private final int[] eliminationMasks;
+    // Context used to explain the pending step.
+    private int contextUnit;
+    private int contextUnit2;
+    private int contextDigits;
+    private int contextCellA;
+    private int contextCellB;
+
+    /**
+     * Creates a solver for boards of the given shape.
+     *
+     * @param geometry the size and block shape of the boards to solve
+     */
+    public LogicSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.allValues = geometry.getAllValuesMask();
+        this.grid = new byte[cellCount];
+        this.candidates = new int[cellCount];
+        this.positions = new int[size + 1];
+        this.linePositions = new int[size];
+        this.eliminationCells = new int[cellCount];
+        this.eliminationMasks = new int[cellCount];
+
+        unitCells = new int[3 * size][size];
+        for (int i = 0; i < size; i++) {
+            int origin = geometry.blockOrigin(i);
+            for (int k = 0; k < size; k++) {
+                unitCells[i][k] = i * size + k;
+                unitCells[size + i][k] = k * size + i;
+                unitCells[2 * size + i][k] = origin + (k / geometry.getBlockCols()) * size + k % geometry.getBlockCols();
+            }
+        }
+        peers = new int[cellCount][];
+        boolean[] seen = new boolean[cellCount];
+        int[] buffer = new int[3 * size];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int count = 0;
+            int[] units = {geometry.rowOf(cell), size + geometry.colOf(cell), 2 * size + geometry.blockOf(cell)};
+            for (int unit : units) {
+                for (int peer : unitCells[unit]) {
+                    if (peer != cell && !seen[peer]) {
+                        seen[peer] = true;
+                        buffer[count++] = peer;
+                    }
+                }
+            }
+            peers[cell] = Arrays.copyOf(buffer, count);
+            for (int i = 0; i < count; i++) {
+                seen[buffer[i]] = false;
+            }
+        }
+    }
+
+    /** @return the shape of the boards this solver handles */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Finds the next number a player can deduce, applying any candidate eliminations needed
+     * to reach it. The step reports the hardest technique involved and explains every deduction.
+     * Every search is timed and reported as a {@link HintEvent} with the number of deductions it applied.
+     *
+     * @param puzzle the current grid; it is not modified
+     * @return the placement, or {@code null} if the grid is full, contradictory or beyond the known techniques
+     */
+    public SolveStep nextHint(byte[] puzzle) {
+        HintEvent event = new HintEvent();
+        event.begin();
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        SolveStep hint = null;
+        int steps = 0;
+        if (load(puzzle)) {
+            Technique hardest = null;
+            StringBuilder reasoning = new StringBuilder();
+            while (emptyCount > 0 && findStep()) {
+                steps++;
+                if (hardest == null || pendingTechnique.compareTo(hardest) > 0) {
+                    hardest = pendingTechnique;
+                }
+                if (reasoning.length() > 0) {
+                    reasoning.append(' ');
+                }
+                reasoning.append(explainPending());
+                if (pendingCell >= 0) {
+                    hint = new SolveStep(hardest, pendingCell, pendingValue, new int[0], new int[0], reasoning.toString());
+                    break;
+                }
+                applyPending();
+            }
+        }
+        event.end();
+        if (MetricsRegistry.ENABLED) {
+            HINT_NANOS.recordSince(start);
+            HINT_STEPS.record(steps);
+            if (hint == null) {
+                HINTS_NOT_FOUND.increment();
+            }
+        }
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.steps = steps;
+            event.technique = hint != null ? hint.getTechnique().name() : null;
+            event.found = hint != null;
+            event.commit();
+        }
+        return hint;
+    }
+
+    /**
+     * Finds the simplest deduction available on a grid, whether it places a number or only removes candidates.
+     *
+     * @param puzzle the current grid; it is not modified
+     * @return the step, or {@code null} if none of the known techniques applies
+     */
+    public SolveStep nextStep(byte[] puzzle) {
+        if (!load(puzzle) || emptyCount == 0 || !findStep()) {
+            return null;
+        }
+        return new SolveStep(pendingTechnique, pendingCell, pendingValue,
+                Arrays.copyOf(eliminationCells, eliminationCount),
+                Arrays.copyOf(eliminationMasks, eliminationCount), explainPending());
+    }
+
+    /**
+     * Solves a puzzle with the known techniques and reports the hardest one it needed.
+     *
+     * @param puzzle the grid to grade; it is not modified
+     * @return the grade
+     */
+    public Grade grade(byte[] puzzle) {
+        if (!load(puzzle)) {
+            return new Grade(false, null, 0);
+        }
+        Technique hardest = null;
+        int steps = 0;
+        while (emptyCount > 0 && findStep()) {
+            if (hardest == null || pendingTechnique.compareTo(hardest) > 0) {
+                hardest = pendingTechnique;
+            }
+            applyPending();
+            steps++;
+        }
+        return new Grade(emptyCount == 0, hardest, steps);
+    }
+
+    /**
+     * Copies a grid and computes the candidates of every empty cell.
+     *
+     * @return {@code false} if the grid repeats a number in some unit
+     */
+    private boolean load(byte[] puzzle) {
+        if (puzzle.length != cellCount) {
+            throw new IllegalArgumentException("Expected " + cellCount + " cells, got " + puzzle.length);
+        }
+        System.arraycopy(puzzle, 0, grid, 0, cellCount);
+        Arrays.fill(candidates, allValues);
+        emptyCount = cellCount;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = grid[cell];
+            if (value != 0) {
+                int bit = 1 << value;
+                if ((candidates[cell] & bit) == 0) {
+                    return false;
+                }
+                place(cell, bit);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks a cell as filled and removes its number from the candidates of its peers.
+     */
+    private void place(int cell, int bit) {
+        grid[cell] = (byte) Integer.numberOfTrailingZeros(bit);
+        candidates[cell] = 0;
+        emptyCount--;
+        for (int peer : peers[cell]) {
+            candidates[peer] &= ~bit;
+        }
+    }
+
+    /**
+     * Applies the pending step to the grid and candidates.
+     */
+    private void applyPending() {
+        if (pendingCell >= 0) {
+            place(pendingCell, 1 << pendingValue);
+            return;
+        }
+        for (int i = 0; i < eliminationCount; i++) {
+            candidates[eliminationCells[i]] &= ~eliminationMasks[i];
+        }
+    }
+
+    /**
+     * Tries every technique in order of difficulty and keeps the first step found.
+     *
+     * @return {@code true} if a step is pending
+     */
+    private boolean findStep() {
+        pendingCell = -1;
+        pendingValue = 0;
+        eliminationCount = 0;
+        return findNakedSingle() || findHiddenSingle() || findNakedPair() || findHiddenPair()
+                || findPointing() || findBoxLine() || findXWing();
+    }
+
+    /**
+     * Looks for an empty cell with a single candidate.
+     */
+    private boolean findNakedSingle() {
+        for (int cell = 0; cell < cellCount; cell++) {
+            int mask = candidates[cell];
+            if (grid[cell] == 0 && mask != 0 && (mask & (mask - 1)) == 0) {
+                return placement(Technique.NAKED_SINGLE, cell, mask, -1);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for a number that fits in a single cell of some unit.
+     */
+    private boolean findHiddenSingle() {
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : unitCells[unit]) {
+                int mask = candidates[cell];
+                twice |= once & mask;
+                once |= mask;
+            }
+            int hidden = once & ~twice;
+            if (hidden != 0) {
+                int bit = hidden & -hidden;
+                for (int cell : unitCells[unit]) {
+                    if ((candidates[cell] & bit) != 0) {
+                        return placement(Technique.HIDDEN_SINGLE, cell, bit, unit);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for two cells of a unit with the same two candidates, which the rest of the unit can drop.
+     */
+    private boolean findNakedPair() {
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int[] cells = unitCells[unit];
+            for (int i = 0; i < size; i++) {
+                int mask = candidates[cells[i]];
+                if (Integer.bitCount(mask) != 2) {
+                    continue;
+                }
+                for (int j = i + 1; j < size; j++) {
+                    if (candidates[cells[j]] != mask) {
+                        continue;
+                    }
+                    for (int k = 0; k < size; k++) {
+                        if (k != i && k != j) {
+                            eliminate(cells[k], mask);
+                        }
+                    }
+                    if (eliminationCount > 0) {
+                        return elimination(Technique.NAKED_PAIR, unit, -1, mask, cells[i], cells[j]);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for two numbers confined to the same two cells of a unit, which can drop every other candidate.
+     */
+    private boolean findHiddenPair() {
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int[] cells = unitCells[unit];
+            unitPositions(cells);
+            for (int a = 1; a <= size; a++) {
+                if (Integer.bitCount(positions[a]) != 2) {
+                    continue;
+                }
+                for (int b = a + 1; b <= size; b++) {
+                    if (positions[b] != positions[a]) {
+                        continue;
+                    }
+                    int keep = (1 << a) | (1 << b);
+                    int first = cells[Integer.numberOfTrailingZeros(positions[a])];
+                    int second = cells[31 - Integer.numberOfLeadingZeros(positions[a])];
+                    eliminate(first, ~keep);
+                    eliminate(second, ~keep);
+                    if (eliminationCount > 0) {
+                        return elimination(Technique.HIDDEN_PAIR, unit, -1, keep, first, second);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for a number confined to one row or column inside a block, which the rest of that line can drop.
+     */
+    private boolean findPointing() {
+        for (int block = 0; block < size; block++) {
+            int unit = 2 * size + block;
+            int[] cells = unitCells[unit];
+            for (int number = 1; number <= size; number++) {
+                int bit = 1 << number;
+                int rows = 0;
+                int cols = 0;
+                int count = 0;
+                for (int cell : cells) {
+                    if ((candidates[cell] & bit) != 0) {
+                        rows |= 1 << geometry.rowOf(cell);
+                        cols |= 1 << geometry.colOf(cell);
+                        count++;
+                    }
+                }
+                if (count < 2) {
+                    continue;
+                }
+                if (Integer.bitCount(rows) == 1) {
+                    int row = Integer.numberOfTrailingZeros(rows);
+                    for (int cell : unitCells[row]) {
+                        if (geometry.blockOf(cell) != block) {
+                            eliminate(cell, bit);
+                        }
+                    }
+                    if (eliminationCount > 0) {
+                        return elimination(Technique.POINTING_PAIR, unit, row, bit, -1, -1);
+                    }
+                }
+                if (Integer.bitCount(cols) == 1) {
+                    int col = Integer.numberOfTrailingZeros(cols);
+                    for (int cell : unitCells[size + col]) {
+                        if (geometry.blockOf(cell) != block) {
+                            eliminate(cell, bit);
+                        }
+                    }
+                    if (eliminationCount > 0) {
+                        return elimination(Technique.POINTING_PAIR, unit, size + col, bit, -1, -1);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for a number confined to one block inside a row or column, which the rest of that block can drop.
+     */
+    private boolean findBoxLine() {
+        for (int unit = 0; unit < 2 * size; unit++) {
+            int[] cells = unitCells[unit];
+            for (int number = 1; number <= size; number++) {
+                int bit = 1 << number;
+                int blocks = 0;
+                int count = 0;
+                for (int cell : cells) {
+                    if ((candidates[cell] & bit) != 0) {
+                        blocks |= 1 << geometry.blockOf(cell);
+                        count++;
+                    }
+                }
+                if (count < 2 || Integer.bitCount(blocks) != 1) {
+                    continue;
+                }
+                int block = Integer.numberOfTrailingZeros(blocks);
+                for (int cell : unitCells[2 * size + block]) {
+                    boolean onLine = unit < size ? geometry.rowOf(cell) == unit : geometry.colOf(cell) == unit - size;
+                    if (!onLine) {
+                        eliminate(cell, bit);
+                    }
+                }
+                if (eliminationCount > 0) {
+                    return elimination(Technique.BOX_LINE_REDUCTION, unit, 2 * size + block, bit, -1, -1);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks for a number confined to the same two columns on two rows (or the same two rows on two columns),
+     * which the rest of those columns (or rows) can drop.
+     */
+    private boolean findXWing() {
+        for (int number = 1; number <= size; number++) {
+            int bit = 1 << number;
+            // First pass: base lines are rows, cover lines are columns; second pass the other way around.
+            for (int base = 0; base <= size; base += size) {
+                int cover = size - base;
+                for (int line = 0; line < size; line++) {
+                    int mask = 0;
+                    int[] cells = unitCells[base + line];
+                    for (int k = 0; k < size; k++) {
+                        if ((candidates[cells[k]] & bit) != 0) {
+                            mask |= 1 << k;
+                        }
+                    }
+                    linePositions[line] = mask;
+                }
+                for (int first = 0; first < size; first++) {
+                    int mask = linePositions[first];
+                    if (Integer.bitCount(mask) != 2) {
+                        continue;
+                    }
+                    for (int second = first + 1; second < size; second++) {
+                        if (linePositions[second] != mask) {
+                            continue;
+                        }
+                        int lineA = Integer.numberOfTrailingZeros(mask);
+                        int lineB = 31 - Integer.numberOfLeadingZeros(mask);
+                        for (int k = 0; k < size; k++) {
+                            if (k != first && k != second) {
+                                eliminate(unitCells[cover + lineA][k], bit);
+                                eliminate(unitCells[cover + lineB][k], bit);
+                            }
+                        }
+                        if (eliminationCount > 0) {
+                            return elimination(Technique.X_WING, base + first, base + second, bit,
+                                    cover + lineA, cover + lineB);
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records, for every number, the positions of the unit's cells where it is still possible.
+     */
+    private void unitPositions(int[] cells) {
+        Arrays.fill(positions, 0);
+        for (int k = 0; k < size; k++) {
+            int mask = candidates[cells[k]];
+            while (mask != 0) {
+                int bit = mask & -mask;
+                mask &= mask - 1;
+                positions[Integer.numberOfTrailingZeros(bit)] |= 1 << k;
+            }
+        }
+    }
+
+    /**
+     * Queues the removal of some candidates from a cell, if it still has any of them.
+     */
+    private void eliminate(int cell, int mask) {
+        int removed = candidates[cell] & mask;
+        if (removed != 0) {
+            eliminationCells[eliminationCount] = cell;
+            eliminationMasks[eliminationCount++] = removed;
+        }
+    }
+
+    /**
+     * Records a pending placement.
+     */
+    private boolean placement(Technique technique, int cell, int bit, int unit) {
+        pendingTechnique = technique;
+        pendingCell = cell;
+        pendingValue = Integer.numberOfTrailingZeros(bit);
+        contextUnit = unit;
+        return true;
+    }
+
+    /**
+     * Records a pending elimination step; the eliminations themselves are already queued.
+     */
+    private boolean elimination(Technique technique, int unit, int unit2, int digits, int cellA, int cellB) {
+        pendingTechnique = technique;
+        contextUnit = unit;
+        contextUnit2 = unit2;
+        contextDigits = digits;
+        contextCellA = cellA;
+        contextCellB = cellB;
+        return true;
+    }
+
+    /**
+     * Builds the justification of the pending step.
+     */
+    private String explainPending() {
+        String name = pendingTechnique.getDisplayName() + ": ";
+        switch (pendingTechnique) {
+            case NAKED_SINGLE:
+            case HIDDEN_SINGLE:
+                return explainSingle(pendingTechnique, pendingCell, pendingValue, contextUnit);
+            case NAKED_PAIR:
+                return name + "las celdas " + cellName(contextCellA) + " y " + cellName(contextCellB)
+                        + " solo admiten " + digitsName(contextDigits) + ", así que se descartan del resto de "
+                        + unitName(contextUnit) + ".";
+            case HIDDEN_PAIR:
+                return name + "en " + unitName(contextUnit) + " los números " + digitsName(contextDigits)
+                        + " solo caben en " + cellName(contextCellA) + " y " + cellName(contextCellB)
+                        + ", que descartan sus demás opciones.";
+            case POINTING_PAIR:
+                return name + "en " + unitName(contextUnit) + " el " + digitsName(contextDigits)
+                        + " solo cabe en " + unitName(contextUnit2) + ", así que se descarta del resto de esa línea.";
+            case BOX_LINE_REDUCTION:
+                return name + "en " + unitName(contextUnit) + " el " + digitsName(contextDigits)
+                        + " solo cabe dentro de " + unitName(contextUnit2) + ", así que se descarta del resto del bloque.";
+            case X_WING:
+                return name + "en " + unitName(contextUnit) + " y " + unitName(contextUnit2) + " el "
+                        + digitsName(contextDigits) + " solo cabe en " + unitName(contextCellA) + " y "
+                        + unitName(contextCellB) + ", así que se descarta del resto de esas dos líneas.";
+            default:
+                return name;
+        }
+    }
+
+    /**
+     * Explains a naked or hidden single found outside the solver, with the same wording as its own steps.
+     *
+     * @param technique {@link Technique#NAKED_SINGLE} or {@link Technique#HIDDEN_SINGLE}
+     * @param cell      the flat index of the forced cell
+     * @param value     the number it must hold
+     * @param unit      the unit where the number has a single place, for a hidden single
+     * @return the justification shown to the player
+     */
+    String explainSingle(Technique technique, int cell, int value, int unit) {
+        String name = technique.getDisplayName() + ": ";
+        if (technique == Technique.NAKED_SINGLE) {
+            return name + "la celda " + cellName(cell) + " solo admite el " + symbol(value) + ".";
+        }
+        return name + "en " + unitName(unit) + " el " + symbol(value) + " solo cabe en la celda " + cellName(cell) + ".";
+    }
+
+    /**
+     * Returns the board symbol of a number.
+     */
+    private String symbol(int value) {
+        return String.valueOf(geometry.toSymbol(value));
+    }
+
+    /**
+     * Lists the numbers of a bitmask, for example "2, 5 y 7".
+     */
+    private String digitsName(int mask) {
+        StringBuilder text = new StringBuilder();
+        while (mask != 0) {
+            int bit = mask & -mask;
+            mask &= mask - 1;
+            if (text.length() > 0) {
+                text.append(mask == 0 ? " y " : ", ");
+            }
+            text.append(symbol(Integer.numberOfTrailingZeros(bit)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Names a cell with one-based row and column numbers.
+     */
+    private String cellName(int cell) {
+        return "(fila " + (geometry.rowOf(cell) + 1) + ", columna " + (geometry.colOf(cell) + 1) + ")";
+    }
+
+    /**
+     * Names a row, column or block with a one-based number.
+     */
+    private String unitName(int unit) {
+        if (unit < size) {
+            return "la fila " + (unit + 1);
+        }
+        if (unit < 2 * size) {
+            return "la columna " + (unit - size + 1);
+        }
+        return "el bloque " + (unit - 2 * size + 1);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demosudoku.model.solver;
+
+/**
+ * Callback used by {@link ISolver#enumerate(byte[], SolutionVisitor)} to receive solutions one by one.
+ */
+@FunctionalInterface
+public interface SolutionVisitor {
+    /**
+     * Receives a solution. The array is reused by the solver for the next solution,
+     * so it must be copied if it has to be kept.
+     *
+     * @param solution The solved grid, in row order.
+     * @return {@code true} to keep searching, {@code false} to stop.
+     */
+    boolean visit(byte[] solution);
+}
@@ -0,0 +1,86 @@
+package com.example.demosudoku.model.solver;
+
+/**
+ * One deduction found by {@link LogicSolver}: either a number placed in a cell, or candidates
+ * removed from some cells. Every step carries the technique behind it and a short justification
+ * that can be shown to the player.
+ */
+public final class SolveStep {
+    private final Technique technique;
+    private final int cell;
+    private final int value;
+    private final int[] eliminationCells;
+    private final int[] eliminationMasks;
+    private final String explanation;
+
+    /**
+     * Creates a step.
+     *
+     * @param technique        the technique that justifies the step
+     * @param cell             the flat index of the cell that receives a number, or -1 for an elimination step
+     * @param value            the number placed, or 0 for an elimination step
+     * @param eliminationCells the cells that lose candidates
+     * @param eliminationMasks the candidates each of those cells loses (bit n for number n)
+     * @param explanation      the justification shown to the player
+     */
+    public SolveStep(Technique technique, int cell, int value, int[] eliminationCells, int[] eliminationMasks,
+                     String explanation) {
+        this.technique = technique;
+        this.cell = cell;
+        this.value = value;
+        this.eliminationCells = eliminationCells;
+        this.eliminationMasks = eliminationMasks;
+        this.explanation = explanation;
+    }
+
+    /** @return the technique behind the step */
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    /** @return {@code true} if the step places a number, {@code false} if it only removes candidates */
+    public boolean isPlacement() {
+        return cell >= 0;
+    }
+
+    /** @return the flat index of the cell that receives a number, or -1 */
+    public int getCell() {
+        return cell;
+    }
+
+    /** @return the number placed, or 0 */
+    public int getValue() {
+        return value;
+    }
+
+    /** @return how many cells lose candidates */
+    public int getEliminationCount() {
+        return eliminationCells.length;
+    }
+
+    /**
+     * @param i an elimination index
+     * @return the flat index of the cell that loses candidates
+     */
+    public int getEliminationCell(int i) {
+        return eliminationCells[i];
+    }
+
+    /**
+     * @param i an elimination index
+     * @return the candidates the cell loses (bit n for number n)
+     */
+    public int getEliminationMask(int i) {
+        return eliminationMasks[i];
+    }
+
+    /** @return the justification shown to the player */
+    public String getExplanation() {
+        return explanation;
+    }
+
+    @Override
+    public String toString() {
+        return technique + ": " + explanation;
+    }
+}
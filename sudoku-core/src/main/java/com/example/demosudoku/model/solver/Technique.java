@@ -0,0 +1,42 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.model.generator.Difficulty;
+
+/**
+ * Human solving techniques known to {@link LogicSolver}, from the simplest to the hardest.
+ * The declaration order is the order in which the solver tries them.
+ */
+public enum Technique {
+    /** A cell has a single candidate left. */
+    NAKED_SINGLE("Única opción", Difficulty.EASY),
+    /** A number fits in a single cell of a row, column or block. */
+    HIDDEN_SINGLE("Único lugar", Difficulty.EASY),
+    /** Two cells of a unit share the same two candidates, which the rest of the unit loses. */
+    NAKED_PAIR("Par desnudo", Difficulty.MEDIUM),
+    /** Two numbers only fit in the same two cells of a unit, which lose every other candidate. */
+    HIDDEN_PAIR("Par oculto", Difficulty.MEDIUM),
+    /** Inside a block a number only fits on one row or column, so the rest of that line loses it. */
+    POINTING_PAIR("Par apuntador", Difficulty.HARD),
+    /** Inside a row or column a number only fits in one block, so the rest of that block loses it. */
+    BOX_LINE_REDUCTION("Reducción línea-bloque", Difficulty.HARD),
+    /** A number fits in the same two columns of two rows (or rows of two columns), fixing it there. */
+    X_WING("X-Wing", Difficulty.EXPERT);
+
+    private final String displayName;
+    private final Difficulty difficulty;
+
+    Technique(String displayName, Difficulty difficulty) {
+        this.displayName = displayName;
+        this.difficulty = difficulty;
+    }
+
+    /** @return the name shown to the player */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /** @return the difficulty of a puzzle that needs this technique */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demosudoku.model.user;
+
+import com.example.demosudoku.model.generator.Difficulty;
+
+/**
+ * The result of one solved game: who solved it, which kind of board, how long it took and how
+ * much help the player needed.
+ */
+public final class GameResult {
+    private final String nickname;
+    private final int size;
+    private final Difficulty difficulty;
+    private final long solveMillis;
+    private final int hintsUsed;
+    private final int errors;
+    private final long finishedAt;
+
+    /**
+     * @param nickname    the player's nickname
+     * @param size        the board size, for example 9 for a 9x9 board
+     * @param difficulty  the difficulty of the puzzle
+     * @param solveMillis the time spent solving it
+     * @param hintsUsed   the number of hints asked for
+     * @param errors      the number of numbers rejected because they broke a rule
+     * @param finishedAt  when the game was won, in milliseconds since the epoch
+     */
+    public GameResult(String nickname, int size, Difficulty difficulty, long solveMillis, int hintsUsed, int errors,
+                      long finishedAt) {
+        if (nickname == null || difficulty == null) {
+            throw new IllegalArgumentException("Missing nickname or difficulty");
+        }
+        if (solveMillis < 0 || hintsUsed < 0 || errors < 0) {
+            throw new IllegalArgumentException("Negative time or count");
+        }
+        this.nickname = nickname;
+        this.size = size;
+        this.difficulty = difficulty;
+        this.solveMillis = solveMillis;
+        this.hintsUsed = hintsUsed;
+        this.errors = errors;
+        this.finishedAt = finishedAt;
+    }
+
+    /** @return the player's nickname */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /** @return the board size */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return the difficulty of the puzzle */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /** @return the time spent solving the puzzle, in milliseconds */
+    public long getSolveMillis() {
+        return solveMillis;
+    }
+
+    /** @return the number of hints asked for */
+    public int getHintsUsed() {
+        return hintsUsed;
+    }
+
+    /** @return the number of rejected numbers */
+    public int getErrors() {
+        return errors;
+    }
+
+    /** @return when the game was won, in milliseconds since the epoch */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Orders results for a leaderboard: faster first, then fewer hints, fewer errors and earlier.
+     *
+     * @param other another result
+     * @return {@code true} if this result ranks before the other
+     */
+    public boolean isBetterThan(GameResult other) {
+        if (solveMillis != other.solveMillis) {
+            return solveMillis < other.solveMillis;
+        }
+        if (hintsUsed != other.hintsUsed) {
+            return hintsUsed < other.hintsUsed;
+        }
+        if (errors != other.errors) {
+            return errors < other.errors;
+        }
+        return finishedAt < other.finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return nickname + " " + size + "x" + size + " " + difficulty + " " + solveMillis + " ms, "
+                + hintsUsed + " hints, " + errors + " errors";
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demosudoku.model.user;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The best results on one kind of board, at most one per player, kept sorted in a fixed array of
+ * {@code capacity} entries. Offering a result costs a scan of the array, and reading the board
+ * copies it, whatever the number of games recorded.
+ */
+final class Leaderboard {
+    private final GameResult[] entries;
+    private int count;
+
+    Leaderboard(int capacity) {
+        this.entries = new GameResult[capacity];
+    }
+
+    /**
+     * Adds a player's result if it ranks, replacing the player's previous entry.
+     *
+     * @param result a player's best result
+     */
+    void offer(GameResult result) {
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            if (entries[i].getNickname().equals(result.getNickname())) {
+                previous = i;
+                break;
+            }
+        }
+        if (previous >= 0) {
+            if (!result.isBetterThan(entries[previous])) {
+                return;
+            }
+            System.arraycopy(entries, previous + 1, entries, previous, count - previous - 1);
+            entries[--count] = null;
+        } else if (count == entries.length && !result.isBetterThan(entries[count - 1])) {
+            return;
+        }
+        int position = count < entries.length ? count : count - 1;
+        while (position > 0 && result.isBetterThan(entries[position - 1])) {
+            position--;
+        }
+        int moved = Math.min(count, entries.length - 1) - position;
+        System.arraycopy(entries, position, entries, position + 1, moved);
+        entries[position] = result;
+        count = Math.min(count + 1, entries.length);
+    }
+
+    /**
+     * @param limit the most entries wanted
+     * @return the best entries, best first
+     */
+    List<GameResult> top(int limit) {
+        return List.of(Arrays.copyOf(entries, Math.min(limit, count)));
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.demosudoku.model.user;
+
+import com.example.demosudoku.model.generator.Difficulty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent statistics of every player, keyed by nickname, with a leaderboard per board size and difficulty.
+ * <p>
+ * Results are appended to a file, one record per solved game, and never rewritten in place. The
+ * whole file is read once by {@link #open}; from then on everything is answered from memory: the
+ * totals and best results of each player, and for every kind of board a {@link Leaderboard} of
+ * the {@code leaderboardSize} best players, so a leaderboard query copies at most that many
+ * entries however many games were recorded. When the game records outnumber the players by
+ * {@value #COMPACT_RATIO} to one (and there are at least {@value #COMPACT_MIN_RECORDS}), the file
+ * is due for compaction ({@link #isCompactionDue()}): {@link #compact()} rewrites it beside the
+ * original with one summary record per player (totals and best results) and moves it over it, so
+ * its size follows the number of players rather than the number of games. Recording a game never
+ * compacts, so the caller can run the rewrite on a background thread.
+ * <p>
+ * All methods are synchronized.
+ */
+public class StatsStore implements Closeable {
+    /** Entries kept per leaderboard when no size is given. */
+    public static final int DEFAULT_LEADERBOARD_SIZE = 100;
+    /** Fewest game records that trigger a compaction. */
+    public static final int COMPACT_MIN_RECORDS = 4096;
+    /** Game records per player that trigger a compaction. */
+    public static final int COMPACT_RATIO = 2;
+    /** Longest nickname that can be recorded, in UTF-8 bytes. */
+    public static final int MAX_NICKNAME_BYTES = 255;
+
+    private static final int MAGIC = 0x53444B53; // "SDKS"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final byte GAME = 1;
+    private static final byte SUMMARY = 2;
+    // Size, difficulty, solve time, hints, errors and finish time of a result, after its nickname.
+    private static final int RESULT_BYTES = 1 + 1 + 8 + 4 + 4 + 8;
+    // Games, total time, total hints and total errors of a summary, then its count of best results.
+    private static final int SUMMARY_BYTES = 8 + 8 + 8 + 8 + 1;
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final Path path;
+    private final int leaderboardSize;
+    private final Map<String, UserStats> users = new HashMap<>();
+    private final Map<Integer, Leaderboard> leaderboards = new HashMap<>();
+    private FileChannel channel;
+    private long gameRecords;
+
+    private StatsStore(Path path, int leaderboardSize) {
+        this.path = path;
+        this.leaderboardSize = leaderboardSize;
+    }
+
+    /**
+     * Opens a statistics file with leaderboards of {@value #DEFAULT_LEADERBOARD_SIZE} players.
+     *
+     * @param path the file, created if it does not exist
+     * @return the store, with every recorded game loaded
+     * @throws IOException if the file cannot be read or is not a statistics file
+     */
+    public static StatsStore open(Path path) throws IOException {
+        return open(path, DEFAULT_LEADERBOARD_SIZE);
+    }
+
+    /**
+     * Opens a statistics file.
+     *
+     * @param path            the file, created if it does not exist
+     * @param leaderboardSize the most players kept on each leaderboard
+     * @return the store, with every recorded game loaded
+     * @throws IOException if the file cannot be read or is not a statistics file
+     */
+    public static StatsStore open(Path path, int leaderboardSize) throws IOException {
+        if (leaderboardSize < 1) {
+            throw new IllegalArgumentException("Leaderboard size must be positive: " + leaderboardSize);
+        }
+        StatsStore store = new StatsStore(path, leaderboardSize);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel);
+            } else {
+                store.load(channel);
+            }
+            store.channel = channel;
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        writeFully(channel, header.flip());
+    }
+
+    /**
+     * Reads every record and leaves the channel after the last complete one, dropping a record cut short by a crash.
+     */
+    private void load(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        buffer.limit(HEADER_BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated statistics file: " + path);
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IOException("Not a statistics file: " + path);
+        }
+        long end = HEADER_BYTES;
+        buffer.clear();
+        boolean endOfFile = false;
+        while (!endOfFile) {
+            endOfFile = channel.read(buffer) < 0;
+            buffer.flip();
+            int length;
+            while ((length = readRecord(buffer)) > 0) {
+                end += length;
+            }
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                // A record longer than the buffer, written before nicknames were capped.
+                buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer);
+                continue;
+            }
+            buffer.compact();
+        }
+        // Anything left after the last complete record is a record cut short by a crash.
+        channel.truncate(end);
+        channel.position(end);
+    }
+
+    /**
+     * Applies the record at the buffer's position.
+     *
+     * @return the record's length, or 0 if the buffer does not hold a whole record
+     */
+    private int readRecord(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.remaining() < 3) {
+            return 0;
+        }
+        byte type = buffer.get(start);
+        int nicknameBytes = buffer.getShort(start + 1) & 0xFFFF;
+        int length = 3 + nicknameBytes + (type == GAME ? RESULT_BYTES : 0);
+        if (type == SUMMARY) {
+            length += SUMMARY_BYTES;
+            if (buffer.remaining() < length) {
+                return 0;
+            }
+            length += (buffer.get(start + length - 1) & 0xFF) * RESULT_BYTES;
+        } else if (type != GAME) {
+            throw new IOException("Corrupt statistics record at " + path);
+        }
+        if (buffer.remaining() < length) {
+            return 0;
+        }
+        buffer.position(start + 3);
+        String nickname = readNickname(buffer, nicknameBytes);
+        if (type == GAME) {
+            add(readResult(buffer, nickname));
+            gameRecords++;
+        } else {
+            UserStats stats = users.computeIfAbsent(nickname, UserStats::new);
+            stats.addTotals(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            int bests = buffer.get() & 0xFF;
+            for (int i = 0; i < bests; i++) {
+                GameResult best = readResult(buffer, nickname);
+                if (stats.offerBest(best)) {
+                    leaderboard(best.getSize(), best.getDifficulty()).offer(best);
+                }
+            }
+        }
+        return length;
+    }
+
+    private static String readNickname(ByteBuffer buffer, int length) {
+        String nickname = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return nickname;
+    }
+
+    private static GameResult readResult(ByteBuffer buffer, String nickname) throws IOException {
+        int size = buffer.get() & 0xFF;
+        int difficulty = buffer.get();
+        if (difficulty < 0 || difficulty >= DIFFICULTIES.length) {
+            throw new IOException("Corrupt statistics record: difficulty " + difficulty);
+        }
+        return new GameResult(nickname, size, DIFFICULTIES[difficulty], buffer.getLong(), buffer.getInt(),
+                buffer.getInt(), buffer.getLong());
+    }
+
+    private static void writeResult(ByteBuffer buffer, GameResult result) {
+        buffer.put((byte) result.getSize())
+                .put((byte) result.getDifficulty().ordinal())
+                .putLong(result.getSolveMillis())
+                .putInt(result.getHintsUsed())
+                .putInt(result.getErrors())
+                .putLong(result.getFinishedAt());
+    }
+
+    /**
+     * @param maxBytes {@value #MAX_NICKNAME_BYTES} for new results; compaction accepts any nickname already
+     *                 in the file, up to the 0xFFFF bytes a record can hold
+     */
+    private static byte[] encodeNickname(String nickname, int maxBytes) {
+        byte[] bytes = nickname.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException("Nickname too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Updates the player's totals and best result, and the leaderboard if the result ranks.
+     */
+    private void add(GameResult result) {
+        UserStats stats = users.computeIfAbsent(result.getNickname(), UserStats::new);
+        if (stats.add(result)) {
+            leaderboard(result.getSize(), result.getDifficulty()).offer(result);
+        }
+    }
+
+    private Leaderboard leaderboard(int size, Difficulty difficulty) {
+        return leaderboards.computeIfAbsent(UserStats.category(size, difficulty), key -> new Leaderboard(leaderboardSize));
+    }
+
+    /**
+     * Records a solved game, appending it to the file.
+     *
+     * @param result the result of the game
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the nickname is longer than {@value #MAX_NICKNAME_BYTES} bytes in UTF-8
+     */
+    public synchronized void record(GameResult result) throws IOException {
+        byte[] nickname = encodeNickname(result.getNickname(), MAX_NICKNAME_BYTES);
+        ByteBuffer record = ByteBuffer.allocate(3 + nickname.length + RESULT_BYTES);
+        record.put(GAME).putShort((short) nickname.length).put(nickname);
+        writeResult(record, result);
+        writeFully(channel, record.flip());
+        add(result);
+        gameRecords++;
+    }
+
+    /**
+     * @return whether the game records outnumber the players enough for {@link #compact()} to be worth it
+     */
+    public synchronized boolean isCompactionDue() {
+        return gameRecords >= COMPACT_MIN_RECORDS && gameRecords >= (long) COMPACT_RATIO * users.size();
+    }
+
+    /**
+     * Rewrites the file with one summary record per player and no game records. The new file is
+     * written beside the old one and then moved over it, so a crash leaves one of the two whole.
+     * If the move fails, the store goes on appending to the old file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(out);
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (UserStats stats : users.values()) {
+                byte[] nickname = encodeNickname(stats.getNickname(), 0xFFFF);
+                int length = 3 + nickname.length + SUMMARY_BYTES + stats.bests().size() * RESULT_BYTES;
+                if (buffer.remaining() < length) {
+                    writeFully(out, buffer.flip());
+                    buffer.clear();
+                    if (buffer.capacity() < length) {
+                        buffer = ByteBuffer.allocate(length);
+                    }
+                }
+                buffer.put(SUMMARY).putShort((short) nickname.length).put(nickname)
+                        .putLong(stats.getGamesSolved())
+                        .putLong(stats.getTotalSolveMillis())
+                        .putLong(stats.getTotalHints())
+                        .putLong(stats.getTotalErrors())
+                        .put((byte) stats.bests().size());
+                for (GameResult best : stats.bests()) {
+                    writeResult(buffer, best);
+                }
+            }
+            writeFully(out, buffer.flip());
+            out.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            gameRecords = 0;
+        } finally {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * @param nickname the player's nickname
+     * @return a copy of the player's statistics, or {@code null} if the player has solved no game
+     */
+    public synchronized UserStats getUserStats(String nickname) {
+        UserStats stats = users.get(nickname);
+        return stats == null ? null : stats.copy();
+    }
+
+    /**
+     * @param size       the board size
+     * @param difficulty the difficulty
+     * @param limit      the most entries wanted, at most the leaderboard size
+     * @return the best result of the fastest players on that kind of board, best first
+     */
+    public synchronized List<GameResult> leaderboard(int size, Difficulty difficulty, int limit) {
+        Leaderboard leaderboard = leaderboards.get(UserStats.category(size, difficulty));
+        return leaderboard == null ? List.of() : leaderboard.top(limit);
+    }
+
+    /** @return the number of players with at least one solved game */
+    public synchronized int getUserCount() {
+        return users.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demosudoku.model.user;
+
+import com.example.demosudoku.model.generator.Difficulty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totals of every game a player has solved, and the player's best result on each kind of board.
+ * The instances returned by {@link StatsStore} are copies, so they do not change afterwards.
+ */
+public final class UserStats {
+    private final String nickname;
+    private long gamesSolved;
+    private long totalSolveMillis;
+    private long totalHints;
+    private long totalErrors;
+    // Best result for each board size and difficulty, keyed by category(size, difficulty).
+    private final Map<Integer, GameResult> bests;
+
+    UserStats(String nickname) {
+        this.nickname = nickname;
+        this.bests = new HashMap<>(4);
+    }
+
+    private UserStats(UserStats other) {
+        this.nickname = other.nickname;
+        this.gamesSolved = other.gamesSolved;
+        this.totalSolveMillis = other.totalSolveMillis;
+        this.totalHints = other.totalHints;
+        this.totalErrors = other.totalErrors;
+        this.bests = new HashMap<>(other.bests);
+    }
+
+    /**
+     * Adds a solved game.
+     *
+     * @param result the result of the game
+     * @return {@code true} if it is the player's new best on that kind of board
+     */
+    boolean add(GameResult result) {
+        gamesSolved++;
+        totalSolveMillis += result.getSolveMillis();
+        totalHints += result.getHintsUsed();
+        totalErrors += result.getErrors();
+        return offerBest(result);
+    }
+
+    /**
+     * Adds totals read from a compacted file.
+     */
+    void addTotals(long games, long solveMillis, long hints, long errors) {
+        gamesSolved += games;
+        totalSolveMillis += solveMillis;
+        totalHints += hints;
+        totalErrors += errors;
+    }
+
+    /**
+     * Keeps a result if it beats the player's best on its kind of board.
+     *
+     * @return {@code true} if it was kept
+     */
+    boolean offerBest(GameResult result) {
+        int category = category(result.getSize(), result.getDifficulty());
+        GameResult best = bests.get(category);
+        if (best != null && !result.isBetterThan(best)) {
+            return false;
+        }
+        bests.put(category, result);
+        return true;
+    }
+
+    static int category(int size, Difficulty difficulty) {
+        return size << 8 | difficulty.ordinal();
+    }
+
+    UserStats copy() {
+        return new UserStats(this);
+    }
+
+    Collection<GameResult> bests() {
+        return bests.values();
+    }
+
+    /** @return the player's nickname */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /** @return the number of games solved */
+    public long getGamesSolved() {
+        return gamesSolved;
+    }
+
+    /** @return the time spent on all solved games, in milliseconds */
+    public long getTotalSolveMillis() {
+        return totalSolveMillis;
+    }
+
+    /** @return the average time per solved game in milliseconds, or 0 if there is none */
+    public long getAverageSolveMillis() {
+        return gamesSolved == 0 ? 0 : totalSolveMillis / gamesSolved;
+    }
+
+    /** @return the hints asked for in all solved games */
+    public long getTotalHints() {
+        return totalHints;
+    }
+
+    /** @return the numbers rejected in all solved games */
+    public long getTotalErrors() {
+        return totalErrors;
+    }
+
+    /**
+     * @param size       the board size
+     * @param difficulty the difficulty
+     * @return the player's best result on that kind of board, or {@code null} if there is none
+     */
+    public GameResult getBest(int size, Difficulty difficulty) {
+        return bests.get(category(size, difficulty));
+    }
+
+    /** @return the player's best result on every kind of board played */
+    public List<GameResult> getBests() {
+        return new ArrayList<>(bests.values());
+    }
+}
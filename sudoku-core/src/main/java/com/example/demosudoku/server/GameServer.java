@@ -0,0 +1,399 @@
+package com.example.demosudoku.server;
+
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzlePool;
+import com.example.demosudoku.model.session.GameSession;
+import com.example.demosudoku.model.session.SessionRegistry;
+import com.example.demosudoku.model.solver.HintService;
+import com.example.demosudoku.model.solver.SolveStep;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless game server: plays Sudoku over HTTP with the same rules as the JavaFX game, without starting JavaFX.
+ * <p>
+ * Usage: {@code GameServer [--host ADDRESS] [--port N] [--threads N] [--idle-seconds N] [--max-live N]}.
+ * By default it listens on the loopback address only, port {@value #DEFAULT_PORT}. Every response
+ * is a JSON object; grids are strings in the one-line puzzle format, one symbol per cell in row
+ * order and {@code .} for empty cells.
+ * <ul>
+ *     <li>{@code POST /games?size=9&difficulty=MEDIUM} starts a game and returns its state with its {@code id}.</li>
+ *     <li>{@code GET /games/{id}} returns the state of a game.</li>
+ *     <li>{@code POST /games/{id}/moves?cell=N&value=V} enters a number, or clears the cell when {@code V} is 0.</li>
+ *     <li>{@code POST /games/{id}/hint} returns the next deduction, without playing it.</li>
+ *     <li>{@code DELETE /games/{id}} ends a game.</li>
+ * </ul>
+ * <p>
+ * The JDK's HTTP server accepts connections and parses requests on its own selector thread and
+ * hands each exchange to a small fixed pool of workers. The games live in a {@link SessionRegistry}:
+ * a move locks only its own game for the few microseconds it takes, so games never wait for one
+ * another, and games idle for {@code --idle-seconds} (or the least recently used beyond
+ * {@code --max-live}) are packed into a few hundred bytes until their next request.
+ */
+public class GameServer {
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 8080;
+    /** Seconds a game stays unpacked after its last request when none is given. */
+    public static final int DEFAULT_IDLE_SECONDS = 300;
+    /** Most games kept unpacked when no limit is given. */
+    public static final int DEFAULT_MAX_LIVE = 10_000;
+
+    private static final Histogram REQUEST_NANOS = MetricsRegistry.getInstance().histogram("server.request.nanos");
+    private static final Histogram MOVE_NANOS = MetricsRegistry.getInstance().histogram("server.move.nanos");
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final SessionRegistry sessions;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Binds the server without starting it, with the default limits for idle games.
+     *
+     * @param address the address and port to listen on; port 0 picks a free port
+     * @param threads the number of worker threads
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, int threads) throws IOException {
+        this(address, threads, new SessionRegistry(DEFAULT_IDLE_SECONDS * 1000L, DEFAULT_MAX_LIVE, 1000));
+    }
+
+    /**
+     * Binds the server without starting it.
+     *
+     * @param address  the address and port to listen on; port 0 picks a free port
+     * @param threads  the number of worker threads
+     * @param sessions the registry that holds the games, closed when the server stops
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, int threads, SessionRegistry sessions) throws IOException {
+        this.sessions = sessions;
+        this.server = HttpServer.create(address, 0);
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "game-server-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(workers);
+        server.createContext("/games", this::handle);
+    }
+
+    /**
+     * Parses the arguments and serves until the JVM stops.
+     *
+     * @param args command line arguments.
+     * @throws IOException if the address cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        InetAddress host = InetAddress.getLoopbackAddress();
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int idleSeconds = DEFAULT_IDLE_SECONDS;
+        int maxLive = DEFAULT_MAX_LIVE;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+                return;
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--host":
+                    host = InetAddress.getByName(value);
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--idle-seconds":
+                    idleSeconds = Integer.parseInt(value);
+                    break;
+                case "--max-live":
+                    maxLive = Integer.parseInt(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+                    return;
+            }
+        }
+
+        SessionRegistry sessions = new SessionRegistry(idleSeconds * 1000L, maxLive, 1000);
+        GameServer server = new GameServer(new InetSocketAddress(host, port), threads, sessions);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.err.printf("Serving games on http://%s:%d/games with %d threads%n",
+                host.getHostAddress(), server.getPort(), threads);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits a second for those in progress and stops the workers.
+     */
+    public void stop() {
+        server.stop(1);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sessions.close();
+    }
+
+    /** @return the port the server listens on */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** @return the registry that holds the games */
+    public SessionRegistry getSessions() {
+        return sessions;
+    }
+
+    /** @return the number of games in progress */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Routes a request under {@code /games} and answers errors as JSON: 404 for an unknown game or
+     * resource, 400 for a bad request and 500 for any other failure.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            // The path starts with "", "games", then the game id and an action.
+            if (path.length == 2 && method.equals("POST")) {
+                newGame(exchange);
+            } else if (path.length == 3 && method.equals("GET")) {
+                state(exchange, path[2], 200);
+            } else if (path.length == 3 && method.equals("DELETE")) {
+                end(exchange, path[2]);
+            } else if (path.length == 4 && path[3].equals("moves") && method.equals("POST")) {
+                move(exchange, path[2]);
+            } else if (path.length == 4 && path[3].equals("hint") && method.equals("POST")) {
+                hint(exchange, path[2]);
+            } else {
+                send(exchange, 404, new Json().field("error", "Unknown resource " + method + " "
+                        + exchange.getRequestURI().getPath()));
+            }
+        } catch (NoSuchElementException e) {
+            send(exchange, 404, new Json().field("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, new Json().field("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            // Without an answer the client would wait until the connection times out.
+            send(exchange, 500, new Json().field("error", "Internal error: " + e));
+        } finally {
+            exchange.close();
+            if (MetricsRegistry.ENABLED) {
+                REQUEST_NANOS.recordSince(start);
+            }
+        }
+    }
+
+    private void newGame(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String size = parameter(query, "size");
+        String difficulty = parameter(query, "difficulty");
+        BoardGeometry geometry = BoardGeometry.of(size == null ? 9 : parseInt(size, "size"));
+        Puzzle puzzle = PuzzlePool.getInstance().take(geometry,
+                difficulty == null ? Difficulty.MEDIUM : Difficulty.valueOf(difficulty.toUpperCase()));
+        GameSession session = new GameSession(puzzle);
+        String id;
+        do {
+            id = Long.toUnsignedString(random.nextLong(), 36);
+        } while (!sessions.add(id, session));
+        state(exchange, id, 201);
+    }
+
+    private void state(HttpExchange exchange, String id, int status) throws IOException {
+        Json json = sessions.withSession(id, session -> {
+            Puzzle puzzle = session.getPuzzle();
+            BoardGeometry geometry = puzzle.getGeometry();
+            return new Json().field("id", id)
+                    .field("size", geometry.getSize())
+                    .field("blockRows", geometry.getBlockRows())
+                    .field("blockCols", geometry.getBlockCols())
+                    .field("difficulty", puzzle.getDifficulty().name())
+                    .field("puzzle", format(geometry, puzzle.getGivens()))
+                    .field("grid", format(geometry, session.getBoard().toArray()))
+                    .field("moves", session.getState().getMoveCount())
+                    .field("solved", session.isSolved());
+        });
+        send(exchange, status, json);
+    }
+
+    private void end(HttpExchange exchange, String id) throws IOException {
+        if (!sessions.remove(id)) {
+            throw new NoSuchElementException("Unknown game " + id);
+        }
+        send(exchange, 200, new Json().field("id", id).field("ended", true));
+    }
+
+    private void move(HttpExchange exchange, String id) throws IOException {
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        String query = exchange.getRequestURI().getRawQuery();
+        int cell = parseInt(parameter(query, "cell"), "cell");
+        int value = parseInt(parameter(query, "value"), "value");
+        Json json = sessions.withSession(id, session -> {
+            String outcome;
+            if (value == 0) {
+                session.clear(cell);
+                outcome = "CLEARED";
+            } else {
+                outcome = session.enter(cell, value).name();
+            }
+            return new Json().field("cell", cell).field("value", value)
+                    .field("outcome", outcome).field("solved", session.isSolved());
+        });
+        if (MetricsRegistry.ENABLED) {
+            MOVE_NANOS.recordSince(start);
+        }
+        send(exchange, 200, json);
+    }
+
+    private void hint(HttpExchange exchange, String id) throws IOException {
+        // The service keeps a solver sized for the board, so it is only built when asked for.
+        SolveStep step = sessions.withSession(id,
+                session -> new HintService(session.getBoard(), session.getPuzzle()).nextHint());
+        if (step == null) {
+            send(exchange, 200, new Json().field("found", false));
+            return;
+        }
+        send(exchange, 200, new Json().field("found", true)
+                .field("cell", step.getCell())
+                .field("value", step.getValue())
+                .field("technique", step.getTechnique().name())
+                .field("explanation", step.getExplanation()));
+    }
+
+    private static String format(BoardGeometry geometry, byte[] grid) {
+        char[] line = new char[grid.length];
+        for (int cell = 0; cell < grid.length; cell++) {
+            line[cell] = grid[cell] == 0 ? '.' : geometry.toSymbol(grid[cell]);
+        }
+        return new String(line);
+    }
+
+    /**
+     * Finds a parameter in a raw query string. Values are plain numbers and names, so they are not URL-decoded.
+     */
+    private static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.regionMatches(0, name, 0, equals) && equals == name.length()) {
+                return pair.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+
+    private static int parseInt(String value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " is not a number: " + value);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Json json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Prints an error and the accepted options.
+     */
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: GameServer [--host ADDRESS] [--port N] [--threads N] [--idle-seconds N] [--max-live N]");
+        System.exit(2);
+    }
+
+    /**
+     * Builds a flat JSON object.
+     */
+    private static class Json {
+        private final StringBuilder text = new StringBuilder("{");
+
+        Json field(String name, String value) {
+            if (value == null) {
+                name(name).append("null");
+                return this;
+            }
+            name(name).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    text.append('\\').append(c);
+                } else if (c < 0x20) {
+                    text.append(String.format("\\u%04x", (int) c));
+                } else {
+                    text.append(c);
+                }
+            }
+            text.append('"');
+            return this;
+        }
+
+        Json field(String name, long value) {
+            name(name).append(value);
+            return this;
+        }
+
+        Json field(String name, boolean value) {
+            name(name).append(value);
+            return this;
+        }
+
+        private StringBuilder name(String name) {
+            if (text.length() > 1) {
+                text.append(',');
+            }
+            return text.append('"').append(name).append("\":");
+        }
+
+        @Override
+        public String toString() {
+            return text + "}";
+        }
+    }
+}
@@ -0,0 +1,16 @@
+module com.example.demosudoku.core {
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.httpserver;
+
+    exports com.example.demosudoku.model.bank;
+    exports com.example.demosudoku.model.board;
+    exports com.example.demosudoku.model.generator;
+    exports com.example.demosudoku.model.io;
+    exports com.example.demosudoku.model.session;
+    exports com.example.demosudoku.model.solver;
+    exports com.example.demosudoku.model.user;
+    exports com.example.demosudoku.metrics;
+    exports com.example.demosudoku.cli;
+    exports com.example.demosudoku.server;
+}
@@ -0,0 +1,81 @@
+package com.example.demosudoku;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+
+/**
+ * Grids shared by the tests, and helpers to read and check them.
+ */
+public final class Grids {
+    /** A well-known 9x9 puzzle with a unique solution. */
+    public static final String UNIQUE_9 =
+            "53..7...." + "6..195..." + ".98....6." + "8...6...3" + "4..8.3..1"
+                    + "7...2...6" + ".6....28." + "...419..5" + "....8..79";
+    /** The solution of {@link #UNIQUE_9}. */
+    public static final String UNIQUE_9_SOLUTION =
+            "534678912" + "672195348" + "198342567" + "859761423" + "426853791"
+                    + "713924856" + "961537284" + "287419635" + "345286179";
+
+    private Grids() {
+    }
+
+    /**
+     * @return {@link #UNIQUE_9} as a medium puzzle with its solution
+     */
+    public static Puzzle unique9() {
+        return new Puzzle(BoardGeometry.SIZE_9, parse(BoardGeometry.SIZE_9, UNIQUE_9),
+                parse(BoardGeometry.SIZE_9, UNIQUE_9_SOLUTION), Difficulty.MEDIUM);
+    }
+
+    /**
+     * Reads a grid written one symbol per cell in row order, with {@code .} for empty cells.
+     *
+     * @param geometry the shape of the grid
+     * @param text     the cells
+     * @return the grid, {@code 0} for empty cells
+     */
+    public static byte[] parse(BoardGeometry geometry, String text) {
+        if (text.length() != geometry.getCellCount()) {
+            throw new IllegalArgumentException("Expected " + geometry.getCellCount() + " cells: " + text);
+        }
+        byte[] grid = new byte[text.length()];
+        for (int cell = 0; cell < grid.length; cell++) {
+            char symbol = text.charAt(cell);
+            grid[cell] = (byte) (symbol == '.' ? 0 : geometry.fromSymbol(symbol));
+        }
+        return grid;
+    }
+
+    /**
+     * Checks that a grid is complete, follows the rules and keeps every given of a puzzle.
+     *
+     * @param geometry the shape of the grids
+     * @param givens   the puzzle, {@code 0} for empty cells
+     * @param grid     the grid to check
+     * @return {@code true} if the grid solves the puzzle
+     */
+    public static boolean solves(BoardGeometry geometry, byte[] givens, byte[] grid) {
+        int size = geometry.getSize();
+        int[] rows = new int[size];
+        int[] cols = new int[size];
+        int[] blocks = new int[size];
+        for (int cell = 0; cell < grid.length; cell++) {
+            int value = grid[cell];
+            if (value < 1 || value > size || (givens[cell] != 0 && givens[cell] != value)) {
+                return false;
+            }
+            int bit = 1 << value;
+            rows[geometry.rowOf(cell)] |= bit;
+            cols[geometry.colOf(cell)] |= bit;
+            blocks[geometry.blockOf(cell)] |= bit;
+        }
+        for (int unit = 0; unit < size; unit++) {
+            if (rows[unit] != geometry.getAllValuesMask() || cols[unit] != geometry.getAllValuesMask()
+                    || blocks[unit] != geometry.getAllValuesMask()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
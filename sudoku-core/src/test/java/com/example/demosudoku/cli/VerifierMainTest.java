@@ -0,0 +1,71 @@
+package com.example.demosudoku.cli;
+
+import com.example.demosudoku.Grids;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VerifierMainTest {
+    // UNIQUE_9 with a 5 in row 1, column 3: the row then holds two 5s.
+    private static final String UNSOLVABLE = "535.7...." + Grids.UNIQUE_9.substring(9);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void passesABankOfUniquePuzzles() throws IOException {
+        Path input = write("unique.txt", Grids.UNIQUE_9, Grids.UNIQUE_9);
+        Path output = directory.resolve("unique.out");
+
+        assertEquals(0, VerifierMain.run(new String[] {"--threads", "2", "--out", output.toString(), input.toString()}));
+        assertEquals(List.of(Grids.UNIQUE_9 + " 1", Grids.UNIQUE_9 + " 1"),
+                Files.readAllLines(output, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void countsEveryKindOfLineAndFailsTheRun() throws IOException {
+        String ambiguous = ambiguous();
+        Path input = write("mixed.txt", Grids.UNIQUE_9, UNSOLVABLE, ambiguous, Grids.UNIQUE_9.substring(1));
+        Path output = directory.resolve("mixed.out");
+
+        assertEquals(1, VerifierMain.run(new String[] {"--threads", "2", "--out", output.toString(), input.toString()}));
+        assertEquals(List.of(Grids.UNIQUE_9 + " 1", UNSOLVABLE + " 0", ambiguous + " 2"),
+                Files.readAllLines(output, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void failsOnMalformedLinesAlone() throws IOException {
+        Path input = write("malformed.txt", Grids.UNIQUE_9, Grids.UNIQUE_9 + "7", "not a puzzle");
+        Path output = directory.resolve("malformed.out");
+
+        assertEquals(1, VerifierMain.run(new String[] {"--out", output.toString(), input.toString()}));
+        assertEquals(List.of(Grids.UNIQUE_9 + " 1"), Files.readAllLines(output, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void rejectsBadArguments() throws IOException {
+        assertEquals(2, VerifierMain.run(new String[0]));
+        assertEquals(2, VerifierMain.run(new String[] {"--colour", "red", "x.txt"}));
+        assertEquals(2, VerifierMain.run(new String[] {"x.txt", "--out"}));
+    }
+
+    /**
+     * @return the solution of UNIQUE_9 without its 1s and 2s, which can then be swapped
+     */
+    private static String ambiguous() {
+        return Grids.UNIQUE_9_SOLUTION.replace('1', '.').replace('2', '.');
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path path = directory.resolve(name);
+        Files.write(path, List.of(lines), StandardCharsets.US_ASCII);
+        return path;
+    }
+}
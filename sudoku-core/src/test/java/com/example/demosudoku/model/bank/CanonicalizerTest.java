@@ -0,0 +1,171 @@
+package com.example.demosudoku.model.bank;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CanonicalizerTest {
+
+    @Test
+    void relabelingKeepsTheHash() {
+        BoardGeometry geometry = BoardGeometry.SIZE_9;
+        byte[] grid = Grids.parse(geometry, Grids.UNIQUE_9);
+        Canonicalizer canonicalizer = new Canonicalizer(geometry);
+        int[] labels = shuffled(geometry.getSize() + 1, 1, new SplittableRandom(1));
+        byte[] relabeled = new byte[grid.length];
+        for (int cell = 0; cell < grid.length; cell++) {
+            relabeled[cell] = (byte) labels[grid[cell]];
+        }
+        assertSameClass(canonicalizer, grid, relabeled);
+    }
+
+    @Test
+    void transposingAndRotatingKeepTheHash() {
+        BoardGeometry geometry = BoardGeometry.SIZE_9;
+        byte[] grid = Grids.parse(geometry, Grids.UNIQUE_9);
+        Canonicalizer canonicalizer = new Canonicalizer(geometry);
+        byte[] transposed = new byte[grid.length];
+        byte[] rotated = new byte[grid.length];
+        int size = geometry.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                transposed[col * size + row] = grid[row * size + col];
+                // A quarter turn clockwise.
+                rotated[col * size + (size - 1 - row)] = grid[row * size + col];
+            }
+        }
+        assertSameClass(canonicalizer, grid, transposed);
+        assertSameClass(canonicalizer, grid, rotated);
+    }
+
+    @Test
+    void permutingBandsRowsStacksAndColumnsKeepsTheHash() {
+        BoardGeometry geometry = BoardGeometry.SIZE_9;
+        byte[] grid = Grids.parse(geometry, Grids.UNIQUE_9);
+        Canonicalizer canonicalizer = new Canonicalizer(geometry);
+        SplittableRandom random = new SplittableRandom(2);
+        int[] identity = shuffled(geometry.getSize(), 0, null);
+        int[] bands = lines(geometry.getBlockRows(), geometry.getSize() / geometry.getBlockRows(), true, random);
+        int[] rowsInBands = lines(geometry.getBlockRows(), geometry.getSize() / geometry.getBlockRows(), false, random);
+        int[] stacks = lines(geometry.getBlockCols(), geometry.getSize() / geometry.getBlockCols(), true, random);
+        int[] colsInStacks = lines(geometry.getBlockCols(), geometry.getSize() / geometry.getBlockCols(), false, random);
+
+        assertSameClass(canonicalizer, grid, rearrange(geometry, grid, bands, identity));
+        assertSameClass(canonicalizer, grid, rearrange(geometry, grid, rowsInBands, identity));
+        assertSameClass(canonicalizer, grid, rearrange(geometry, grid, identity, stacks));
+        assertSameClass(canonicalizer, grid, rearrange(geometry, grid, identity, colsInStacks));
+    }
+
+    @Test
+    void everySymmetryTogetherKeepsTheHashOnRectangularBlocks() {
+        for (BoardGeometry geometry : new BoardGeometry[] {BoardGeometry.SIZE_6, BoardGeometry.SIZE_12}) {
+            byte[] grid = new PuzzleGenerator(geometry, new SplittableRandom(4)).generate(Difficulty.HARD).getGivens();
+            Canonicalizer canonicalizer = new Canonicalizer(geometry);
+            SplittableRandom random = new SplittableRandom(geometry.getSize());
+            int bandCount = geometry.getSize() / geometry.getBlockRows();
+            int stackCount = geometry.getSize() / geometry.getBlockCols();
+            for (int trial = 0; trial < 5; trial++) {
+                int[] rows = compose(lines(geometry.getBlockRows(), bandCount, true, random),
+                        lines(geometry.getBlockRows(), bandCount, false, random));
+                int[] cols = compose(lines(geometry.getBlockCols(), stackCount, true, random),
+                        lines(geometry.getBlockCols(), stackCount, false, random));
+                byte[] moved = rearrange(geometry, grid, rows, cols);
+                int[] labels = shuffled(geometry.getSize() + 1, 1, random);
+                for (int cell = 0; cell < moved.length; cell++) {
+                    moved[cell] = (byte) labels[moved[cell]];
+                }
+                assertSameClass(canonicalizer, grid, moved);
+            }
+        }
+    }
+
+    @Test
+    void differentPuzzlesGetDifferentHashes() {
+        BoardGeometry geometry = BoardGeometry.SIZE_9;
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom(5));
+        Canonicalizer canonicalizer = new Canonicalizer(geometry);
+        long first = canonicalizer.hash(generator.generate(Difficulty.MEDIUM).getGivens());
+        long second = canonicalizer.hash(generator.generate(Difficulty.MEDIUM).getGivens());
+        assertNotEquals(first, second);
+    }
+
+    private static void assertSameClass(Canonicalizer canonicalizer, byte[] grid, byte[] other) {
+        byte[] expected = new byte[grid.length];
+        byte[] actual = new byte[grid.length];
+        canonicalizer.canonicalize(grid, expected);
+        canonicalizer.canonicalize(other, actual);
+        assertArrayEquals(expected, actual);
+        assertEquals(canonicalizer.hash(grid), canonicalizer.hash(other));
+
+        // The canonical form is its own canonical form.
+        byte[] again = new byte[grid.length];
+        canonicalizer.canonicalize(expected, again);
+        assertArrayEquals(expected, again);
+    }
+
+    /**
+     * Builds a grid whose row {@code r} is row {@code rows[r]} of the grid, and likewise for columns.
+     */
+    private static byte[] rearrange(BoardGeometry geometry, byte[] grid, int[] rows, int[] cols) {
+        int size = geometry.getSize();
+        byte[] moved = new byte[grid.length];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                moved[row * size + col] = grid[rows[row] * size + cols[col]];
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Builds a line permutation that either shuffles whole groups of {@code width} lines, or shuffles
+     * the lines inside each group.
+     */
+    private static int[] lines(int width, int groups, boolean wholeGroups, SplittableRandom random) {
+        int[] lines = new int[width * groups];
+        int[] groupOrder = wholeGroups ? shuffled(groups, 0, random) : shuffled(groups, 0, null);
+        for (int group = 0; group < groups; group++) {
+            int[] inner = wholeGroups ? shuffled(width, 0, null) : shuffled(width, 0, random);
+            for (int k = 0; k < width; k++) {
+                lines[group * width + k] = groupOrder[group] * width + inner[k];
+            }
+        }
+        return lines;
+    }
+
+    /** @return the permutation that applies {@code first}, then {@code second} */
+    private static int[] compose(int[] first, int[] second) {
+        int[] composed = new int[first.length];
+        for (int i = 0; i < composed.length; i++) {
+            composed[i] = first[second[i]];
+        }
+        return composed;
+    }
+
+    /**
+     * @return {@code 0..length-1} with the entries from {@code from} on shuffled, or in order without a random source
+     */
+    private static int[] shuffled(int length, int from, SplittableRandom random) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = i;
+        }
+        if (random != null) {
+            for (int i = length - 1; i > from; i--) {
+                int j = from + random.nextInt(i - from + 1);
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+        return values;
+    }
+}
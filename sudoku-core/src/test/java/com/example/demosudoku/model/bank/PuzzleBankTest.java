@@ -0,0 +1,142 @@
+package com.example.demosudoku.model.bank;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+import com.example.demosudoku.model.generator.PuzzleId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PuzzleBankTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackNibblePackedPuzzlesAfterReopening() throws IOException {
+        assertRoundTrip(BoardGeometry.SIZE_9);
+    }
+
+    @Test
+    void readsBackBytePackedPuzzlesAfterReopening() throws IOException {
+        assertRoundTrip(BoardGeometry.SIZE_16);
+    }
+
+    @Test
+    void indexesDifficultiesAndDrawsFromThem() throws IOException {
+        Path path = directory.resolve("draw.sdb");
+        PuzzleGenerator generator = new PuzzleGenerator(BoardGeometry.SIZE_6, new SplittableRandom(3));
+        try (PuzzleBank bank = PuzzleBank.open(path, BoardGeometry.SIZE_6)) {
+            for (int i = 0; i < 5; i++) {
+                bank.append(generator.generate(Difficulty.HARD));
+            }
+            bank.append(generator.generate(Difficulty.EASY));
+        }
+        try (PuzzleBank bank = PuzzleBank.open(path)) {
+            assertEquals(5, bank.count(Difficulty.HARD));
+            assertEquals(1, bank.count(Difficulty.EASY));
+            assertEquals(0, bank.count(Difficulty.EXPERT));
+            SplittableRandom random = new SplittableRandom(1);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(Difficulty.HARD, bank.draw(Difficulty.HARD, random).getDifficulty());
+            }
+            assertEquals(5, bank.drawIndex(Difficulty.EASY, random));
+            assertNull(bank.draw(Difficulty.EXPERT, random));
+        }
+    }
+
+    @Test
+    void copiesRecordsBetweenBanks() throws IOException {
+        Puzzle puzzle = new PuzzleGenerator(BoardGeometry.SIZE_9).generate(
+                new PuzzleId(BoardGeometry.SIZE_9, Difficulty.MEDIUM, 11));
+        try (PuzzleBank source = PuzzleBank.open(directory.resolve("source.sdb"), BoardGeometry.SIZE_9);
+             PuzzleBank target = PuzzleBank.open(directory.resolve("target.sdb"), BoardGeometry.SIZE_9)) {
+            source.append(puzzle);
+            assertEquals(0, target.appendCopy(source, 0));
+            assertSamePuzzle(puzzle, target.get(0));
+        }
+    }
+
+    @Test
+    void refusesAnotherShapeOrAnotherFile() throws IOException {
+        Path path = directory.resolve("nine.sdb");
+        PuzzleBank.open(path, BoardGeometry.SIZE_9).close();
+        assertThrows(IOException.class, () -> PuzzleBank.open(path, BoardGeometry.SIZE_6));
+
+        Path text = directory.resolve("text.sdb");
+        Files.writeString(text, "not a puzzle bank, but long enough to hold a whole bank header......");
+        assertThrows(IOException.class, () -> PuzzleBank.open(text));
+    }
+
+    @Test
+    void ignoresARecordWhoseCountWasNeverPublished() throws IOException {
+        Path path = directory.resolve("torn.sdb");
+        Puzzle puzzle = new PuzzleGenerator(BoardGeometry.SIZE_9, new SplittableRandom(5)).generate(Difficulty.EASY);
+        try (PuzzleBank bank = PuzzleBank.open(path, BoardGeometry.SIZE_9)) {
+            bank.append(puzzle);
+        }
+        // Half a record written after the last published count, as a crash during append leaves it.
+        Files.write(path, new byte[PuzzleBank.RECORD_HEADER_BYTES + 20], StandardOpenOption.APPEND);
+
+        try (PuzzleBank bank = PuzzleBank.open(path)) {
+            assertEquals(1, bank.size());
+            assertSamePuzzle(puzzle, bank.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> bank.get(1));
+        }
+    }
+
+    /**
+     * Appends puzzles with and without identifiers, reopens the bank and reads every one back.
+     */
+    private void assertRoundTrip(BoardGeometry geometry) throws IOException {
+        Path path = directory.resolve(geometry.getSize() + ".sdb");
+        List<Puzzle> puzzles = new ArrayList<>();
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom(geometry.getSize()));
+        for (int seed = 0; seed < 3; seed++) {
+            puzzles.add(generator.generate(new PuzzleId(geometry, Difficulty.values()[seed], seed)));
+        }
+        puzzles.add(generator.generate(Difficulty.EASY));
+
+        try (PuzzleBank bank = PuzzleBank.open(path, geometry)) {
+            for (int i = 0; i < puzzles.size(); i++) {
+                assertEquals(i, bank.append(puzzles.get(i)));
+            }
+        }
+        assertEquals(PuzzleBank.FILE_HEADER_BYTES + puzzles.size()
+                * (PuzzleBank.RECORD_HEADER_BYTES + (geometry.getSize() < 16
+                ? (geometry.getCellCount() + 1) / 2 : geometry.getCellCount())), Files.size(path));
+
+        try (PuzzleBank bank = PuzzleBank.open(path, geometry)) {
+            assertEquals(puzzles.size(), bank.size());
+            byte[] givens = new byte[geometry.getCellCount()];
+            for (int i = 0; i < puzzles.size(); i++) {
+                Puzzle expected = puzzles.get(i);
+                assertSamePuzzle(expected, bank.get(i));
+                bank.readGivens(i, givens);
+                assertArrayEquals(expected.getGivens(), givens);
+                assertEquals(expected.getClueCount(), bank.getClueCount(i));
+                assertEquals(PuzzleBank.checksum(expected.getSolutionGrid()), bank.getChecksum(i));
+            }
+        }
+    }
+
+    private static void assertSamePuzzle(Puzzle expected, Puzzle actual) {
+        assertArrayEquals(expected.getGivens(), actual.getGivens());
+        assertArrayEquals(expected.getSolutionGrid(), actual.getSolutionGrid());
+        assertEquals(expected.getDifficulty(), actual.getDifficulty());
+        assertEquals(expected.getId(), actual.getId());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demosudoku.model.board;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConstraintEngineTest {
+
+    @Test
+    void matchesABruteForceRecomputationOn6x6() {
+        checkRandomMoves(BoardGeometry.SIZE_6, 1, 2000);
+    }
+
+    @Test
+    void matchesABruteForceRecomputationOn9x9() {
+        checkRandomMoves(BoardGeometry.SIZE_9, 2, 2000);
+    }
+
+    @Test
+    void matchesABruteForceRecomputationOn16x16() {
+        checkRandomMoves(BoardGeometry.SIZE_16, 3, 600);
+    }
+
+    @Test
+    void reportsTheSinglesOfAKnownPuzzle() {
+        BoardGeometry geometry = BoardGeometry.SIZE_9;
+        Board board = new Board(new Puzzle(geometry, Grids.parse(geometry, Grids.UNIQUE_9),
+                Grids.parse(geometry, Grids.UNIQUE_9_SOLUTION), Difficulty.MEDIUM));
+        ConstraintEngine engine = board.getEngine();
+        assertEquals(51, engine.getEmptyCount());
+        // Row 4, column 4 sees 1 to 9 except 5 in its row, column and block.
+        assertTrue(engine.getNakedSingles().contains(4 * 9 + 4));
+        assertEquals(1 << 5, engine.getCandidates(4 * 9 + 4));
+        assertEquals(0, board.getConflictCount());
+        assertBruteForce(board);
+
+        assertTrue(board.isValid(4, 4, 5));
+        assertFalse(board.isValid(4, 4, 8));
+        board.setCellValue(4, 4, 8);
+        assertTrue(board.getConflictCount() > 0);
+        assertFalse(board.isValid(4, 4, 8));
+        assertBruteForce(board);
+    }
+
+    /**
+     * Sets, overwrites and clears random cells, legal or not, and compares the engine with a
+     * recomputation from the cells after every change.
+     */
+    private static void checkRandomMoves(BoardGeometry geometry, long seed, int moves) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Board board = new Board(geometry, seed);
+        assertBruteForce(board);
+        for (int i = 0; i < moves; i++) {
+            int row = random.nextInt(geometry.getSize());
+            int col = random.nextInt(geometry.getSize());
+            int value;
+            if (random.nextInt(3) == 0) {
+                value = 0;
+            } else {
+                // Mostly legal numbers, so the board fills up and singles appear.
+                int legal = board.getCandidates(row, col);
+                value = legal != 0 && random.nextInt(4) != 0
+                        ? randomBit(legal, random) : 1 + random.nextInt(geometry.getSize());
+            }
+            board.setCellValue(row, col, value);
+            assertEquals(value, board.getCellValue(row, col));
+            assertBruteForce(board);
+        }
+    }
+
+    private static int randomBit(int mask, SplittableRandom random) {
+        int skip = random.nextInt(Integer.bitCount(mask));
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    private static void assertBruteForce(Board board) {
+        BoardGeometry geometry = board.getGeometry();
+        ConstraintEngine engine = board.getEngine();
+        int size = geometry.getSize();
+        byte[] cells = board.toArray();
+
+        int[][] counts = new int[3 * size][size + 1];
+        int empty = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0) {
+                empty++;
+                continue;
+            }
+            counts[geometry.rowOf(cell)][cells[cell]]++;
+            counts[size + geometry.colOf(cell)][cells[cell]]++;
+            counts[2 * size + geometry.blockOf(cell)][cells[cell]]++;
+        }
+        int conflicts = 0;
+        for (int[] unit : counts) {
+            for (int count : unit) {
+                conflicts += Math.max(0, count - 1);
+            }
+        }
+        assertEquals(empty, engine.getEmptyCount());
+        assertEquals(empty, engine.getEmptyCells().size());
+        assertEquals(conflicts, board.getConflictCount());
+        assertEquals(empty == 0, board.isComplete());
+
+        int[] candidates = new int[cells.length];
+        int nakedSingles = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0) {
+                int used = 0;
+                for (int number = 1; number <= size; number++) {
+                    if (counts[geometry.rowOf(cell)][number] > 0 || counts[size + geometry.colOf(cell)][number] > 0
+                            || counts[2 * size + geometry.blockOf(cell)][number] > 0) {
+                        used |= 1 << number;
+                    }
+                }
+                candidates[cell] = geometry.getAllValuesMask() & ~used;
+            }
+            assertEquals(candidates[cell], engine.getCandidates(cell), "candidates of cell " + cell);
+            assertEquals(cells[cell] == 0, engine.getEmptyCells().contains(cell));
+            boolean single = Integer.bitCount(candidates[cell]) == 1;
+            assertEquals(single, engine.getNakedSingles().contains(cell), "naked single " + cell);
+            if (single) {
+                nakedSingles++;
+            }
+        }
+        assertEquals(nakedSingles, engine.getNakedSingles().size());
+
+        int hiddenSingles = 0;
+        for (int unit = 0; unit < 3 * size; unit++) {
+            for (int number = 1; number <= size; number++) {
+                int places = 0;
+                int place = -1;
+                for (int k = 0; k < size; k++) {
+                    int cell = engine.unitCell(unit, k);
+                    if ((candidates[cell] & (1 << number)) != 0) {
+                        places++;
+                        place = cell;
+                    }
+                }
+                int key = unit * size + number - 1;
+                assertEquals(places == 1, engine.getHiddenSingles().contains(key), "hidden single " + key);
+                if (places == 1) {
+                    hiddenSingles++;
+                    assertEquals(number, engine.hiddenSingleNumber(key));
+                    assertEquals(unit, engine.hiddenSingleUnit(key));
+                    assertEquals(place, engine.hiddenSingleCell(key));
+                }
+            }
+        }
+        assertEquals(hiddenSingles, engine.getHiddenSingles().size());
+    }
+}
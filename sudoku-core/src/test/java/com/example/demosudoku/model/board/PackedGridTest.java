@@ -0,0 +1,67 @@
+package com.example.demosudoku.model.board;
+
+import com.example.demosudoku.Grids;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PackedGridTest {
+
+    @Test
+    void packsTwoCellsPerByteBelowSixteen() {
+        BoardGeometry geometry = BoardGeometry.SIZE_9;
+        byte[] grid = Grids.parse(geometry, Grids.UNIQUE_9_SOLUTION);
+        byte[] packed = PackedGrid.pack(geometry, grid);
+        assertEquals(41, packed.length);
+        assertEquals(4, PackedGrid.bitsPerCell(geometry));
+        assertRoundTrip(geometry, grid, packed);
+    }
+
+    @Test
+    void packsOneCellPerByteFromSixteen() {
+        BoardGeometry geometry = BoardGeometry.SIZE_16;
+        byte[] grid = randomGrid(geometry, new SplittableRandom(7));
+        byte[] packed = PackedGrid.pack(geometry, grid);
+        assertEquals(256, packed.length);
+        assertEquals(8, PackedGrid.bitsPerCell(geometry));
+        assertRoundTrip(geometry, grid, packed);
+    }
+
+    @Test
+    void packsIntoABufferAtAnOffset() {
+        for (BoardGeometry geometry : new BoardGeometry[] {BoardGeometry.SIZE_6, BoardGeometry.SIZE_25}) {
+            byte[] grid = randomGrid(geometry, new SplittableRandom(geometry.getSize()));
+            ByteBuffer buffer = ByteBuffer.allocate(PackedGrid.byteCount(geometry) + 10);
+            PackedGrid.pack(geometry, grid, buffer, 7);
+            assertEquals(0, buffer.position());
+
+            byte[] packed = new byte[PackedGrid.byteCount(geometry)];
+            buffer.get(7, packed);
+            assertArrayEquals(PackedGrid.pack(geometry, grid), packed);
+            byte[] unpacked = new byte[geometry.getCellCount()];
+            PackedGrid.unpack(geometry, buffer, 7, unpacked);
+            assertArrayEquals(grid, unpacked);
+        }
+    }
+
+    private static void assertRoundTrip(BoardGeometry geometry, byte[] grid, byte[] packed) {
+        byte[] unpacked = new byte[geometry.getCellCount()];
+        PackedGrid.unpack(geometry, packed, unpacked);
+        assertArrayEquals(grid, unpacked);
+        for (int cell = 0; cell < grid.length; cell++) {
+            assertEquals(grid[cell], PackedGrid.get(geometry, packed, cell));
+        }
+    }
+
+    private static byte[] randomGrid(BoardGeometry geometry, SplittableRandom random) {
+        byte[] grid = new byte[geometry.getCellCount()];
+        for (int cell = 0; cell < grid.length; cell++) {
+            grid[cell] = (byte) random.nextInt(geometry.getSize() + 1);
+        }
+        return grid;
+    }
+}
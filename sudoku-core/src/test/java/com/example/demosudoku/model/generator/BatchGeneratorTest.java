@@ -0,0 +1,66 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchGeneratorTest {
+
+    @Test
+    void producesTheSameBatchOnOneAndFourThreads() {
+        Puzzle[] single = generate(BoardGeometry.SIZE_9, 1, 32);
+        Puzzle[] parallel = generate(BoardGeometry.SIZE_9, 4, 32);
+        assertSamePuzzles(single, parallel);
+        for (int i = 0; i < single.length; i++) {
+            assertEquals(new PuzzleId(BoardGeometry.SIZE_9, Difficulty.MEDIUM, BatchGenerator.puzzleSeed(17, i)),
+                    single[i].getId());
+        }
+    }
+
+    @Test
+    void streamsTheSameBatchAcrossChunks() {
+        // More puzzles than one streamed chunk holds.
+        int count = 5000;
+        Puzzle[] batch = generate(BoardGeometry.SIZE_4, 4, count);
+        List<Puzzle> streamed = new ArrayList<>();
+        BatchGenerator generator = new BatchGenerator(BoardGeometry.SIZE_4, 1);
+        try {
+            generator.generate(17, count, Difficulty.MEDIUM, streamed::add);
+        } finally {
+            generator.shutdown();
+        }
+        assertSamePuzzles(batch, streamed.toArray(new Puzzle[0]));
+    }
+
+    @Test
+    void regeneratesEachPuzzleFromItsId() {
+        Puzzle[] batch = generate(BoardGeometry.SIZE_6, 2, 8);
+        PuzzleGenerator generator = new PuzzleGenerator(BoardGeometry.SIZE_6);
+        for (Puzzle puzzle : batch) {
+            assertArrayEquals(puzzle.getGivens(), generator.generate(puzzle.getId()).getGivens());
+        }
+    }
+
+    private static Puzzle[] generate(BoardGeometry geometry, int parallelism, int count) {
+        BatchGenerator generator = new BatchGenerator(geometry, parallelism);
+        try {
+            return generator.generate(17, count, Difficulty.MEDIUM);
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    private static void assertSamePuzzles(Puzzle[] expected, Puzzle[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i].getGivens(), actual[i].getGivens(), "puzzle " + i);
+            assertArrayEquals(expected[i].getSolutionGrid(), actual[i].getSolutionGrid(), "puzzle " + i);
+            assertEquals(expected[i].getId(), actual[i].getId());
+        }
+    }
+}
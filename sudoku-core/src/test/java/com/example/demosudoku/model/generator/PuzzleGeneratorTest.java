@@ -0,0 +1,77 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.solver.DlxSolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleGeneratorTest {
+
+    @Test
+    @Timeout(10)
+    void generatesFourByFour() {
+        assertGeneratesUnique(BoardGeometry.SIZE_4);
+    }
+
+    @Test
+    @Timeout(10)
+    void generatesSixBySix() {
+        assertGeneratesUnique(BoardGeometry.SIZE_6);
+    }
+
+    @Test
+    @Timeout(10)
+    void generatesNineByNine() {
+        assertGeneratesUnique(BoardGeometry.SIZE_9);
+    }
+
+    @Test
+    @Timeout(10)
+    void generatesTwelveByTwelve() {
+        assertGeneratesUnique(BoardGeometry.SIZE_12);
+    }
+
+    @Test
+    @Timeout(30)
+    void generatesSixteenBySixteen() {
+        assertGeneratesUnique(BoardGeometry.SIZE_16);
+    }
+
+    @Test
+    @Timeout(60)
+    void generatesTwentyFiveByTwentyFive() {
+        assertGeneratesUnique(BoardGeometry.SIZE_25);
+    }
+
+    @Test
+    void regeneratesThePuzzleOfAnIdentifier() {
+        PuzzleId id = new PuzzleId(BoardGeometry.SIZE_9, Difficulty.HARD, 42);
+
+        Puzzle first = new PuzzleGenerator(BoardGeometry.SIZE_9).generate(id);
+        Puzzle second = new PuzzleGenerator(BoardGeometry.SIZE_9).generate(id);
+
+        assertEquals(id, first.getId());
+        assertArrayEquals(first.getGivens(), second.getGivens());
+    }
+
+    /**
+     * Generates a MEDIUM puzzle and checks that its solution fits its givens and is the only one.
+     */
+    private static void assertGeneratesUnique(BoardGeometry geometry) {
+        Puzzle puzzle = new PuzzleGenerator(geometry, new SplittableRandom(geometry.getSize()))
+                .generate(Difficulty.MEDIUM);
+
+        assertSame(geometry, puzzle.getGeometry());
+        assertTrue(Grids.solves(geometry, puzzle.getGivens(), puzzle.getSolutionGrid()));
+        assertTrue(puzzle.getClueCount() >= Difficulty.MEDIUM.targetClues(geometry));
+        assertEquals(1, new DlxSolver(geometry).countSolutions(puzzle.getGivens(), 2));
+    }
+}
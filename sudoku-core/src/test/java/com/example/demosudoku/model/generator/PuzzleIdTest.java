@@ -0,0 +1,75 @@
+package com.example.demosudoku.model.generator;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PuzzleIdTest {
+
+    @Test
+    void writesTheSizeTheDifficultyLetterAndThirteenSeedDigits() {
+        assertEquals("9E-0000000000000", new PuzzleId(BoardGeometry.SIZE_9, Difficulty.EASY, 0).toString());
+        assertEquals("16X-FZZZZZZZZZZZZ", new PuzzleId(BoardGeometry.SIZE_16, Difficulty.EXPERT, -1).toString());
+        assertEquals("4H-000000000000Z", new PuzzleId(BoardGeometry.SIZE_4, Difficulty.HARD, 31).toString());
+    }
+
+    @Test
+    void parsesWhatItWrites() {
+        long[] seeds = {0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, 0x0123456789ABCDEFL};
+        SplittableRandom random = new SplittableRandom(6);
+        for (int size : new int[] {4, 6, 9, 12, 16, 25}) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                for (long seed : seeds) {
+                    assertRoundTrip(new PuzzleId(BoardGeometry.of(size), difficulty, seed));
+                }
+                assertRoundTrip(new PuzzleId(BoardGeometry.of(size), difficulty, random.nextLong()));
+            }
+        }
+    }
+
+    @Test
+    void acceptsLowerCaseAndSurroundingSpaces() {
+        PuzzleId id = PuzzleId.parse("9M-0F3KZ9Q2X8A1C");
+
+        assertEquals(id, PuzzleId.parse("  9m-0f3kz9q2x8a1c\n"));
+        assertEquals(BoardGeometry.SIZE_9, id.getGeometry());
+        assertEquals(Difficulty.MEDIUM, id.getDifficulty());
+        assertEquals("9M-0F3KZ9Q2X8A1C", id.toString());
+    }
+
+    @Test
+    void rejectsMalformedIdentifiers() {
+        String[] malformed = {
+                "", "9M", "M-0F3KZ9Q2X8A1C", "9M-0F3KZ9Q2X8A1", "9M-0F3KZ9Q2X8A1CC", "9Q-0F3KZ9Q2X8A1C",
+                "7M-0F3KZ9Q2X8A1C", "9M-0F3KZ9Q2X8AUC", "9M-GF3KZ9Q2X8A1C", "xM-0F3KZ9Q2X8A1C"
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> PuzzleId.parse(text), text);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new PuzzleId(BoardGeometry.of(9, 1, 9), Difficulty.EASY, 1));
+    }
+
+    @Test
+    void equalsComparesEveryPart() {
+        PuzzleId id = new PuzzleId(BoardGeometry.SIZE_9, Difficulty.HARD, 42);
+
+        assertEquals(id, new PuzzleId(BoardGeometry.SIZE_9, Difficulty.HARD, 42));
+        assertEquals(id.hashCode(), new PuzzleId(BoardGeometry.SIZE_9, Difficulty.HARD, 42).hashCode());
+        assertNotEquals(id, new PuzzleId(BoardGeometry.SIZE_9, Difficulty.HARD, 43));
+        assertNotEquals(id, new PuzzleId(BoardGeometry.SIZE_9, Difficulty.EASY, 42));
+        assertNotEquals(id, new PuzzleId(BoardGeometry.SIZE_6, Difficulty.HARD, 42));
+    }
+
+    private static void assertRoundTrip(PuzzleId id) {
+        PuzzleId parsed = PuzzleId.parse(id.toString());
+        assertEquals(id, parsed);
+        assertEquals(id.getSeed(), parsed.getSeed());
+        assertEquals(id.toString(), parsed.toString());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demosudoku.model.io;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleReaderTest {
+    private static final BoardGeometry NINE = BoardGeometry.SIZE_9;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsLinesSplitAcrossBufferRefills() throws IOException {
+        // 65536 is not a multiple of the 82-byte lines, so some line straddles the first refill.
+        int lines = PuzzleReader.BUFFER_BYTES / (NINE.getCellCount() + 1) * 3 + 7;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append(Grids.UNIQUE_9).append('\n');
+        }
+        Path path = directory.resolve("many.txt");
+        Files.writeString(path, text, StandardCharsets.US_ASCII);
+
+        byte[] expected = Grids.parse(NINE, Grids.UNIQUE_9);
+        byte[] grid = new byte[NINE.getCellCount()];
+        try (PuzzleReader reader = PuzzleReader.open(path, NINE)) {
+            for (int i = 0; i < lines; i++) {
+                assertTrue(reader.next(grid), "line " + (i + 1));
+                assertArrayEquals(expected, grid);
+            }
+            assertFalse(reader.next(grid));
+            assertEquals(lines, reader.getPuzzleCount());
+            assertEquals(0, reader.getMalformedCount());
+        }
+    }
+
+    @Test
+    void readsFromAChannelThatReturnsFewBytesAtATime() throws IOException {
+        String text = "# header\r\n" + Grids.UNIQUE_9 + "\r\n" + Grids.UNIQUE_9_SOLUTION + "\r\n";
+        ReadableByteChannel source = Channels.newChannel(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+
+        byte[] grid = new byte[NINE.getCellCount()];
+        try (PuzzleReader reader = new PuzzleReader(new TrickleChannel(source, 5), NINE)) {
+            assertTrue(reader.next(grid));
+            assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9), grid);
+            assertTrue(reader.next(grid));
+            assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION), grid);
+            assertFalse(reader.next(grid));
+            assertEquals(3, reader.getLineNumber());
+        }
+    }
+
+    @Test
+    void skipsCommentsBlankLinesAndAnnotations() throws IOException {
+        String zeros = Grids.UNIQUE_9.replace('.', '0');
+        String text = "# puzzles\r\n"
+                + "\r\n"
+                + "   " + Grids.UNIQUE_9 + " 1 solution\r\n"
+                + zeros + ",rated 3.4\n"
+                + Grids.UNIQUE_9 + ";" + Grids.UNIQUE_9_SOLUTION + "\n"
+                + Grids.UNIQUE_9 + "|x\n"
+                + Grids.UNIQUE_9 + "\t#7\n"
+                + "#" + Grids.UNIQUE_9 + "\n";
+
+        byte[] expected = Grids.parse(NINE, Grids.UNIQUE_9);
+        byte[] grid = new byte[NINE.getCellCount()];
+        try (PuzzleReader reader = reader("annotated.txt", text, NINE)) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(reader.next(grid));
+                assertArrayEquals(expected, grid);
+            }
+            assertFalse(reader.next(grid));
+            assertEquals(5, reader.getPuzzleCount());
+            assertEquals(0, reader.getMalformedCount());
+            assertEquals(0, reader.getFirstMalformedLine());
+            assertEquals(8, reader.getLineNumber());
+        }
+    }
+
+    @Test
+    void readsLettersInEitherCaseOnLargeBoards() throws IOException {
+        BoardGeometry sixteen = BoardGeometry.SIZE_16;
+        StringBuilder upper = new StringBuilder();
+        for (int cell = 0; cell < sixteen.getCellCount(); cell++) {
+            upper.append(cell % 17 == 0 ? '.' : sixteen.toSymbol(1 + cell % 16));
+        }
+        String lower = upper.toString().toLowerCase();
+
+        byte[] grid = new byte[sixteen.getCellCount()];
+        try (PuzzleReader reader = reader("sixteen.txt", upper + "\n" + lower + "\n", sixteen)) {
+            assertTrue(reader.next(grid));
+            byte[] first = grid.clone();
+            assertEquals(0, first[0]);
+            assertEquals(10, first[9]);
+            assertEquals(16, first[15]);
+            assertTrue(reader.next(grid));
+            assertArrayEquals(first, grid);
+            assertFalse(reader.next(grid));
+        }
+    }
+
+    @Test
+    void countsMalformedLinesAndKeepsReading() throws IOException {
+        String text = "# three bad lines\n"
+                + Grids.UNIQUE_9 + "5\n"
+                + Grids.UNIQUE_9 + "\n"
+                + Grids.UNIQUE_9.substring(1) + "\n"
+                + Grids.UNIQUE_9.replace('7', 'A') + "\n"
+                + Grids.UNIQUE_9_SOLUTION;
+
+        byte[] grid = new byte[NINE.getCellCount()];
+        try (PuzzleReader reader = reader("malformed.txt", text, NINE)) {
+            assertTrue(reader.next(grid));
+            assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9), grid);
+            assertEquals(1, reader.getMalformedCount());
+            assertEquals(2, reader.getFirstMalformedLine());
+
+            // The last line has no line break and is still read.
+            assertTrue(reader.next(grid));
+            assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION), grid);
+            assertFalse(reader.next(grid));
+            assertEquals(2, reader.getPuzzleCount());
+            assertEquals(3, reader.getMalformedCount());
+            assertEquals(2, reader.getFirstMalformedLine());
+            assertEquals(6, reader.getLineNumber());
+        }
+    }
+
+    @Test
+    void countsAShortLastLineWithoutBreakAsMalformed() throws IOException {
+        byte[] grid = new byte[NINE.getCellCount()];
+        try (PuzzleReader reader = reader("short.txt", Grids.UNIQUE_9 + "\n53..7", NINE)) {
+            assertTrue(reader.next(grid));
+            assertFalse(reader.next(grid));
+            assertEquals(1, reader.getMalformedCount());
+            assertEquals(2, reader.getFirstMalformedLine());
+        }
+    }
+
+    @Test
+    void detectsGzipFromTheContentNotTheName() throws IOException {
+        Path path = directory.resolve("puzzles.txt");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write((Grids.UNIQUE_9 + "\n" + Grids.UNIQUE_9_SOLUTION + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        byte[] grid = new byte[NINE.getCellCount()];
+        try (PuzzleReader reader = PuzzleReader.open(path, NINE)) {
+            assertTrue(reader.next(grid));
+            assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9), grid);
+            assertTrue(reader.next(grid));
+            assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION), grid);
+            assertFalse(reader.next(grid));
+        }
+    }
+
+    @Test
+    void readsAnEmptyFile() throws IOException {
+        try (PuzzleReader reader = reader("empty.txt", "", NINE)) {
+            assertFalse(reader.next(new byte[NINE.getCellCount()]));
+            assertEquals(0, reader.getLineNumber());
+        }
+    }
+
+    private PuzzleReader reader(String name, String text, BoardGeometry geometry) throws IOException {
+        Path path = directory.resolve(name);
+        Files.writeString(path, text, StandardCharsets.US_ASCII);
+        return PuzzleReader.open(path, geometry);
+    }
+
+    /**
+     * Hands out at most a few bytes per read, so every line spans several refills.
+     */
+    private static final class TrickleChannel implements ReadableByteChannel {
+        private final ReadableByteChannel source;
+        private final int chunk;
+
+        TrickleChannel(ReadableByteChannel source, int chunk) {
+            this.source = source;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            ByteBuffer slice = destination.slice();
+            slice.limit(Math.min(slice.limit(), chunk));
+            int read = source.read(slice);
+            if (read > 0) {
+                destination.position(destination.position() + read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return source.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demosudoku.model.io;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleWriterTest {
+    private static final BoardGeometry NINE = BoardGeometry.SIZE_9;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesOneLinePerPuzzle() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Puzzle puzzle = Grids.unique9();
+        try (PuzzleWriter writer = new PuzzleWriter(Channels.newChannel(out), NINE, '0')) {
+            writer.write(puzzle);
+            writer.write(puzzle.getSolutionGrid(), 0, "1");
+            assertEquals(2, writer.getPuzzleCount());
+        }
+
+        assertEquals(Grids.UNIQUE_9.replace('.', '0') + "\n" + Grids.UNIQUE_9_SOLUTION + " 1\n",
+                out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void readsBackWhatItWritesAcrossManyBuffers() throws IOException {
+        assertRoundTrip(directory.resolve("puzzles.txt"), BoardGeometry.SIZE_9, 2000);
+    }
+
+    @Test
+    void readsBackCompressedLargeBoards() throws IOException {
+        assertRoundTrip(directory.resolve("puzzles.txt.gz"), BoardGeometry.SIZE_16, 600);
+    }
+
+    @Test
+    void writesPuzzlesFromPartOfALargerArray() throws IOException {
+        int cells = NINE.getCellCount();
+        byte[] chunk = new byte[3 * cells];
+        System.arraycopy(Grids.parse(NINE, Grids.UNIQUE_9), 0, chunk, cells, cells);
+        System.arraycopy(Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION), 0, chunk, 2 * cells, cells);
+        Path path = directory.resolve("chunk.txt");
+        try (PuzzleWriter writer = PuzzleWriter.create(path, NINE)) {
+            writer.write(chunk, cells, "unique");
+            writer.write(chunk, 2 * cells, null);
+        }
+
+        assertEquals(Grids.UNIQUE_9 + " unique\n" + Grids.UNIQUE_9_SOLUTION + "\n",
+                Files.readString(path, StandardCharsets.US_ASCII));
+        byte[] read = new byte[3 * cells];
+        try (PuzzleReader reader = PuzzleReader.open(path, NINE)) {
+            assertTrue(reader.next(read, cells));
+            assertTrue(reader.next(read, 2 * cells));
+            assertFalse(reader.next(read, 0));
+        }
+        assertArrayEquals(chunk, read);
+    }
+
+    @Test
+    void rejectsAnAnnotationLongerThanTheBuffer() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PuzzleWriter writer = new PuzzleWriter(Channels.newChannel(out), NINE)) {
+            byte[] grid = Grids.parse(NINE, Grids.UNIQUE_9);
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.write(grid, 0, "x".repeat(PuzzleReader.BUFFER_BYTES)));
+            writer.write(grid);
+        }
+        assertEquals(Grids.UNIQUE_9 + "\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void rejectsAnUnknownBlankSymbol() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PuzzleWriter(Channels.newChannel(new ByteArrayOutputStream()), NINE, '-'));
+    }
+
+    /**
+     * Writes random grids, every third one with an annotation, and reads them back.
+     */
+    private static void assertRoundTrip(Path path, BoardGeometry geometry, int count) throws IOException {
+        SplittableRandom random = new SplittableRandom(count);
+        byte[][] grids = new byte[count][geometry.getCellCount()];
+        try (PuzzleWriter writer = PuzzleWriter.create(path, geometry)) {
+            for (int i = 0; i < count; i++) {
+                for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                    grids[i][cell] = (byte) random.nextInt(geometry.getSize() + 1);
+                }
+                writer.write(grids[i], 0, i % 3 == 0 ? "#" + i : null);
+            }
+            assertEquals(count, writer.getPuzzleCount());
+        }
+
+        byte[] grid = new byte[geometry.getCellCount()];
+        try (PuzzleReader reader = PuzzleReader.open(path, geometry)) {
+            for (int i = 0; i < count; i++) {
+                assertTrue(reader.next(grid));
+                assertArrayEquals(grids[i], grid, "puzzle " + i);
+            }
+            assertFalse(reader.next(grid));
+            assertEquals(0, reader.getMalformedCount());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.generator.Puzzle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopensToTheStateThatWasRecorded() throws IOException {
+        Path path = directory.resolve("game.sdj");
+        Puzzle puzzle = Grids.unique9();
+        GameState expected;
+        try (GameJournal journal = GameJournal.create(path, puzzle)) {
+            expected = play(journal, GameState.start(puzzle), new SplittableRandom(5), 300);
+        }
+        try (GameJournal journal = GameJournal.open(path)) {
+            assertSameGame(expected, journal.getRestoredState());
+            // Appends after the replayed records.
+            expected = play(journal, journal.getRestoredState(), new SplittableRandom(6), 100);
+        }
+        try (GameJournal journal = GameJournal.open(path)) {
+            assertSameGame(expected, journal.getRestoredState());
+        }
+    }
+
+    @Test
+    void dropsATornTrailingRecord() throws IOException {
+        Path path = directory.resolve("torn.sdj");
+        Puzzle puzzle = Grids.unique9();
+        GameState expected;
+        try (GameJournal journal = GameJournal.create(path, puzzle)) {
+            expected = play(journal, GameState.start(puzzle), new SplittableRandom(8), 70);
+        }
+        long size = Files.size(path);
+        // The first bytes of a move record, as left by a crash in the middle of a write.
+        Files.write(path, new byte[] {1, 0, 2}, StandardOpenOption.APPEND);
+
+        try (GameJournal journal = GameJournal.open(path)) {
+            assertSameGame(expected, journal.getRestoredState());
+            assertEquals(size, Files.size(path));
+            int cell = GameStateTest.emptyCells(puzzle)[0];
+            int value = expected.getCellValue(cell) == 4 ? 5 : 4;
+            journal.recordMove(cell, value);
+            expected = expected.play(cell, value);
+        }
+        try (GameJournal journal = GameJournal.open(path)) {
+            assertSameGame(expected, journal.getRestoredState());
+        }
+    }
+
+    @Test
+    void keepsTheLastProgressSaved() throws IOException {
+        Path path = directory.resolve("progress.sdj");
+        Puzzle puzzle = Grids.unique9();
+        try (GameJournal journal = GameJournal.create(path, puzzle)) {
+            assertEquals(0, journal.getRestoredElapsedMillis());
+            journal.recordProgress(1_000, 1, 0);
+            journal.recordMove(GameStateTest.emptyCells(puzzle)[0], 1);
+            journal.recordProgress(95_000, 3, 2);
+        }
+        try (GameJournal journal = GameJournal.open(path)) {
+            assertEquals(95_000, journal.getRestoredElapsedMillis());
+            assertEquals(3, journal.getRestoredHints());
+            assertEquals(2, journal.getRestoredErrors());
+            assertEquals(1, journal.getRestoredState().getMoveCount());
+        }
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAJournal() throws IOException {
+        Path path = directory.resolve("other.sdj");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> GameJournal.open(path));
+    }
+
+    /**
+     * Plays random moves, undos and redos, recording each one.
+     *
+     * @return the state after the last action
+     */
+    private static GameState play(GameJournal journal, GameState state, SplittableRandom random, int actions)
+            throws IOException {
+        int[] empty = GameStateTest.emptyCells(state.getPuzzle());
+        for (int i = 0; i < actions; i++) {
+            int choice = random.nextInt(10);
+            if (choice == 0 && state.canUndo()) {
+                state = state.undo();
+                journal.recordUndo();
+            } else if (choice == 1 && state.canRedo()) {
+                state = state.redo();
+                journal.recordRedo();
+            } else {
+                int cell = empty[random.nextInt(empty.length)];
+                int value = random.nextInt(10);
+                if (state.getCellValue(cell) != value) {
+                    state = state.play(cell, value);
+                    journal.recordMove(cell, value);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static void assertSameGame(GameState expected, GameState actual) {
+        assertArrayEquals(expected.getPuzzle().getGivens(), actual.getPuzzle().getGivens());
+        assertArrayEquals(expected.getPuzzle().getSolutionGrid(), actual.getPuzzle().getSolutionGrid());
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        assertArrayEquals(expected.toGrid(), actual.toGrid());
+        assertEquals(expected.canRedo(), actual.canRedo());
+        if (expected.canRedo()) {
+            assertEquals(expected.peekRedo().getCell(), actual.peekRedo().getCell());
+            assertEquals(expected.peekRedo().getValue(), actual.peekRedo().getValue());
+        }
+    }
+}
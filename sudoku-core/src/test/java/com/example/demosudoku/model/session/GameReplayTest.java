@@ -0,0 +1,180 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+import com.example.demosudoku.model.generator.PuzzleId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameReplayTest {
+    @TempDir
+    Path directory;
+
+    /** Events recorded and rejections seen by {@link #play}. */
+    private long events;
+    private long rejected;
+
+    @Test
+    void replaysToTheLiveStateOfTheSession() throws IOException {
+        Path path = directory.resolve("game.sdr");
+        PuzzleId id = new PuzzleId(BoardGeometry.SIZE_9, Difficulty.MEDIUM, 7);
+        GameSession session = new GameSession(new PuzzleGenerator(BoardGeometry.SIZE_9).generate(id));
+        // More actions than the log buffers, so events are written in several batches.
+        try (ReplayLog log = ReplayLog.create(path, session.getPuzzle())) {
+            play(session, log, null, new SplittableRandom(1), 3 * ReplayLog.BUFFER_EVENTS);
+        }
+
+        GameReplay replay = GameReplay.replay(path);
+        assertSameGame(session.getState(), replay.getState());
+        assertEquals(id, replay.getState().getPuzzle().getId());
+        assertEquals(events, replay.getEventCount());
+        assertEquals(rejected, replay.getRejectedCount());
+        assertTrue(rejected > 0);
+    }
+
+    @Test
+    void replaysActionsAppendedAfterAResumeAndATornEvent() throws IOException {
+        Path path = directory.resolve("resumed.sdr");
+        GameSession session = new GameSession(Grids.unique9());
+        try (ReplayLog log = ReplayLog.create(path, session.getPuzzle())) {
+            play(session, log, null, new SplittableRandom(2), 100);
+        }
+        // The first bytes of an event, as left by a crash in the middle of a write.
+        Files.write(path, new byte[] {0, 0, 0}, StandardOpenOption.APPEND);
+
+        try (ReplayLog log = ReplayLog.append(path)) {
+            play(session, log, null, new SplittableRandom(3), 100);
+        }
+        GameReplay replay = GameReplay.replay(path);
+        assertSameGame(session.getState(), replay.getState());
+        assertEquals(events, replay.getEventCount());
+    }
+
+    @Test
+    void replaysAWonGameAsSolved() throws IOException {
+        Path path = directory.resolve("won.sdr");
+        Puzzle puzzle = Grids.unique9();
+        GameSession session = new GameSession(puzzle);
+        try (ReplayLog log = ReplayLog.create(path, puzzle)) {
+            for (int cell : GameStateTest.emptyCells(puzzle)) {
+                session.enter(cell, puzzle.getSolution(cell));
+                log.record(ReplayLog.Action.ACCEPTED, cell, puzzle.getSolution(cell));
+            }
+        }
+        assertTrue(session.isSolved());
+        assertTrue(GameReplay.replay(path).getState().isSolved());
+        // Nothing happened before the start.
+        GameReplay start = GameReplay.replay(path, -1);
+        assertEquals(0, start.getEventCount());
+        assertFalse(start.getState().isSolved());
+    }
+
+    @Test
+    void aLogFlushedWithTheJournalReplaysToTheStateItResumes() throws IOException {
+        Path journalPath = directory.resolve("autosave.sdj");
+        Path logPath = directory.resolve("crash.sdr");
+        Path journalCopy = directory.resolve("autosave-copy.sdj");
+        Path logCopy = directory.resolve("crash-copy.sdr");
+        GameSession session = new GameSession(Grids.unique9());
+        try (GameJournal journal = GameJournal.create(journalPath, session.getPuzzle());
+             ReplayLog log = ReplayLog.create(logPath, session.getPuzzle())) {
+            play(session, log, journal, new SplittableRandom(4), 300);
+            // What a crash leaves on disk: rejected numbers still in the buffer are lost.
+            Files.copy(journalPath, journalCopy);
+            Files.copy(logPath, logCopy);
+        }
+
+        GameState restored;
+        try (GameJournal journal = GameJournal.open(journalCopy)) {
+            restored = journal.getRestoredState();
+        }
+        assertSameGame(session.getState(), restored);
+        assertSameGame(restored, GameReplay.replay(logCopy).getState());
+
+        GameSession resumed = new GameSession(restored);
+        try (GameJournal journal = GameJournal.open(journalCopy);
+             ReplayLog log = ReplayLog.append(logCopy)) {
+            play(resumed, log, journal, new SplittableRandom(5), 300);
+        }
+        assertSameGame(resumed.getState(), GameReplay.replay(logCopy).getState());
+    }
+
+    /**
+     * Plays random actions on a session and records them the way the game does: rejected numbers
+     * are logged, numbers that leave the cell unchanged are not. With a journal, every move is
+     * also saved there and the log is flushed right after it.
+     */
+    private void play(GameSession session, ReplayLog log, GameJournal journal, SplittableRandom random, int actions)
+            throws IOException {
+        int[] empty = GameStateTest.emptyCells(session.getPuzzle());
+        int size = session.getPuzzle().getGeometry().getSize();
+        for (int i = 0; i < actions; i++) {
+            int choice = random.nextInt(10);
+            if (choice == 0) {
+                if (session.undo() != null) {
+                    log.record(ReplayLog.Action.UNDO, 0, 0);
+                    events++;
+                    if (journal != null) {
+                        journal.recordUndo();
+                        log.flush();
+                    }
+                }
+            } else if (choice == 1) {
+                if (session.redo() != null) {
+                    log.record(ReplayLog.Action.REDO, 0, 0);
+                    events++;
+                    if (journal != null) {
+                        journal.recordRedo();
+                        log.flush();
+                    }
+                }
+            } else {
+                int cell = empty[random.nextInt(empty.length)];
+                GameState previous = session.getState();
+                int number = choice == 2 ? 0 : 1 + random.nextInt(size);
+                if (number == 0) {
+                    session.clear(cell);
+                } else if (session.enter(cell, number) == GameSession.Outcome.REJECTED) {
+                    log.record(ReplayLog.Action.REJECTED, cell, number);
+                    events++;
+                    rejected++;
+                    continue;
+                }
+                if (session.getState() != previous) {
+                    log.record(number != 0 ? ReplayLog.Action.ACCEPTED : ReplayLog.Action.CLEARED, cell, number);
+                    events++;
+                    if (journal != null) {
+                        journal.recordMove(cell, number);
+                        log.flush();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertSameGame(GameState expected, GameState actual) {
+        assertArrayEquals(expected.getPuzzle().getGivens(), actual.getPuzzle().getGivens());
+        assertArrayEquals(expected.getPuzzle().getSolutionGrid(), actual.getPuzzle().getSolutionGrid());
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        assertArrayEquals(expected.toGrid(), actual.toGrid());
+        assertEquals(expected.canRedo(), actual.canRedo());
+        if (expected.canRedo()) {
+            assertEquals(expected.peekRedo().getCell(), actual.peekRedo().getCell());
+            assertEquals(expected.peekRedo().getValue(), actual.peekRedo().getValue());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.generator.Puzzle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameStateTest {
+
+    @Test
+    void matchesAPlainGridAcrossSnapshotBoundaries() {
+        Puzzle puzzle = Grids.unique9();
+        int[] empty = emptyCells(puzzle);
+        SplittableRandom random = new SplittableRandom(11);
+        GameState state = GameState.start(puzzle);
+        byte[] grid = puzzle.getGivens();
+        // Each move is {cell, previous, value}.
+        Deque<int[]> played = new ArrayDeque<>();
+        Deque<int[]> undone = new ArrayDeque<>();
+
+        // Runs of plays long enough to cross several snapshots, then undo and redo back over them.
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 3 * GameState.SNAPSHOT_INTERVAL; i++) {
+                int cell = empty[random.nextInt(empty.length)];
+                int value = random.nextInt(10);
+                GameState next = state.play(cell, value);
+                if (value == grid[cell]) {
+                    assertSame(state, next);
+                } else {
+                    played.push(new int[] {cell, grid[cell], value});
+                    undone.clear();
+                    grid[cell] = (byte) value;
+                }
+                state = next;
+                assertState(grid, played.size(), state);
+            }
+            for (int i = 0, count = 1 + random.nextInt(played.size()); i < count; i++) {
+                int[] move = played.pop();
+                undone.push(move);
+                grid[move[0]] = (byte) move[1];
+                state = state.undo();
+                assertState(grid, played.size(), state);
+            }
+            for (int i = 0, count = random.nextInt(undone.size() + 1); i < count; i++) {
+                int[] move = undone.pop();
+                played.push(move);
+                grid[move[0]] = (byte) move[2];
+                state = state.redo();
+                assertState(grid, played.size(), state);
+            }
+        }
+        assertTrue(played.size() > GameState.SNAPSHOT_INTERVAL);
+    }
+
+    @Test
+    void discardsTheRedoListOnANewMove() {
+        Puzzle puzzle = Grids.unique9();
+        int cell = emptyCells(puzzle)[0];
+        GameState state = GameState.start(puzzle).play(cell, 1).play(cell, 2).undo();
+        assertTrue(state.canRedo());
+        assertEquals(2, state.peekRedo().getValue());
+
+        state = state.play(cell, 3);
+        assertFalse(state.canRedo());
+        assertEquals(3, state.getCellValue(cell));
+        assertEquals(1, state.undo().getCellValue(cell));
+    }
+
+    @Test
+    void solvesWithTheSolutionAndRejectsInvalidMoves() {
+        Puzzle puzzle = Grids.unique9();
+        GameState state = GameState.start(puzzle);
+        assertThrows(IllegalStateException.class, state::undo);
+        assertThrows(IllegalStateException.class, state::redo);
+        assertThrows(IllegalArgumentException.class, () -> GameState.start(puzzle).play(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> GameState.start(puzzle).play(2, 10));
+
+        for (int cell : emptyCells(puzzle)) {
+            assertFalse(state.isSolved());
+            state = state.play(cell, puzzle.getSolution(cell));
+        }
+        assertTrue(state.isSolved());
+        assertFalse(state.undo().isSolved());
+    }
+
+    private static void assertState(byte[] grid, int moveCount, GameState state) {
+        assertEquals(moveCount, state.getMoveCount());
+        assertArrayEquals(grid, state.toGrid());
+        for (int cell = 0; cell < grid.length; cell++) {
+            assertEquals(grid[cell], state.getCellValue(cell));
+        }
+    }
+
+    /**
+     * @return the cells of the puzzle without a clue
+     */
+    static int[] emptyCells(Puzzle puzzle) {
+        int[] cells = new int[puzzle.getGeometry().getCellCount() - puzzle.getClueCount()];
+        int count = 0;
+        for (int cell = 0; cell < puzzle.getGeometry().getCellCount(); cell++) {
+            if (puzzle.getGiven(cell) == 0) {
+                cells[count++] = cell;
+            }
+        }
+        return cells;
+    }
+}
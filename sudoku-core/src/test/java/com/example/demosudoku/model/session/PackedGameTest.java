@@ -0,0 +1,98 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleGenerator;
+import com.example.demosudoku.model.generator.PuzzleId;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedGameTest {
+
+    @Test
+    void unpacksTheStartOfAGame() {
+        GameState state = GameState.start(Grids.unique9());
+        GameState unpacked = PackedGame.unpack(PackedGame.pack(state));
+        assertSameGame(state, unpacked);
+        assertNull(unpacked.getPuzzle().getId());
+    }
+
+    @Test
+    void keepsHistoryUndoAndRedoOfANibblePackedGame() {
+        PuzzleId id = new PuzzleId(BoardGeometry.SIZE_9, Difficulty.HARD, 42);
+        Puzzle puzzle = new PuzzleGenerator(BoardGeometry.SIZE_9).generate(id);
+        GameState state = walk(GameState.start(puzzle), new SplittableRandom(3), 200);
+        GameState unpacked = PackedGame.unpack(PackedGame.pack(state));
+        assertSameGame(state, unpacked);
+        assertEquals(id, unpacked.getPuzzle().getId());
+    }
+
+    @Test
+    void keepsHistoryUndoAndRedoOfABytePackedGame() {
+        Puzzle puzzle = new PuzzleGenerator(BoardGeometry.SIZE_16, new SplittableRandom(4)).generate(Difficulty.EASY);
+        GameState state = walk(GameState.start(puzzle), new SplittableRandom(5), 300);
+        assertSameGame(state, PackedGame.unpack(PackedGame.pack(state)));
+    }
+
+    @Test
+    void rejectsAnArrayItDidNotMake() {
+        assertThrows(IllegalArgumentException.class, () -> PackedGame.unpack(new byte[64]));
+    }
+
+    /**
+     * Plays random moves and ends with a few undone, so the redo list is not empty.
+     */
+    private static GameState walk(GameState state, SplittableRandom random, int actions) {
+        int[] empty = GameStateTest.emptyCells(state.getPuzzle());
+        int size = state.getPuzzle().getGeometry().getSize();
+        for (int i = 0; i < actions; i++) {
+            int choice = random.nextInt(10);
+            if (choice == 0 && state.canUndo()) {
+                state = state.undo();
+            } else if (choice == 1 && state.canRedo()) {
+                state = state.redo();
+            } else {
+                state = state.play(empty[random.nextInt(empty.length)], random.nextInt(size + 1));
+            }
+        }
+        for (int i = 0; i < 5 && state.canUndo(); i++) {
+            state = state.undo();
+        }
+        return state;
+    }
+
+    /**
+     * Compares the puzzle, the board, every move that can be undone and every move that can be redone.
+     */
+    private static void assertSameGame(GameState expected, GameState actual) {
+        assertEquals(expected.getPuzzle().getGeometry(), actual.getPuzzle().getGeometry());
+        assertEquals(expected.getPuzzle().getDifficulty(), actual.getPuzzle().getDifficulty());
+        assertArrayEquals(expected.getPuzzle().getGivens(), actual.getPuzzle().getGivens());
+        assertArrayEquals(expected.getPuzzle().getSolutionGrid(), actual.getPuzzle().getSolutionGrid());
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        assertArrayEquals(expected.toGrid(), actual.toGrid());
+
+        for (GameState e = expected, a = actual; e.canRedo() || a.canRedo(); e = e.redo(), a = a.redo()) {
+            assertSameMove(e.peekRedo(), a.peekRedo());
+        }
+        for (GameState e = expected, a = actual; e.canUndo() || a.canUndo(); e = e.undo(), a = a.undo()) {
+            assertSameMove(e.peekUndo(), a.peekUndo());
+            assertArrayEquals(e.toGrid(), a.toGrid());
+        }
+    }
+
+    private static void assertSameMove(Move expected, Move actual) {
+        assertEquals(expected == null, actual == null);
+        assertEquals(expected.getCell(), actual.getCell());
+        assertEquals(expected.getPrevious(), actual.getPrevious());
+        assertEquals(expected.getValue(), actual.getValue());
+    }
+}
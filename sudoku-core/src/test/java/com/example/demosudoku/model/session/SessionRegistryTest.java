@@ -0,0 +1,183 @@
+package com.example.demosudoku.model.session;
+
+import com.example.demosudoku.Grids;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRegistryTest {
+
+    @Test
+    void packsGamesIdleForLongerThanTheTimeToLive() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(100, 100, 0);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(registry.add("game" + i, new GameSession(Grids.unique9())));
+        }
+        assertEquals(0, registry.sweep());
+        assertEquals(3, registry.liveCount());
+
+        Thread.sleep(200);
+        registry.withSession("game1", session -> null);
+        assertEquals(2, registry.sweep());
+        assertEquals(1, registry.liveCount());
+        assertEquals(3, registry.size());
+        // Packed games are not packed twice.
+        assertEquals(0, registry.sweep());
+    }
+
+    @Test
+    void packsTheLeastRecentlyUsedGamesBeyondTheLimit() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(3_600_000, 2, 0);
+        for (int i = 0; i < 5; i++) {
+            registry.add("game" + i, new GameSession(Grids.unique9()));
+        }
+        // Touch the games in reverse order, so game0 and game1 are the most recent.
+        for (int i = 4; i >= 0; i--) {
+            Thread.sleep(2);
+            registry.withSession("game" + i, session -> null);
+        }
+
+        assertEquals(3, registry.sweep());
+        assertEquals(2, registry.liveCount());
+
+        // The two kept games are live, so using them unpacks nothing.
+        registry.withSession("game0", session -> null);
+        registry.withSession("game1", session -> null);
+        assertEquals(2, registry.liveCount());
+        registry.withSession("game4", session -> null);
+        assertEquals(3, registry.liveCount());
+
+        assertEquals(1, registry.sweep());
+        assertEquals(2, registry.liveCount());
+    }
+
+    @Test
+    void unpacksAGameWithItsMovesOnTheNextAction() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(0, 100, 0);
+        GameSession original = new GameSession(Grids.unique9());
+        registry.add("game", original);
+        registry.withSession("game", session -> {
+            session.enter(2, 4);
+            session.enter(3, 6);
+            session.undo();
+            return null;
+        });
+        byte[] grid = registry.withSession("game", session -> session.getBoard().toArray());
+
+        Thread.sleep(2);
+        assertEquals(1, registry.sweep());
+        assertEquals(0, registry.liveCount());
+
+        GameSession unpacked = registry.withSession("game", session -> session);
+        assertNotNull(unpacked);
+        assertNotSame(original, unpacked);
+        assertEquals(1, registry.liveCount());
+        assertArrayEquals(grid, unpacked.getBoard().toArray());
+        assertEquals(original.getState().getMoveCount(), unpacked.getState().getMoveCount());
+        Move redone = registry.withSession("game", GameSession::redo);
+        assertNotNull(redone);
+        assertEquals(6, redone.getValue());
+
+        // Until the next sweep, the same session is returned.
+        assertSame(unpacked, registry.withSession("game", session -> session));
+    }
+
+    @Test
+    void keepsTheLiveCountWhenGamesAreAddedAndRemoved() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(0, 100, 0);
+        assertTrue(registry.add("a", new GameSession(Grids.unique9())));
+        assertFalse(registry.add("a", new GameSession(Grids.unique9())));
+        assertTrue(registry.add("b", new GameSession(Grids.unique9())));
+        assertEquals(2, registry.liveCount());
+
+        Thread.sleep(2);
+        assertEquals(2, registry.sweep());
+        assertEquals(0, registry.liveCount());
+        registry.withSession("b", session -> null);
+        assertEquals(1, registry.liveCount());
+
+        // A packed game and a live one.
+        assertTrue(registry.remove("a"));
+        assertEquals(1, registry.liveCount());
+        assertTrue(registry.remove("b"));
+        assertEquals(0, registry.liveCount());
+        assertEquals(0, registry.size());
+
+        assertFalse(registry.remove("a"));
+        assertThrows(NoSuchElementException.class, () -> registry.withSession("a", session -> null));
+    }
+
+    @Test
+    void removesGamesWhileTheyAreSweptAndUsed() throws Exception {
+        SessionRegistry registry = new SessionRegistry(0, 8, 0);
+        int games = 400;
+        for (int i = 0; i < games; i++) {
+            registry.add("game" + i, new GameSession(Grids.unique9()));
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> sweeper = threads.submit(() -> {
+                while (!done.get()) {
+                    registry.sweep();
+                }
+            });
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                int worker = t;
+                workers.add(threads.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(worker);
+                    for (int i = worker; i < games; i += 3) {
+                        String id = "game" + i;
+                        for (int k = random.nextInt(4); k > 0; k--) {
+                            registry.withSession(id, session -> session.getBoard().getConflictCount());
+                        }
+                        if (i % 2 == 0) {
+                            assertTrue(registry.remove(id));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            done.set(true);
+            sweeper.get();
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(games / 2, registry.size());
+        assertTrue(registry.liveCount() >= 0 && registry.liveCount() <= registry.size());
+        Thread.sleep(2);
+        registry.sweep();
+        assertEquals(0, registry.liveCount());
+        for (int i = 1; i < games; i += 2) {
+            registry.withSession("game" + i, session -> null);
+        }
+        assertEquals(games / 2, registry.liveCount());
+        for (int i = 1; i < games; i += 2) {
+            assertTrue(registry.remove("game" + i));
+        }
+        assertEquals(0, registry.liveCount());
+        assertEquals(0, registry.size());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DlxSolverTest {
+    private static final BoardGeometry NINE = BoardGeometry.SIZE_9;
+
+    private final DlxSolver solver = new DlxSolver(NINE);
+
+    @Test
+    void solvesAUniquePuzzle() {
+        byte[] puzzle = Grids.parse(NINE, Grids.UNIQUE_9);
+        byte[] copy = puzzle.clone();
+        byte[] solution = new byte[puzzle.length];
+
+        assertTrue(solver.solve(puzzle, solution));
+        assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION), solution);
+        assertArrayEquals(copy, puzzle);
+        assertEquals(1, solver.countSolutions(puzzle, 2));
+        assertTrue(solver.hasUniqueSolution(puzzle));
+    }
+
+    @Test
+    void countsAnAmbiguousPuzzleUpToTheLimit() {
+        // Swapping 1 and 2 wherever they appear turns one solution into another.
+        byte[] puzzle = Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION);
+        for (int cell = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] == 1 || puzzle[cell] == 2) {
+                puzzle[cell] = 0;
+            }
+        }
+
+        assertEquals(2, solver.countSolutions(puzzle, 2));
+        assertEquals(2, solver.countSolutions(puzzle, 100));
+        assertFalse(solver.hasUniqueSolution(puzzle));
+        assertEquals(0, solver.countSolutions(puzzle, 0));
+    }
+
+    @Test
+    void countsEveryFourByFourBoard() {
+        byte[] empty = new byte[BoardGeometry.SIZE_4.getCellCount()];
+
+        assertEquals(288, new DlxSolver(BoardGeometry.SIZE_4).countSolutions(empty, 1000));
+        assertEquals(288, new DlxSolver(BoardGeometry.SIZE_4).enumerate(empty, grid -> true));
+    }
+
+    @Test
+    void findsNoSolutionForContradictoryGrids() {
+        byte[] solution = new byte[NINE.getCellCount()];
+
+        byte[] clash = Grids.parse(NINE, Grids.UNIQUE_9);
+        clash[2] = 5;
+        assertEquals(0, solver.countSolutions(clash, 2));
+        assertFalse(solver.solve(clash, solution));
+
+        // Consistent givens that leave cell 0 without a candidate.
+        byte[] blocked = new byte[NINE.getCellCount()];
+        for (int col = 1; col < 9; col++) {
+            blocked[col] = (byte) col;
+        }
+        blocked[9 * 4] = 9;
+        assertEquals(0, solver.countSolutions(blocked, 2));
+        assertFalse(solver.solveRandom(blocked, solution, new SplittableRandom(1)));
+    }
+
+    @Test
+    void solveRandomFillsValidBoardsThatDependOnTheSeed() {
+        byte[] empty = new byte[NINE.getCellCount()];
+        byte[] first = new byte[empty.length];
+        byte[] second = new byte[empty.length];
+
+        assertTrue(solver.solveRandom(empty, first, new SplittableRandom(1)));
+        assertTrue(solver.solveRandom(empty, second, new SplittableRandom(2)));
+        assertTrue(Grids.solves(NINE, empty, first));
+        assertTrue(Grids.solves(NINE, empty, second));
+        assertFalse(Arrays.equals(first, second));
+
+        byte[] again = new byte[empty.length];
+        solver.solveRandom(empty, again, new SplittableRandom(1));
+        assertArrayEquals(first, again);
+
+        byte[] puzzle = Grids.parse(NINE, Grids.UNIQUE_9);
+        assertTrue(solver.solveRandom(puzzle, again, new SplittableRandom(3)));
+        assertArrayEquals(Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION), again);
+    }
+
+    @Test
+    void hasSolutionWithoutMatchesTheUniquenessOfTheReducedPuzzle() {
+        byte[] puzzle = Grids.parse(NINE, Grids.UNIQUE_9);
+        byte[] solution = Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION);
+
+        // The unique solution needs every empty cell to hold its solved number.
+        assertFalse(solver.hasSolutionWithout(puzzle, 2, solution[2]));
+        // Other numbers are never used there, so any solution avoids them.
+        assertTrue(solver.hasSolutionWithout(puzzle, 2, solution[2] == 1 ? 2 : 1));
+
+        for (int cell = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] == 0) {
+                continue;
+            }
+            byte[] reduced = puzzle.clone();
+            reduced[cell] = 0;
+            boolean ambiguous = solver.countSolutions(reduced, 2) == 2;
+            assertEquals(ambiguous, solver.hasSolutionWithout(reduced, cell, puzzle[cell]), "clue at " + cell);
+        }
+    }
+
+    @Test
+    void hasSolutionWithoutGivesUpAfterItsNodeBudget() {
+        byte[] empty = new byte[NINE.getCellCount()];
+        byte[] puzzle = Grids.parse(NINE, Grids.UNIQUE_9);
+        byte[] solution = Grids.parse(NINE, Grids.UNIQUE_9_SOLUTION);
+
+        assertTrue(solver.hasSolutionWithout(empty, 0, 1, 1));
+        assertTrue(solver.isExhausted());
+
+        assertFalse(solver.hasSolutionWithout(puzzle, 2, solution[2], 10_000));
+        assertFalse(solver.isExhausted());
+        assertEquals(1, solver.countSolutions(puzzle, 2));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.Board;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HintServiceTest {
+    private static final BoardGeometry NINE = BoardGeometry.SIZE_9;
+
+    @Test
+    void hintsLeadToTheSolution() {
+        Puzzle puzzle = Grids.unique9();
+        Board board = new Board(puzzle);
+        HintService service = new HintService(board, puzzle);
+
+        for (SolveStep hint = service.nextHint(); hint != null; hint = service.nextHint()) {
+            assertEquals(puzzle.getSolution(hint.getCell()), hint.getValue());
+            board.setCellValue(NINE.rowOf(hint.getCell()), NINE.colOf(hint.getCell()), hint.getValue());
+        }
+        assertTrue(board.isComplete());
+        assertEquals(0, board.getConflictCount());
+    }
+
+    @Test
+    void neverHintsAgainstTheSolutionAfterALegalWrongEntry() {
+        Puzzle puzzle = Grids.unique9();
+        int misleading = 0;
+        for (int cell = 0; cell < NINE.getCellCount(); cell++) {
+            if (puzzle.getGiven(cell) != 0) {
+                continue;
+            }
+            for (int value = 1; value <= 9; value++) {
+                Board board = new Board(puzzle);
+                int row = NINE.rowOf(cell);
+                int col = NINE.colOf(cell);
+                if (value == puzzle.getSolution(cell) || !board.isValid(row, col, value)) {
+                    continue;
+                }
+                board.setCellValue(row, col, value);
+                assertEquals(0, board.getConflictCount());
+
+                SolveStep unchecked = new HintService(board).nextHint();
+                if (unchecked != null && unchecked.getValue() != puzzle.getSolution(unchecked.getCell())) {
+                    misleading++;
+                }
+                SolveStep hint = new HintService(board, puzzle).nextHint();
+                if (hint != null) {
+                    assertEquals(puzzle.getSolution(hint.getCell()), hint.getValue(),
+                            "hint after " + value + " in cell " + cell);
+                }
+            }
+        }
+        // Without the solution, some of these boards lead to a wrong hint.
+        assertTrue(misleading > 0);
+    }
+
+    @Test
+    void skipsASingleForcedByAWrongEntry() {
+        // The solution puts 5 in row 3, column 7. A 1 there breaks no rule, but leaves row 3,
+        // column 1 with 2 as its only candidate, where the solution has a 1.
+        Puzzle puzzle = Grids.unique9();
+        Board board = new Board(puzzle);
+        board.setCellValue(2, 6, 1);
+
+        SolveStep unchecked = new HintService(board).nextHint();
+        assertNotNull(unchecked);
+        assertEquals(2 * 9, unchecked.getCell());
+        assertEquals(2, unchecked.getValue());
+
+        SolveStep hint = new HintService(board, puzzle).nextHint();
+        assertNotNull(hint);
+        assertEquals(Technique.NAKED_SINGLE, hint.getTechnique());
+        assertEquals(4 * 9 + 4, hint.getCell());
+        assertEquals(5, hint.getValue());
+    }
+
+    @Test
+    void hasNoHintForAFullBoard() {
+        Puzzle puzzle = Grids.unique9();
+        Board board = new Board(new Puzzle(NINE, puzzle.getSolutionGrid(), puzzle.getSolutionGrid(),
+                puzzle.getDifficulty()));
+
+        assertNull(new HintService(board, puzzle).nextHint());
+    }
+}
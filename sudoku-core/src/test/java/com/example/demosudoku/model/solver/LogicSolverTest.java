@@ -0,0 +1,221 @@
+package com.example.demosudoku.model.solver;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Difficulty;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogicSolverTest {
+    private static final BoardGeometry NINE = BoardGeometry.SIZE_9;
+
+    // Puzzles whose hardest technique is, in order: naked single, pointing pair, hidden pair,
+    // naked pair, box-line reduction and X-wing, with their solutions.
+    private static final String SINGLES =
+            ".76.514...8.9.7.3.4..682.9.8397..614.51....78..4..83......76.4.1425398.....814...";
+    private static final String SINGLES_SOLUTION =
+            "976351482285947136413682795839725614651493278724168359398276541142539867567814923";
+    private static final String POINTING =
+            ".......3.96...8.....375.....7.....2..4..8.....5.1.3.4.1.6.7.4...9.81..5.7...941..";
+    private static final String POINTING_SOLUTION =
+            "517469238964238571823751694371945826249687315658123947136572489492816753785394162";
+    private static final String HIDDEN_PAIR =
+            "...5..69...8....2..4.9...8.45...7..1.3..9.25.2..3.5...6...3.74.......9...8.45....";
+    private static final String HIDDEN_PAIR_SOLUTION =
+            "172548693968713524543962187459627831837194256216385479695231748324876915781459362";
+    private static final String NAKED_PAIR =
+            "...6.4..9...5......37.....1..1.2...5..3.56......3...4.4..2.......5..7.6...8...2.7";
+    private static final String NAKED_PAIR_SOLUTION =
+            "512674389984513726637892451841729635293456178756381942479268513125937864368145297";
+    private static final String BOX_LINE =
+            "..584..1...8.....5.3......8.....7..9....8.7......63..2..7.1..3...16..9....9..2.6.";
+    private static final String BOX_LINE_SOLUTION =
+            "795846213248391675136725498862157349913284756574963182627519834451638927389472561";
+    private static final String X_WING =
+            "..1.763.........5..9......4.4.......9...2..4...3...17...98...6......1.8757..93...";
+    private static final String X_WING_SOLUTION =
+            "851476392432189756796532814645718239917325648283964175129847563364251987578693421";
+
+    private final LogicSolver solver = new LogicSolver(NINE);
+
+    @Test
+    void findsANakedSingle() {
+        byte[] grid = Grids.parse(NINE, SINGLES);
+
+        assertPlacement(solver.nextStep(grid), Technique.NAKED_SINGLE, 3, 3);
+        assertArrayEquals(Grids.parse(NINE, SINGLES), grid);
+    }
+
+    @Test
+    void findsAHiddenSingle() {
+        // No cell has a single candidate left, but only row 2, column 1 of its row can take a 2.
+        byte[] grid = Grids.parse(NINE,
+                "976351482.8.947...41.682.9.839725614.514...78..4...3......7..4.142539867....14...");
+
+        assertPlacement(solver.nextStep(grid), Technique.HIDDEN_SINGLE, 9, 2);
+    }
+
+    @Test
+    void findsANakedPair() {
+        byte[] grid = Grids.parse(NINE,
+                "5..8..674627549..1148673925...2..16.9...64.52.......4.8....6...3.....51....73...6");
+        String solution = "539821674627549381148673925453287169981364752762915843894156237376492518215738496";
+
+        assertEliminations(solver.nextStep(grid), Technique.NAKED_PAIR, solution, 37, 42);
+    }
+
+    @Test
+    void findsAHiddenPair() {
+        byte[] grid = Grids.parse(NINE,
+                "615.4..2.427..56..3986...54549268...2813574697634..582136...8.58725....6954186273");
+        String solution = "615743928427895631398621754549268317281357469763419582136972845872534196954186273";
+
+        assertEliminations(solver.nextStep(grid), Technique.HIDDEN_PAIR, solution, 22, 58);
+    }
+
+    @Test
+    void findsAPointingPair() {
+        byte[] grid = Grids.parse(NINE,
+                ".....62.3..6.584.1...3.7.8619.57.862.68..1..7.7568...965.7....8..1.6.735.....56.4");
+        String solution = "817496253936258471542317986194573862368921547275684319653742198421869735789135624";
+
+        assertEliminations(solver.nextStep(grid), Technique.POINTING_PAIR, solution, 9, 18, 63, 72);
+    }
+
+    @Test
+    void findsABoxLineReduction() {
+        byte[] grid = Grids.parse(NINE,
+                "5....34....4.5....87.46925........45.4.5.2987.....432.9..82.7144.7...832182347569");
+        String solution = "569213478214758693873469251328976145641532987795184326936825714457691832182347569";
+
+        assertEliminations(solver.nextStep(grid), Technique.BOX_LINE_REDUCTION, solution, 27, 28, 29, 45, 46, 47);
+    }
+
+    @Test
+    void findsAnXWing() {
+        byte[] grid = Grids.parse(NINE,
+                "916253.8.8526471934738195..3947.18.562549837178153..4923718.95.1489.5.3.56937..18");
+        String solution = "916253487852647193473819562394761825625498371781532649237186954148925736569374218";
+
+        assertEliminations(solver.nextStep(grid), Technique.X_WING, solution, 69);
+    }
+
+    @Test
+    void hintsWalkEveryReferencePuzzleToItsSolution() {
+        assertHints(SINGLES, SINGLES_SOLUTION, Technique.NAKED_SINGLE, 3, 3);
+        assertHints(POINTING, POINTING_SOLUTION, Technique.POINTING_PAIR, 17, 1);
+        assertHints(HIDDEN_PAIR, HIDDEN_PAIR_SOLUTION, Technique.HIDDEN_PAIR, 80, 2);
+        assertHints(NAKED_PAIR, NAKED_PAIR_SOLUTION, Technique.NAKED_PAIR, 75, 1);
+        assertHints(BOX_LINE, BOX_LINE_SOLUTION, Technique.BOX_LINE_REDUCTION, 5, 6);
+        assertHints(X_WING, X_WING_SOLUTION, Technique.X_WING, 80, 1);
+    }
+
+    @Test
+    void gradesReferencePuzzles() {
+        assertGrade(SINGLES, Technique.NAKED_SINGLE, 40, Difficulty.EASY);
+        assertGrade(NAKED_PAIR, Technique.NAKED_PAIR, 60, Difficulty.MEDIUM);
+        assertGrade(HIDDEN_PAIR, Technique.HIDDEN_PAIR, 56, Difficulty.MEDIUM);
+        assertGrade(POINTING, Technique.POINTING_PAIR, 55, Difficulty.HARD);
+        assertGrade(BOX_LINE, Technique.BOX_LINE_REDUCTION, 66, Difficulty.HARD);
+        assertGrade(X_WING, Technique.X_WING, 61, Difficulty.EXPERT);
+
+        Grade solved = solver.grade(Grids.parse(NINE, SINGLES_SOLUTION));
+        assertTrue(solved.isSolved());
+        assertNull(solved.getHardest());
+        assertEquals(Difficulty.EASY, solved.getDifficulty());
+    }
+
+    @Test
+    void leavesPuzzlesBeyondItsTechniquesUnsolved() {
+        // The "Easter Monster" needs chains the solver does not know.
+        byte[] grid = Grids.parse(NINE,
+                "1.......2.9.4...5...6...7...5.9.3.......7.......85..4.7.....6...3...9.8...2.....1");
+        Grade grade = solver.grade(grid);
+
+        assertFalse(grade.isSolved());
+        assertEquals(Difficulty.EXPERT, grade.getDifficulty());
+        assertNull(solver.nextHint(grid));
+    }
+
+    @Test
+    void rejectsContradictoryGrids() {
+        byte[] grid = Grids.parse(NINE, SINGLES);
+        grid[0] = 7;
+
+        assertFalse(solver.grade(grid).isSolved());
+        assertNull(solver.nextStep(grid));
+        assertNull(solver.nextHint(grid));
+    }
+
+    private static void assertPlacement(SolveStep step, Technique technique, int cell, int value) {
+        assertNotNull(step);
+        assertEquals(technique, step.getTechnique());
+        assertTrue(step.isPlacement());
+        assertEquals(cell, step.getCell());
+        assertEquals(value, step.getValue());
+        assertEquals(0, step.getEliminationCount());
+    }
+
+    /**
+     * Checks that a step removes candidates from exactly the given cells, and never the number
+     * the solution puts there.
+     */
+    private static void assertEliminations(SolveStep step, Technique technique, String solution, int... cells) {
+        assertNotNull(step);
+        assertEquals(technique, step.getTechnique());
+        assertFalse(step.isPlacement());
+        assertEquals(-1, step.getCell());
+        byte[] solved = Grids.parse(NINE, solution);
+        int[] actual = new int[step.getEliminationCount()];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = step.getEliminationCell(i);
+            assertTrue(step.getEliminationMask(i) != 0);
+            assertEquals(0, step.getEliminationMask(i) & (1 << solved[actual[i]]),
+                    "eliminated the solution from cell " + actual[i]);
+        }
+        Arrays.sort(actual);
+        assertArrayEquals(cells, actual);
+    }
+
+    /**
+     * Places hints until the grid is full, checking every placement against the solution and
+     * the first hint that needs the puzzle's hardest technique.
+     */
+    private void assertHints(String puzzle, String solution, Technique hardest, int cell, int value) {
+        byte[] grid = Grids.parse(NINE, puzzle);
+        byte[] solved = Grids.parse(NINE, solution);
+        boolean seen = false;
+        for (SolveStep hint = solver.nextHint(grid); hint != null; hint = solver.nextHint(grid)) {
+            assertTrue(hint.isPlacement());
+            assertEquals(0, grid[hint.getCell()]);
+            assertEquals(solved[hint.getCell()], hint.getValue(), "hint for cell " + hint.getCell());
+            assertTrue(hint.getTechnique().compareTo(hardest) <= 0);
+            if (!seen && hint.getTechnique() == hardest) {
+                seen = true;
+                assertEquals(cell, hint.getCell());
+                assertEquals(value, hint.getValue());
+                assertTrue(hint.getExplanation().contains(hardest.getDisplayName()));
+            }
+            grid[hint.getCell()] = (byte) hint.getValue();
+        }
+        assertTrue(seen);
+        assertArrayEquals(solved, grid);
+    }
+
+    private void assertGrade(String puzzle, Technique hardest, int steps, Difficulty difficulty) {
+        Grade grade = solver.grade(Grids.parse(NINE, puzzle));
+
+        assertTrue(grade.isSolved());
+        assertEquals(hardest, grade.getHardest());
+        assertEquals(steps, grade.getSteps());
+        assertEquals(difficulty, grade.getDifficulty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.demosudoku.model.user;
+
+import com.example.demosudoku.model.generator.Difficulty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatsStoreTest {
+    private static final String[] PLAYERS = {"ana", "luis", "sofía"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compactsOnlyWhenAskedAndKeepsEveryTotal() throws IOException {
+        Path path = directory.resolve("stats.sds");
+        try (StatsStore store = StatsStore.open(path)) {
+            for (int i = 0; i < StatsStore.COMPACT_MIN_RECORDS; i++) {
+                store.record(result(i));
+            }
+            assertTrue(store.isCompactionDue());
+            long before = Files.size(path);
+            store.compact();
+            assertFalse(store.isCompactionDue());
+            assertTrue(Files.size(path) < before / 100);
+            // The store keeps appending to the compacted file.
+            store.record(result(StatsStore.COMPACT_MIN_RECORDS));
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(PLAYERS.length, store.getUserCount());
+            long games = 0;
+            for (String player : PLAYERS) {
+                games += store.getUserStats(player).getGamesSolved();
+            }
+            assertEquals(StatsStore.COMPACT_MIN_RECORDS + 1, games);
+            assertEquals(60_001, store.getUserStats("luis").getBest(9, Difficulty.MEDIUM).getSolveMillis());
+            List<GameResult> leaderboard = store.leaderboard(9, Difficulty.MEDIUM, 3);
+            assertEquals(PLAYERS.length, leaderboard.size());
+            assertEquals(60_000, leaderboard.get(0).getSolveMillis());
+        }
+    }
+
+    @Test
+    void rejectsNicknamesLongerThanTheCap() throws IOException {
+        Path path = directory.resolve("nicknames.sds");
+        String longest = "ñ".repeat(StatsStore.MAX_NICKNAME_BYTES / 2) + "a";
+        try (StatsStore store = StatsStore.open(path)) {
+            store.record(new GameResult(longest, 9, Difficulty.EASY, 1000, 0, 0, 1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.record(new GameResult(longest + "a", 9, Difficulty.EASY, 1000, 0, 0, 2)));
+            store.record(result(0));
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(2, store.getUserCount());
+            assertEquals(1, store.getUserStats(longest).getGamesSolved());
+        }
+    }
+
+    @Test
+    void readsRecordsLongerThanTheReadBuffer() throws IOException {
+        // A file written before nicknames were capped, with a nickname as long as a record allows.
+        Path path = directory.resolve("legacy.sds");
+        try (StatsStore store = StatsStore.open(path)) {
+            store.record(result(0));
+        }
+        String nickname = "x".repeat(0xFFFF);
+        ByteBuffer record = ByteBuffer.allocate(3 + nickname.length() + 26);
+        record.put((byte) 1).putShort((short) nickname.length()).put(nickname.getBytes(StandardCharsets.US_ASCII))
+                .put((byte) 9).put((byte) Difficulty.HARD.ordinal())
+                .putLong(90_000).putInt(1).putInt(2).putLong(3);
+        Files.write(path, record.array(), StandardOpenOption.APPEND);
+
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(2, store.getUserCount());
+            assertEquals(90_000, store.getUserStats(nickname).getBest(9, Difficulty.HARD).getSolveMillis());
+            store.record(result(1));
+            // Compaction keeps the long nickname it found in the file.
+            store.compact();
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(3, store.getUserCount());
+            assertEquals(1, store.getUserStats(nickname).getGamesSolved());
+        }
+    }
+
+    /**
+     * @return the result of game {@code i}, played in turn by each player, with a time that never repeats
+     */
+    private static GameResult result(int i) {
+        return new GameResult(PLAYERS[i % PLAYERS.length], 9, Difficulty.MEDIUM, 60_000 + i, i % 4, i % 3, i);
+    }
+}
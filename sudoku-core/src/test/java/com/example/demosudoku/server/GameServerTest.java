@@ -0,0 +1,185 @@
+package com.example.demosudoku.server;
+
+import com.example.demosudoku.Grids;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.session.GameSession;
+import com.example.demosudoku.model.session.SessionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServerTest {
+    private static final String KNOWN = "known";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private GameServer server;
+
+    @AfterEach
+    void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void startsAGame() throws Exception {
+        start(new SessionRegistry(60_000, 100, 0));
+
+        HttpResponse<String> created = send("POST", "/games?size=4&difficulty=easy");
+        assertEquals(201, created.statusCode());
+        assertEquals("application/json; charset=utf-8", created.headers().firstValue("Content-Type").orElse(null));
+        String id = string(created.body(), "id");
+        assertNotNull(id);
+        assertEquals("4", number(created.body(), "size"));
+        assertEquals("EASY", string(created.body(), "difficulty"));
+        assertEquals(16, string(created.body(), "puzzle").length());
+        assertEquals(string(created.body(), "puzzle"), string(created.body(), "grid"));
+        assertEquals(1, server.getSessionCount());
+
+        HttpResponse<String> state = send("GET", "/games/" + id);
+        assertEquals(200, state.statusCode());
+        assertEquals(id, string(state.body(), "id"));
+        assertEquals("0", number(state.body(), "moves"));
+
+        assertEquals(400, send("POST", "/games?difficulty=impossible").statusCode());
+        assertEquals(400, send("POST", "/games?size=nine").statusCode());
+    }
+
+    @Test
+    void playsMoves() throws Exception {
+        start(new SessionRegistry(60_000, 100, 0));
+        Puzzle puzzle = Grids.unique9();
+        server.getSessions().add(KNOWN, new GameSession(puzzle));
+
+        // Row 1 is 53..7....: a 4 fits in the third cell, a 5 is already in the row.
+        HttpResponse<String> accepted = send("POST", "/games/known/moves?cell=2&value=4");
+        assertEquals(200, accepted.statusCode());
+        assertEquals("ACCEPTED", string(accepted.body(), "outcome"));
+        assertEquals("false", number(accepted.body(), "solved"));
+
+        HttpResponse<String> rejected = send("POST", "/games/known/moves?cell=3&value=5");
+        assertEquals(200, rejected.statusCode());
+        assertEquals("REJECTED", string(rejected.body(), "outcome"));
+
+        HttpResponse<String> state = send("GET", "/games/known");
+        assertEquals("534.7....", string(state.body(), "grid").substring(0, 9));
+        assertEquals("1", number(state.body(), "moves"));
+
+        HttpResponse<String> cleared = send("POST", "/games/known/moves?cell=2&value=0");
+        assertEquals("CLEARED", string(cleared.body(), "outcome"));
+        assertEquals(Grids.UNIQUE_9, string(send("GET", "/games/known").body(), "grid"));
+    }
+
+    @Test
+    void answersBadMovesWithErrors() throws Exception {
+        start(new SessionRegistry(60_000, 100, 0));
+        server.getSessions().add(KNOWN, new GameSession(Grids.unique9()));
+
+        HttpResponse<String> clue = send("POST", "/games/known/moves?cell=0&value=5");
+        assertEquals(400, clue.statusCode());
+        assertEquals("Cell 0 is a clue", string(clue.body(), "error"));
+        assertEquals(400, send("POST", "/games/known/moves?cell=81&value=1").statusCode());
+        assertEquals(400, send("POST", "/games/known/moves?cell=two&value=1").statusCode());
+        HttpResponse<String> missing = send("POST", "/games/known/moves?cell=2");
+        assertEquals(400, missing.statusCode());
+        assertEquals("Missing parameter value", string(missing.body(), "error"));
+
+        assertEquals(404, send("POST", "/games/unknown/moves?cell=2&value=4").statusCode());
+        assertEquals(404, send("GET", "/games/unknown").statusCode());
+        assertEquals(404, send("PUT", "/games/known").statusCode());
+        assertEquals(404, send("POST", "/games/known/undo").statusCode());
+        assertEquals("0", number(send("GET", "/games/known").body(), "moves"));
+    }
+
+    @Test
+    void givesHintsThatAgreeWithTheSolution() throws Exception {
+        start(new SessionRegistry(60_000, 100, 0));
+        Puzzle puzzle = Grids.unique9();
+        server.getSessions().add(KNOWN, new GameSession(puzzle));
+
+        HttpResponse<String> hint = send("POST", "/games/known/hint");
+        assertEquals(200, hint.statusCode());
+        assertEquals("true", number(hint.body(), "found"));
+        int cell = Integer.parseInt(number(hint.body(), "cell"));
+        assertEquals(puzzle.getSolution(cell), Integer.parseInt(number(hint.body(), "value")));
+        assertTrue(string(hint.body(), "technique").endsWith("_SINGLE"));
+        assertFalse(string(hint.body(), "explanation").isEmpty());
+        // A hint is not played.
+        assertEquals("0", number(send("GET", "/games/known").body(), "moves"));
+
+        assertEquals(404, send("POST", "/games/unknown/hint").statusCode());
+    }
+
+    @Test
+    void endsGames() throws Exception {
+        start(new SessionRegistry(60_000, 100, 0));
+        server.getSessions().add(KNOWN, new GameSession(Grids.unique9()));
+
+        HttpResponse<String> ended = send("DELETE", "/games/known");
+        assertEquals(200, ended.statusCode());
+        assertEquals("true", number(ended.body(), "ended"));
+        assertEquals(0, server.getSessionCount());
+
+        assertEquals(404, send("GET", "/games/known").statusCode());
+        assertEquals(404, send("DELETE", "/games/known").statusCode());
+    }
+
+    @Test
+    void answersUnexpectedFailuresWithAnInternalError() throws Exception {
+        start(new SessionRegistry(60_000, 100, 0) {
+            @Override
+            public <T> T withSession(String id, Function<GameSession, T> action) {
+                throw new IllegalStateException("broken");
+            }
+        });
+        server.getSessions().add(KNOWN, new GameSession(Grids.unique9()));
+
+        HttpResponse<String> failed = send("GET", "/games/known");
+        assertEquals(500, failed.statusCode());
+        assertTrue(string(failed.body(), "error").contains("broken"));
+        // The worker survives and keeps answering.
+        assertEquals(200, send("DELETE", "/games/known").statusCode());
+    }
+
+    private void start(SessionRegistry sessions) throws IOException {
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, sessions);
+        server.start();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        URI uri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort() + path);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(10))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Reads a string field of a flat JSON object; the values used here hold no escapes. */
+    private static String string(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":\"([^\"]*)\"").matcher(json);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /** Reads a number or boolean field of a flat JSON object. */
+    private static String number(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":([^,}\"]+)").matcher(json);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.demosudoku;
 
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.PuzzlePool;
+import com.example.demosudoku.model.game.GameAbstract;
 import com.example.demosudoku.view.SudokuWelcomeStage;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -27,7 +30,8 @@ public class Main extends Application {
      * The start method is called after the init method has returned,
      * and after the system is ready for the application to begin running.
      * <p>
-     * This implementation initializes and displays the welcome screen of the Sudoku game.
+     * This implementation starts filling the puzzle pool in the background, so the first game
+     * is ready by the time the player enters a nickname, and displays the welcome screen.
      *
      * @param primaryStage the primary stage for this application, onto which
      * the application scene can be set. It is provided by the platform.
@@ -35,6 +39,7 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws IOException {
+        PuzzlePool.getInstance().warmUp(GameAbstract.defaultGeometry(), Difficulty.MEDIUM);
         SudokuWelcomeStage.getInstance();
     }
 }
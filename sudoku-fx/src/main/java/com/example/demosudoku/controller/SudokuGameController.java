@@ -0,0 +1,649 @@
+package com.example.demosudoku.controller;
+
+import com.example.demosudoku.metrics.Histogram;
+import com.example.demosudoku.metrics.MetricsRegistry;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.game.CanvasGame;
+import com.example.demosudoku.model.game.Game;
+import com.example.demosudoku.model.game.GameAbstract;
+import com.example.demosudoku.model.generator.Difficulty;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzlePool;
+import com.example.demosudoku.model.session.GameState;
+import com.example.demosudoku.model.session.GameJournal;
+import com.example.demosudoku.model.session.ReplayLog;
+import com.example.demosudoku.model.solver.HintService;
+import com.example.demosudoku.model.solver.SolveStep;
+import com.example.demosudoku.model.user.GameResult;
+import com.example.demosudoku.model.user.StatsStore;
+import com.example.demosudoku.model.user.User;
+import com.example.demosudoku.utils.AlertBox;
+import com.example.demosudoku.utils.MessageLog;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.GridPane;
+
+import java.util.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controller for the main Sudoku game view (sudoku-game-view.fxml).
+ * This class is responsible for initializing and managing the game board's UI.
+ */
+public class SudokuGameController implements Initializable {
+
+    @FXML
+    private GridPane boardGridPane;
+
+    @FXML
+    private ListView<String> messagesListView;
+
+    @FXML
+    private Button helpButton;
+
+    /**
+     * The current Sudoku game instance that manages the board and gameplay logic, or null while its puzzle is generated.
+     */
+
+    private GameAbstract game;
+
+    /**
+     * The board shape of the current game.
+     */
+
+    private BoardGeometry geometry;
+
+    /**
+     * The puzzle of the new game while the pool generates it, or null.
+     */
+
+    private CompletableFuture<Puzzle> pendingPuzzle;
+
+    /**
+     * System property that selects the board renderer: {@code canvas} or {@code cells}.
+     * Without it, boards of {@value #CANVAS_MIN_SIZE}x{@value #CANVAS_MIN_SIZE} and larger are drawn on a canvas.
+     */
+
+    public static final String RENDERER_PROPERTY = "sudoku.renderer";
+
+    /**
+     * The smallest board size drawn on a canvas by default.
+     */
+
+    private static final int CANVAS_MIN_SIZE = 16;
+
+    /**
+     * The current user playing the Sudoku game.
+     */
+
+    private User user;
+
+    /**
+     * Utility object used to display alert messages to the user.
+     */
+
+    private AlertBox alertBox;
+
+    /**
+     * Batched log of the messages shown below the board.
+     */
+
+    private MessageLog messageLog;
+
+    /**
+     * How many messages the log keeps on screen.
+     */
+
+    private static final int MAX_MESSAGES = 200;
+
+    /**
+     * Finds the deductions offered by the help button, created for the current board.
+     */
+
+    private HintService hintService;
+
+    /**
+     * The cell showing the last hint, or -1.
+     */
+
+    private int hintedCell = -1;
+
+    /**
+     * Time the help button takes to find a hint, recorded when metrics are enabled.
+     */
+
+    private static final Histogram HELP_NANOS = MetricsRegistry.getInstance().histogram("ui.help.nanos");
+
+    /**
+     * File where the game in progress is saved after every move.
+     */
+
+    private static final Path AUTOSAVE = Path.of(System.getProperty("user.home"), ".demosudoku", "autosave.sdj");
+
+    /**
+     * Journal that autosaves the current game, or null if the autosave could not be written.
+     */
+
+    private GameJournal journal;
+
+    /**
+     * File where the actions of the game in progress are logged for replay; moved to {@link #REPLAYS} when the game is won.
+     */
+
+    private static final Path REPLAY = AUTOSAVE.resolveSibling("autosave.sdr");
+
+    /**
+     * Directory that keeps the replay logs of won games.
+     */
+
+    private static final Path REPLAYS = AUTOSAVE.resolveSibling("replays");
+
+    /**
+     * Replay log of the current game, or null if it could not be written.
+     */
+
+    private ReplayLog replayLog;
+
+    /**
+     * Entries of the leaderboard shown when a game is won.
+     */
+
+    private static final int LEADERBOARD_SHOWN = 5;
+
+    /**
+     * Inner static class to hold the statistics store of all players (lazy initialization).
+     * It is opened on the first victory and stays open while the application runs.
+     */
+    private static class StatsHolder {
+        private static final StatsStore INSTANCE = open();
+
+        private static StatsStore open() {
+            try {
+                Files.createDirectories(AUTOSAVE.getParent());
+                return StatsStore.open(AUTOSAVE.resolveSibling("stats.sds"));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Whether the current game was resumed from the autosave.
+     */
+
+    private boolean resumed;
+
+    /**
+     * Initializes the controller class. An unfinished autosaved game is resumed at once; otherwise the
+     * puzzle of a new game is taken from the pool without blocking, and the board appears when it is ready.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        alertBox = new AlertBox();
+        messageLog = new MessageLog(messagesListView, MAX_MESSAGES, 64);
+        GameAbstract resumedGame = resumeGame();
+        geometry = resumedGame != null ? resumedGame.getBoard().getGeometry() : GameAbstract.defaultGeometry();
+        setupCellInputHandling();
+        setupMouseHandling();
+        setupMessagesArea();
+        if (resumedGame != null) {
+            attach(resumedGame);
+        } else {
+            startNewGame();
+        }
+    }
+
+    /**
+     * Resumes the autosaved game if there is an unfinished one.
+     *
+     * @return the resumed game, or null if a new game must be started
+     */
+    private GameAbstract resumeGame() {
+        resumed = false;
+        try {
+            Files.createDirectories(AUTOSAVE.getParent());
+            if (Files.exists(AUTOSAVE)) {
+                GameJournal saved = GameJournal.open(AUTOSAVE);
+                if (!saved.getRestoredState().isSolved()) {
+                    journal = saved;
+                    resumed = true;
+                    GameAbstract resumedGame = newGame(saved.getRestoredState());
+                    resumedGame.setJournal(journal);
+                    resumedGame.restoreProgress(saved.getRestoredElapsedMillis(), saved.getRestoredHints(),
+                            saved.getRestoredErrors());
+                    try {
+                        replayLog = ReplayLog.append(REPLAY);
+                        resumedGame.setReplayLog(replayLog);
+                    } catch (IOException e) {
+                        // The game is resumed without replay log.
+                    }
+                    return resumedGame;
+                }
+                saved.close();
+            }
+        } catch (IOException e) {
+            // An unreadable autosave is replaced by a new game.
+        }
+        return null;
+    }
+
+    /**
+     * Takes the puzzle of a new game from the pool. On a miss the pool generates it in the background,
+     * so the FX thread keeps running; the game is attached once the puzzle arrives, unless the window
+     * was closed in the meantime. The help button stays disabled until then.
+     */
+    private void startNewGame() {
+        helpButton.setDisable(true);
+        CompletableFuture<Puzzle> future = PuzzlePool.getInstance().takeAsync(geometry, Difficulty.MEDIUM);
+        if (!future.isDone()) {
+            addMessage("Preparando el tablero...");
+        }
+        pendingPuzzle = future;
+        future.whenComplete((puzzle, error) -> Platform.runLater(() -> {
+            if (pendingPuzzle != future) {
+                return;
+            }
+            pendingPuzzle = null;
+            if (error != null) {
+                alertBox.showAlert("Error", "No se pudo generar el tablero: " + error.getMessage(), Alert.AlertType.ERROR);
+                return;
+            }
+            attach(createGame(puzzle));
+        }));
+    }
+
+    /**
+     * Creates a new game for a puzzle, with its autosave and replay log.
+     *
+     * @param puzzle the puzzle to play
+     * @return the game
+     */
+    private GameAbstract createGame(Puzzle puzzle) {
+        GameAbstract newGame = newGame(puzzle);
+        try {
+            journal = GameJournal.create(AUTOSAVE, newGame.getState().getPuzzle());
+            newGame.setJournal(journal);
+        } catch (IOException e) {
+            journal = null;
+        }
+        try {
+            replayLog = ReplayLog.create(REPLAY, newGame.getState().getPuzzle());
+            newGame.setReplayLog(replayLog);
+        } catch (IOException e) {
+            replayLog = null;
+        }
+        return newGame;
+    }
+
+    /**
+     * Makes a game the current one: draws its board, starts its clock and enables the help button.
+     *
+     * @param newGame the game to play
+     */
+    private void attach(GameAbstract newGame) {
+        game = newGame;
+        game.setController(this);
+        game.startClock();
+        game.startGame();
+        if (resumed) {
+            addMessage("Partida anterior reanudada (" + game.getState().getMoveCount() + " movimientos).");
+        } else if (journal == null) {
+            addMessage("No se pudo activar el guardado automático.");
+        }
+        if (game.getBoard().getPuzzleId() != null) {
+            addMessage("Partida: " + game.getBoard().getPuzzleId());
+        }
+        helpButton.setDisable(false);
+    }
+
+    /**
+     * Creates a new game drawn with the renderer chosen for its board size.
+     *
+     * @param puzzle the puzzle to play
+     * @return the game
+     */
+    private GameAbstract newGame(Puzzle puzzle) {
+        return usesCanvas(puzzle.getGeometry())
+                ? new CanvasGame(boardGridPane, puzzle) : new Game(boardGridPane, puzzle);
+    }
+
+    /**
+     * Creates a game that resumes a saved state, drawn with the renderer chosen for its board size.
+     *
+     * @param state the saved state
+     * @return the game
+     */
+    private GameAbstract newGame(GameState state) {
+        return usesCanvas(state.getPuzzle().getGeometry())
+                ? new CanvasGame(boardGridPane, state) : new Game(boardGridPane, state);
+    }
+
+    /**
+     * Decides whether a board is drawn on a single canvas instead of one TextField per cell.
+     *
+     * @param geometry the board shape
+     * @return true for the canvas renderer
+     */
+    private static boolean usesCanvas(BoardGeometry geometry) {
+        String renderer = System.getProperty(RENDERER_PROPERTY, "");
+        if (renderer.equalsIgnoreCase("canvas")) {
+            return true;
+        }
+        return !renderer.equalsIgnoreCase("cells") && geometry.getSize() >= CANVAS_MIN_SIZE;
+    }
+
+    /**
+     * Returns whether the current board is drawn on a canvas, which can be enlarged with the window.
+     *
+     * @return true for the canvas renderer
+     */
+    public boolean isCanvasBoard() {
+        return usesCanvas(geometry);
+    }
+
+    /**
+     * Sets up the messages log with initial content.
+     */
+    private void setupMessagesArea() {
+        messageLog.clear();
+        addMessage("Bienvenido al Sudoku!");
+        addMessage("Escribe números del " + describeSymbols() + ".");
+        addMessage("Ctrl+Z deshace y Ctrl+Y rehace un movimiento.");
+        if (isCanvasBoard()) {
+            addMessage("Flechas para moverse, Espacio para notas a lápiz y F2 para ver candidatos.");
+        }
+    }
+
+    /**
+     * Adds a message to the messages log. It is shown on the next pulse, merged with an identical previous message.
+     *
+     * @param message the message to display
+     */
+    public void addMessage(String message) {
+        messageLog.post(message);
+    }
+
+    /**
+     * Sets up input handling for all cells in the Sudoku board with one filter per event type on the grid,
+     * which resolves the target cell instead of attaching handlers to every cell.
+     * Ctrl+Z undoes and Ctrl+Y (or Ctrl+Shift+Z) redoes a move.
+     */
+    private void setupCellInputHandling() {
+        boardGridPane.addEventFilter(KeyEvent.KEY_TYPED, event -> {
+            if (game == null) {
+                return;
+            }
+            TextField textField = game.cellAt(event.getTarget());
+            if (textField != null) {
+                filterTypedKey(textField, event);
+            }
+        });
+
+        boardGridPane.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (game == null) {
+                return;
+            }
+            if (event.isShortcutDown() && (event.getCode() == KeyCode.Z || event.getCode() == KeyCode.Y)) {
+                if (event.getCode() == KeyCode.Z && !event.isShiftDown()) {
+                    if (!game.undo()) {
+                        addMessage("No hay movimientos para deshacer.");
+                    }
+                } else if (!game.redo()) {
+                    addMessage("No hay movimientos para rehacer.");
+                }
+                event.consume();
+                return;
+            }
+            TextField textField = game.cellAt(event.getTarget());
+            if (textField == null) {
+                return;
+            }
+            if (!textField.isEditable()){
+                event.consume();
+                return;
+            }
+            if (event.getCode() == KeyCode.BACK_SPACE || event.getCode() == KeyCode.DELETE) {
+                textField.clear();
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * Describes the range of symbols accepted by the current board, for example "1 al 6" or "1 al G".
+     *
+     * @return the description shown to the player
+     */
+    private String describeSymbols() {
+        return "1 al " + geometry.toSymbol(geometry.getSize());
+    }
+
+    /**
+     * Only lets a cell receive the board's symbols (1-6 on the classic board), one per cell.
+     *
+     * @param textField the cell the key was typed in
+     * @param event the key typed event, consumed if the character is rejected
+     */
+    private void filterTypedKey(TextField textField, KeyEvent event) {
+        if (!textField.isEditable()){
+            event.consume();
+            return;
+        }
+        String input = event.getCharacter();
+
+        if (input.isEmpty() || input.charAt(0) == 8 || input.charAt(0) == 127) {
+            return;
+        }
+        if (geometry.fromSymbol(input.charAt(0)) < 0) {
+            event.consume();
+            alertBox.showAlert("Entrada inválida", "Solo se permiten números del " + describeSymbols(), Alert.AlertType.WARNING);
+            return;
+        }
+
+        if (textField.getText().length() >= 1) {
+            event.consume();
+            alertBox.showAlert("Entrada inválida", "Solo se permite un dígito por celda", Alert.AlertType.WARNING);
+        }
+    }
+
+    /**
+     * Sets up mouse handling for cell selection with a single handler on the grid.
+     * Hover feedback comes from the :hover pseudo-class in sudoku-game.css.
+     */
+    private void setupMouseHandling() {
+        boardGridPane.setOnMouseClicked(event -> {
+            TextField textField = game != null ? game.cellAt(event.getTarget()) : null;
+            if (textField != null && textField.isEditable()) {
+                textField.selectAll();
+            }
+        });
+    }
+
+    /**
+     * Sets the user for the current game session.
+     *
+     * @param user The user object containing player information
+     */
+    public void setUser(User user) {
+        this.user = user;
+        if (user != null) {
+            addMessage("Jugador: " + user.getNickname());
+        }
+    }
+
+    /**
+     * Defines the method used for the help button. Asks the hint service for the most useful number that
+     * can be deduced on the current board, shows it in its cell and explains the deduction in the messages
+     * area. Only the cell of the previous hint is reset; the search takes bounded time even on a full board.
+     * @param event the ActionEvent triggered when the Help button is clicked
+     */
+
+    @FXML
+    public void handleHelp(ActionEvent event) {
+        if (game == null) {
+            return;
+        }
+        long start = MetricsRegistry.ENABLED ? System.nanoTime() : 0;
+        if (hintedCell >= 0) {
+            game.clearHint(hintedCell);
+            hintedCell = -1;
+        }
+
+        if (game.getBoard().isComplete()) {
+            alertBox.showAlert("Sin celdas vacías", "El tablero ya está completo.", Alert.AlertType.INFORMATION);
+            return;
+        }
+
+        if (hintService == null || hintService.getBoard() != game.getBoard()) {
+            hintService = new HintService(game.getBoard(), game.getState().getPuzzle());
+        }
+        SolveStep step = hintService.nextHint();
+        if (MetricsRegistry.ENABLED) {
+            // Measured before any alert, which would add the time the player takes to close it.
+            HELP_NANOS.recordSince(start);
+        }
+        if (step == null) {
+            alertBox.showAlert("Sin opciones válidas",
+                    "No se encontró ninguna deducción lógica para el tablero actual.", Alert.AlertType.INFORMATION);
+            return;
+        }
+
+        hintedCell = step.getCell();
+        game.hintShown();
+        game.showHint(hintedCell, step.getValue());
+        addMessage("Pista: " + step.getExplanation());
+    }
+
+    /**
+     * Closes and deletes the autosave of a finished game, so the next game starts fresh,
+     * and keeps its replay log in the replays directory.
+     */
+    private void discardAutosave() {
+        game.setJournal(null);
+        if (journal != null) {
+            try {
+                journal.close();
+                Files.deleteIfExists(AUTOSAVE);
+            } catch (IOException e) {
+                // A leftover autosave of a solved game is ignored when the next game starts.
+            }
+            journal = null;
+        }
+        if (replayLog != null) {
+            game.setReplayLog(null);
+            try {
+                replayLog.close();
+                Files.createDirectories(REPLAYS);
+                Files.move(REPLAY, REPLAYS.resolve(System.currentTimeMillis() + ".sdr"));
+            } catch (IOException e) {
+                // The log of a won game is only kept for analytics.
+            }
+            replayLog = null;
+        }
+    }
+
+    /**
+     * Drops the puzzle still being generated, if any, saves the time played in the autosave and closes it,
+     * and writes the buffered actions of the replay log and closes it, so a resumed game reopens the
+     * autosave and appends to the log. Called when the game window is hidden.
+     */
+    public void closeGame() {
+        pendingPuzzle = null;
+        if (game != null) {
+            game.saveProgress();
+        }
+        if (journal != null) {
+            game.setJournal(null);
+            try {
+                journal.close();
+            } catch (IOException e) {
+                // Every move was already written; only the file handle is lost.
+            }
+            journal = null;
+        }
+        if (replayLog != null) {
+            game.setReplayLog(null);
+            try {
+                replayLog.close();
+            } catch (IOException e) {
+                // The actions that could not be written are lost; the autosave is not affected.
+            }
+            replayLog = null;
+        }
+    }
+
+    /**
+     * Records the result of the won game in the players' statistics and describes the leaderboard
+     * of its board size and difficulty. When the statistics file is due for compaction, it is
+     * rewritten on a background thread, since that reads through every player.
+     *
+     * @return the text for the victory alert
+     */
+    private String recordResult() {
+        StatsStore stats = StatsHolder.INSTANCE;
+        if (stats == null) {
+            return "¡Has completado el Sudoku!";
+        }
+        Puzzle puzzle = game.getState().getPuzzle();
+        String nickname = user != null && !user.getNickname().isBlank() ? user.getNickname() : "Anónimo";
+        GameResult result = new GameResult(nickname, puzzle.getGeometry().getSize(), puzzle.getDifficulty(),
+                game.getElapsedMillis(), game.getHintsUsed(), game.getErrorCount(), System.currentTimeMillis());
+        StringBuilder text = new StringBuilder("¡Has completado el Sudoku en ")
+                .append(formatTime(result.getSolveMillis())).append("!");
+        try {
+            stats.record(result);
+        } catch (IOException e) {
+            return text.append("\nNo se pudo guardar el resultado: ").append(e.getMessage()).toString();
+        }
+        text.append("\n\nMejores tiempos (").append(result.getSize()).append('x').append(result.getSize())
+                .append(", ").append(result.getDifficulty()).append("):");
+        int rank = 1;
+        for (GameResult best : stats.leaderboard(result.getSize(), result.getDifficulty(), LEADERBOARD_SHOWN)) {
+            text.append("\n").append(rank++).append(". ").append(best.getNickname())
+                    .append("  ").append(formatTime(best.getSolveMillis()));
+        }
+        if (stats.isCompactionDue()) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    stats.compact();
+                } catch (IOException e) {
+                    // The file keeps its game records and is compacted after a later victory.
+                }
+            });
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formats a duration as minutes and seconds.
+     *
+     * @param millis the duration in milliseconds
+     * @return the text, for example {@code 3:07}
+     */
+    private static String formatTime(long millis) {
+        long seconds = millis / 1000;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    /**
+     * Shows victory alert and closes the game.
+     */
+    public void showVictoryAlert(){
+        discardAutosave();
+        new AlertBox().showAlert("¡Felicidades!", recordResult(), Alert.AlertType.INFORMATION);
+        com.example.demosudoku.view.SudokuGameStage.deleteInstance();
+    }
+}
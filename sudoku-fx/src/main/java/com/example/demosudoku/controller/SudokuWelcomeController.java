@@ -1,5 +1,6 @@
 package com.example.demosudoku.controller;
 
+import com.example.demosudoku.model.user.StatsStore;
 import com.example.demosudoku.model.user.User;
 import com.example.demosudoku.utils.AlertBox;
 import com.example.demosudoku.view.SudokuGameStage;
@@ -10,6 +11,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Controller for the welcome screen (sudoku-welcome-view.fxml).
@@ -25,6 +27,7 @@ public class SudokuWelcomeController {
 
     /**
      * Handles the "Play" button action. It validates the user's nickname,
+     * which must not be blank nor longer than the statistics can record,
      * creates a new User, passes it to the game controller, and transitions
      * from the welcome stage to the game stage.
      *
@@ -35,11 +38,13 @@ public class SudokuWelcomeController {
     void handlePlay(ActionEvent event) throws IOException {
         String nickname = nicknameTxt.getText().trim();
 
-        if (!nickname.equals("")) {
+        if (nickname.equals("")) {
+            new AlertBox().showAlert("Error", "Ingresa un nickname", Alert.AlertType.ERROR);
+        } else if (nickname.getBytes(StandardCharsets.UTF_8).length > StatsStore.MAX_NICKNAME_BYTES) {
+            new AlertBox().showAlert("Error", "El nickname es demasiado largo", Alert.AlertType.ERROR);
+        } else {
             SudokuGameStage.getInstance().getController().setUser(new User(nickname));
             SudokuWelcomeStage.deleteInstance();
-        } else {
-            new AlertBox().showAlert("Error", "Ingresa un nickname", Alert.AlertType.ERROR);
         }
     }
 }
@@ -0,0 +1,101 @@
+package com.example.demosudoku.model.game;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.session.GameState;
+import com.example.demosudoku.view.BoardCanvas;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+
+/**
+ * A Sudoku game drawn on a single {@link BoardCanvas} instead of one TextField per cell.
+ * It is meant for large boards, where hundreds of controls make layout and CSS too slow.
+ * The rules, the move history and the autosave are those of {@link GameAbstract}.
+ */
+public class CanvasGame extends GameAbstract implements BoardCanvas.InputListener {
+    private BoardCanvas canvas;
+
+    /**
+     * Constructs a new CanvasGame for a puzzle.
+     *
+     * @param boardGridpane The GridPane from the view where the canvas will be placed.
+     * @param puzzle The puzzle to play.
+     */
+    public CanvasGame(GridPane boardGridpane, Puzzle puzzle) {
+        super(boardGridpane, puzzle);
+    }
+
+    /**
+     * Constructs a CanvasGame that resumes a saved game.
+     *
+     * @param boardGridpane The GridPane from the view where the canvas will be placed.
+     * @param state The saved state to resume.
+     */
+    public CanvasGame(GridPane boardGridpane, GameState state) {
+        super(boardGridpane, state);
+    }
+
+    /**
+     * Starts the game by replacing the grid's content with a canvas that fills it.
+     */
+    @Override
+    public void startGame() {
+        BoardGeometry geometry = board.getGeometry();
+        canvas = new BoardCanvas(geometry, board.getEngine()::getCandidates);
+        canvas.setInputListener(this);
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            int number = board.getCellValue(geometry.rowOf(cell), geometry.colOf(cell));
+            canvas.setCell(cell, number, getState().getPuzzle().getGiven(cell) != 0);
+        }
+
+        boardGridpane.getChildren().clear();
+        boardGridpane.getColumnConstraints().setAll(new ColumnConstraints(10, 100, Double.MAX_VALUE,
+                Priority.ALWAYS, null, true));
+        boardGridpane.getRowConstraints().setAll(new RowConstraints(10, 100, Double.MAX_VALUE,
+                Priority.ALWAYS, null, true));
+        boardGridpane.add(canvas, 0, 0);
+        canvas.requestFocus();
+    }
+
+    /**
+     * Plays a number typed in the canvas, or shows it as rejected over the cell's current number.
+     */
+    @Override
+    public void numberTyped(int cell, int number) {
+        BoardGeometry geometry = board.getGeometry();
+        if (enterNumber(geometry.rowOf(cell), geometry.colOf(cell), number)) {
+            canvas.setHint(cell, 0);
+            canvas.setCell(cell, number, false);
+        } else {
+            // The board and its history keep the cell's previous number; only the view marks the rejection.
+            canvas.setConflict(cell, number);
+        }
+    }
+
+    /**
+     * Empties a cell cleared in the canvas.
+     */
+    @Override
+    public void cellCleared(int cell) {
+        BoardGeometry geometry = board.getGeometry();
+        clearNumber(geometry.rowOf(cell), geometry.colOf(cell));
+        canvas.setCell(cell, 0, false);
+    }
+
+    @Override
+    protected void showCell(int index, int number) {
+        canvas.setCell(index, number, false);
+    }
+
+    @Override
+    public void showHint(int index, int number) {
+        canvas.setHint(index, number);
+    }
+
+    @Override
+    public void clearHint(int index) {
+        canvas.setHint(index, 0);
+    }
+}
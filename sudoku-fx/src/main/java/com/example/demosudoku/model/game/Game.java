@@ -0,0 +1,175 @@
+package com.example.demosudoku.model.game;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.session.GameState;
+import com.example.demosudoku.view.CellState;
+import javafx.geometry.HPos;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+
+/**
+ * Represents the concrete implementation of the Sudoku game logic.
+ * This class is responsible for setting up the game board UI and handling user input.
+ */
+public class Game extends GameAbstract {
+
+    /**
+     * Constructs a new Game instance for a puzzle.
+     *
+     * @param boardGridpane The GridPane from the view where the Sudoku board will be rendered.
+     * @param puzzle The puzzle to play.
+     */
+    public Game(GridPane boardGridpane, Puzzle puzzle) {
+        super(boardGridpane, puzzle);
+    }
+
+    /**
+     * Constructs a Game instance that resumes a saved game.
+     *
+     * @param boardGridpane The GridPane from the view where the Sudoku board will be rendered.
+     * @param state The saved state to resume.
+     */
+    public Game(GridPane boardGridpane, GameState state) {
+        super(boardGridpane, state);
+    }
+
+    /**
+     * Starts the game by generating a board and creating UI components.
+     * A single key handler on the grid serves every cell.
+     */
+    @Override
+    public void startGame() {
+        BoardGeometry geometry = board.getGeometry();
+        if (boardGridpane.getColumnConstraints().size() != geometry.getSize()) {
+            layoutGrid(geometry);
+        }
+        boardGridpane.setOnKeyReleased(event -> {
+            TextField cell = cellAt(event.getTarget());
+            if (cell != null && cell.isEditable()) {
+                int index = indexOf(cell);
+                handleNumberField(cell, geometry.rowOf(index), geometry.colOf(index));
+            }
+        });
+        for (int i = 0; i < geometry.getSize(); i++) {
+            for (int j = 0; j < geometry.getSize(); j++) {
+                int number = board.getCellValue(i, j);
+
+                TextField textField = new TextField();
+                textField.setAlignment(Pos.CENTER);
+                textField.setText(number != 0 ? String.valueOf(geometry.toSymbol(number)) : "");
+
+                boolean given = getState().getPuzzle().getGiven(i * geometry.getSize() + j) != 0;
+                textField.setEditable(!given);
+                CellState.init(textField, given);
+
+                boardGridpane.add(textField, j, i);
+                numberFields.add(textField);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the grid's rows, columns and block borders when the board is not the
+     * 6x6 layout defined in the FXML view.
+     *
+     * @param geometry The size and block shape of the board.
+     */
+    private void layoutGrid(BoardGeometry geometry) {
+        boardGridpane.getChildren().removeIf(node -> node instanceof Pane);
+        boardGridpane.getColumnConstraints().clear();
+        boardGridpane.getRowConstraints().clear();
+        for (int i = 0; i < geometry.getSize(); i++) {
+            ColumnConstraints column = new ColumnConstraints(10, 100, Double.MAX_VALUE, Priority.SOMETIMES, HPos.CENTER, true);
+            RowConstraints row = new RowConstraints(10, 30, Double.MAX_VALUE, Priority.SOMETIMES, VPos.CENTER, true);
+            boardGridpane.getColumnConstraints().add(column);
+            boardGridpane.getRowConstraints().add(row);
+        }
+        for (int block = 0; block < geometry.getBlockCount(); block++) {
+            int origin = geometry.blockOrigin(block);
+            Pane border = new Pane();
+            border.getStyleClass().add("sudoku-block");
+            boardGridpane.add(border, geometry.colOf(origin), geometry.rowOf(origin),
+                    geometry.getBlockCols(), geometry.getBlockRows());
+        }
+    }
+
+    /**
+     * Validates and records the text of a cell after a key is released in it.
+     *
+     * @param txt The TextField of the cell.
+     * @param row The row index of the cell in the board.
+     * @param col The column index of the cell in the board.
+     */
+    private void handleNumberField(TextField txt, int row, int col) {
+        String input = txt.getText().trim();
+
+        if (input.length() > 0) {
+            try {
+                int number = parseSymbol(input);
+                if (enterNumber(row, col, number)) {
+                    txt.pseudoClassStateChanged(CellState.CONFLICT, false);
+                    txt.pseudoClassStateChanged(CellState.HINT, false);
+                } else {
+                    txt.setText("");
+                    txt.pseudoClassStateChanged(CellState.CONFLICT, true);
+                }
+
+            } catch (NumberFormatException e) {
+                addMessage("Error: '" + input + "' no es numero valido");
+                txt.setText("");
+            }
+        } else {
+            clearNumber(row, col);
+            txt.pseudoClassStateChanged(CellState.CONFLICT, false);
+        }
+    }
+
+    /**
+     * Writes a number in the cell's TextField.
+     */
+    @Override
+    protected void showCell(int index, int number) {
+        TextField cell = numberFields.get(index);
+        cell.setText(number != 0 ? String.valueOf(board.getGeometry().toSymbol(number)) : "");
+        cell.pseudoClassStateChanged(CellState.CONFLICT, false);
+    }
+
+    /**
+     * Shows the number as the prompt text of the cell.
+     */
+    @Override
+    public void showHint(int index, int number) {
+        TextField cell = numberFields.get(index);
+        cell.setPromptText(String.valueOf(board.getGeometry().toSymbol(number)));
+        cell.pseudoClassStateChanged(CellState.HINT, true);
+    }
+
+    @Override
+    public void clearHint(int index) {
+        TextField cell = numberFields.get(index);
+        cell.setPromptText("");
+        cell.pseudoClassStateChanged(CellState.HINT, false);
+    }
+
+    /**
+     * Converts the text of a cell into the number it represents on this board.
+     *
+     * @param input The trimmed text of the cell.
+     * @return The number, from 1 to the board size.
+     * @throws NumberFormatException if the text is not a single valid symbol for the board.
+     */
+    private int parseSymbol(String input) {
+        int number = input.length() == 1 ? board.getGeometry().fromSymbol(input.charAt(0)) : -1;
+        if (number < 0) {
+            throw new NumberFormatException(input);
+        }
+        return number;
+    }
+}
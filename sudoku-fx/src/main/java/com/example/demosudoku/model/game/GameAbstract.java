@@ -0,0 +1,457 @@
+package com.example.demosudoku.model.game;
+
+import com.example.demosudoku.controller.SudokuGameController;
+import com.example.demosudoku.model.board.Board;
+import com.example.demosudoku.model.board.BoardGeometry;
+import com.example.demosudoku.model.generator.Puzzle;
+import com.example.demosudoku.model.generator.PuzzleId;
+import com.example.demosudoku.model.generator.PuzzlePool;
+import com.example.demosudoku.model.session.GameJournal;
+import com.example.demosudoku.model.session.GameSession;
+import com.example.demosudoku.model.session.GameState;
+import com.example.demosudoku.model.session.Move;
+import com.example.demosudoku.model.session.ReplayLog;
+import javafx.event.EventTarget;
+import javafx.scene.Node;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * An abstract base class for game logic, providing common properties
+ * for a Sudoku game.
+ * <p>
+ * It owns the {@link GameSession} that judges moves and keeps the history, and the autosave
+ * journal, and reports each move once for every renderer: subclasses only decide how cells are drawn ({@link #showCell},
+ * {@link #showHint}) and how the player's input reaches {@link #enterNumber} and {@link #clearNumber}.
+ * <p>
+ * It also keeps the progress of the player, the time played, the hints shown and the numbers rejected,
+ * and saves it in the journal with every action, so a resumed game goes on counting from where it stopped.
+ */
+public class GameAbstract implements IGame {
+    /** System property that selects the board size of new games, for example {@code -Dsudoku.size=9}. */
+    public static final String SIZE_PROPERTY = "sudoku.size";
+
+    /** The UI grid where the board is displayed. */
+    protected GridPane boardGridpane;
+    /** The underlying data structure and logic for the Sudoku board. */
+    protected Board board;
+    /** A list of TextFields representing the cells on the board. */
+    protected ArrayList<TextField> numberFields;
+    /** The rules of the game and the history of moves played on the board. */
+    protected GameSession session;
+    /** The controller that displays messages, or null. */
+    protected SudokuGameController controller;
+    /** The journal where moves are saved, or null. */
+    protected GameJournal journal;
+    /** The log where every action is timed for replay, or null. */
+    protected ReplayLog replayLog;
+    /** The numbers rejected in this game. */
+    private int errorCount;
+    /** The hints shown in this game. */
+    private int hintsUsed;
+    /** The time played before the clock was last started, in milliseconds. */
+    private long playedMillis;
+    /** When the clock was last started, in milliseconds since the epoch, or 0 while it is stopped. */
+    private long clockStart;
+
+    /**
+     * Constructs a GameAbstract instance for a new puzzle. The puzzle is generated beforehand,
+     * usually taken from the shared {@link PuzzlePool} with {@link PuzzlePool#takeAsync}, so
+     * creating the game never waits for generation; it keeps the {@link PuzzleId} it can be
+     * rebuilt from.
+     *
+     * @param boardGridpane The GridPane that will contain the Sudoku cells.
+     * @param puzzle The puzzle to play, with a unique solution.
+     */
+    public GameAbstract(GridPane boardGridpane, Puzzle puzzle) {
+        this.boardGridpane = boardGridpane;
+        this.session = new GameSession(puzzle);
+        this.board = session.getBoard();
+        this.numberFields = new ArrayList<TextField>();
+    }
+
+    /**
+     * Constructs a GameAbstract instance that resumes a saved game: the board holds the
+     * puzzle's clues and every number the player had written.
+     *
+     * @param boardGridpane The GridPane that will contain the Sudoku cells.
+     * @param state The saved state to resume.
+     */
+    public GameAbstract(GridPane boardGridpane, GameState state) {
+        this.boardGridpane = boardGridpane;
+        this.session = new GameSession(state);
+        this.board = session.getBoard();
+        this.numberFields = new ArrayList<TextField>();
+    }
+
+    /**
+     * Returns the board shape of new games: the standard shape for the {@value #SIZE_PROPERTY}
+     * system property, or the classic 6x6 board.
+     *
+     * @return the geometry to generate
+     */
+    public static BoardGeometry defaultGeometry() {
+        try {
+            return BoardGeometry.of(Integer.getInteger(SIZE_PROPERTY, 6));
+        } catch (IllegalArgumentException e) {
+            return BoardGeometry.SIZE_6;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void startGame() {
+    }
+
+    /**
+     * Sets the controller for this game to enable message display.
+     *
+     * @param controller the SudokuGameController instance
+     */
+    public void setController(SudokuGameController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Sets the journal where every move, undo and redo is saved.
+     *
+     * @param journal the autosave journal of this game, or {@code null} to stop saving
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets the log where every action, rejected numbers included, is recorded with its time.
+     *
+     * @param replayLog the replay log of this game, or {@code null} to stop recording
+     */
+    public void setReplayLog(ReplayLog replayLog) {
+        this.replayLog = replayLog;
+    }
+
+    /**
+     * Restores the progress saved with a resumed game, before its clock is started.
+     *
+     * @param elapsedMillis the time played before, in milliseconds
+     * @param hints the hints shown before
+     * @param errors the numbers rejected before
+     */
+    public void restoreProgress(long elapsedMillis, int hints, int errors) {
+        this.playedMillis = elapsedMillis;
+        this.hintsUsed = hints;
+        this.errorCount = errors;
+    }
+
+    /**
+     * Starts counting the time played, when the board is shown to the player.
+     */
+    public void startClock() {
+        clockStart = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the time played, including the time before the game was resumed.
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return playedMillis + (clockStart != 0 ? System.currentTimeMillis() - clockStart : 0);
+    }
+
+    /**
+     * Counts a hint shown to the player and saves the progress.
+     */
+    public void hintShown() {
+        hintsUsed++;
+        saveProgress();
+    }
+
+    /**
+     * Returns the number of hints shown in this game, including before it was resumed.
+     * @return the hint count
+     */
+    public int getHintsUsed() {
+        return hintsUsed;
+    }
+
+    /**
+     * Saves the time played, the hints and the errors in the journal, if there is one.
+     */
+    public void saveProgress() {
+        if (journal != null) {
+            try {
+                journal.recordProgress(getElapsedMillis(), hintsUsed, errorCount);
+            } catch (IOException e) {
+                stopSaving(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the puzzle and move history of this game.
+     * @return the current game state
+     */
+    public GameState getState() {
+        return session.getState();
+    }
+
+    /**
+     * Returns the number of numbers rejected because they broke a rule, including before the game was resumed.
+     * @return the error count
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the Board instance associated with this game
+     * @return the current board of the game
+     */
+    public Board getBoard(){
+        return board;
+    }
+
+    /**
+     * Returns the list of TextField elements that represent the cells of the board.
+     * It is empty for renderers that do not use one control per cell.
+     * @return an ArrayList containing he board's number fields
+     */
+    public ArrayList<TextField> getNumberFields(){
+        return numberFields;
+    }
+
+    /**
+     * Finds the board cell an event was aimed at, walking up from inner skin nodes such as the cell's text.
+     *
+     * @param target The target of a key or mouse event on the board.
+     * @return the cell's TextField, or null if the event did not hit a cell
+     */
+    public TextField cellAt(EventTarget target) {
+        Node node = target instanceof Node ? (Node) target : null;
+        while (node != null && node.getParent() != boardGridpane) {
+            node = node.getParent();
+        }
+        return node instanceof TextField ? (TextField) node : null;
+    }
+
+    /**
+     * Returns the flat board index of a cell.
+     *
+     * @param cell A cell returned by {@link #cellAt(EventTarget)}.
+     * @return row * size + column
+     */
+    public int indexOf(TextField cell) {
+        Integer row = GridPane.getRowIndex(cell);
+        Integer col = GridPane.getColumnIndex(cell);
+        return (row == null ? 0 : row) * board.getSize() + (col == null ? 0 : col);
+    }
+
+    /**
+     * Plays a number typed by the player: the session checks the rules and updates the board, then
+     * the move is saved and the result reported. The caller updates its own view of the cell.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     * @param number The number typed, from 1 to the board size.
+     * @return true if the number was accepted, false if it breaks a rule
+     */
+    protected boolean enterNumber(int row, int col, int number) {
+        int index = row * board.getSize() + col;
+        if (isClue(index)) {
+            return false;
+        }
+        String symbol = String.valueOf(board.getGeometry().toSymbol(number));
+        GameState previous = session.getState();
+        GameSession.Outcome outcome = session.enter(index, number);
+        if (outcome == GameSession.Outcome.REJECTED) {
+            errorCount++;
+            saveProgress();
+            recordAction(ReplayLog.Action.REJECTED, index, number);
+            addMessage("✗ Numero " + symbol + " INVALIDO en la posicion.");
+            return false;
+        }
+        recordMove(previous, index, number);
+        addMessage("✓ Numero " + symbol + " valido en la posicion.");
+        checkVictory();
+        return true;
+    }
+
+    /**
+     * Empties a cell on the board and records the move.
+     *
+     * @param row The row index of the cell.
+     * @param col The column index of the cell.
+     */
+    protected void clearNumber(int row, int col) {
+        int index = row * board.getSize() + col;
+        if (isClue(index)) {
+            return;
+        }
+        GameState previous = session.getState();
+        session.clear(index);
+        recordMove(previous, index, 0);
+    }
+
+    /**
+     * @param index The flat index of the cell.
+     * @return true if the cell holds a clue of the puzzle
+     */
+    private boolean isClue(int index) {
+        return session.getPuzzle().getGiven(index) != 0;
+    }
+
+    /**
+     * Saves a move to the journal and the replay log. Repeated values, which leave the game state unchanged, are ignored.
+     *
+     * @param previous The game state before the move.
+     * @param index The flat index of the cell.
+     * @param number The number written, or 0 if the cell was cleared.
+     */
+    private void recordMove(GameState previous, int index, int number) {
+        if (session.getState() == previous) {
+            return;
+        }
+        if (journal != null) {
+            try {
+                journal.recordMove(index, number);
+            } catch (IOException e) {
+                stopSaving(e);
+            }
+        }
+        saveProgress();
+        recordAction(number != 0 ? ReplayLog.Action.ACCEPTED : ReplayLog.Action.CLEARED, index, number);
+    }
+
+    /**
+     * Adds an action to the replay log, if there is one. An action the journal also saved is written
+     * to the file at once, so after a crash the log still replays to the state the journal resumes;
+     * only rejected numbers typed since the last move can be lost.
+     *
+     * @param action What the player did.
+     * @param index The flat index of the cell, or 0 for undo and redo.
+     * @param number The number typed, or 0.
+     */
+    private void recordAction(ReplayLog.Action action, int index, int number) {
+        if (replayLog != null) {
+            try {
+                replayLog.record(action, index, number);
+                if (journal != null && action != ReplayLog.Action.REJECTED) {
+                    replayLog.flush();
+                }
+            } catch (IOException e) {
+                replayLog = null;
+                addMessage("No se pudo registrar la repetición: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Takes back the last move.
+     *
+     * @return true if a move was undone, false if there was none
+     */
+    public boolean undo() {
+        Move move = session.undo();
+        if (move == null) {
+            return false;
+        }
+        showCell(move.getCell(), move.getPrevious());
+        if (journal != null) {
+            try {
+                journal.recordUndo();
+            } catch (IOException e) {
+                stopSaving(e);
+            }
+        }
+        saveProgress();
+        recordAction(ReplayLog.Action.UNDO, 0, 0);
+        return true;
+    }
+
+    /**
+     * Plays the last undone move again.
+     *
+     * @return true if a move was redone, false if there was none
+     */
+    public boolean redo() {
+        Move move = session.redo();
+        if (move == null) {
+            return false;
+        }
+        showCell(move.getCell(), move.getValue());
+        if (journal != null) {
+            try {
+                journal.recordRedo();
+            } catch (IOException e) {
+                stopSaving(e);
+            }
+        }
+        saveProgress();
+        recordAction(ReplayLog.Action.REDO, 0, 0);
+        checkVictory();
+        return true;
+    }
+
+    /**
+     * Updates the view of one cell after the board changed outside of the player's typing,
+     * for example on undo or redo. Renderers override it.
+     *
+     * @param index The flat index of the cell.
+     * @param number The number the cell now holds, or 0 if it is empty.
+     */
+    protected void showCell(int index, int number) {
+    }
+
+    /**
+     * Shows a suggested number in a cell without writing it. Renderers override it.
+     *
+     * @param index The flat index of the cell.
+     * @param number The suggested number.
+     */
+    public void showHint(int index, int number) {
+    }
+
+    /**
+     * Removes the hint shown in a cell by {@link #showHint(int, int)}. Renderers override it.
+     *
+     * @param index The flat index of the cell.
+     */
+    public void clearHint(int index) {
+    }
+
+    /**
+     * Congratulates the player when the board is complete.
+     */
+    private void checkVictory() {
+        if (board.isComplete() && controller != null) {
+            controller.addMessage("¡Felicidades! Has completado el Sudoku.");
+            controller.showVictoryAlert();
+        }
+    }
+
+    /**
+     * Shows a message if a controller is attached.
+     *
+     * @param message the message to display
+     */
+    protected void addMessage(String message) {
+        if (controller != null) {
+            controller.addMessage(message);
+        }
+    }
+
+    /**
+     * Stops saving after the journal failed, so the game can go on without autosave.
+     *
+     * @param e the error raised by the journal
+     */
+    private void stopSaving(IOException e) {
+        journal = null;
+        addMessage("No se pudo guardar la partida: " + e.getMessage());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demosudoku.utils;
+
+/**
+ * Defines the contract for the log of game messages shown to the player.
+ */
+public interface IMessageLog {
+    /**
+     * Queues a message for display. It may be called from any thread.
+     *
+     * @param message The text to show.
+     */
+    void post(String message);
+
+    /**
+     * Removes every shown and queued message.
+     */
+    void clear();
+}
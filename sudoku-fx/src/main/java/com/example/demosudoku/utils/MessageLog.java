@@ -0,0 +1,159 @@
+package com.example.demosudoku.utils;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListView;
+
+/**
+ * A message log that batches messages and shows them in a {@link ListView}.
+ * <p>
+ * Posted messages go into a bounded ring buffer and are flushed to the list once per pulse
+ * by an {@link AnimationTimer}, which runs only while messages are waiting. Repeated messages
+ * are merged into one entry with a counter. If more messages arrive within a pulse than the
+ * buffer holds, the oldest are dropped and reported as one entry. The list keeps only the most
+ * recent entries, and because the ListView is virtualized, display cost stays the same however
+ * long the game lasts.
+ */
+public class MessageLog implements IMessageLog {
+    private final ListView<String> view;
+    private final int maxEntries;
+
+    // Ring buffer of pending messages and how many times each was posted in a row, guarded by this.
+    private final String[] pending;
+    private final int[] repeats;
+    private int head;
+    private int size;
+    private int dropped;
+    private boolean scheduled;
+
+    // Last entry shown, used to merge a repeat that arrives in a later pulse. Only used on the FX thread.
+    private String lastMessage;
+    private int lastRepeats;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    /**
+     * Creates a log that shows its messages in the given list.
+     *
+     * @param view The list where messages are shown.
+     * @param maxEntries How many entries the list keeps.
+     * @param bufferSize How many distinct messages can wait for the next pulse.
+     */
+    public MessageLog(ListView<String> view, int maxEntries, int bufferSize) {
+        this.view = view;
+        this.maxEntries = maxEntries;
+        this.pending = new String[bufferSize];
+        this.repeats = new int[bufferSize];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void post(String message) {
+        synchronized (this) {
+            int last = (head + size - 1) % pending.length;
+            if (size > 0 && pending[last].equals(message)) {
+                repeats[last]++;
+            } else {
+                if (size == pending.length) {
+                    pending[head] = null;
+                    head = (head + 1) % pending.length;
+                    size--;
+                    dropped++;
+                }
+                int tail = (head + size) % pending.length;
+                pending[tail] = message;
+                repeats[tail] = 1;
+                size++;
+            }
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        if (Platform.isFxApplicationThread()) {
+            timer.start();
+        } else {
+            Platform.runLater(timer::start);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        synchronized (this) {
+            for (int i = 0; i < size; i++) {
+                pending[(head + i) % pending.length] = null;
+            }
+            head = 0;
+            size = 0;
+            dropped = 0;
+        }
+        lastMessage = null;
+        lastRepeats = 0;
+        view.getItems().clear();
+    }
+
+    /**
+     * Moves the pending messages into the list, on the FX thread.
+     */
+    private void flush() {
+        String[] batch;
+        int[] counts;
+        int skipped;
+        synchronized (this) {
+            batch = new String[size];
+            counts = new int[size];
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) % pending.length;
+                batch[i] = pending[slot];
+                counts[i] = repeats[slot];
+                pending[slot] = null;
+            }
+            skipped = dropped;
+            head = 0;
+            size = 0;
+            dropped = 0;
+            scheduled = false;
+            timer.stop();
+        }
+
+        ObservableList<String> items = view.getItems();
+        if (skipped > 0) {
+            lastMessage = null;
+            items.add("… " + skipped + " mensajes omitidos");
+        }
+        int start = 0;
+        if (batch.length > 0 && !items.isEmpty() && batch[0].equals(lastMessage)) {
+            lastRepeats += counts[0];
+            items.set(items.size() - 1, format(lastMessage, lastRepeats));
+            start = 1;
+        }
+        if (start < batch.length) {
+            String[] entries = new String[batch.length - start];
+            for (int i = start; i < batch.length; i++) {
+                entries[i - start] = format(batch[i], counts[i]);
+            }
+            items.addAll(entries);
+            lastMessage = batch[batch.length - 1];
+            lastRepeats = counts[batch.length - 1];
+        }
+        if (items.size() > maxEntries) {
+            items.remove(0, items.size() - maxEntries);
+        }
+        view.scrollTo(items.size() - 1);
+    }
+
+    private static String format(String message, int count) {
+        return count == 1 ? message : message + " (×" + count + ")";
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.demosudoku.view;
+
+import com.example.demosudoku.model.board.BoardGeometry;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Draws a whole Sudoku board on a single {@link Canvas}: clues, the player's numbers, pencil marks,
+ * rejected numbers and the hint, with thick borders around each block.
+ * <p>
+ * The canvas keeps the state of every cell in flat arrays indexed like the board. A change only
+ * marks its cell as dirty, and an {@link AnimationTimer}, running only while there is something
+ * to draw, repaints the dirty cells once per pulse. Resizing redraws the whole board. Fonts are
+ * created once per cell size, so a frame allocates nothing.
+ * <p>
+ * The board has keyboard focus after a click. The arrow keys move the selection, a board symbol is
+ * sent to the {@link InputListener}, Backspace or Delete clears the cell, Space switches to pencil
+ * mode, where symbols toggle pencil marks instead, and F2 shows every candidate left in each empty cell.
+ */
+public class BoardCanvas extends Canvas {
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color GIVEN_BACKGROUND = Color.web("#d3d3d3");
+    private static final Color SELECTED_BACKGROUND = Color.web("#cfe3f7");
+    private static final Color CONFLICT_BACKGROUND = Color.web("#f4b6b6");
+    private static final Color HINT_BACKGROUND = Color.web("#fbf7c4");
+    private static final Color GIVEN_TEXT = Color.BLACK;
+    private static final Color PLAYER_TEXT = Color.web("#5e2129");
+    private static final Color CONFLICT_TEXT = Color.web("#b00020");
+    private static final Color PENCIL_TEXT = Color.web("#555555");
+    private static final Color CANDIDATE_TEXT = Color.web("#9a9a9a");
+    private static final Color CELL_LINE = Color.web("#b0b0b0");
+    private static final Color BLOCK_LINE = Color.web("#5e2129");
+    private static final double CELL_LINE_WIDTH = 1;
+    private static final double BLOCK_LINE_WIDTH = 3;
+
+    /**
+     * Receives the numbers the player writes on the board.
+     */
+    public interface InputListener {
+        /**
+         * Called when a board symbol is typed in the selected cell outside pencil mode.
+         *
+         * @param cell The flat index of the cell.
+         * @param number The number typed, from 1 to the board size.
+         */
+        void numberTyped(int cell, int number);
+
+        /**
+         * Called when the selected cell is cleared with Backspace or Delete.
+         *
+         * @param cell The flat index of the cell.
+         */
+        void cellCleared(int cell);
+    }
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final IntUnaryOperator candidates;
+    private InputListener listener;
+
+    private final byte[] values;
+    private final boolean[] given;
+    private final int[] pencilMarks;
+    private final byte[] conflicts;
+    private final byte[] hints;
+
+    // Cells waiting to be repainted, without duplicates.
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+    private boolean fullRepaint = true;
+    private boolean scheduled;
+
+    private int selected = -1;
+    private boolean pencilMode;
+    private boolean showCandidates;
+
+    // Layout and fonts of the current size.
+    private double originX;
+    private double originY;
+    private double cellSize;
+    private Font valueFont;
+    private Font givenFont;
+    private Font markFont;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            paint();
+        }
+    };
+
+    /**
+     * Creates an empty board.
+     *
+     * @param geometry The size and block shape of the board.
+     * @param candidates Returns the mask of numbers that still fit a cell, with bit n set for number n.
+     */
+    public BoardCanvas(BoardGeometry geometry, IntUnaryOperator candidates) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.candidates = candidates;
+        int cells = geometry.getCellCount();
+        this.values = new byte[cells];
+        this.given = new boolean[cells];
+        this.pencilMarks = new int[cells];
+        this.conflicts = new byte[cells];
+        this.hints = new byte[cells];
+        this.dirty = new boolean[cells];
+        this.dirtyCells = new int[cells];
+
+        setFocusTraversable(true);
+        widthProperty().addListener((observable, oldValue, newValue) -> invalidateAll());
+        heightProperty().addListener((observable, oldValue, newValue) -> invalidateAll());
+        addEventHandler(MouseEvent.MOUSE_PRESSED, this::handleMousePressed);
+        addEventHandler(KeyEvent.KEY_PRESSED, this::handleKeyPressed);
+        addEventHandler(KeyEvent.KEY_TYPED, this::handleKeyTyped);
+    }
+
+    /**
+     * The canvas takes whatever size its parent gives it.
+     */
+    @Override
+    public boolean isResizable() {
+        return true;
+    }
+
+    @Override
+    public double prefWidth(double height) {
+        return getWidth();
+    }
+
+    @Override
+    public double prefHeight(double width) {
+        return getHeight();
+    }
+
+    @Override
+    public void resize(double width, double height) {
+        setWidth(width);
+        setHeight(height);
+    }
+
+    /**
+     * Sets the listener that receives the numbers the player writes.
+     *
+     * @param listener the listener, or null
+     */
+    public void setInputListener(InputListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Shows a number in a cell.
+     *
+     * @param cell The flat index of the cell.
+     * @param number The number, or 0 to empty the cell.
+     * @param isGiven Whether the number is a clue of the puzzle.
+     */
+    public void setCell(int cell, int number, boolean isGiven) {
+        if (values[cell] == number && given[cell] == isGiven && conflicts[cell] == 0) {
+            return;
+        }
+        values[cell] = (byte) number;
+        given[cell] = isGiven;
+        conflicts[cell] = 0;
+        markDirty(cell);
+        if (showCandidates) {
+            markPeersDirty(cell);
+        }
+    }
+
+    /**
+     * Shows a number the rules reject in a cell, until the cell changes again.
+     *
+     * @param cell The flat index of the cell.
+     * @param number The rejected number, or 0 to remove the mark.
+     */
+    public void setConflict(int cell, int number) {
+        if (conflicts[cell] != number) {
+            conflicts[cell] = (byte) number;
+            markDirty(cell);
+        }
+    }
+
+    /**
+     * Shows a suggested number in an empty cell.
+     *
+     * @param cell The flat index of the cell.
+     * @param number The suggested number, or 0 to remove the hint.
+     */
+    public void setHint(int cell, int number) {
+        if (hints[cell] != number) {
+            hints[cell] = (byte) number;
+            markDirty(cell);
+        }
+    }
+
+    /**
+     * Shows or hides every candidate left in the empty cells.
+     *
+     * @param show true to show the candidates instead of the pencil marks
+     */
+    public void setShowCandidates(boolean show) {
+        if (showCandidates != show) {
+            showCandidates = show;
+            invalidateAll();
+        }
+    }
+
+    /**
+     * @return whether the candidates are shown instead of the pencil marks
+     */
+    public boolean isShowCandidates() {
+        return showCandidates;
+    }
+
+    /**
+     * @return whether typed symbols toggle pencil marks
+     */
+    public boolean isPencilMode() {
+        return pencilMode;
+    }
+
+    private void handleMousePressed(MouseEvent event) {
+        int cell = cellAt(event.getX(), event.getY());
+        if (cell >= 0) {
+            select(cell);
+        }
+        requestFocus();
+        event.consume();
+    }
+
+    private void handleKeyPressed(KeyEvent event) {
+        if (event.isShortcutDown()) {
+            return;
+        }
+        KeyCode code = event.getCode();
+        if (code == KeyCode.SPACE) {
+            pencilMode = !pencilMode;
+        } else if (code == KeyCode.F2) {
+            setShowCandidates(!showCandidates);
+        } else if (code.isArrowKey()) {
+            moveSelection(code);
+        } else if (code == KeyCode.BACK_SPACE || code == KeyCode.DELETE) {
+            if (selected >= 0 && !given[selected]) {
+                if (conflicts[selected] != 0) {
+                    // Removes the rejected number and shows the cell's number again.
+                    setConflict(selected, 0);
+                } else if (values[selected] == 0) {
+                    pencilMarks[selected] = 0;
+                    markDirty(selected);
+                } else if (listener != null) {
+                    listener.cellCleared(selected);
+                }
+            }
+        } else {
+            return;
+        }
+        event.consume();
+    }
+
+    private void handleKeyTyped(KeyEvent event) {
+        String input = event.getCharacter();
+        if (event.isShortcutDown() || input.isEmpty() || selected < 0 || given[selected]) {
+            return;
+        }
+        int number = geometry.fromSymbol(input.charAt(0));
+        if (number < 0) {
+            return;
+        }
+        if (pencilMode) {
+            if (values[selected] == 0) {
+                pencilMarks[selected] ^= 1 << number;
+                markDirty(selected);
+            }
+        } else if (listener != null) {
+            listener.numberTyped(selected, number);
+        }
+        event.consume();
+    }
+
+    private void moveSelection(KeyCode code) {
+        if (selected < 0) {
+            select(0);
+            return;
+        }
+        int row = geometry.rowOf(selected);
+        int col = geometry.colOf(selected);
+        switch (code) {
+            case UP:
+            case KP_UP:
+                row = (row + size - 1) % size;
+                break;
+            case DOWN:
+            case KP_DOWN:
+                row = (row + 1) % size;
+                break;
+            case LEFT:
+            case KP_LEFT:
+                col = (col + size - 1) % size;
+                break;
+            default:
+                col = (col + 1) % size;
+                break;
+        }
+        select(row * size + col);
+    }
+
+    private void select(int cell) {
+        if (selected == cell) {
+            return;
+        }
+        if (selected >= 0) {
+            markDirty(selected);
+        }
+        selected = cell;
+        markDirty(cell);
+    }
+
+    private int cellAt(double x, double y) {
+        if (cellSize <= 0) {
+            return -1;
+        }
+        int col = (int) Math.floor((x - originX) / cellSize);
+        int row = (int) Math.floor((y - originY) / cellSize);
+        return row >= 0 && row < size && col >= 0 && col < size ? row * size + col : -1;
+    }
+
+    private void markDirty(int cell) {
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+        schedule();
+    }
+
+    /**
+     * Marks the row, column and block of a cell, whose candidates change with it.
+     */
+    private void markPeersDirty(int cell) {
+        int row = geometry.rowOf(cell);
+        int col = geometry.colOf(cell);
+        for (int i = 0; i < size; i++) {
+            markDirty(row * size + i);
+            markDirty(i * size + col);
+        }
+        int origin = geometry.blockOrigin(geometry.blockOf(cell));
+        for (int r = 0; r < geometry.getBlockRows(); r++) {
+            for (int c = 0; c < geometry.getBlockCols(); c++) {
+                markDirty(origin + r * size + c);
+            }
+        }
+    }
+
+    private void invalidateAll() {
+        fullRepaint = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Draws what changed since the last pulse and stops the timer.
+     */
+    private void paint() {
+        timer.stop();
+        scheduled = false;
+        GraphicsContext gc = getGraphicsContext2D();
+        if (fullRepaint) {
+            fullRepaint = false;
+            layout();
+            gc.clearRect(0, 0, getWidth(), getHeight());
+            if (cellSize > 0) {
+                gc.setFill(BACKGROUND);
+                gc.fillRect(originX, originY, cellSize * size, cellSize * size);
+                for (int cell = 0; cell < values.length; cell++) {
+                    paintCell(gc, cell);
+                }
+                paintLines(gc);
+            }
+        } else {
+            for (int i = 0; i < dirtyCount; i++) {
+                paintCell(gc, dirtyCells[i]);
+            }
+        }
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyCells[i]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * Centers the largest square board that fits and sizes the fonts for it.
+     */
+    private void layout() {
+        double side = Math.min(getWidth(), getHeight()) - BLOCK_LINE_WIDTH;
+        double newSize = side > 0 ? Math.floor(side / size) : 0;
+        originX = Math.floor((getWidth() - newSize * size) / 2);
+        originY = Math.floor((getHeight() - newSize * size) / 2);
+        if (newSize != cellSize && newSize > 0) {
+            int marksPerSide = Math.max(geometry.getBlockRows(), geometry.getBlockCols());
+            valueFont = Font.font("System", FontWeight.NORMAL, newSize * 0.6);
+            givenFont = Font.font("System", FontWeight.BOLD, newSize * 0.6);
+            markFont = Font.font("System", FontWeight.NORMAL, Math.max(4, newSize / marksPerSide * 0.8));
+        }
+        cellSize = newSize;
+    }
+
+    /**
+     * Paints the inside of one cell, leaving room for the lines around it.
+     */
+    private void paintCell(GraphicsContext gc, int cell) {
+        if (cellSize <= 0) {
+            return;
+        }
+        int row = geometry.rowOf(cell);
+        int col = geometry.colOf(cell);
+        double left = originX + col * cellSize + inset(col, geometry.getBlockCols(), true);
+        double top = originY + row * cellSize + inset(row, geometry.getBlockRows(), true);
+        double right = originX + (col + 1) * cellSize - inset(col + 1, geometry.getBlockCols(), false);
+        double bottom = originY + (row + 1) * cellSize - inset(row + 1, geometry.getBlockRows(), false);
+
+        Color background = BACKGROUND;
+        if (conflicts[cell] != 0) {
+            background = CONFLICT_BACKGROUND;
+        } else if (cell == selected) {
+            background = SELECTED_BACKGROUND;
+        } else if (given[cell]) {
+            background = GIVEN_BACKGROUND;
+        } else if (hints[cell] != 0) {
+            background = HINT_BACKGROUND;
+        }
+        gc.setFill(background);
+        gc.fillRect(left, top, right - left, bottom - top);
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        double centerX = originX + col * cellSize + cellSize / 2;
+        double centerY = originY + row * cellSize + cellSize / 2;
+        if (conflicts[cell] != 0) {
+            gc.setFont(valueFont);
+            gc.setFill(CONFLICT_TEXT);
+            gc.fillText(String.valueOf(geometry.toSymbol(conflicts[cell])), centerX, centerY);
+        } else if (values[cell] != 0) {
+            gc.setFont(given[cell] ? givenFont : valueFont);
+            gc.setFill(given[cell] ? GIVEN_TEXT : PLAYER_TEXT);
+            gc.fillText(String.valueOf(geometry.toSymbol(values[cell])), centerX, centerY);
+        } else if (hints[cell] != 0) {
+            gc.setFont(valueFont);
+            gc.setFill(CANDIDATE_TEXT);
+            gc.fillText(String.valueOf(geometry.toSymbol(hints[cell])), centerX, centerY);
+        } else {
+            int marks = showCandidates ? candidates.applyAsInt(cell) : pencilMarks[cell];
+            if (marks != 0) {
+                paintMarks(gc, marks, originX + col * cellSize, originY + row * cellSize,
+                        showCandidates ? CANDIDATE_TEXT : PENCIL_TEXT);
+            }
+        }
+    }
+
+    /**
+     * Paints small numbers in a mini grid shaped like a block, so every number keeps its place.
+     */
+    private void paintMarks(GraphicsContext gc, int marks, double cellX, double cellY, Color color) {
+        int markCols = geometry.getBlockCols();
+        int markRows = geometry.getBlockRows();
+        double markWidth = cellSize / markCols;
+        double markHeight = cellSize / markRows;
+        gc.setFont(markFont);
+        gc.setFill(color);
+        for (int number = 1; number <= size; number++) {
+            if ((marks & (1 << number)) != 0) {
+                int slot = number - 1;
+                double x = cellX + (slot % markCols + 0.5) * markWidth;
+                double y = cellY + (slot / markCols + 0.5) * markHeight;
+                gc.fillText(String.valueOf(geometry.toSymbol(number)), x, y);
+            }
+        }
+    }
+
+    /**
+     * Draws the thin lines between cells and the thick lines around blocks.
+     */
+    private void paintLines(GraphicsContext gc) {
+        double extent = cellSize * size;
+        gc.setStroke(CELL_LINE);
+        gc.setLineWidth(CELL_LINE_WIDTH);
+        for (int i = 1; i < size; i++) {
+            double offset = i * cellSize + CELL_LINE_WIDTH / 2;
+            gc.strokeLine(originX + offset, originY, originX + offset, originY + extent);
+            gc.strokeLine(originX, originY + offset, originX + extent, originY + offset);
+        }
+        gc.setStroke(BLOCK_LINE);
+        gc.setLineWidth(BLOCK_LINE_WIDTH);
+        for (int col = 0; col <= size; col += geometry.getBlockCols()) {
+            gc.strokeLine(originX + col * cellSize, originY, originX + col * cellSize, originY + extent);
+        }
+        for (int row = 0; row <= size; row += geometry.getBlockRows()) {
+            gc.strokeLine(originX, originY + row * cellSize, originX + extent, originY + row * cellSize);
+        }
+    }
+
+    /**
+     * Returns the space a cell leaves for the line at one of its edges. A block line is centered on
+     * the boundary; a cell line lies just after it, inside the following cell.
+     */
+    private static double inset(int boundary, int blockLength, boolean leading) {
+        if (boundary % blockLength == 0) {
+            return Math.ceil(BLOCK_LINE_WIDTH / 2);
+        }
+        return leading ? CELL_LINE_WIDTH : 0;
+    }
+}
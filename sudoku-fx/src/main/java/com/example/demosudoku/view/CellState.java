@@ -0,0 +1,36 @@
+package com.example.demosudoku.view;
+
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+
+/**
+ * The CSS states of a board cell, styled in sudoku-game.css. Hover uses the built-in
+ * {@code :hover} pseudo-class, so it needs no event handler.
+ */
+public final class CellState {
+    /** Style class shared by every board cell. */
+    public static final String STYLE_CLASS = "sudoku-cell";
+    /** A clue of the puzzle. */
+    public static final PseudoClass GIVEN = PseudoClass.getPseudoClass("given");
+    /** A cell the player can write in. */
+    public static final PseudoClass EDITABLE = PseudoClass.getPseudoClass("editable");
+    /** A cell whose last entry broke the rules. */
+    public static final PseudoClass CONFLICT = PseudoClass.getPseudoClass("conflict");
+    /** The cell suggested by the help button. */
+    public static final PseudoClass HINT = PseudoClass.getPseudoClass("hint");
+
+    private CellState() {
+    }
+
+    /**
+     * Prepares a node to be styled as a board cell.
+     *
+     * @param cell The cell node.
+     * @param given Whether the cell holds a clue.
+     */
+    public static void init(Node cell, boolean given) {
+        cell.getStyleClass().add(STYLE_CLASS);
+        cell.pseudoClassStateChanged(GIVEN, given);
+        cell.pseudoClassStateChanged(EDITABLE, !given);
+    }
+}
@@ -32,7 +32,9 @@ public class SudokuGameStage extends Stage {
         Scene scene = new Scene(root);
         setScene(scene);
         setTitle("Sudoku");
-        setResizable(false);
+        // A canvas board grows with the window; the TextField board keeps the layout of the FXML view.
+        setResizable(controller.isCanvasBoard());
+        setOnHidden(event -> controller.closeGame());
         getIcons().add(
                 new Image(String.valueOf(getClass().getResource("/com/example/demosudoku/favicon.png")))
         );